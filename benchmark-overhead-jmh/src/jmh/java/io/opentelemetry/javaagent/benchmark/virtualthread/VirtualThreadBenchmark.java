@@ -0,0 +1,93 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.javaagent.benchmark.virtualthread;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Starts a million virtual threads that all stay alive until the heap has been measured, and
+ * reports the retained heap per virtual thread as the {@code retainedBytesPerThread} secondary
+ * result. Compare with {@link VirtualThreadWithAgentDisabledBenchmark} to get the agent overhead.
+ * Requires running the benchmarks on JDK 21+.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@State(Scope.Benchmark)
+public class VirtualThreadBenchmark {
+
+  private static final int THREAD_COUNT = 1_000_000;
+
+  private MethodHandle newVirtualThreadPerTaskExecutor;
+
+  @AuxCounters(AuxCounters.Type.EVENTS)
+  @State(Scope.Thread)
+  public static class Memory {
+    public long retainedBytesPerThread;
+  }
+
+  @Setup
+  public void setup() throws ReflectiveOperationException {
+    // accessed through a method handle so that the benchmarks compile on older JDKs
+    newVirtualThreadPerTaskExecutor =
+        MethodHandles.publicLookup()
+            .findStatic(
+                Executors.class,
+                "newVirtualThreadPerTaskExecutor",
+                MethodType.methodType(ExecutorService.class));
+  }
+
+  @Benchmark
+  public void startMillionVirtualThreads(Memory memory) throws Throwable {
+    CountDownLatch started = new CountDownLatch(THREAD_COUNT);
+    CountDownLatch release = new CountDownLatch(1);
+    long heapBefore = usedHeap();
+
+    ExecutorService executor = (ExecutorService) newVirtualThreadPerTaskExecutor.invokeExact();
+    try {
+      for (int i = 0; i < THREAD_COUNT; i++) {
+        executor.execute(
+            () -> {
+              started.countDown();
+              try {
+                release.await();
+              } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+              }
+            });
+      }
+      started.await();
+      memory.retainedBytesPerThread = (usedHeap() - heapBefore) / THREAD_COUNT;
+    } finally {
+      release.countDown();
+      executor.shutdown();
+      executor.awaitTermination(1, TimeUnit.MINUTES);
+    }
+  }
+
+  private static long usedHeap() {
+    System.gc();
+    Runtime runtime = Runtime.getRuntime();
+    return runtime.totalMemory() - runtime.freeMemory();
+  }
+}
@@ -81,6 +81,10 @@ public class OverheadTests {
     GenericContainer<?> postgres = new PostgresContainer(NETWORK).build();
     postgres.start();
 
+    if (agent.hasCdsArchive()) {
+      doCdsTrainingRun(agent);
+    }
+
     GenericContainer<?> petclinic =
         new PetClinicRestContainer(NETWORK, collector, agent, namingConventions).build();
     long start = System.currentTimeMillis();
@@ -109,6 +113,20 @@ public class OverheadTests {
     postgres.stop();
   }
 
+  private void doCdsTrainingRun(Agent agent) throws Exception {
+    System.out.println("Creating the CDS archive for " + agent.getName() + "...");
+    GenericContainer<?> petclinic =
+        new PetClinicRestContainer(NETWORK, collector, agent, namingConventions)
+            .buildCdsTrainingRun();
+    petclinic.start();
+    // the archive is written when the VM exits gracefully
+    petclinic.execInContainer("kill", "1");
+    while (petclinic.isRunning()) {
+      TimeUnit.MILLISECONDS.sleep(500);
+    }
+    System.out.println("CDS archive created.");
+  }
+
   private void startRecording(Agent agent, GenericContainer<?> petclinic) throws Exception {
     Path outFile = namingConventions.container.jfrFile(agent);
     String[] command = {
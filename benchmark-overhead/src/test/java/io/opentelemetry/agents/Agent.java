@@ -22,11 +22,19 @@ public class Agent {
       new Agent("latest", "latest mainstream release", OTEL_LATEST);
   public static final Agent LATEST_SNAPSHOT =
       new Agent("snapshot", "latest available snapshot version from main");
+  public static final Agent LATEST_SNAPSHOT_CDS =
+      new Agent(
+          "snapshot-cds",
+          "latest available snapshot version from main, started with a CDS archive",
+          null,
+          Collections.emptyList(),
+          true);
 
   private final String name;
   private final String description;
   private final URL url;
   private final List<String> additionalJvmArgs;
+  private final boolean cdsArchive;
 
   public Agent(String name, String description) {
     this(name, description, null);
@@ -37,10 +45,24 @@ public class Agent {
   }
 
   public Agent(String name, String description, String url, List<String> additionalJvmArgs) {
+    this(name, description, url, additionalJvmArgs, false);
+  }
+
+  /**
+   * @param cdsArchive whether the application is started with a dynamic CDS archive that is
+   *     created by a training run before the application is started for the test
+   */
+  public Agent(
+      String name,
+      String description,
+      String url,
+      List<String> additionalJvmArgs,
+      boolean cdsArchive) {
     this.name = name;
     this.description = description;
     this.url = makeUrl(url);
     this.additionalJvmArgs = new ArrayList<>(additionalJvmArgs);
+    this.cdsArchive = cdsArchive;
   }
 
   public String getName() {
@@ -63,6 +85,10 @@ public class Agent {
     return Collections.unmodifiableList(additionalJvmArgs);
   }
 
+  public boolean hasCdsArchive() {
+    return cdsArchive;
+  }
+
   private static URL makeUrl(String url) {
     try {
       if (url == null) {
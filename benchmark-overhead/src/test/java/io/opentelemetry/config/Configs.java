@@ -17,6 +17,12 @@ public enum Configs {
           .description("compares no agent, latest stable, and latest snapshot agents")
           .withAgents(Agent.NONE, Agent.LATEST_RELEASE, Agent.LATEST_SNAPSHOT)
           .warmupSeconds(60)
+          .build()),
+  CDS(
+      TestConfig.builder()
+          .name("cds")
+          .description("compares the latest snapshot agent with and without a dynamic CDS archive")
+          .withAgents(Agent.LATEST_SNAPSHOT, Agent.LATEST_SNAPSHOT_CDS)
           .build());
 
   public final TestConfig config;
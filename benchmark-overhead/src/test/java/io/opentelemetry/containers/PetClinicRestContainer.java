@@ -44,6 +44,18 @@ public class PetClinicRestContainer {
   }
 
   public GenericContainer<?> build() throws Exception {
+    return build(false);
+  }
+
+  /**
+   * Builds a container that runs the application to create the dynamic CDS archive of the agent,
+   * the archive is written when the application is stopped.
+   */
+  public GenericContainer<?> buildCdsTrainingRun() throws Exception {
+    return build(true);
+  }
+
+  private GenericContainer<?> build(boolean cdsTraining) throws Exception {
 
     Optional<Path> agentJar = agentResolver.resolve(this.agent);
 
@@ -68,7 +80,7 @@ public class PetClinicRestContainer {
             .withEnv("spring_datasource_password", PostgresContainer.PASSWORD)
             .withEnv("spring_jpa_hibernate_ddl-auto", "none")
             .dependsOn(collector)
-            .withCommand(buildCommandline(agentJar));
+            .withCommand(buildCommandline(agentJar, cdsTraining));
 
     agentJar.ifPresent(
         agentPath ->
@@ -79,7 +91,7 @@ public class PetClinicRestContainer {
   }
 
   @NotNull
-  private String[] buildCommandline(Optional<Path> agentJar) {
+  private String[] buildCommandline(Optional<Path> agentJar, boolean cdsTraining) {
     List<String> result =
         new ArrayList<>(
             Arrays.asList(
@@ -90,6 +102,17 @@ public class PetClinicRestContainer {
                 "-Dotel.exporter.otlp.endpoint=http://collector:4317",
                 "-Dotel.resource.attributes=service.name=petclinic-otel-overhead"));
     result.addAll(this.agent.getAdditionalJvmArgs());
+    if (this.agent.hasCdsArchive()) {
+      String archive = namingConventions.container.cdsArchiveFile(this.agent).toString();
+      if (cdsTraining) {
+        result.add("-XX:ArchiveClassesAtExit=" + archive);
+        result.add("-Dotel.javaagent.experimental.cds-training.enabled=true");
+      } else {
+        result.add("-XX:SharedArchiveFile=" + archive);
+      }
+      // bootstrap classes are only archived when the agent jar is on the boot class path
+      agentJar.ifPresent(path -> result.add("-Xbootclasspath/a:/app/" + path.getFileName()));
+    }
     agentJar.ifPresent(path -> result.add("-javaagent:/app/" + path.getFileName()));
 
     result.add("-jar");
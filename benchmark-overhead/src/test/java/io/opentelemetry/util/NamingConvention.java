@@ -49,6 +49,16 @@ public class NamingConvention {
     return Paths.get(dir, "startup-time-" + agent.getName() + ".txt");
   }
 
+  /**
+   * Returns the path to the dynamic CDS archive that is created by the training run of a given
+   * agent.
+   *
+   * @param agent The agent to get the CDS archive for.
+   */
+  public Path cdsArchiveFile(Agent agent) {
+    return Paths.get(dir, "petclinic-" + agent.getName() + ".jsa");
+  }
+
   /** Returns the root path that this naming convention was configured with. */
   public String root() {
     return dir;
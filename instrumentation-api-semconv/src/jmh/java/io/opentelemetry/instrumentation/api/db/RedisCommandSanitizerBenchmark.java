@@ -0,0 +1,44 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.instrumentation.api.db;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@Fork(3)
+@Warmup(iterations = 10, time = 1)
+@Measurement(iterations = 5, time = 1)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@BenchmarkMode(Mode.Throughput)
+@State(Scope.Thread)
+public class RedisCommandSanitizerBenchmark {
+
+  private static final RedisCommandSanitizer SANITIZER = RedisCommandSanitizer.create(true);
+
+  private static final List<String> SET_ARGS = Arrays.asList("user:1234", "secret value");
+  private static final List<String> HMSET_ARGS =
+      Arrays.asList("user:1234", "name", "John", "email", "john@example.com", "age", "42");
+
+  @Benchmark
+  public String sanitize_set() {
+    return SANITIZER.sanitize("SET", SET_ARGS);
+  }
+
+  @Benchmark
+  public String sanitize_hmset() {
+    return SANITIZER.sanitize("HMSET", HMSET_ARGS);
+  }
+}
@@ -0,0 +1,60 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.instrumentation.api.db;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@Fork(3)
+@Warmup(iterations = 10, time = 1)
+@Measurement(iterations = 5, time = 1)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@BenchmarkMode(Mode.Throughput)
+@State(Scope.Thread)
+public class SqlStatementSanitizerBenchmark {
+
+  private static final SqlStatementSanitizer SANITIZER = SqlStatementSanitizer.create(true);
+
+  private static final String SHORT_STATEMENT =
+      "SELECT name, age FROM users WHERE id = 12345 AND status = 'active'";
+  private static final String LONG_STATEMENT = createLongStatement();
+
+  private static String createLongStatement() {
+    StringBuilder sb = new StringBuilder("SELECT u.id, u.name FROM users u WHERE");
+    for (int i = 0; i < 500; i++) {
+      sb.append(" u.column").append(i).append(" = '").append(i).append("' AND");
+    }
+    return sb.append(" 1 = 1").toString();
+  }
+
+  @Benchmark
+  public SqlStatementInfo sanitize_cached() {
+    return SANITIZER.sanitize(SHORT_STATEMENT);
+  }
+
+  @Benchmark
+  public SqlStatementInfo sanitize_uncached_short() {
+    return AutoSqlSanitizer.sanitize(SHORT_STATEMENT, SqlDialect.DEFAULT);
+  }
+
+  @Benchmark
+  public SqlStatementInfo sanitize_uncached_long() {
+    return AutoSqlSanitizer.sanitize(LONG_STATEMENT, SqlDialect.DEFAULT);
+  }
+
+  @Benchmark
+  public SqlStatementInfo sanitize_uncached_long_truncated() {
+    return AutoSqlSanitizer.sanitize(LONG_STATEMENT, SqlDialect.DEFAULT, 1024);
+  }
+}
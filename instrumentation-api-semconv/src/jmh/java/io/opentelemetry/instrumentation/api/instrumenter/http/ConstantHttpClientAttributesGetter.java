@@ -0,0 +1,67 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.instrumentation.api.instrumenter.http;
+
+import java.util.Collections;
+import java.util.List;
+import javax.annotation.Nullable;
+
+enum ConstantHttpClientAttributesGetter implements HttpClientAttributesGetter<Void, Void> {
+  INSTANCE;
+
+  @Override
+  public String getUrlFull(Void unused) {
+    return "https://opentelemetry.io:8443/users/1234?details=true";
+  }
+
+  @Override
+  public String getHttpRequestMethod(Void unused) {
+    return "GET";
+  }
+
+  @Override
+  public List<String> getHttpRequestHeader(Void unused, String name) {
+    if (name.equalsIgnoreCase("user-agent")) {
+      return Collections.singletonList("OpenTelemetryBot");
+    }
+    return Collections.emptyList();
+  }
+
+  @Override
+  public Integer getHttpResponseStatusCode(Void unused, Void unused2, @Nullable Throwable error) {
+    return 200;
+  }
+
+  @Override
+  public List<String> getHttpResponseHeader(Void unused, Void unused2, String name) {
+    if (name.equalsIgnoreCase("content-type")) {
+      return Collections.singletonList("application/json");
+    }
+    return Collections.emptyList();
+  }
+
+  @Override
+  public String getNetworkProtocolName(Void unused, @Nullable Void unused2) {
+    return "http";
+  }
+
+  @Override
+  public String getNetworkProtocolVersion(Void unused, @Nullable Void unused2) {
+    return "1.1";
+  }
+
+  @Nullable
+  @Override
+  public String getServerAddress(Void request) {
+    return "opentelemetry.io";
+  }
+
+  @Nullable
+  @Override
+  public Integer getServerPort(Void request) {
+    return 8443;
+  }
+}
@@ -0,0 +1,71 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.instrumentation.api.instrumenter.http;
+
+import java.util.Collections;
+import java.util.List;
+import javax.annotation.Nullable;
+
+enum ConstantHttpServerAttributesGetter implements HttpServerAttributesGetter<Void, Void> {
+  INSTANCE;
+
+  @Override
+  public String getUrlScheme(Void unused) {
+    return "https";
+  }
+
+  @Override
+  public String getUrlPath(Void unused) {
+    return "/users/1234";
+  }
+
+  @Override
+  public String getUrlQuery(Void unused) {
+    return "details=true";
+  }
+
+  @Override
+  public String getHttpRequestMethod(Void unused) {
+    return "GET";
+  }
+
+  @Override
+  public List<String> getHttpRequestHeader(Void unused, String name) {
+    if (name.equalsIgnoreCase("host")) {
+      return Collections.singletonList("opentelemetry.io:8080");
+    }
+    if (name.equalsIgnoreCase("user-agent")) {
+      return Collections.singletonList("OpenTelemetryBot");
+    }
+    if (name.equalsIgnoreCase("x-forwarded-for")) {
+      return Collections.singletonList("203.0.113.195, 70.41.3.18");
+    }
+    return Collections.emptyList();
+  }
+
+  @Override
+  public Integer getHttpResponseStatusCode(Void unused, Void unused2, @Nullable Throwable error) {
+    return 200;
+  }
+
+  @Override
+  public List<String> getHttpResponseHeader(Void unused, Void unused2, String name) {
+    if (name.equalsIgnoreCase("content-type")) {
+      return Collections.singletonList("application/json");
+    }
+    return Collections.emptyList();
+  }
+
+  @Override
+  public String getNetworkProtocolName(Void unused, @Nullable Void unused2) {
+    return "http";
+  }
+
+  @Override
+  public String getNetworkProtocolVersion(Void unused, @Nullable Void unused2) {
+    return "1.1";
+  }
+}
@@ -0,0 +1,57 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.instrumentation.api.instrumenter.http;
+
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.common.AttributesBuilder;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.instrumentation.api.instrumenter.AttributesExtractor;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@Fork(3)
+@Warmup(iterations = 10, time = 1)
+@Measurement(iterations = 5, time = 1)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@BenchmarkMode(Mode.Throughput)
+@State(Scope.Thread)
+public class HttpClientAttributesExtractorBenchmark {
+
+  private static final AttributesExtractor<Void, Void> EXTRACTOR =
+      HttpClientAttributesExtractor.create(ConstantHttpClientAttributesGetter.INSTANCE);
+
+  private static final AttributesExtractor<Void, Void> EXTRACTOR_WITH_HEADERS =
+      HttpClientAttributesExtractor.builder(ConstantHttpClientAttributesGetter.INSTANCE)
+          .setCapturedRequestHeaders(Collections.singletonList("user-agent"))
+          .setCapturedResponseHeaders(Collections.singletonList("content-type"))
+          .build();
+
+  @Benchmark
+  public Attributes onStartOnEnd() {
+    return extract(EXTRACTOR);
+  }
+
+  @Benchmark
+  public Attributes onStartOnEnd_capturedHeaders() {
+    return extract(EXTRACTOR_WITH_HEADERS);
+  }
+
+  private static Attributes extract(AttributesExtractor<Void, Void> extractor) {
+    AttributesBuilder attributes = Attributes.builder();
+    extractor.onStart(attributes, Context.root(), null);
+    extractor.onEnd(attributes, Context.root(), null, null, null);
+    return attributes.build();
+  }
+}
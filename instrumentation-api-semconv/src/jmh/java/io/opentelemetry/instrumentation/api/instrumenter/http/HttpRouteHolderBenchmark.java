@@ -0,0 +1,58 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.instrumentation.api.instrumenter.http;
+
+import io.opentelemetry.api.OpenTelemetry;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.instrumentation.api.instrumenter.Instrumenter;
+import io.opentelemetry.instrumentation.api.instrumenter.SpanKindExtractor;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@Fork(3)
+@Warmup(iterations = 10, time = 1)
+@Measurement(iterations = 5, time = 1)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@BenchmarkMode(Mode.Throughput)
+@State(Scope.Thread)
+public class HttpRouteHolderBenchmark {
+
+  private static final Instrumenter<Void, Void> INSTRUMENTER =
+      Instrumenter.<Void, Void>builder(
+              OpenTelemetry.noop(),
+              "benchmark",
+              HttpSpanNameExtractor.create(ConstantHttpServerAttributesGetter.INSTANCE))
+          .addContextCustomizer(HttpRouteHolder.create(ConstantHttpServerAttributesGetter.INSTANCE))
+          .buildInstrumenter(SpanKindExtractor.alwaysServer());
+
+  @Benchmark
+  public Context start() {
+    return INSTRUMENTER.start(Context.root(), null);
+  }
+
+  @Benchmark
+  public Context startAndUpdateRoute() {
+    Context context = INSTRUMENTER.start(Context.root(), null);
+    HttpRouteHolder.updateHttpRoute(context, HttpRouteSource.CONTROLLER, "/users/{id}");
+    return context;
+  }
+
+  @Benchmark
+  public Context startAndUpdateRouteTwice() {
+    Context context = INSTRUMENTER.start(Context.root(), null);
+    HttpRouteHolder.updateHttpRoute(context, HttpRouteSource.SERVLET, "/users/*");
+    HttpRouteHolder.updateHttpRoute(context, HttpRouteSource.CONTROLLER, "/users/{id}");
+    return context;
+  }
+}
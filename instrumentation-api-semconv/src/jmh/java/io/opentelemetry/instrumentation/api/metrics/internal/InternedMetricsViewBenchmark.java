@@ -0,0 +1,138 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.instrumentation.api.metrics.internal;
+
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.common.AttributesBuilder;
+import io.opentelemetry.semconv.trace.attributes.SemanticAttributes;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+// compares the interned view with building a new Attributes instance for every request, the way
+// the HTTP and RPC metrics views used to do it; with 20 routes all attribute sets are interned,
+// with 5000 routes they don't fit and the interned sets are cleared every 1000 new ones, the
+// contended variants run on 8 threads sharing the view
+@Fork(3)
+@Warmup(iterations = 10, time = 1)
+@Measurement(iterations = 5, time = 1)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@BenchmarkMode(Mode.Throughput)
+@State(Scope.Thread)
+@SuppressWarnings("rawtypes")
+public class InternedMetricsViewBenchmark {
+
+  private static final String[] METHODS = {"GET", "POST", "PUT", "DELETE"};
+  private static final long[] STATUS_CODES = {200, 201, 400, 404, 500};
+
+  private static final Set<AttributeKey> VIEW = buildView();
+  private static final InternedMetricsView INTERNED_VIEW = InternedMetricsView.create(VIEW);
+
+  @Param({"20", "5000"})
+  int routes;
+
+  private Attributes[] startAttributes;
+  private Attributes[] endAttributes;
+  private int index;
+
+  private static Set<AttributeKey> buildView() {
+    Set<AttributeKey> view = new HashSet<>();
+    view.add(SemanticAttributes.HTTP_METHOD);
+    view.add(SemanticAttributes.HTTP_STATUS_CODE);
+    view.add(SemanticAttributes.NET_PROTOCOL_NAME);
+    view.add(SemanticAttributes.NET_PROTOCOL_VERSION);
+    view.add(SemanticAttributes.HTTP_SCHEME);
+    view.add(SemanticAttributes.NET_HOST_NAME);
+    view.add(SemanticAttributes.NET_HOST_PORT);
+    view.add(SemanticAttributes.HTTP_ROUTE);
+    return view;
+  }
+
+  @Setup
+  public void setUp() {
+    // one attribute set for every (method, route, status) combination
+    int size = METHODS.length * STATUS_CODES.length * routes;
+    startAttributes = new Attributes[size];
+    endAttributes = new Attributes[size];
+    for (int i = 0; i < size; i++) {
+      int route = i % routes;
+      startAttributes[i] =
+          Attributes.builder()
+              .put(SemanticAttributes.HTTP_METHOD, METHODS[i % METHODS.length])
+              .put(SemanticAttributes.HTTP_SCHEME, "https")
+              .put(SemanticAttributes.HTTP_TARGET, "/api/resource" + route + "/" + i)
+              .put(SemanticAttributes.NET_HOST_NAME, "gateway")
+              .put(SemanticAttributes.NET_HOST_PORT, 443)
+              .put(SemanticAttributes.USER_AGENT_ORIGINAL, "benchmark")
+              .build();
+      endAttributes[i] =
+          Attributes.builder()
+              .put(SemanticAttributes.HTTP_ROUTE, "/api/resource" + route + "/{id}")
+              .put(SemanticAttributes.HTTP_STATUS_CODE, STATUS_CODES[i % STATUS_CODES.length])
+              .put(SemanticAttributes.NET_PROTOCOL_NAME, "http")
+              .put(SemanticAttributes.NET_PROTOCOL_VERSION, "1.1")
+              .build();
+    }
+  }
+
+  @Benchmark
+  public Attributes buildNewAttributes() {
+    int i = nextIndex();
+    AttributesBuilder filtered = Attributes.builder();
+    applyView(filtered, startAttributes[i]);
+    applyView(filtered, endAttributes[i]);
+    return filtered.build();
+  }
+
+  @Benchmark
+  public Attributes internedAttributes() {
+    int i = nextIndex();
+    return INTERNED_VIEW.apply(startAttributes[i], endAttributes[i]);
+  }
+
+  @Benchmark
+  @Threads(8)
+  public Attributes buildNewAttributes_contended() {
+    return buildNewAttributes();
+  }
+
+  @Benchmark
+  @Threads(8)
+  public Attributes internedAttributes_contended() {
+    return internedAttributes();
+  }
+
+  private int nextIndex() {
+    int i = index;
+    index = i + 1 == startAttributes.length ? 0 : i + 1;
+    return i;
+  }
+
+  @SuppressWarnings("unchecked")
+  private static void applyView(AttributesBuilder filtered, Attributes attributes) {
+    attributes.forEach(
+        (BiConsumer<AttributeKey, Object>)
+            (key, value) -> {
+              if (VIEW.contains(key)) {
+                filtered.put(key, value);
+              }
+            });
+  }
+}
@@ -5,9 +5,11 @@
 
 package io.opentelemetry.instrumentation.api.db;
 
+import static io.opentelemetry.instrumentation.api.internal.SupportabilityMetrics.CounterNames.SQL_STATEMENT_SANITIZER_CACHE_LOOKUP;
 import static io.opentelemetry.instrumentation.api.internal.SupportabilityMetrics.CounterNames.SQL_STATEMENT_SANITIZER_CACHE_MISS;
 
 import com.google.auto.value.AutoValue;
+import io.opentelemetry.instrumentation.api.internal.ConfigPropertiesUtil;
 import io.opentelemetry.instrumentation.api.internal.SupportabilityMetrics;
 import io.opentelemetry.instrumentation.api.internal.cache.Cache;
 import javax.annotation.Nullable;
@@ -19,8 +21,20 @@ import javax.annotation.Nullable;
 public final class SqlStatementSanitizer {
   private static final SupportabilityMetrics supportability = SupportabilityMetrics.instance();
 
-  private static final Cache<CacheKey, SqlStatementInfo> sqlToStatementInfoCache =
-      Cache.bounded(1000);
+  // when set, sanitized statements are cut short after this many characters once their operation
+  // and main identifier can no longer change
+  private static final int truncateAfter =
+      ConfigPropertiesUtil.getInt(
+          "otel.instrumentation.experimental.db-statement-sanitizer.truncate-after",
+          AutoSqlSanitizer.LIMIT);
+
+  // when set, the cache is bounded by the approximate size in bytes of the cached statements
+  // instead of the number of cached statements
+  private static final long cacheMaxBytes =
+      ConfigPropertiesUtil.getLong(
+          "otel.instrumentation.experimental.db-statement-sanitizer.cache-max-bytes", 0);
+
+  private static final Cache<CacheKey, SqlStatementInfo> sqlToStatementInfoCache = createCache();
 
   public static SqlStatementSanitizer create(boolean statementSanitizationEnabled) {
     return new SqlStatementSanitizer(statementSanitizationEnabled);
@@ -40,14 +54,31 @@ public final class SqlStatementSanitizer {
     if (!statementSanitizationEnabled || statement == null) {
       return SqlStatementInfo.create(statement, null, null);
     }
+    supportability.incrementCounter(SQL_STATEMENT_SANITIZER_CACHE_LOOKUP);
     return sqlToStatementInfoCache.computeIfAbsent(
         CacheKey.create(statement, dialect),
         k -> {
           supportability.incrementCounter(SQL_STATEMENT_SANITIZER_CACHE_MISS);
-          return AutoSqlSanitizer.sanitize(statement, dialect);
+          return AutoSqlSanitizer.sanitize(statement, dialect, truncateAfter);
         });
   }
 
+  private static Cache<CacheKey, SqlStatementInfo> createCache() {
+    if (cacheMaxBytes <= 0) {
+      // statements are sanitized on every database call, on many threads at once
+      return Cache.boundedTinyLfu(1000);
+    }
+    return Cache.weighted(cacheMaxBytes, SqlStatementSanitizer::weightOf);
+  }
+
+  // approximate number of bytes retained by the cache entry, assuming 2 bytes per character
+  private static int weightOf(CacheKey key, SqlStatementInfo value) {
+    String fullStatement = value.getFullStatement();
+    long chars =
+        (long) key.getStatement().length() + (fullStatement == null ? 0 : fullStatement.length());
+    return (int) Math.min(Integer.MAX_VALUE, Math.max(1, 2 * chars));
+  }
+
   @AutoValue
   abstract static class CacheKey {
 
@@ -7,14 +7,13 @@ package io.opentelemetry.instrumentation.api.instrumenter.http;
 
 import io.opentelemetry.api.common.AttributeKey;
 import io.opentelemetry.api.common.Attributes;
-import io.opentelemetry.api.common.AttributesBuilder;
 import io.opentelemetry.instrumentation.api.instrumenter.http.internal.HttpAttributes;
 import io.opentelemetry.instrumentation.api.instrumenter.network.internal.NetworkAttributes;
 import io.opentelemetry.instrumentation.api.instrumenter.url.internal.UrlAttributes;
+import io.opentelemetry.instrumentation.api.metrics.internal.InternedMetricsView;
 import io.opentelemetry.semconv.trace.attributes.SemanticAttributes;
 import java.util.HashSet;
 import java.util.Set;
-import java.util.function.BiConsumer;
 
 // this is temporary, see
 // https://github.com/open-telemetry/opentelemetry-java-instrumentation/issues/3962#issuecomment-906606325
@@ -22,9 +21,12 @@ import java.util.function.BiConsumer;
 final class TemporaryMetricsView {
 
   private static final Set<AttributeKey> durationAlwaysInclude = buildDurationAlwaysInclude();
-  private static final Set<AttributeKey> durationClientView = buildDurationClientView();
-  private static final Set<AttributeKey> durationServerView = buildDurationServerView();
-  private static final Set<AttributeKey> activeRequestsView = buildActiveRequestsView();
+  private static final InternedMetricsView durationClientView =
+      InternedMetricsView.create(buildDurationClientView());
+  private static final InternedMetricsView durationServerView =
+      InternedMetricsView.create(buildDurationServerView());
+  private static final InternedMetricsView activeRequestsView =
+      InternedMetricsView.create(buildActiveRequestsView());
 
   private static Set<AttributeKey> buildDurationAlwaysInclude() {
     // the list of included metrics is from
@@ -89,36 +91,16 @@ final class TemporaryMetricsView {
 
   static Attributes applyClientDurationAndSizeView(
       Attributes startAttributes, Attributes endAttributes) {
-    AttributesBuilder filtered = Attributes.builder();
-    applyView(filtered, startAttributes, durationClientView);
-    applyView(filtered, endAttributes, durationClientView);
-    return filtered.build();
+    return durationClientView.apply(startAttributes, endAttributes);
   }
 
   static Attributes applyServerDurationAndSizeView(
       Attributes startAttributes, Attributes endAttributes) {
-    AttributesBuilder filtered = Attributes.builder();
-    applyView(filtered, startAttributes, durationServerView);
-    applyView(filtered, endAttributes, durationServerView);
-    return filtered.build();
+    return durationServerView.apply(startAttributes, endAttributes);
   }
 
   static Attributes applyActiveRequestsView(Attributes attributes) {
-    AttributesBuilder filtered = Attributes.builder();
-    applyView(filtered, attributes, activeRequestsView);
-    return filtered.build();
-  }
-
-  @SuppressWarnings("unchecked")
-  private static void applyView(
-      AttributesBuilder filtered, Attributes attributes, Set<AttributeKey> view) {
-    attributes.forEach(
-        (BiConsumer<AttributeKey, Object>)
-            (key, value) -> {
-              if (view.contains(key)) {
-                filtered.put(key, value);
-              }
-            });
+    return activeRequestsView.apply(attributes);
   }
 
   private TemporaryMetricsView() {}
@@ -7,12 +7,11 @@ package io.opentelemetry.instrumentation.api.instrumenter.rpc;
 
 import io.opentelemetry.api.common.AttributeKey;
 import io.opentelemetry.api.common.Attributes;
-import io.opentelemetry.api.common.AttributesBuilder;
 import io.opentelemetry.instrumentation.api.instrumenter.network.internal.NetworkAttributes;
+import io.opentelemetry.instrumentation.api.metrics.internal.InternedMetricsView;
 import io.opentelemetry.semconv.trace.attributes.SemanticAttributes;
 import java.util.HashSet;
 import java.util.Set;
-import java.util.function.BiConsumer;
 
 // this is temporary, see
 // https://github.com/open-telemetry/opentelemetry-java-instrumentation/issues/3962#issuecomment-906606325
@@ -20,9 +19,12 @@ import java.util.function.BiConsumer;
 final class MetricsView {
 
   private static final Set<AttributeKey> alwaysInclude = buildAlwaysInclude();
-  private static final Set<AttributeKey> clientView = buildClientView();
-  private static final Set<AttributeKey> serverView = buildServerView();
-  private static final Set<AttributeKey> serverFallbackView = buildServerFallbackView();
+  private static final InternedMetricsView clientView =
+      InternedMetricsView.create(buildClientView());
+  private static final InternedMetricsView serverView =
+      InternedMetricsView.create(buildServerView());
+  private static final InternedMetricsView serverFallbackView =
+      InternedMetricsView.create(buildServerFallbackView());
 
   private static Set<AttributeKey> buildAlwaysInclude() {
     // the list of recommended metrics attributes is from
@@ -76,35 +78,15 @@ final class MetricsView {
   }
 
   static Attributes applyClientView(Attributes startAttributes, Attributes endAttributes) {
-    return applyView(clientView, startAttributes, endAttributes);
+    return clientView.apply(startAttributes, endAttributes);
   }
 
   static Attributes applyServerView(Attributes startAttributes, Attributes endAttributes) {
-    Set<AttributeKey> fullSet = serverView;
+    InternedMetricsView view = serverView;
     if (!containsAttribute(SemanticAttributes.NET_HOST_NAME, startAttributes, endAttributes)) {
-      fullSet = serverFallbackView;
+      view = serverFallbackView;
     }
-    return applyView(fullSet, startAttributes, endAttributes);
-  }
-
-  static Attributes applyView(
-      Set<AttributeKey> view, Attributes startAttributes, Attributes endAttributes) {
-    AttributesBuilder filtered = Attributes.builder();
-    applyView(filtered, startAttributes, view);
-    applyView(filtered, endAttributes, view);
-    return filtered.build();
-  }
-
-  @SuppressWarnings("unchecked")
-  private static void applyView(
-      AttributesBuilder filtered, Attributes attributes, Set<AttributeKey> view) {
-    attributes.forEach(
-        (BiConsumer<AttributeKey, Object>)
-            (key, value) -> {
-              if (view.contains(key)) {
-                filtered.put(key, value);
-              }
-            });
+    return view.apply(startAttributes, endAttributes);
   }
 
   private MetricsView() {}
@@ -0,0 +1,142 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.instrumentation.api.metrics.internal;
+
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.common.AttributesBuilder;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+import javax.annotation.Nullable;
+
+/**
+ * A metrics view that keeps only the attributes with the given keys, and that returns the same
+ * {@link Attributes} instance for the same set of kept attribute values. Metrics usually have a
+ * small number of distinct attribute sets, so instead of building a new {@link Attributes} for
+ * each recorded measurement, the projected attribute values are used to look up a previously built
+ * instance; reusing the instance also lets the SDK find the metric series with a cached hash code
+ * and an identity comparison.
+ *
+ * <p>Looking up an interned instance never locks. Once the view has interned the maximum number of
+ * attribute sets, the next new attribute set clears all of them and interning starts over, so that
+ * the attribute sets that are recorded after a burst of high cardinality values are interned again.
+ * There is no per-entry eviction bookkeeping, the interned sets are only cleared once per maximum
+ * number of new attribute sets.
+ *
+ * <p>This class is internal and is hence not for public use. Its APIs are unstable and can change
+ * at any time.
+ */
+@SuppressWarnings("rawtypes")
+public final class InternedMetricsView {
+
+  // the number of distinct attribute sets kept per view
+  private static final int DEFAULT_CAPACITY = 1000;
+
+  private final AttributeKey[] keys;
+  private final Map<AttributeKey, Integer> keyIndexes = new HashMap<>();
+  private final ConcurrentHashMap<ValuesKey, Attributes> interned = new ConcurrentHashMap<>();
+  private final int capacity;
+
+  public static InternedMetricsView create(Set<AttributeKey> view) {
+    return new InternedMetricsView(view, DEFAULT_CAPACITY);
+  }
+
+  // visible for testing
+  InternedMetricsView(Set<AttributeKey> view, int capacity) {
+    this.capacity = capacity;
+    keys = view.toArray(new AttributeKey[0]);
+    for (int i = 0; i < keys.length; i++) {
+      keyIndexes.put(keys[i], i);
+    }
+  }
+
+  /** Returns the attributes of {@code attributes} which are part of this view. */
+  public Attributes apply(Attributes attributes) {
+    Object[] values = new Object[keys.length];
+    collectValues(values, attributes);
+    return intern(values);
+  }
+
+  /**
+   * Returns the attributes of {@code startAttributes} and {@code endAttributes} which are part of
+   * this view. If an attribute is present in both, the value from {@code endAttributes} is used.
+   */
+  public Attributes apply(Attributes startAttributes, Attributes endAttributes) {
+    Object[] values = new Object[keys.length];
+    collectValues(values, startAttributes);
+    collectValues(values, endAttributes);
+    return intern(values);
+  }
+
+  @SuppressWarnings("unchecked")
+  private void collectValues(Object[] values, Attributes attributes) {
+    attributes.forEach(
+        (BiConsumer<AttributeKey, Object>)
+            (key, value) -> {
+              Integer index = keyIndexes.get(key);
+              if (index != null) {
+                values[index] = value;
+              }
+            });
+  }
+
+  private Attributes intern(Object[] values) {
+    ValuesKey valuesKey = new ValuesKey(values);
+    Attributes attributes = interned.get(valuesKey);
+    if (attributes != null) {
+      return attributes;
+    }
+    attributes = build(values);
+    if (interned.size() >= capacity) {
+      // start a new epoch, the attribute sets that are still in use are interned again
+      interned.clear();
+    }
+    Attributes previous = interned.putIfAbsent(valuesKey, attributes);
+    return previous != null ? previous : attributes;
+  }
+
+  @SuppressWarnings("unchecked")
+  private Attributes build(Object[] values) {
+    AttributesBuilder builder = Attributes.builder();
+    for (int i = 0; i < keys.length; i++) {
+      if (values[i] != null) {
+        builder.put(keys[i], values[i]);
+      }
+    }
+    return builder.build();
+  }
+
+  private static final class ValuesKey {
+    private final Object[] values;
+    private final int hashCode;
+
+    ValuesKey(Object[] values) {
+      this.values = values;
+      this.hashCode = Arrays.hashCode(values);
+    }
+
+    @Override
+    public boolean equals(@Nullable Object obj) {
+      if (this == obj) {
+        return true;
+      }
+      if (!(obj instanceof ValuesKey)) {
+        return false;
+      }
+      ValuesKey other = (ValuesKey) obj;
+      return hashCode == other.hashCode && Arrays.equals(values, other.values);
+    }
+
+    @Override
+    public int hashCode() {
+      return hashCode;
+    }
+  }
+}
@@ -99,6 +99,83 @@ public class SqlStatementSanitizerTest {
     assertThat(sanitized).doesNotContain("1234");
   }
 
+  @Test
+  void truncateAfterMainIdentifierIsKnown() {
+    StringBuilder sb = new StringBuilder("SELECT * FROM table WHERE");
+    for (int i = 0; i < 2000; i++) {
+      sb.append(" column").append(i).append("=123 and");
+    }
+
+    SqlStatementInfo result = AutoSqlSanitizer.sanitize(sb.toString(), SqlDialect.DEFAULT, 100);
+
+    assertThat(result.getOperation()).isEqualTo("SELECT");
+    assertThat(result.getMainIdentifier()).isEqualTo("table");
+    assertThat(result.getFullStatement())
+        .isEqualTo(sb.toString().replace("=123", "=?").substring(0, 100));
+  }
+
+  @Test
+  void truncateAfterDoesNotHideMainIdentifier() {
+    StringBuilder sb = new StringBuilder("SELECT");
+    for (int i = 0; i < 100; i++) {
+      sb.append(" column").append(i).append(",");
+    }
+    sb.append(" id FROM table");
+
+    SqlStatementInfo result = AutoSqlSanitizer.sanitize(sb.toString(), SqlDialect.DEFAULT, 100);
+
+    assertThat(result.getOperation()).isEqualTo("SELECT");
+    assertThat(result.getMainIdentifier()).isEqualTo("table");
+    assertThat(result.getFullStatement()).hasSize(100);
+  }
+
+  @Test
+  void truncateAfterDoesNotHideJoin() {
+    StringBuilder sb = new StringBuilder("SELECT * FROM table1 t1 /*");
+    for (int i = 0; i < 100; i++) {
+      sb.append(" comment");
+    }
+    sb.append(" */ JOIN table2 t2 ON t1.id = t2.id");
+
+    SqlStatementInfo result = AutoSqlSanitizer.sanitize(sb.toString(), SqlDialect.DEFAULT, 100);
+
+    assertThat(result.getOperation()).isEqualTo("SELECT");
+    // there's no main table when tables are joined
+    assertThat(result.getMainIdentifier()).isNull();
+    assertThat(result.getFullStatement()).hasSize(100);
+  }
+
+  @Test
+  void truncateAfterDoesNotHideTableList() {
+    StringBuilder sb = new StringBuilder("SELECT * FROM table1 /*");
+    for (int i = 0; i < 100; i++) {
+      sb.append(" comment");
+    }
+    sb.append(" */, table2 WHERE table1.id = table2.id");
+
+    SqlStatementInfo result = AutoSqlSanitizer.sanitize(sb.toString(), SqlDialect.DEFAULT, 100);
+
+    assertThat(result.getOperation()).isEqualTo("SELECT");
+    // there's no main table when tables are listed in the FROM clause
+    assertThat(result.getMainIdentifier()).isNull();
+    assertThat(result.getFullStatement()).hasSize(100);
+  }
+
+  @Test
+  void truncateAfterExtractionIsDone() {
+    StringBuilder sb = new StringBuilder("INSERT INTO table VALUES (");
+    for (int i = 0; i < 2000; i++) {
+      sb.append(i).append(", ");
+    }
+    sb.append("0)");
+
+    SqlStatementInfo result = AutoSqlSanitizer.sanitize(sb.toString(), SqlDialect.DEFAULT, 100);
+
+    assertThat(result.getOperation()).isEqualTo("INSERT");
+    assertThat(result.getMainIdentifier()).isEqualTo("table");
+    assertThat(result.getFullStatement()).hasSize(100);
+  }
+
   @Test
   void randomBytesDontCauseExceptionsOrTimeouts() {
     Random r = new Random(0);
@@ -0,0 +1,126 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.instrumentation.api.metrics.internal;
+
+import static io.opentelemetry.api.common.AttributeKey.longKey;
+import static io.opentelemetry.api.common.AttributeKey.stringKey;
+import static io.opentelemetry.sdk.testing.assertj.OpenTelemetryAssertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.common.Attributes;
+import java.util.HashSet;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+
+@SuppressWarnings("rawtypes")
+class InternedMetricsViewTest {
+
+  private static final AttributeKey<String> METHOD = stringKey("method");
+  private static final AttributeKey<String> ROUTE = stringKey("route");
+  private static final AttributeKey<Long> STATUS = longKey("status");
+  private static final AttributeKey<String> URL = stringKey("url");
+
+  private static InternedMetricsView createView() {
+    return InternedMetricsView.create(viewKeys());
+  }
+
+  private static Set<AttributeKey> viewKeys() {
+    Set<AttributeKey> view = new HashSet<>();
+    view.add(METHOD);
+    view.add(ROUTE);
+    view.add(STATUS);
+    return view;
+  }
+
+  @Test
+  void shouldKeepOnlyViewAttributes() {
+    InternedMetricsView view = createView();
+
+    Attributes startAttributes =
+        Attributes.builder().put(METHOD, "GET").put(URL, "https://host/users/123").build();
+    Attributes endAttributes = Attributes.builder().put(ROUTE, "/users/{id}").build();
+
+    assertThat(view.apply(startAttributes, endAttributes))
+        .containsOnly(entry(METHOD, "GET"), entry(ROUTE, "/users/{id}"));
+    assertThat(view.apply(startAttributes)).containsOnly(entry(METHOD, "GET"));
+  }
+
+  @Test
+  void shouldPreferEndAttributes() {
+    InternedMetricsView view = createView();
+
+    Attributes startAttributes = Attributes.builder().put(ROUTE, "/users/*").build();
+    Attributes endAttributes = Attributes.builder().put(ROUTE, "/users/{id}").build();
+
+    assertThat(view.apply(startAttributes, endAttributes))
+        .containsOnly(entry(ROUTE, "/users/{id}"));
+  }
+
+  @Test
+  void shouldReturnSameInstanceForSameValues() {
+    InternedMetricsView view = createView();
+
+    Attributes first =
+        view.apply(
+            Attributes.builder().put(METHOD, "GET").put(URL, "https://host/users/1").build(),
+            Attributes.builder().put(STATUS, 200).build());
+    Attributes second =
+        view.apply(
+            Attributes.builder().put(METHOD, "GET").put(URL, "https://host/users/2").build(),
+            Attributes.builder().put(STATUS, 200).build());
+    Attributes other =
+        view.apply(
+            Attributes.builder().put(METHOD, "GET").build(),
+            Attributes.builder().put(STATUS, 404).build());
+
+    assertThat(second).isSameAs(first);
+    assertThat(other).isNotSameAs(first);
+    assertThat(other).containsOnly(entry(METHOD, "GET"), entry(STATUS, 404L));
+  }
+
+  @Test
+  void shouldStartOverWhenFull() {
+    InternedMetricsView view = new InternedMetricsView(viewKeys(), 2);
+
+    Attributes get = view.apply(Attributes.builder().put(METHOD, "GET").build());
+    Attributes post = view.apply(Attributes.builder().put(METHOD, "POST").build());
+    assertThat(view.apply(Attributes.builder().put(METHOD, "GET").build())).isSameAs(get);
+    assertThat(view.apply(Attributes.builder().put(METHOD, "POST").build())).isSameAs(post);
+
+    Attributes put = view.apply(Attributes.builder().put(METHOD, "PUT").build());
+    assertThat(view.apply(Attributes.builder().put(METHOD, "PUT").build())).isSameAs(put);
+    Attributes otherGet = view.apply(Attributes.builder().put(METHOD, "GET").build());
+    assertThat(otherGet).isNotSameAs(get);
+    assertThat(otherGet).isEqualTo(get);
+    assertThat(otherGet).containsOnly(entry(METHOD, "GET"));
+  }
+
+  @Test
+  void shouldInternSteadyStateAfterBurst() {
+    InternedMetricsView view = new InternedMetricsView(viewKeys(), 10);
+
+    // e.g. a misconfigured route template that contains ids for a while
+    for (int i = 0; i < 1000; i++) {
+      view.apply(Attributes.builder().put(METHOD, "GET").put(ROUTE, "/users/" + i).build());
+    }
+
+    Attributes users =
+        view.apply(Attributes.builder().put(METHOD, "GET").put(ROUTE, "/users/{id}").build());
+    Attributes orders =
+        view.apply(Attributes.builder().put(METHOD, "GET").put(ROUTE, "/orders/{id}").build());
+    for (int i = 0; i < 100; i++) {
+      assertThat(
+              view.apply(
+                  Attributes.builder().put(METHOD, "GET").put(ROUTE, "/users/{id}").build()))
+          .isSameAs(users);
+      assertThat(
+              view.apply(
+                  Attributes.builder().put(METHOD, "GET").put(ROUTE, "/orders/{id}").build()))
+          .isSameAs(orders);
+    }
+  }
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.instrumentation.api.cache;
+
+import io.opentelemetry.instrumentation.api.internal.cache.Cache;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+// compares the ConcurrentLinkedHashMap based Cache.bounded() with Cache.boundedTinyLfu() under a
+// read-mostly, skewed workload similar to the one produced by the sql sanitizer cache
+@Fork(3)
+@Warmup(iterations = 10, time = 1)
+@Measurement(iterations = 5, time = 1)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@BenchmarkMode(Mode.Throughput)
+public class BoundedCacheBenchmark {
+
+  private static final int CAPACITY = 1000;
+  private static final int KEY_COUNT = 4 * CAPACITY;
+  // number of precomputed keys in a single thread's access sequence, must be a power of two
+  private static final int SEQUENCE_LENGTH = 1 << 16;
+
+  @State(Scope.Benchmark)
+  public static class CacheState {
+    @Param({"bounded", "boundedTinyLfu"})
+    public String implementation;
+
+    Cache<Integer, Integer> cache;
+
+    @Setup
+    public void setUp() {
+      cache =
+          implementation.equals("bounded")
+              ? Cache.bounded(CAPACITY)
+              : Cache.boundedTinyLfu(CAPACITY);
+      for (int i = 0; i < KEY_COUNT; i++) {
+        cache.put(i, i);
+      }
+    }
+  }
+
+  @State(Scope.Thread)
+  public static class ThreadState {
+    final Integer[] keys = new Integer[SEQUENCE_LENGTH];
+    int index;
+
+    @Setup
+    public void setUp() {
+      Random random = new Random(Thread.currentThread().getId());
+      for (int i = 0; i < SEQUENCE_LENGTH; i++) {
+        // skewed towards low keys, roughly following a power law
+        keys[i] = (int) (Math.pow(random.nextDouble(), 3) * KEY_COUNT);
+      }
+    }
+
+    Integer nextKey() {
+      return keys[index++ & (SEQUENCE_LENGTH - 1)];
+    }
+  }
+
+  @Benchmark
+  @Threads(1)
+  public Integer threads01(CacheState cacheState, ThreadState threadState) {
+    return computeIfAbsent(cacheState, threadState);
+  }
+
+  @Benchmark
+  @Threads(8)
+  public Integer threads08(CacheState cacheState, ThreadState threadState) {
+    return computeIfAbsent(cacheState, threadState);
+  }
+
+  @Benchmark
+  @Threads(16)
+  public Integer threads16(CacheState cacheState, ThreadState threadState) {
+    return computeIfAbsent(cacheState, threadState);
+  }
+
+  @Benchmark
+  @Threads(32)
+  public Integer threads32(CacheState cacheState, ThreadState threadState) {
+    return computeIfAbsent(cacheState, threadState);
+  }
+
+  @Benchmark
+  @Threads(64)
+  public Integer threads64(CacheState cacheState, ThreadState threadState) {
+    return computeIfAbsent(cacheState, threadState);
+  }
+
+  private static Integer computeIfAbsent(CacheState cacheState, ThreadState threadState) {
+    return cacheState.cache.computeIfAbsent(threadState.nextKey(), key -> key);
+  }
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.instrumentation.api.cache;
+
+import io.opentelemetry.instrumentation.api.internal.cache.concurrentlinkedhashmap.ConcurrentLinkedHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+@Fork(3)
+@Warmup(iterations = 10, time = 1)
+@Measurement(iterations = 5, time = 1)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@BenchmarkMode(Mode.Throughput)
+@State(Scope.Benchmark)
+public class ConcurrentLinkedHashMapBenchmark {
+
+  private static final int CAPACITY = 1000;
+
+  private ConcurrentLinkedHashMap<Integer, String> map;
+  private Integer[] keys;
+
+  @Setup
+  public void setUp() {
+    map =
+        new ConcurrentLinkedHashMap.Builder<Integer, String>()
+            .maximumWeightedCapacity(CAPACITY)
+            .build();
+    // twice as many keys as the map can hold, so that about half of the lookups are misses
+    keys = new Integer[2 * CAPACITY];
+    for (int i = 0; i < keys.length; i++) {
+      keys[i] = i;
+    }
+    for (int i = 0; i < CAPACITY; i++) {
+      map.put(keys[i], "value");
+    }
+  }
+
+  @Benchmark
+  @Threads(1)
+  public String threads01_get() {
+    return get();
+  }
+
+  @Benchmark
+  @Threads(8)
+  public String threads08_get() {
+    return get();
+  }
+
+  @Benchmark
+  @Threads(1)
+  public String threads01_computeIfAbsent() {
+    return computeIfAbsent();
+  }
+
+  @Benchmark
+  @Threads(8)
+  public String threads08_computeIfAbsent() {
+    return computeIfAbsent();
+  }
+
+  private String get() {
+    return map.get(keys[ThreadLocalRandom.current().nextInt(keys.length)]);
+  }
+
+  private String computeIfAbsent() {
+    return map.computeIfAbsent(
+        keys[ThreadLocalRandom.current().nextInt(keys.length)], k -> "value");
+  }
+}
@@ -0,0 +1,64 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.instrumentation.api.cache;
+
+import io.opentelemetry.instrumentation.api.internal.cache.weaklockfree.WeakConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@Fork(3)
+@Warmup(iterations = 10, time = 1)
+@Measurement(iterations = 5, time = 1)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@BenchmarkMode(Mode.Throughput)
+@State(Scope.Thread)
+public class WeakConcurrentMapBenchmark {
+
+  @Param({"true", "false"})
+  public boolean reuseKeys;
+
+  private WeakConcurrentMap<Object, Object> map;
+  private Object presentKey;
+  private Object absentKey;
+
+  @Setup
+  public void setUp() {
+    map = new WeakConcurrentMap<>(reuseKeys);
+    presentKey = new Object();
+    absentKey = new Object();
+    for (int i = 0; i < 1000; i++) {
+      map.put(new Object(), "value");
+    }
+    map.put(presentKey, "value");
+  }
+
+  @Benchmark
+  public Object get() {
+    return map.get(presentKey);
+  }
+
+  @Benchmark
+  public Object get_absent() {
+    return map.get(absentKey);
+  }
+
+  @Benchmark
+  public Object putAndRemove() {
+    Object key = new Object();
+    map.put(key, "value");
+    return map.remove(key);
+  }
+}
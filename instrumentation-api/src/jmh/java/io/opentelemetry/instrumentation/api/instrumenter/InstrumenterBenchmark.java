@@ -9,6 +9,7 @@ import io.opentelemetry.api.OpenTelemetry;
 import io.opentelemetry.context.Context;
 import io.opentelemetry.instrumentation.api.instrumenter.http.HttpClientAttributesExtractor;
 import io.opentelemetry.instrumentation.api.instrumenter.http.HttpClientAttributesGetter;
+import io.opentelemetry.instrumentation.api.instrumenter.http.HttpClientMetrics;
 import io.opentelemetry.instrumentation.api.instrumenter.http.HttpSpanNameExtractor;
 import java.net.InetSocketAddress;
 import java.util.Collections;
@@ -42,6 +43,39 @@ public class InstrumenterBenchmark {
               HttpClientAttributesExtractor.create(ConstantHttpAttributesGetter.INSTANCE))
           .buildInstrumenter();
 
+  private static final Instrumenter<Void, Void> REUSING_INSTRUMENTER =
+      Instrumenter.<Void, Void>builder(
+              OpenTelemetry.noop(),
+              "benchmark",
+              HttpSpanNameExtractor.create(ConstantHttpAttributesGetter.INSTANCE))
+          .addAttributesExtractor(
+              HttpClientAttributesExtractor.create(ConstantHttpAttributesGetter.INSTANCE))
+          .setReuseBuilders(true)
+          .buildInstrumenter();
+
+  // the http client metrics keep the start attributes in the context, so they get a copy of the
+  // reused builders; run with -prof gc to compare the allocations per operation
+  private static final Instrumenter<Void, Void> METRICS_INSTRUMENTER =
+      Instrumenter.<Void, Void>builder(
+              OpenTelemetry.noop(),
+              "benchmark",
+              HttpSpanNameExtractor.create(ConstantHttpAttributesGetter.INSTANCE))
+          .addAttributesExtractor(
+              HttpClientAttributesExtractor.create(ConstantHttpAttributesGetter.INSTANCE))
+          .addOperationMetrics(HttpClientMetrics.get())
+          .buildInstrumenter();
+
+  private static final Instrumenter<Void, Void> REUSING_METRICS_INSTRUMENTER =
+      Instrumenter.<Void, Void>builder(
+              OpenTelemetry.noop(),
+              "benchmark",
+              HttpSpanNameExtractor.create(ConstantHttpAttributesGetter.INSTANCE))
+          .addAttributesExtractor(
+              HttpClientAttributesExtractor.create(ConstantHttpAttributesGetter.INSTANCE))
+          .addOperationMetrics(HttpClientMetrics.get())
+          .setReuseBuilders(true)
+          .buildInstrumenter();
+
   @Benchmark
   public Context start() {
     return INSTRUMENTER.start(Context.root(), null);
@@ -54,6 +88,27 @@ public class InstrumenterBenchmark {
     return context;
   }
 
+  @Benchmark
+  public Context startEnd_reuseBuilders() {
+    Context context = REUSING_INSTRUMENTER.start(Context.root(), null);
+    REUSING_INSTRUMENTER.end(context, null, null, null);
+    return context;
+  }
+
+  @Benchmark
+  public Context startEnd_httpMetrics() {
+    Context context = METRICS_INSTRUMENTER.start(Context.root(), null);
+    METRICS_INSTRUMENTER.end(context, null, null, null);
+    return context;
+  }
+
+  @Benchmark
+  public Context startEnd_httpMetrics_reuseBuilders() {
+    Context context = REUSING_METRICS_INSTRUMENTER.start(Context.root(), null);
+    REUSING_METRICS_INSTRUMENTER.end(context, null, null, null);
+    return context;
+  }
+
   enum ConstantHttpAttributesGetter implements HttpClientAttributesGetter<Void, Void> {
     INSTANCE;
 
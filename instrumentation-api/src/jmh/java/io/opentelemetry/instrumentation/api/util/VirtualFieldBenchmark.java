@@ -0,0 +1,117 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.instrumentation.api.util;
+
+import io.opentelemetry.instrumentation.api.internal.cache.Cache;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.Nullable;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+// without the javaagent VirtualField.find() always returns the map based fallback implementation,
+// which is compared with a field that is injected into the owner class and with a weak cache
+@Fork(3)
+@Warmup(iterations = 10, time = 1)
+@Measurement(iterations = 5, time = 1)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@BenchmarkMode(Mode.Throughput)
+@State(Scope.Thread)
+public class VirtualFieldBenchmark {
+
+  @Param({"fallback", "injected", "weakCache"})
+  public String implementation;
+
+  private VirtualField<Owner, String> field;
+  private Owner owner;
+  private Owner ownerWithoutValue;
+
+  @Setup
+  public void setUp() {
+    switch (implementation) {
+      case "injected":
+        field = new InjectedField();
+        break;
+      case "weakCache":
+        field = new WeakCacheField();
+        break;
+      default:
+        field = VirtualField.find(Owner.class, String.class);
+    }
+    owner = new Owner();
+    ownerWithoutValue = new Owner();
+    field.set(owner, "value");
+  }
+
+  @Benchmark
+  public VirtualField<Owner, String> find() {
+    return VirtualField.find(Owner.class, String.class);
+  }
+
+  @Benchmark
+  public String get() {
+    return field.get(owner);
+  }
+
+  @Benchmark
+  public String get_absent() {
+    return field.get(ownerWithoutValue);
+  }
+
+  @Benchmark
+  public String setAndGet() {
+    Owner newOwner = new Owner();
+    field.set(newOwner, "value");
+    return field.get(newOwner);
+  }
+
+  static final class Owner {
+    // the field that the javaagent would add to the owner class
+    @Nullable String injectedField;
+  }
+
+  // same as the implementation that the javaagent generates for injected fields
+  static final class InjectedField extends VirtualField<Owner, String> {
+    @Override
+    @Nullable
+    public String get(Owner object) {
+      return object.injectedField;
+    }
+
+    @Override
+    public void set(Owner object, @Nullable String fieldValue) {
+      object.injectedField = fieldValue;
+    }
+  }
+
+  // the previous fallback implementation
+  static final class WeakCacheField extends VirtualField<Owner, String> {
+    private final Cache<Owner, String> cache = Cache.weak();
+
+    @Override
+    @Nullable
+    public String get(Owner object) {
+      return cache.get(object);
+    }
+
+    @Override
+    public void set(Owner object, @Nullable String fieldValue) {
+      if (fieldValue == null) {
+        cache.remove(object);
+      } else {
+        cache.put(object, fieldValue);
+      }
+    }
+  }
+}
@@ -6,6 +6,7 @@
 package io.opentelemetry.instrumentation.api.instrumenter;
 
 import io.opentelemetry.api.OpenTelemetry;
+import io.opentelemetry.api.common.Attributes;
 import io.opentelemetry.api.trace.Span;
 import io.opentelemetry.api.trace.SpanBuilder;
 import io.opentelemetry.api.trace.SpanKind;
@@ -16,6 +17,7 @@ import io.opentelemetry.instrumentation.api.internal.InstrumenterUtil;
 import io.opentelemetry.instrumentation.api.internal.SupportabilityMetrics;
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.ListIterator;
 import java.util.concurrent.TimeUnit;
@@ -74,11 +76,18 @@ public class Instrumenter<REQUEST, RESPONSE> {
   private final List<? extends SpanLinksExtractor<? super REQUEST>> spanLinksExtractors;
   private final List<? extends AttributesExtractor<? super REQUEST, ? super RESPONSE>>
       attributesExtractors;
+  private final List<? extends AttributesExtractor<? super REQUEST, ? super RESPONSE>>
+      samplingAttributesExtractors;
+  private final List<? extends AttributesExtractor<? super REQUEST, ? super RESPONSE>>
+      deferredAttributesExtractors;
+  private final List<? extends AttributesExtractor<? super REQUEST, ? super RESPONSE>>
+      listenerAttributesExtractors;
   private final List<? extends ContextCustomizer<? super REQUEST>> contextCustomizers;
   private final List<? extends OperationListener> operationListeners;
   private final ErrorCauseExtractor errorCauseExtractor;
   private final boolean enabled;
   private final SpanSuppressor spanSuppressor;
+  private final boolean reuseBuilders;
 
   Instrumenter(InstrumenterBuilder<REQUEST, RESPONSE> builder) {
     this.instrumentationName = builder.instrumentationName;
@@ -88,11 +97,25 @@ public class Instrumenter<REQUEST, RESPONSE> {
     this.spanStatusExtractor = builder.spanStatusExtractor;
     this.spanLinksExtractors = new ArrayList<>(builder.spanLinksExtractors);
     this.attributesExtractors = new ArrayList<>(builder.attributesExtractors);
+    // when sampling relevant extractors were declared, only these run before the sampling decision
+    // and the remaining ones are deferred until it is known that the span is recording; of the
+    // deferred ones, only those declared as relevant for the operation listeners run otherwise
+    if (builder.samplingRelevantAttributesExtractors.isEmpty()) {
+      this.samplingAttributesExtractors = this.attributesExtractors;
+      this.deferredAttributesExtractors = Collections.emptyList();
+      this.listenerAttributesExtractors = Collections.emptyList();
+    } else {
+      this.samplingAttributesExtractors =
+          new ArrayList<>(builder.samplingRelevantAttributesExtractors);
+      this.deferredAttributesExtractors = builder.buildDeferredAttributesExtractors();
+      this.listenerAttributesExtractors = builder.buildListenerAttributesExtractors();
+    }
     this.contextCustomizers = new ArrayList<>(builder.contextCustomizers);
     this.operationListeners = builder.buildOperationListeners();
     this.errorCauseExtractor = builder.errorCauseExtractor;
     this.enabled = builder.enabled;
     this.spanSuppressor = builder.buildSpanSuppressor();
+    this.reuseBuilders = builder.reuseBuilders;
   }
 
   /**
@@ -168,44 +191,83 @@ public class Instrumenter<REQUEST, RESPONSE> {
       spanBuilder.setStartTimestamp(startTime);
     }
 
-    SpanLinksBuilder spanLinksBuilder = new SpanLinksBuilderImpl(spanBuilder);
-    for (SpanLinksExtractor<? super REQUEST> spanLinksExtractor : spanLinksExtractors) {
-      spanLinksExtractor.extract(spanLinksBuilder, parentContext, request);
+    if (!spanLinksExtractors.isEmpty()) {
+      SpanLinksBuilder spanLinksBuilder = new SpanLinksBuilderImpl(spanBuilder);
+      for (SpanLinksExtractor<? super REQUEST> spanLinksExtractor : spanLinksExtractors) {
+        spanLinksExtractor.extract(spanLinksBuilder, parentContext, request);
+      }
     }
 
-    UnsafeAttributes attributes = new UnsafeAttributes();
-    for (AttributesExtractor<? super REQUEST, ? super RESPONSE> extractor : attributesExtractors) {
-      extractor.onStart(attributes, parentContext, request);
-    }
+    ReusableBuilders reusableBuilders = reuseBuilders ? ReusableBuilders.acquire() : null;
+    try {
+      Attributes attributes = Attributes.empty();
+      UnsafeAttributes attributesBuilder = null;
+      if (!attributesExtractors.isEmpty()) {
+        attributesBuilder =
+            reusableBuilders != null ? reusableBuilders.attributes : new UnsafeAttributes();
+        for (AttributesExtractor<? super REQUEST, ? super RESPONSE> extractor :
+            samplingAttributesExtractors) {
+          extractor.onStart(attributesBuilder, parentContext, request);
+        }
+        spanBuilder.setAllAttributes(attributesBuilder);
+        attributes = attributesBuilder;
+      }
 
-    Context context = parentContext;
+      Context context = parentContext;
 
-    // context customizers run before span start, so that they can have access to the parent span
-    // context, and so that their additions to the context will be visible to span processors
-    for (ContextCustomizer<? super REQUEST> contextCustomizer : contextCustomizers) {
-      context = contextCustomizer.onStart(context, request, attributes);
-    }
+      // context customizers run before span start, so that they can have access to the parent
+      // span context, and so that their additions to the context will be visible to span
+      // processors
+      if (!contextCustomizers.isEmpty()) {
+        attributes = retainable(attributes, reusableBuilders);
+        for (ContextCustomizer<? super REQUEST> contextCustomizer : contextCustomizers) {
+          context = contextCustomizer.onStart(context, request, attributes);
+        }
+      }
 
-    boolean localRoot = LocalRootSpan.isLocalRoot(context);
+      boolean localRoot = LocalRootSpan.isLocalRoot(context);
 
-    spanBuilder.setAllAttributes(attributes);
-    Span span = spanBuilder.setParent(context).startSpan();
-    context = context.with(span);
+      Span span = spanBuilder.setParent(context).startSpan();
+      context = context.with(span);
 
-    if (!operationListeners.isEmpty()) {
-      // operation listeners run after span start, so that they have access to the current span
-      // for capturing exemplars
-      long startNanos = getNanos(startTime);
-      for (OperationListener operationListener : operationListeners) {
-        context = operationListener.onStart(context, attributes, startNanos);
+      // the sampling relevant attributes are already set, only the deferred extractors run now
+      List<? extends AttributesExtractor<? super REQUEST, ? super RESPONSE>> deferredExtractors =
+          activeDeferredAttributesExtractors(span);
+      if (attributesBuilder != null && !deferredExtractors.isEmpty()) {
+        UnsafeAttributes deferredAttributesBuilder =
+            reusableBuilders != null ? reusableBuilders.deferredAttributes : new UnsafeAttributes();
+        for (AttributesExtractor<? super REQUEST, ? super RESPONSE> extractor :
+            deferredExtractors) {
+          extractor.onStart(deferredAttributesBuilder, parentContext, request);
+        }
+        // the sampling relevant attributes take precedence over the deferred ones
+        deferredAttributesBuilder.putAll((Attributes) attributesBuilder);
+        if (span.isRecording()) {
+          span.setAllAttributes(deferredAttributesBuilder);
+        }
+        attributes = deferredAttributesBuilder;
       }
-    }
 
-    if (localRoot) {
-      context = LocalRootSpan.store(context, span);
-    }
+      if (!operationListeners.isEmpty()) {
+        // operation listeners run after span start, so that they have access to the current span
+        // for capturing exemplars
+        attributes = retainable(attributes, reusableBuilders);
+        long startNanos = getNanos(startTime);
+        for (OperationListener operationListener : operationListeners) {
+          context = operationListener.onStart(context, attributes, startNanos);
+        }
+      }
+
+      if (localRoot) {
+        context = LocalRootSpan.store(context, span);
+      }
 
-    return spanSuppressor.storeInContext(context, spanKind, span);
+      return spanSuppressor.storeInContext(context, spanKind, span);
+    } finally {
+      if (reusableBuilders != null) {
+        reusableBuilders.release();
+      }
+    }
   }
 
   private void doEnd(
@@ -221,23 +283,45 @@ public class Instrumenter<REQUEST, RESPONSE> {
       span.recordException(error);
     }
 
-    UnsafeAttributes attributes = new UnsafeAttributes();
-    for (AttributesExtractor<? super REQUEST, ? super RESPONSE> extractor : attributesExtractors) {
-      extractor.onEnd(attributes, context, request, response, error);
-    }
-    span.setAllAttributes(attributes);
+    ReusableBuilders reusableBuilders = reuseBuilders ? ReusableBuilders.acquire() : null;
+    try {
+      Attributes attributes = Attributes.empty();
+      if (!attributesExtractors.isEmpty()) {
+        UnsafeAttributes attributesBuilder =
+            reusableBuilders != null ? reusableBuilders.attributes : new UnsafeAttributes();
+        for (AttributesExtractor<? super REQUEST, ? super RESPONSE> extractor :
+            activeDeferredAttributesExtractors(span)) {
+          extractor.onEnd(attributesBuilder, context, request, response, error);
+        }
+        // run last, so that the sampling relevant attributes take precedence, as they do on start
+        for (AttributesExtractor<? super REQUEST, ? super RESPONSE> extractor :
+            samplingAttributesExtractors) {
+          extractor.onEnd(attributesBuilder, context, request, response, error);
+        }
+        span.setAllAttributes(attributesBuilder);
+        attributes = attributesBuilder;
+      }
 
-    if (!operationListeners.isEmpty()) {
-      long endNanos = getNanos(endTime);
-      ListIterator<? extends OperationListener> i =
-          operationListeners.listIterator(operationListeners.size());
-      while (i.hasPrevious()) {
-        i.previous().onEnd(context, attributes, endNanos);
+      if (!operationListeners.isEmpty()) {
+        attributes = retainable(attributes, reusableBuilders);
+        long endNanos = getNanos(endTime);
+        ListIterator<? extends OperationListener> i =
+            operationListeners.listIterator(operationListeners.size());
+        while (i.hasPrevious()) {
+          i.previous().onEnd(context, attributes, endNanos);
+        }
       }
-    }
 
-    SpanStatusBuilder spanStatusBuilder = new SpanStatusBuilderImpl(span);
-    spanStatusExtractor.extract(spanStatusBuilder, request, response, error);
+      SpanStatusBuilder spanStatusBuilder =
+          reusableBuilders != null
+              ? reusableBuilders.spanStatusBuilder.reset(span)
+              : new SpanStatusBuilderImpl(span);
+      spanStatusExtractor.extract(spanStatusBuilder, request, response, error);
+    } finally {
+      if (reusableBuilders != null) {
+        reusableBuilders.release();
+      }
+    }
 
     if (endTime != null) {
       span.end(endTime);
@@ -246,6 +330,30 @@ public class Instrumenter<REQUEST, RESPONSE> {
     }
   }
 
+  // the deferred extractors whose attributes would be seen by anything: the sampler never sees
+  // them, a span only when it is recording and the operation listeners only those declared for them
+  private List<? extends AttributesExtractor<? super REQUEST, ? super RESPONSE>>
+      activeDeferredAttributesExtractors(Span span) {
+    if (span.isRecording()) {
+      return deferredAttributesExtractors;
+    }
+    if (!operationListeners.isEmpty()) {
+      return listenerAttributesExtractors;
+    }
+    return Collections.emptyList();
+  }
+
+  // context customizers and operation listeners may hold on to the attributes they receive (e.g.
+  // metrics keep the start attributes in the context until the operation ends), so they get an
+  // immutable copy of the pooled builders, which are cleared as soon as this call returns
+  private static Attributes retainable(
+      Attributes attributes, @Nullable ReusableBuilders reusableBuilders) {
+    if (reusableBuilders == null || !(attributes instanceof UnsafeAttributes)) {
+      return attributes;
+    }
+    return attributes.isEmpty() ? Attributes.empty() : attributes.toBuilder().build();
+  }
+
   private static long getNanos(@Nullable Instant time) {
     if (time == null) {
       return System.nanoTime();
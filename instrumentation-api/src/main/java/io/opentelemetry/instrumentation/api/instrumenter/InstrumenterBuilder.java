@@ -49,6 +49,10 @@ public final class InstrumenterBuilder<REQUEST, RESPONSE> {
           ConfigPropertiesUtil.getString(
               "otel.instrumentation.experimental.span-suppression-strategy"));
 
+  private static final boolean reuseBuildersDefault =
+      ConfigPropertiesUtil.getBoolean(
+          "otel.instrumentation.experimental.instrumenter.reuse-builders", false);
+
   final OpenTelemetry openTelemetry;
   final String instrumentationName;
   final SpanNameExtractor<? super REQUEST> spanNameExtractor;
@@ -56,6 +60,10 @@ public final class InstrumenterBuilder<REQUEST, RESPONSE> {
   final List<SpanLinksExtractor<? super REQUEST>> spanLinksExtractors = new ArrayList<>();
   final List<AttributesExtractor<? super REQUEST, ? super RESPONSE>> attributesExtractors =
       new ArrayList<>();
+  final List<AttributesExtractor<? super REQUEST, ? super RESPONSE>>
+      samplingRelevantAttributesExtractors = new ArrayList<>();
+  final List<AttributesExtractor<? super REQUEST, ? super RESPONSE>>
+      listenerRelevantAttributesExtractors = new ArrayList<>();
   final List<ContextCustomizer<? super REQUEST>> contextCustomizers = new ArrayList<>();
   private final List<OperationListener> operationListeners = new ArrayList<>();
   private final List<OperationMetrics> operationMetrics = new ArrayList<>();
@@ -67,6 +75,7 @@ public final class InstrumenterBuilder<REQUEST, RESPONSE> {
       SpanStatusExtractor.getDefault();
   ErrorCauseExtractor errorCauseExtractor = ErrorCauseExtractor.getDefault();
   boolean enabled = true;
+  boolean reuseBuilders = reuseBuildersDefault;
 
   InstrumenterBuilder(
       OpenTelemetry openTelemetry,
@@ -132,6 +141,39 @@ public final class InstrumenterBuilder<REQUEST, RESPONSE> {
     return this;
   }
 
+  /**
+   * Adds a {@link AttributesExtractor} whose start attributes are relevant for the sampling
+   * decision. Once at least one sampling relevant extractor is added, only those run before the
+   * span is started, and {@link ContextCustomizer}s see just their attributes. All other
+   * extractors are deferred: they run after the span is started and only if the span is
+   * recording, except for those added with {@link #addListenerRelevantAttributesExtractor}, which
+   * also run for the {@link OperationListener}s when the span is not recording. When a sampling
+   * relevant and a deferred extractor set the same attribute, the sampling relevant value wins.
+   */
+  // TODO: candidate for public API
+  @CanIgnoreReturnValue
+  InstrumenterBuilder<REQUEST, RESPONSE> addSamplingRelevantAttributesExtractor(
+      AttributesExtractor<? super REQUEST, ? super RESPONSE> attributesExtractor) {
+    addAttributesExtractor(attributesExtractor);
+    samplingRelevantAttributesExtractors.add(attributesExtractor);
+    return this;
+  }
+
+  /**
+   * Adds a {@link AttributesExtractor} whose attributes are needed by the {@link
+   * OperationListener}s, e.g. for metrics. Unless it is also added as a sampling relevant
+   * extractor, it is deferred like any other extractor, but still runs when the span is not
+   * recording and there are operation listeners.
+   */
+  // TODO: candidate for public API
+  @CanIgnoreReturnValue
+  InstrumenterBuilder<REQUEST, RESPONSE> addListenerRelevantAttributesExtractor(
+      AttributesExtractor<? super REQUEST, ? super RESPONSE> attributesExtractor) {
+    addAttributesExtractor(attributesExtractor);
+    listenerRelevantAttributesExtractors.add(attributesExtractor);
+    return this;
+  }
+
   /** Adds a {@link SpanLinksExtractor} that will extract span links from requests. */
   @CanIgnoreReturnValue
   public InstrumenterBuilder<REQUEST, RESPONSE> addSpanLinksExtractor(
@@ -192,6 +234,19 @@ public final class InstrumenterBuilder<REQUEST, RESPONSE> {
     return this;
   }
 
+  /**
+   * Allows the {@link Instrumenter} to reuse per-thread attributes and span status builders instead
+   * of allocating new ones for every operation. Since {@link OperationListener}s and {@link
+   * ContextCustomizer}s may retain the attributes passed to them, they receive an immutable copy of
+   * the reused builders. Disabled by default, unless the {@code
+   * otel.instrumentation.experimental.instrumenter.reuse-builders} property is set.
+   */
+  @CanIgnoreReturnValue
+  public InstrumenterBuilder<REQUEST, RESPONSE> setReuseBuilders(boolean reuseBuilders) {
+    this.reuseBuilders = reuseBuilders;
+    return this;
+  }
+
   /**
    * Returns a new {@link Instrumenter} which will create {@linkplain SpanKind#CLIENT client} spans
    * and inject context into requests with the passed {@link TextMapSetter}.
@@ -297,6 +352,30 @@ public final class InstrumenterBuilder<REQUEST, RESPONSE> {
     return tracerBuilder.build();
   }
 
+  List<AttributesExtractor<? super REQUEST, ? super RESPONSE>>
+      buildDeferredAttributesExtractors() {
+    List<AttributesExtractor<? super REQUEST, ? super RESPONSE>> deferred = new ArrayList<>();
+    for (AttributesExtractor<? super REQUEST, ? super RESPONSE> extractor : attributesExtractors) {
+      if (!samplingRelevantAttributesExtractors.contains(extractor)) {
+        deferred.add(extractor);
+      }
+    }
+    return deferred;
+  }
+
+  List<AttributesExtractor<? super REQUEST, ? super RESPONSE>>
+      buildListenerAttributesExtractors() {
+    List<AttributesExtractor<? super REQUEST, ? super RESPONSE>> listenerExtractors =
+        new ArrayList<>();
+    for (AttributesExtractor<? super REQUEST, ? super RESPONSE> extractor :
+        buildDeferredAttributesExtractors()) {
+      if (listenerRelevantAttributesExtractors.contains(extractor)) {
+        listenerExtractors.add(extractor);
+      }
+    }
+    return listenerExtractors;
+  }
+
   List<OperationListener> buildOperationListeners() {
     // just copy the listeners list if there are no metrics registered
     if (operationMetrics.isEmpty()) {
@@ -405,6 +484,20 @@ public final class InstrumenterBuilder<REQUEST, RESPONSE> {
               SpanKindExtractor<RQ> spanKindExtractor) {
             return builder.buildDownstreamInstrumenter(setter, spanKindExtractor);
           }
+
+          @Override
+          public <RQ, RS> void addSamplingRelevantAttributesExtractor(
+              InstrumenterBuilder<RQ, RS> builder,
+              AttributesExtractor<? super RQ, ? super RS> attributesExtractor) {
+            builder.addSamplingRelevantAttributesExtractor(attributesExtractor);
+          }
+
+          @Override
+          public <RQ, RS> void addListenerRelevantAttributesExtractor(
+              InstrumenterBuilder<RQ, RS> builder,
+              AttributesExtractor<? super RQ, ? super RS> attributesExtractor) {
+            builder.addListenerRelevantAttributesExtractor(attributesExtractor);
+          }
         });
   }
 }
@@ -0,0 +1,81 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.instrumentation.api.instrumenter;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import javax.annotation.Nullable;
+
+/**
+ * Per-thread holder of the attributes and span status builders used by the {@link Instrumenter}
+ * when it runs with builder reuse enabled. A holder is handed out to at most one {@link
+ * Instrumenter} call at a time; nested calls on the same thread (e.g. an extractor that triggers
+ * another instrumented operation) and calls made on virtual threads get {@code null} and fall back
+ * to allocating fresh builders. Virtual threads are excluded on purpose: they may be unmounted in
+ * the middle of an extractor call, and keeping a {@link ThreadLocal} per virtual thread would cost
+ * more than the allocations it saves.
+ */
+final class ReusableBuilders {
+
+  private static final ThreadLocal<ReusableBuilders> threadLocal =
+      ThreadLocal.withInitial(ReusableBuilders::new);
+
+  @Nullable private static final MethodHandle isVirtual = findIsVirtual();
+
+  final UnsafeAttributes attributes = new UnsafeAttributes();
+  final UnsafeAttributes deferredAttributes = new UnsafeAttributes();
+  final SpanStatusBuilderImpl spanStatusBuilder = new SpanStatusBuilderImpl();
+  private boolean inUse;
+
+  private ReusableBuilders() {}
+
+  /**
+   * Returns the builders associated with the current thread, or {@code null} if they're not
+   * available. Every non-null result must be handed back with {@link #release()}.
+   */
+  @Nullable
+  static ReusableBuilders acquire() {
+    if (isVirtualThread()) {
+      return null;
+    }
+    ReusableBuilders builders = threadLocal.get();
+    if (builders.inUse) {
+      return null;
+    }
+    builders.inUse = true;
+    return builders;
+  }
+
+  void release() {
+    attributes.clear();
+    deferredAttributes.clear();
+    spanStatusBuilder.reset(null);
+    inUse = false;
+  }
+
+  private static boolean isVirtualThread() {
+    if (isVirtual == null) {
+      return false;
+    }
+    try {
+      return (boolean) isVirtual.invokeExact(Thread.currentThread());
+    } catch (Throwable e) {
+      return false;
+    }
+  }
+
+  @Nullable
+  private static MethodHandle findIsVirtual() {
+    try {
+      return MethodHandles.publicLookup()
+          .findVirtual(Thread.class, "isVirtual", MethodType.methodType(boolean.class));
+    } catch (NoSuchMethodException | IllegalAccessException e) {
+      // not running on a jdk that supports virtual threads
+      return null;
+    }
+  }
+}
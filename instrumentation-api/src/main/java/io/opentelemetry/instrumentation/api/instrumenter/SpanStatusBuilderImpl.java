@@ -8,18 +8,30 @@ package io.opentelemetry.instrumentation.api.instrumenter;
 import com.google.errorprone.annotations.CanIgnoreReturnValue;
 import io.opentelemetry.api.trace.Span;
 import io.opentelemetry.api.trace.StatusCode;
+import javax.annotation.Nullable;
 
 final class SpanStatusBuilderImpl implements SpanStatusBuilder {
-  private final Span span;
+  @Nullable private Span span;
+
+  SpanStatusBuilderImpl() {}
 
   SpanStatusBuilderImpl(Span span) {
     this.span = span;
   }
 
+  // used by ReusableBuilders to point a pooled instance at the span that is being ended
+  @CanIgnoreReturnValue
+  SpanStatusBuilderImpl reset(@Nullable Span span) {
+    this.span = span;
+    return this;
+  }
+
   @Override
   @CanIgnoreReturnValue
   public SpanStatusBuilder setStatus(StatusCode statusCode, String description) {
-    span.setStatus(statusCode, description);
+    if (span != null) {
+      span.setStatus(statusCode, description);
+    }
     return this;
   }
 }
@@ -0,0 +1,45 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.instrumentation.api.internal;
+
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.instrumentation.api.internal.cache.Cache;
+import java.util.function.Function;
+
+/**
+ * Caches the string attribute keys created by prefixing dynamic names, like the MDC or context data
+ * keys captured by the log appenders. The keys are kept in a W-TinyLFU cache, so that frequently
+ * used keys stay cached even when many distinct keys are seen only once.
+ *
+ * <p>This class is internal and is hence not for public use. Its APIs are unstable and can change
+ * at any time.
+ */
+public final class AttributeKeyCache {
+
+  public static final int DEFAULT_CAPACITY = 1000;
+
+  private final Cache<String, AttributeKey<String>> cache;
+  // stored so that a cache hit does not allocate a capturing lambda
+  private final Function<String, AttributeKey<String>> keyFactory;
+
+  /** Returns a cache of keys named {@code prefix} followed by the name they're looked up with. */
+  public static AttributeKeyCache create(String prefix) {
+    return create(prefix, DEFAULT_CAPACITY);
+  }
+
+  public static AttributeKeyCache create(String prefix, int capacity) {
+    return new AttributeKeyCache(prefix, capacity);
+  }
+
+  private AttributeKeyCache(String prefix, int capacity) {
+    this.cache = Cache.boundedTinyLfu(capacity);
+    this.keyFactory = name -> AttributeKey.stringKey(prefix + name);
+  }
+
+  public AttributeKey<String> get(String name) {
+    return cache.computeIfAbsent(name, keyFactory);
+  }
+}
@@ -31,6 +31,18 @@ public final class ConfigPropertiesUtil {
     }
   }
 
+  public static long getLong(String propertyName, long defaultValue) {
+    String strValue = getString(propertyName);
+    if (strValue == null) {
+      return defaultValue;
+    }
+    try {
+      return Long.parseLong(strValue);
+    } catch (NumberFormatException ignored) {
+      return defaultValue;
+    }
+  }
+
   @Nullable
   public static String getString(String propertyName) {
     String value = System.getProperty(propertyName);
@@ -7,6 +7,7 @@ package io.opentelemetry.instrumentation.api.internal;
 
 import io.opentelemetry.context.propagation.TextMapGetter;
 import io.opentelemetry.context.propagation.TextMapSetter;
+import io.opentelemetry.instrumentation.api.instrumenter.AttributesExtractor;
 import io.opentelemetry.instrumentation.api.instrumenter.Instrumenter;
 import io.opentelemetry.instrumentation.api.instrumenter.InstrumenterBuilder;
 import io.opentelemetry.instrumentation.api.instrumenter.SpanKindExtractor;
@@ -26,4 +27,12 @@ public interface InstrumenterBuilderAccess {
       InstrumenterBuilder<REQUEST, RESPONSE> builder,
       TextMapSetter<REQUEST> setter,
       SpanKindExtractor<REQUEST> spanKindExtractor);
+
+  <REQUEST, RESPONSE> void addSamplingRelevantAttributesExtractor(
+      InstrumenterBuilder<REQUEST, RESPONSE> builder,
+      AttributesExtractor<? super REQUEST, ? super RESPONSE> attributesExtractor);
+
+  <REQUEST, RESPONSE> void addListenerRelevantAttributesExtractor(
+      InstrumenterBuilder<REQUEST, RESPONSE> builder,
+      AttributesExtractor<? super REQUEST, ? super RESPONSE> attributesExtractor);
 }
@@ -8,6 +8,7 @@ package io.opentelemetry.instrumentation.api.internal;
 import io.opentelemetry.context.Context;
 import io.opentelemetry.context.propagation.TextMapGetter;
 import io.opentelemetry.context.propagation.TextMapSetter;
+import io.opentelemetry.instrumentation.api.instrumenter.AttributesExtractor;
 import io.opentelemetry.instrumentation.api.instrumenter.Instrumenter;
 import io.opentelemetry.instrumentation.api.instrumenter.InstrumenterBuilder;
 import io.opentelemetry.instrumentation.api.instrumenter.SpanKindExtractor;
@@ -62,5 +63,19 @@ public final class InstrumenterUtil {
         builder, setter, spanKindExtractor);
   }
 
+  public static <REQUEST, RESPONSE> void addSamplingRelevantAttributesExtractor(
+      InstrumenterBuilder<REQUEST, RESPONSE> builder,
+      AttributesExtractor<? super REQUEST, ? super RESPONSE> attributesExtractor) {
+    // instrumenterBuilderAccess is guaranteed to be non-null here
+    instrumenterBuilderAccess.addSamplingRelevantAttributesExtractor(builder, attributesExtractor);
+  }
+
+  public static <REQUEST, RESPONSE> void addListenerRelevantAttributesExtractor(
+      InstrumenterBuilder<REQUEST, RESPONSE> builder,
+      AttributesExtractor<? super REQUEST, ? super RESPONSE> attributesExtractor) {
+    // instrumenterBuilderAccess is guaranteed to be non-null here
+    instrumenterBuilderAccess.addListenerRelevantAttributesExtractor(builder, attributesExtractor);
+  }
+
   private InstrumenterUtil() {}
 }
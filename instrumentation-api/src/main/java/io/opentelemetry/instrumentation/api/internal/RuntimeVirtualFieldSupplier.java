@@ -57,25 +57,26 @@ public final class RuntimeVirtualFieldSupplier {
       return (VirtualField<U, V>)
           ownerToFieldToImplementationMap
               .computeIfAbsent(type, c -> Cache.weak())
-              .computeIfAbsent(fieldType, c -> new CacheBasedVirtualField<>());
+              .computeIfAbsent(fieldType, c -> new MapBasedVirtualField<>());
     }
   }
 
-  private static final class CacheBasedVirtualField<T, F> extends VirtualField<T, F> {
-    private final Cache<T, F> cache = Cache.weak();
+  // used whenever the field could not be injected into the owner class, so get() needs to be cheap
+  private static final class MapBasedVirtualField<T, F> extends VirtualField<T, F> {
+    private final StripedWeakIdentityMap<T, F> map = new StripedWeakIdentityMap<>();
 
     @Override
     @Nullable
     public F get(T object) {
-      return cache.get(object);
+      return map.get(object);
     }
 
     @Override
     public void set(T object, @Nullable F fieldValue) {
       if (fieldValue == null) {
-        cache.remove(object);
+        map.remove(object);
       } else {
-        cache.put(object, fieldValue);
+        map.put(object, fieldValue);
       }
     }
   }
@@ -0,0 +1,140 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.instrumentation.api.internal;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.LongSupplier;
+
+/**
+ * Renders stack traces as {@link Throwable#printStackTrace()} does, reusing the rendered string
+ * when an identical stack trace was rendered recently. Logging the same exception over and over,
+ * e.g. when a downstream service is failing, then costs a hash of the stack frames instead of a new
+ * multi-kilobyte string per log record.
+ *
+ * <p>Stack traces are identified by a hash of the description and the frames of the throwable, its
+ * causes and its suppressed throwables. The description and the frames of the throwable itself are
+ * compared before reusing a rendered string. Rendered strings are kept in a small direct-mapped
+ * table, for at most the configured window.
+ *
+ * <p>This class is internal and is hence not for public use. Its APIs are unstable and can change
+ * at any time.
+ */
+public final class StackTraceRenderer {
+
+  private static final int DEFAULT_TABLE_SIZE = 256;
+  private static final long DEFAULT_WINDOW_NANOS = TimeUnit.SECONDS.toNanos(10);
+  // bounds the work done for deeply nested or cyclic cause chains
+  private static final int MAX_HASHED_THROWABLES = 32;
+
+  private static final StackTraceRenderer INSTANCE =
+      new StackTraceRenderer(DEFAULT_TABLE_SIZE, DEFAULT_WINDOW_NANOS, System::nanoTime);
+
+  private final AtomicReferenceArray<Entry> entries;
+  private final int mask;
+  private final long windowNanos;
+  private final LongSupplier nanoTime;
+
+  /** Renders the stack trace of the {@code throwable} with the shared renderer. */
+  public static String render(Throwable throwable) {
+    return INSTANCE.renderStackTrace(throwable);
+  }
+
+  // Visible for testing
+  StackTraceRenderer(int tableSize, long windowNanos, LongSupplier nanoTime) {
+    if (Integer.bitCount(tableSize) != 1) {
+      throw new IllegalArgumentException("tableSize must be a power of two");
+    }
+    this.entries = new AtomicReferenceArray<>(tableSize);
+    this.mask = tableSize - 1;
+    this.windowNanos = windowNanos;
+    this.nanoTime = nanoTime;
+  }
+
+  // Visible for testing
+  String renderStackTrace(Throwable throwable) {
+    String description = throwable.toString();
+    StackTraceElement[] frames = throwable.getStackTrace();
+    long hash = hash(throwable, description, frames);
+    int index = (int) (hash ^ (hash >>> 32)) & mask;
+    long now = nanoTime.getAsLong();
+
+    Entry entry = entries.get(index);
+    if (entry != null
+        && entry.hash == hash
+        && now - entry.renderedAtNanos < windowNanos
+        && entry.description.equals(description)
+        && Arrays.equals(entry.frames, frames)) {
+      return entry.stackTrace;
+    }
+
+    StringWriter writer = new StringWriter();
+    throwable.printStackTrace(new PrintWriter(writer));
+    String stackTrace = writer.toString();
+    entries.set(index, new Entry(hash, description, frames, stackTrace, now));
+    return stackTrace;
+  }
+
+  private static long hash(Throwable throwable, String description, StackTraceElement[] frames) {
+    long hash = mix(0, description, frames);
+    int hashed = 1;
+    // causes and suppressed throwables, in the order in which printStackTrace() prints them
+    Throwable[] pending = new Throwable[MAX_HASHED_THROWABLES];
+    int pendingCount = 0;
+    pending[pendingCount++] = throwable;
+    while (pendingCount > 0 && hashed < MAX_HASHED_THROWABLES) {
+      Throwable current = pending[--pendingCount];
+      Throwable cause = current.getCause();
+      if (cause != null && cause != current && pendingCount < pending.length) {
+        pending[pendingCount++] = cause;
+      }
+      for (Throwable suppressed : current.getSuppressed()) {
+        if (pendingCount == pending.length) {
+          break;
+        }
+        pending[pendingCount++] = suppressed;
+      }
+      if (current != throwable) {
+        hash = mix(hash, current.toString(), current.getStackTrace());
+        hashed++;
+      }
+    }
+    return hash;
+  }
+
+  private static long mix(long hash, String description, StackTraceElement[] frames) {
+    hash = (hash ^ description.hashCode()) * 0x9E3779B97F4A7C15L;
+    for (StackTraceElement frame : frames) {
+      hash = (hash ^ frame.hashCode()) * 0x9E3779B97F4A7C15L;
+      hash ^= hash >>> 29;
+    }
+    return (hash ^ frames.length) * 0xBF58476D1CE4E5B9L;
+  }
+
+  private static final class Entry {
+    private final long hash;
+    private final String description;
+    private final StackTraceElement[] frames;
+    private final String stackTrace;
+    private final long renderedAtNanos;
+
+    private Entry(
+        long hash,
+        String description,
+        StackTraceElement[] frames,
+        String stackTrace,
+        long renderedAtNanos) {
+      this.hash = hash;
+      this.description = description;
+      this.frames = frames;
+      this.stackTrace = stackTrace;
+      this.renderedAtNanos = renderedAtNanos;
+    }
+  }
+}
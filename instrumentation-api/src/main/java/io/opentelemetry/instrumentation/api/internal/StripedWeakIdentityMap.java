@@ -0,0 +1,272 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.instrumentation.api.internal;
+
+import io.opentelemetry.instrumentation.api.internal.cache.weaklockfree.WeakConcurrentMap;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import javax.annotation.Nullable;
+
+/**
+ * A thread-safe map with weak keys that are compared by identity, used to store the values of
+ * virtual fields that could not be injected into their owner classes.
+ *
+ * <p>The map is split into stripes, each stripe is an open-addressing hash table with linear
+ * probing. Lookups read the table without locking and without allocating, updates lock the stripe
+ * of the key. The slots of keys that were garbage collected or removed are reused by later inserts
+ * and dropped when the table is resized. The values of garbage collected keys are released in
+ * batches, when the collected keys are polled from the reference queue shared by all maps.
+ *
+ * <p>This class is internal and is hence not for public use. Its APIs are unstable and can change
+ * at any time.
+ */
+public final class StripedWeakIdentityMap<K, V> {
+
+  private static final ReferenceQueue<Object> REFERENCE_QUEUE = new ReferenceQueue<>();
+  // limits the time that a single update spends on releasing the values of collected keys
+  private static final int EXPUNGE_BATCH_SIZE = 64;
+
+  private static final int STRIPE_BITS = 4;
+  private static final int STRIPES = 1 << STRIPE_BITS;
+  private static final int INITIAL_STRIPE_CAPACITY = 4;
+
+  // the maps that are in use, their references are dropped when the maps are collected
+  private static final Set<MapReference> MAPS = ConcurrentHashMap.newKeySet();
+
+  private final Stripe<K, V>[] stripes;
+  private final AtomicLong expungedCount = new AtomicLong();
+  // guarded by the class, see collectStatistics()
+  private long reportedExpungedCount;
+
+  @SuppressWarnings({"unchecked", "rawtypes"})
+  StripedWeakIdentityMap() {
+    MapReference reference = new MapReference(this);
+    MAPS.add(reference);
+    stripes = new Stripe[STRIPES];
+    for (int i = 0; i < STRIPES; i++) {
+      stripes[i] = new Stripe<>(reference);
+    }
+  }
+
+  @Nullable
+  V get(K key) {
+    int hash = hash(key);
+    return stripes[hash & (STRIPES - 1)].get(key, hash >>> STRIPE_BITS);
+  }
+
+  void put(K key, V value) {
+    expungeStaleEntries(EXPUNGE_BATCH_SIZE);
+    int hash = hash(key);
+    stripes[hash & (STRIPES - 1)].put(key, hash >>> STRIPE_BITS, value);
+  }
+
+  void remove(K key) {
+    expungeStaleEntries(EXPUNGE_BATCH_SIZE);
+    int hash = hash(key);
+    stripes[hash & (STRIPES - 1)].remove(key, hash >>> STRIPE_BITS);
+  }
+
+  /** Returns the number of entries with keys that were not garbage collected yet. */
+  int size() {
+    int size = 0;
+    for (Stripe<K, V> stripe : stripes) {
+      size += stripe.size();
+    }
+    return size;
+  }
+
+  /** Returns the number of values that were released because their keys were collected. */
+  long expungedCount() {
+    return expungedCount.get();
+  }
+
+  /**
+   * Releases the values of at most {@code maxEntries} garbage collected keys of all maps, and
+   * returns the number of released values.
+   */
+  public static int expungeStaleEntries(int maxEntries) {
+    int expunged = 0;
+    Reference<?> reference;
+    while (expunged < maxEntries && (reference = REFERENCE_QUEUE.poll()) != null) {
+      if (reference instanceof WeakEntry<?, ?>) {
+        WeakEntry<?, ?> entry = (WeakEntry<?, ?>) reference;
+        entry.value = null;
+        StripedWeakIdentityMap<?, ?> map = entry.owner.get();
+        if (map != null) {
+          map.expungedCount.incrementAndGet();
+        }
+      } else {
+        MAPS.remove(reference);
+      }
+      expunged++;
+    }
+    return expunged;
+  }
+
+  /**
+   * Passes the number of live entries of every map that is in use, and the number of its values
+   * that were released since the previous call of this method, to the consumer.
+   */
+  static synchronized void collectStatistics(WeakConcurrentMap.StatisticsConsumer consumer) {
+    for (MapReference reference : MAPS) {
+      StripedWeakIdentityMap<?, ?> map = reference.get();
+      if (map != null) {
+        long expungedCount = map.expungedCount.get();
+        consumer.accept(map.size(), expungedCount - map.reportedExpungedCount);
+        map.reportedExpungedCount = expungedCount;
+      }
+    }
+  }
+
+  private static int hash(Object key) {
+    int hash = System.identityHashCode(key);
+    return hash ^ (hash >>> 16);
+  }
+
+  private static final class Stripe<K, V> {
+
+    private final MapReference owner;
+    private volatile AtomicReferenceArray<WeakEntry<K, V>> table =
+        new AtomicReferenceArray<>(INITIAL_STRIPE_CAPACITY);
+    // number of non-empty slots, including the slots of collected and removed keys
+    private int used;
+
+    Stripe(MapReference owner) {
+      this.owner = owner;
+    }
+
+    @Nullable
+    V get(K key, int hash) {
+      AtomicReferenceArray<WeakEntry<K, V>> table = this.table;
+      int mask = table.length() - 1;
+      for (int i = hash & mask; ; i = (i + 1) & mask) {
+        WeakEntry<K, V> entry = table.get(i);
+        if (entry == null) {
+          return null;
+        }
+        if (entry.get() == key) {
+          return entry.value;
+        }
+      }
+    }
+
+    synchronized void put(K key, int hash, V value) {
+      AtomicReferenceArray<WeakEntry<K, V>> table = this.table;
+      int mask = table.length() - 1;
+      int free = -1;
+      int i = hash & mask;
+      for (WeakEntry<K, V> entry = table.get(i); entry != null; entry = table.get(i)) {
+        K entryKey = entry.get();
+        if (entryKey == key) {
+          entry.value = value;
+          return;
+        }
+        if (entryKey == null && free == -1) {
+          free = i;
+        }
+        i = (i + 1) & mask;
+      }
+      if (free != -1) {
+        // the slot of a collected or removed key
+        table.set(free, new WeakEntry<>(key, hash, value, owner));
+        return;
+      }
+      // keep at least a quarter of the slots empty, so that lookups of absent keys terminate early
+      if (used + 1 > table.length() - (table.length() >>> 2)) {
+        resize(table);
+        put(key, hash, value);
+        return;
+      }
+      table.set(i, new WeakEntry<>(key, hash, value, owner));
+      used++;
+    }
+
+    synchronized void remove(K key, int hash) {
+      AtomicReferenceArray<WeakEntry<K, V>> table = this.table;
+      int mask = table.length() - 1;
+      for (int i = hash & mask; ; i = (i + 1) & mask) {
+        WeakEntry<K, V> entry = table.get(i);
+        if (entry == null) {
+          return;
+        }
+        if (entry.get() == key) {
+          // the slot stays in the table to keep the probe sequences of other keys intact
+          entry.value = null;
+          entry.clear();
+          return;
+        }
+      }
+    }
+
+    synchronized int size() {
+      AtomicReferenceArray<WeakEntry<K, V>> table = this.table;
+      int size = 0;
+      for (int i = 0; i < table.length(); i++) {
+        WeakEntry<K, V> entry = table.get(i);
+        if (entry != null && entry.get() != null) {
+          size++;
+        }
+      }
+      return size;
+    }
+
+    // drops the slots of collected and removed keys, the table grows or shrinks to twice the
+    // number of remaining entries
+    private void resize(AtomicReferenceArray<WeakEntry<K, V>> table) {
+      int live = 0;
+      for (int i = 0; i < table.length(); i++) {
+        WeakEntry<K, V> entry = table.get(i);
+        if (entry != null && entry.get() != null) {
+          live++;
+        }
+      }
+      int capacity = INITIAL_STRIPE_CAPACITY;
+      while (capacity < (live + 1) * 2) {
+        capacity <<= 1;
+      }
+      AtomicReferenceArray<WeakEntry<K, V>> resized = new AtomicReferenceArray<>(capacity);
+      int mask = capacity - 1;
+      for (int i = 0; i < table.length(); i++) {
+        WeakEntry<K, V> entry = table.get(i);
+        if (entry != null && entry.get() != null) {
+          int j = entry.hash & mask;
+          while (resized.get(j) != null) {
+            j = (j + 1) & mask;
+          }
+          // entries are moved, so that concurrent lookups in the old table still see updates
+          resized.set(j, entry);
+        }
+      }
+      used = live;
+      this.table = resized;
+    }
+  }
+
+  private static final class WeakEntry<K, V> extends WeakReference<K> {
+    private final int hash;
+    private final MapReference owner;
+    @Nullable private volatile V value;
+
+    WeakEntry(K key, int hash, V value, MapReference owner) {
+      super(key, REFERENCE_QUEUE);
+      this.hash = hash;
+      this.value = value;
+      this.owner = owner;
+    }
+  }
+
+  private static final class MapReference extends WeakReference<StripedWeakIdentityMap<?, ?>> {
+
+    MapReference(StripedWeakIdentityMap<?, ?> map) {
+      super(map, REFERENCE_QUEUE);
+    }
+  }
+}
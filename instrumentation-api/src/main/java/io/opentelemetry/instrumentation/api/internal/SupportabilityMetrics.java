@@ -6,6 +6,7 @@
 package io.opentelemetry.instrumentation.api.internal;
 
 import io.opentelemetry.api.trace.SpanKind;
+import io.opentelemetry.instrumentation.api.internal.cache.weaklockfree.WeakConcurrentMap;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.Executors;
@@ -14,6 +15,7 @@ import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Consumer;
 import java.util.logging.Logger;
+import javax.annotation.Nullable;
 
 /**
  * This class is internal and is hence not for public use. Its APIs are unstable and can change at
@@ -23,13 +25,20 @@ public final class SupportabilityMetrics {
   private static final Logger logger = Logger.getLogger(SupportabilityMetrics.class.getName());
   private final boolean agentDebugEnabled;
   private final Consumer<String> reporter;
+  private final Consumer<WeakConcurrentMap.StatisticsConsumer> weakMapStatistics;
 
   private final ConcurrentMap<String, KindCounters> suppressionCounters = new ConcurrentHashMap<>();
   private final ConcurrentMap<String, AtomicLong> counters = new ConcurrentHashMap<>();
+  private final ConcurrentMap<String, Timer> timers = new ConcurrentHashMap<>();
 
   private static final SupportabilityMetrics INSTANCE =
       new SupportabilityMetrics(
-              ConfigPropertiesUtil.getBoolean("otel.javaagent.debug", false), logger::fine)
+              ConfigPropertiesUtil.getBoolean("otel.javaagent.debug", false),
+              logger::fine,
+              consumer -> {
+                WeakConcurrentMap.collectStatistics(consumer);
+                StripedWeakIdentityMap.collectStatistics(consumer);
+              })
           .start();
 
   public static SupportabilityMetrics instance() {
@@ -38,8 +47,17 @@ public final class SupportabilityMetrics {
 
   // visible for testing
   SupportabilityMetrics(boolean agentDebugEnabled, Consumer<String> reporter) {
+    this(agentDebugEnabled, reporter, consumer -> {});
+  }
+
+  // visible for testing
+  SupportabilityMetrics(
+      boolean agentDebugEnabled,
+      Consumer<String> reporter,
+      Consumer<WeakConcurrentMap.StatisticsConsumer> weakMapStatistics) {
     this.agentDebugEnabled = agentDebugEnabled;
     this.reporter = reporter;
+    this.weakMapStatistics = weakMapStatistics;
   }
 
   public void recordSuppressedSpan(SpanKind kind, String instrumentationName) {
@@ -60,6 +78,14 @@ public final class SupportabilityMetrics {
     counters.computeIfAbsent(counterName, k -> new AtomicLong()).incrementAndGet();
   }
 
+  public void recordTime(String timerName, long durationNanos) {
+    if (!agentDebugEnabled) {
+      return;
+    }
+
+    timers.computeIfAbsent(timerName, k -> new Timer()).record(durationNanos);
+  }
+
   // visible for testing
   void report() {
     suppressionCounters.forEach(
@@ -79,6 +105,21 @@ public final class SupportabilityMetrics {
             reporter.accept("Counter '" + counterName + "' : " + value);
           }
         });
+    timers.forEach(
+        (timerName, timer) -> {
+          String value = timer.getAndReset();
+          if (value != null) {
+            reporter.accept("Timer '" + timerName + "' : " + value);
+          }
+        });
+    // the weak maps back Cache.weak() and the virtual fields that could not be injected, reported
+    // to see whether their memory stays bounded
+    WeakMapCounters weakMapCounters = new WeakMapCounters();
+    weakMapStatistics.accept(weakMapCounters);
+    String value = weakMapCounters.get();
+    if (value != null) {
+      reporter.accept("Weak maps : " + value);
+    }
   }
 
   // this private method is designed for assignment of the return value
@@ -114,10 +155,77 @@ public final class SupportabilityMetrics {
   public static final class CounterNames {
     public static final String SQL_STATEMENT_SANITIZER_CACHE_MISS =
         "SqlStatementSanitizer cache miss";
+    public static final String SQL_STATEMENT_SANITIZER_CACHE_LOOKUP =
+        "SqlStatementSanitizer cache lookup";
+    public static final String MUZZLE_FINGERPRINT_CACHE_HIT = "Muzzle fingerprint cache hit";
+    public static final String MUZZLE_FINGERPRINT_CACHE_MISS = "Muzzle fingerprint cache miss";
 
     private CounterNames() {}
   }
 
+  // this class is threadsafe.
+  private static class Timer {
+    private long count;
+    private long totalNanos;
+    private long maxNanos;
+
+    synchronized void record(long durationNanos) {
+      count++;
+      totalNanos += durationNanos;
+      maxNanos = Math.max(maxNanos, durationNanos);
+    }
+
+    @Nullable
+    synchronized String getAndReset() {
+      if (count == 0) {
+        return null;
+      }
+      String result =
+          "count "
+              + count
+              + ", total "
+              + TimeUnit.NANOSECONDS.toMillis(totalNanos)
+              + " ms, max "
+              + TimeUnit.NANOSECONDS.toMillis(maxNanos)
+              + " ms";
+      count = 0;
+      totalNanos = 0;
+      maxNanos = 0;
+      return result;
+    }
+  }
+
+  // this class is not threadsafe, it is only used by the report() method.
+  private static class WeakMapCounters implements WeakConcurrentMap.StatisticsConsumer {
+    private int count;
+    private long entries;
+    private int maxEntries;
+    private long expunged;
+
+    @Override
+    public void accept(int approximateSize, long expungedCount) {
+      count++;
+      entries += approximateSize;
+      maxEntries = Math.max(maxEntries, approximateSize);
+      expunged += expungedCount;
+    }
+
+    @Nullable
+    String get() {
+      if (count == 0) {
+        return null;
+      }
+      return "count "
+          + count
+          + ", entries "
+          + entries
+          + ", max entries "
+          + maxEntries
+          + ", expunged "
+          + expunged;
+    }
+  }
+
   // this class is threadsafe.
   private static class KindCounters {
     private final AtomicLong server = new AtomicLong();
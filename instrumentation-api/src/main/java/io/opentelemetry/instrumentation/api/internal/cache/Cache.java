@@ -6,6 +6,7 @@
 package io.opentelemetry.instrumentation.api.internal.cache;
 
 import io.opentelemetry.instrumentation.api.internal.cache.concurrentlinkedhashmap.ConcurrentLinkedHashMap;
+import io.opentelemetry.instrumentation.api.internal.cache.concurrentlinkedhashmap.EntryWeigher;
 import java.util.function.Function;
 import javax.annotation.Nullable;
 
@@ -38,6 +39,34 @@ public interface Cache<K, V> {
     return new MapBackedCache<>(map);
   }
 
+  /**
+   * Returns new bounded cache that uses the W-TinyLFU eviction policy. Compared to {@link
+   * #bounded(int)} this cache keeps a better hit ratio for skewed access patterns, and its reads
+   * don't contend with each other, which makes it a better fit for caches that are read from many
+   * threads at the same time.
+   *
+   * <p>Both keys and values are strongly referenced.
+   */
+  static <K, V> Cache<K, V> boundedTinyLfu(int capacity) {
+    return new TinyLfuCache<>(capacity);
+  }
+
+  /**
+   * Returns new bounded cache that limits the total weight of its entries, instead of the number of
+   * entries. The {@code weigher} must return a weight of at least one for every entry.
+   *
+   * <p>Both keys and values are strongly referenced.
+   */
+  static <K, V> Cache<K, V> weighted(
+      long maximumWeight, EntryWeigher<? super K, ? super V> weigher) {
+    ConcurrentLinkedHashMap<K, V> map =
+        new ConcurrentLinkedHashMap.Builder<K, V>()
+            .maximumWeightedCapacity(maximumWeight)
+            .weigher(weigher)
+            .build();
+    return new MapBackedCache<>(map);
+  }
+
   /**
    * Returns the cached value associated with the provided {@code key}. If no value is cached yet,
    * computes the value using {@code mappingFunction}, stores the result, and returns it.
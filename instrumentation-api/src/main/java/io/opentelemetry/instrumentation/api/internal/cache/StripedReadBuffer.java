@@ -0,0 +1,110 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.instrumentation.api.internal.cache;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+
+/**
+ * A lossy, multiple-producer single-consumer buffer used for recording cache reads. Producers are
+ * spread over several independent ring buffers (stripes) selected by the current thread id, so that
+ * concurrent reads rarely touch the same memory. When a stripe is full, or another thread won the
+ * race for the same slot, the element is simply dropped: losing a few access records only makes the
+ * eviction policy slightly less accurate, while blocking the reader would make every cache hit
+ * slower.
+ *
+ * <p>{@link #drainTo(Consumer)} must not be called concurrently, callers are expected to hold the
+ * cache eviction lock.
+ */
+final class StripedReadBuffer<E> {
+
+  // the size of a single stripe, must be a power of two
+  private static final int BUFFER_SIZE = 16;
+  private static final int BUFFER_MASK = BUFFER_SIZE - 1;
+  private static final int MAX_STRIPES = 64;
+
+  /** The result of {@link #offer(Object)}. */
+  enum Status {
+    SUCCESS,
+    // the element was recorded, the stripe is full and should be drained
+    DRAIN_REQUIRED,
+    // the element was dropped
+    FAILED
+  }
+
+  private final RingBuffer<E>[] stripes;
+  private final int stripeMask;
+
+  @SuppressWarnings({"unchecked", "rawtypes"})
+  StripedReadBuffer() {
+    int stripeCount =
+        ceilingPowerOfTwo(Math.min(MAX_STRIPES, Runtime.getRuntime().availableProcessors()));
+    stripes = new RingBuffer[stripeCount];
+    for (int i = 0; i < stripeCount; i++) {
+      stripes[i] = new RingBuffer<>();
+    }
+    stripeMask = stripeCount - 1;
+  }
+
+  Status offer(E element) {
+    return stripes[stripeIndex()].offer(element);
+  }
+
+  void drainTo(Consumer<E> consumer) {
+    for (RingBuffer<E> stripe : stripes) {
+      stripe.drainTo(consumer);
+    }
+  }
+
+  private int stripeIndex() {
+    long id = Thread.currentThread().getId();
+    int hash = (int) (id ^ (id >>> 32)) * 0x9e3779b9;
+    return (hash ^ (hash >>> 16)) & stripeMask;
+  }
+
+  private static int ceilingPowerOfTwo(int x) {
+    return x <= 1 ? 1 : 1 << (32 - Integer.numberOfLeadingZeros(x - 1));
+  }
+
+  private static final class RingBuffer<E> {
+    private final AtomicReferenceArray<E> buffer = new AtomicReferenceArray<>(BUFFER_SIZE);
+    // only ever written by the draining thread
+    private final AtomicLong readCounter = new AtomicLong();
+    private final AtomicLong writeCounter = new AtomicLong();
+
+    Status offer(E element) {
+      long head = readCounter.get();
+      long tail = writeCounter.get();
+      long size = tail - head;
+      if (size >= BUFFER_SIZE) {
+        return Status.DRAIN_REQUIRED;
+      }
+      if (!writeCounter.compareAndSet(tail, tail + 1)) {
+        return Status.FAILED;
+      }
+      buffer.lazySet((int) (tail & BUFFER_MASK), element);
+      return size + 1 == BUFFER_SIZE ? Status.DRAIN_REQUIRED : Status.SUCCESS;
+    }
+
+    void drainTo(Consumer<E> consumer) {
+      long head = readCounter.get();
+      long tail = writeCounter.get();
+      while (head < tail) {
+        int index = (int) (head & BUFFER_MASK);
+        E element = buffer.get(index);
+        if (element == null) {
+          // the slot was claimed but the producer has not published the element yet
+          break;
+        }
+        buffer.lazySet(index, null);
+        consumer.accept(element);
+        head++;
+      }
+      readCounter.lazySet(head);
+    }
+  }
+}
@@ -0,0 +1,368 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.instrumentation.api.internal.cache;
+
+import io.opentelemetry.instrumentation.api.internal.GuardedBy;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import javax.annotation.Nullable;
+
+/**
+ * A bounded cache that uses the W-TinyLFU eviction policy, modeled after the one used by <a
+ * href="https://github.com/ben-manes/caffeine">Caffeine</a>.
+ *
+ * <p>Entries are stored in a {@link ConcurrentHashMap}, so reads never block. The eviction policy
+ * state is only modified while holding the eviction lock: reads are recorded in a {@link
+ * StripedReadBuffer}, which drops records instead of blocking when it is full or contended, and is
+ * drained whenever one of its stripes fills up and the lock is free. Writes are recorded in a
+ * write buffer, which the writing thread drains if the lock is free; otherwise the thread holding
+ * the lock drains it. Writers only wait for the lock when more than {@value
+ * #WRITE_BUFFER_THRESHOLD} writes are pending, which bounds how far the cache can temporarily
+ * exceed its capacity.
+ *
+ * <p>The policy keeps new entries in a small LRU admission window (1% of the capacity). An entry
+ * that leaves the window only replaces the eviction candidate of the main space if it has been
+ * accessed more often, according to a {@link FrequencySketch}. The main space is a segmented LRU:
+ * entries start in the probation segment and are promoted to the protected segment (80% of the main
+ * space) when accessed again.
+ */
+final class TinyLfuCache<K, V> implements Cache<K, V> {
+
+  private static final int WINDOW = 0;
+  private static final int PROBATION = 1;
+  private static final int PROTECTED = 2;
+  // not added to the policy yet
+  private static final int NEW = 3;
+  // removed from the cache
+  private static final int DEAD = 4;
+
+  private static final int WRITE_BUFFER_THRESHOLD = 128;
+
+  private final ConcurrentMap<K, Node<K, V>> data = new ConcurrentHashMap<>();
+  private final StripedReadBuffer<Node<K, V>> readBuffer = new StripedReadBuffer<>();
+  private final Queue<Runnable> writeBuffer = new ConcurrentLinkedQueue<>();
+  private final AtomicInteger pendingWrites = new AtomicInteger();
+  private final ReentrantLock evictionLock = new ReentrantLock();
+
+  @GuardedBy("evictionLock")
+  private final FrequencySketch sketch;
+
+  @GuardedBy("evictionLock")
+  private final AccessOrderDeque<K, V> window = new AccessOrderDeque<>();
+
+  @GuardedBy("evictionLock")
+  private final AccessOrderDeque<K, V> probation = new AccessOrderDeque<>();
+
+  @GuardedBy("evictionLock")
+  private final AccessOrderDeque<K, V> protectedSegment = new AccessOrderDeque<>();
+
+  private final int maximumWindowSize;
+  private final int maximumMainSize;
+  private final int maximumProtectedSize;
+
+  TinyLfuCache(int capacity) {
+    if (capacity < 1) {
+      throw new IllegalArgumentException("capacity must be positive");
+    }
+    sketch = new FrequencySketch(capacity);
+    maximumWindowSize = Math.max(1, capacity / 100);
+    maximumMainSize = capacity - maximumWindowSize;
+    maximumProtectedSize = (int) (maximumMainSize * 0.8);
+  }
+
+  @Override
+  public V computeIfAbsent(K key, Function<? super K, ? extends V> mappingFunction) {
+    Node<K, V> node = data.get(key);
+    if (node != null) {
+      afterRead(node);
+      return node.value;
+    }
+    // the mapping function is called at most once per key, while the map holds the lock of the
+    // key's bin
+    node =
+        data.computeIfAbsent(
+            key,
+            k -> {
+              V value = mappingFunction.apply(k);
+              return value == null ? null : new Node<>(k, value);
+            });
+    if (node == null) {
+      return null;
+    }
+    // the node may also have been added by a concurrent call, adding it to the policy is
+    // idempotent
+    Node<K, V> addedNode = node;
+    afterWrite(() -> onAdd(addedNode));
+    return node.value;
+  }
+
+  @Nullable
+  @Override
+  public V get(K key) {
+    Node<K, V> node = data.get(key);
+    if (node == null) {
+      return null;
+    }
+    afterRead(node);
+    return node.value;
+  }
+
+  @Override
+  public void put(K key, V value) {
+    Node<K, V> newNode = new Node<>(key, value);
+    while (true) {
+      Node<K, V> existing = data.putIfAbsent(key, newNode);
+      if (existing == null) {
+        afterWrite(() -> onAdd(newNode));
+        return;
+      }
+      existing.value = value;
+      // the existing node might have been evicted in the meantime, in that case try again
+      if (data.get(key) == existing) {
+        afterRead(existing);
+        return;
+      }
+    }
+  }
+
+  @Override
+  public void remove(K key) {
+    Node<K, V> node = data.remove(key);
+    if (node != null) {
+      afterWrite(() -> onRemove(node));
+    }
+  }
+
+  // Visible for testing
+  int size() {
+    return data.size();
+  }
+
+  // Visible for testing
+  void cleanUp() {
+    evictionLock.lock();
+    try {
+      maintenance();
+    } finally {
+      evictionLock.unlock();
+    }
+    drainPendingWrites();
+  }
+
+  private void afterRead(Node<K, V> node) {
+    if (readBuffer.offer(node) == StripedReadBuffer.Status.DRAIN_REQUIRED) {
+      tryToDrainBuffers();
+    }
+  }
+
+  private void afterWrite(Runnable task) {
+    writeBuffer.add(task);
+    if (pendingWrites.incrementAndGet() > WRITE_BUFFER_THRESHOLD) {
+      // the maintenance can't keep up with the writes, wait for the lock so that the cache
+      // doesn't grow far beyond its capacity
+      cleanUp();
+    } else {
+      tryToDrainBuffers();
+    }
+  }
+
+  private void tryToDrainBuffers() {
+    if (evictionLock.tryLock()) {
+      try {
+        maintenance();
+      } finally {
+        evictionLock.unlock();
+      }
+      drainPendingWrites();
+    }
+  }
+
+  // a write that was recorded while the lock was held may have failed to acquire it, in that case
+  // the thread that held the lock drains the write buffer again
+  private void drainPendingWrites() {
+    while (pendingWrites.get() != 0 && evictionLock.tryLock()) {
+      try {
+        maintenance();
+      } finally {
+        evictionLock.unlock();
+      }
+    }
+  }
+
+  @GuardedBy("evictionLock")
+  private void maintenance() {
+    readBuffer.drainTo(this::onAccess);
+    Runnable task;
+    while ((task = writeBuffer.poll()) != null) {
+      pendingWrites.decrementAndGet();
+      task.run();
+    }
+  }
+
+  @GuardedBy("evictionLock")
+  private void onAdd(Node<K, V> node) {
+    if (node.queue != NEW) {
+      // removed before it was added to the policy
+      return;
+    }
+    sketch.increment(node.key);
+    node.queue = WINDOW;
+    window.addLast(node);
+    while (window.size > maximumWindowSize) {
+      Node<K, V> candidate = window.removeFirst();
+      admit(candidate);
+    }
+  }
+
+  // moves the candidate that left the admission window into the main space, evicting either the
+  // candidate or the main space victim when the main space is full
+  @GuardedBy("evictionLock")
+  private void admit(Node<K, V> candidate) {
+    if (probation.size + protectedSegment.size < maximumMainSize) {
+      candidate.queue = PROBATION;
+      probation.addLast(candidate);
+      return;
+    }
+    AccessOrderDeque<K, V> victimQueue = probation.isEmpty() ? protectedSegment : probation;
+    Node<K, V> victim = victimQueue.first;
+    if (victim != null && sketch.frequency(candidate.key) > sketch.frequency(victim.key)) {
+      victimQueue.remove(victim);
+      evict(victim);
+      candidate.queue = PROBATION;
+      probation.addLast(candidate);
+    } else {
+      evict(candidate);
+    }
+  }
+
+  @GuardedBy("evictionLock")
+  private void evict(Node<K, V> node) {
+    node.queue = DEAD;
+    data.remove(node.key, node);
+  }
+
+  @GuardedBy("evictionLock")
+  private void onAccess(Node<K, V> node) {
+    switch (node.queue) {
+      case WINDOW:
+        sketch.increment(node.key);
+        window.moveToLast(node);
+        break;
+      case PROBATION:
+        sketch.increment(node.key);
+        probation.remove(node);
+        node.queue = PROTECTED;
+        protectedSegment.addLast(node);
+        if (protectedSegment.size > maximumProtectedSize) {
+          Node<K, V> demoted = protectedSegment.removeFirst();
+          demoted.queue = PROBATION;
+          probation.addLast(demoted);
+        }
+        break;
+      case PROTECTED:
+        sketch.increment(node.key);
+        protectedSegment.moveToLast(node);
+        break;
+      default:
+        // not added yet or already removed
+        break;
+    }
+  }
+
+  @GuardedBy("evictionLock")
+  private void onRemove(Node<K, V> node) {
+    switch (node.queue) {
+      case WINDOW:
+        window.remove(node);
+        break;
+      case PROBATION:
+        probation.remove(node);
+        break;
+      case PROTECTED:
+        protectedSegment.remove(node);
+        break;
+      default:
+        break;
+    }
+    node.queue = DEAD;
+  }
+
+  private static final class Node<K, V> {
+    final K key;
+    volatile V value;
+
+    // policy state, guarded by the eviction lock
+    int queue = NEW;
+    @Nullable Node<K, V> previous;
+    @Nullable Node<K, V> next;
+
+    Node(K key, V value) {
+      this.key = key;
+      this.value = value;
+    }
+  }
+
+  /** A doubly-linked list of nodes, ordered from the least to the most recently used. */
+  private static final class AccessOrderDeque<K, V> {
+    @Nullable Node<K, V> first;
+    @Nullable Node<K, V> last;
+    int size;
+
+    boolean isEmpty() {
+      return size == 0;
+    }
+
+    void addLast(Node<K, V> node) {
+      node.previous = last;
+      node.next = null;
+      if (last == null) {
+        first = node;
+      } else {
+        last.next = node;
+      }
+      last = node;
+      size++;
+    }
+
+    Node<K, V> removeFirst() {
+      Node<K, V> node = first;
+      // only called when the deque is not empty
+      if (node == null) {
+        throw new IllegalStateException();
+      }
+      remove(node);
+      return node;
+    }
+
+    void remove(Node<K, V> node) {
+      if (node.previous == null) {
+        first = node.next;
+      } else {
+        node.previous.next = node.next;
+      }
+      if (node.next == null) {
+        last = node.previous;
+      } else {
+        node.next.previous = node.previous;
+      }
+      node.previous = null;
+      node.next = null;
+      size--;
+    }
+
+    void moveToLast(Node<K, V> node) {
+      if (node != last) {
+        remove(node);
+        addLast(node);
+      }
+    }
+  }
+}
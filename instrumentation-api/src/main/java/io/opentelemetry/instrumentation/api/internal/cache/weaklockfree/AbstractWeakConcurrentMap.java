@@ -25,14 +25,17 @@
 
 package io.opentelemetry.instrumentation.api.internal.cache.weaklockfree;
 
+import io.opentelemetry.instrumentation.api.internal.StripedWeakIdentityMap;
 import java.lang.ref.Reference;
 import java.lang.ref.ReferenceQueue;
 import java.lang.ref.WeakReference;
 import java.util.Iterator;
 import java.util.Map;
 import java.util.NoSuchElementException;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Function;
 import javax.annotation.Nullable;
 
@@ -51,9 +54,19 @@ import javax.annotation.Nullable;
 abstract class AbstractWeakConcurrentMap<K, V, L> implements Iterable<Map.Entry<K, V>> {
 
   private static final ReferenceQueue<Object> REFERENCE_QUEUE = new ReferenceQueue<>();
+  // the number of references that the cleaner thread expunges before it yields to other threads
+  private static final int CLEANUP_BATCH_SIZE = 1024;
+  // how often the cleaner thread checks the maps of virtual fields when no weak map keys are
+  // collected
+  private static final long CLEANUP_INTERVAL_MILLIS = 1000;
+  // the maps that are in use, their references are expunged when the maps are collected
+  private static final Set<MapReference> MAPS = ConcurrentHashMap.newKeySet();
 
   final ConcurrentMap<WeakKey<K>, V> target;
-  private final WeakReference<ConcurrentMap<WeakKey<K>, ?>> weakTarget;
+  private final MapReference weakTarget;
+  private final AtomicLong expungedCount = new AtomicLong();
+  // guarded by the class, see collectStatistics()
+  private long reportedExpungedCount;
 
   protected AbstractWeakConcurrentMap() {
     this(new ConcurrentHashMap<>());
@@ -64,7 +77,8 @@ abstract class AbstractWeakConcurrentMap<K, V, L> implements Iterable<Map.Entry<
    */
   protected AbstractWeakConcurrentMap(ConcurrentMap<WeakKey<K>, V> target) {
     this.target = target;
-    this.weakTarget = new WeakReference<>(target);
+    this.weakTarget = new MapReference(this);
+    MAPS.add(weakTarget);
   }
 
   /**
@@ -233,14 +247,45 @@ abstract class AbstractWeakConcurrentMap<K, V, L> implements Iterable<Map.Entry<
   public static void expungeStaleEntries() {
     Reference<?> reference;
     while ((reference = REFERENCE_QUEUE.poll()) != null) {
-      removeWeakKey((WeakKey<?>) reference);
+      expunge(reference);
     }
   }
 
-  private static void removeWeakKey(WeakKey<?> weakKey) {
-    ConcurrentMap<?, ?> map = weakKey.ownerRef.get();
-    if (map != null) {
-      map.remove(weakKey);
+  /**
+   * Cleans at most {@code maxReferences} unused references.
+   *
+   * @return The number of cleaned references.
+   */
+  public static int expungeStaleEntries(int maxReferences) {
+    int expunged = 0;
+    Reference<?> reference;
+    while (expunged < maxReferences && (reference = REFERENCE_QUEUE.poll()) != null) {
+      expunge(reference);
+      expunged++;
+    }
+    return expunged;
+  }
+
+  private static void expunge(Reference<?> reference) {
+    if (reference instanceof WeakKey<?>) {
+      AbstractWeakConcurrentMap<?, ?, ?> map = ((WeakKey<?>) reference).ownerRef.get();
+      if (map != null && map.target.remove(reference) != null) {
+        map.expungedCount.incrementAndGet();
+      }
+    } else {
+      MAPS.remove(reference);
+    }
+  }
+
+  // see WeakConcurrentMap.collectStatistics()
+  static synchronized void collectStatistics(WeakConcurrentMap.StatisticsConsumer consumer) {
+    for (MapReference reference : MAPS) {
+      AbstractWeakConcurrentMap<?, ?, ?> map = reference.get();
+      if (map != null) {
+        long expungedCount = map.expungedCount.get();
+        consumer.accept(map.target.size(), expungedCount - map.reportedExpungedCount);
+        map.reportedExpungedCount = expungedCount;
+      }
     }
   }
 
@@ -254,13 +299,28 @@ abstract class AbstractWeakConcurrentMap<K, V, L> implements Iterable<Map.Entry<
     return target.size();
   }
 
+  /**
+   * @return The number of entries that were removed from this map because their keys were
+   *     collected.
+   */
+  public long expungedCount() {
+    return expungedCount.get();
+  }
+
   static void runCleanup() {
     try {
       while (!Thread.interrupted()) {
-        Reference<?> reference = REFERENCE_QUEUE.remove();
+        // the maps of virtual fields have their own reference queue, so don't block on this one
+        // indefinitely
+        Reference<?> reference = REFERENCE_QUEUE.remove(CLEANUP_INTERVAL_MILLIS);
         if (reference != null) {
-          removeWeakKey((WeakKey<?>) reference);
+          expunge(reference);
+          // a collection usually enqueues many references at once, drain them in batches so that
+          // the cleaner doesn't wake up for every single reference
+          expungeStaleEntries(CLEANUP_BATCH_SIZE - 1);
         }
+        StripedWeakIdentityMap.expungeStaleEntries(CLEANUP_BATCH_SIZE);
+        Thread.yield();
       }
     } catch (InterruptedException ignored) {
       // do nothing
@@ -314,9 +374,9 @@ abstract class AbstractWeakConcurrentMap<K, V, L> implements Iterable<Map.Entry<
   static final class WeakKey<K> extends WeakReference<K> {
 
     private final int hashCode;
-    private final WeakReference<ConcurrentMap<WeakKey<K>, ?>> ownerRef;
+    private final MapReference ownerRef;
 
-    WeakKey(K key, WeakReference<ConcurrentMap<WeakKey<K>, ?>> ownerRef) {
+    WeakKey(K key, MapReference ownerRef) {
       super(key, REFERENCE_QUEUE);
       hashCode = System.identityHashCode(key);
       this.ownerRef = ownerRef;
@@ -342,6 +402,15 @@ abstract class AbstractWeakConcurrentMap<K, V, L> implements Iterable<Map.Entry<
     }
   }
 
+  /** A weak reference to a map, which is expunged from {@link #MAPS} when the map is collected. */
+  private static final class MapReference
+      extends WeakReference<AbstractWeakConcurrentMap<?, ?, ?>> {
+
+    MapReference(AbstractWeakConcurrentMap<?, ?, ?> map) {
+      super(map, REFERENCE_QUEUE);
+    }
+  }
+
   private class EntryIterator implements Iterator<Map.Entry<K, V>> {
 
     private final Iterator<Map.Entry<WeakKey<K>, V>> iterator;
@@ -116,6 +116,14 @@ public class WeakConcurrentMap<K, V>
     this.reuseKeys = reuseKeys;
   }
 
+  /**
+   * Passes the approximate size of every map that is in use, and the number of its entries that
+   * were expunged since the previous call of this method, to the consumer.
+   */
+  public static void collectStatistics(StatisticsConsumer consumer) {
+    AbstractWeakConcurrentMap.collectStatistics(consumer);
+  }
+
   @Override
   @SuppressWarnings("unchecked")
   protected LookupKey<K> getLookupKey(K key) {
@@ -173,6 +181,16 @@ public class WeakConcurrentMap<K, V>
     }
   }
 
+  /**
+   * Receives the statistics of a map, see {@link #collectStatistics(StatisticsConsumer)}.
+   *
+   * <p>This class is internal and is hence not for public use. Its APIs are unstable and can change
+   * at any time.
+   */
+  public interface StatisticsConsumer {
+    void accept(int approximateSize, long expungedCount);
+  }
+
   /**
    * A {@link WeakConcurrentMap} where stale entries are removed as a side effect of interacting
    * with this map.
@@ -182,51 +200,55 @@ public class WeakConcurrentMap<K, V>
    */
   public static class WithInlinedExpunction<K, V> extends WeakConcurrentMap<K, V> {
 
+    // bounds the time that a single call spends on expunging stale entries, the remaining
+    // entries are expunged by later calls or by the cleaner thread
+    private static final int EXPUNGE_BATCH_SIZE = 64;
+
     @Override
     public V get(K key) {
-      expungeStaleEntries();
+      expungeStaleEntries(EXPUNGE_BATCH_SIZE);
       return super.get(key);
     }
 
     @Override
     public V getIfPresent(K key) {
-      expungeStaleEntries();
+      expungeStaleEntries(EXPUNGE_BATCH_SIZE);
       return super.getIfPresent(key);
     }
 
     @Override
     public boolean containsKey(K key) {
-      expungeStaleEntries();
+      expungeStaleEntries(EXPUNGE_BATCH_SIZE);
       return super.containsKey(key);
     }
 
     @Override
     public V put(K key, V value) {
-      expungeStaleEntries();
+      expungeStaleEntries(EXPUNGE_BATCH_SIZE);
       return super.put(key, value);
     }
 
     @Override
     public V putIfAbsent(K key, V value) {
-      expungeStaleEntries();
+      expungeStaleEntries(EXPUNGE_BATCH_SIZE);
       return super.putIfAbsent(key, value);
     }
 
     @Override
     public V computeIfAbsent(K key, Function<? super K, ? extends V> mappingFunction) {
-      expungeStaleEntries();
+      expungeStaleEntries(EXPUNGE_BATCH_SIZE);
       return super.computeIfAbsent(key, mappingFunction);
     }
 
     @Override
     public V remove(K key) {
-      expungeStaleEntries();
+      expungeStaleEntries(EXPUNGE_BATCH_SIZE);
       return super.remove(key);
     }
 
     @Override
     public Iterator<Map.Entry<K, V>> iterator() {
-      expungeStaleEntries();
+      expungeStaleEntries(EXPUNGE_BATCH_SIZE);
       return super.iterator();
     }
 
@@ -21,6 +21,8 @@ public final class WeakConcurrentMapCleaner {
 
     thread = new Thread(AbstractWeakConcurrentMap::runCleanup, "weak-ref-cleaner");
     thread.setDaemon(true);
+    // expunging is not urgent, it shouldn't take cpu time from the application
+    thread.setPriority(Thread.MIN_PRIORITY);
     thread.setContextClassLoader(null);
     thread.start();
   }
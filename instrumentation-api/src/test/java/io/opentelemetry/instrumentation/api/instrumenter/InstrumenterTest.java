@@ -6,6 +6,7 @@
 package io.opentelemetry.instrumentation.api.instrumenter;
 
 import static io.opentelemetry.sdk.testing.assertj.OpenTelemetryAssertions.assertThat;
+import static io.opentelemetry.sdk.testing.assertj.OpenTelemetryAssertions.attributeEntry;
 import static io.opentelemetry.sdk.testing.assertj.OpenTelemetryAssertions.equalTo;
 import static java.util.Collections.emptyMap;
 import static org.assertj.core.api.Assertions.entry;
@@ -32,9 +33,12 @@ import io.opentelemetry.sdk.common.InstrumentationScopeInfo;
 import io.opentelemetry.sdk.testing.junit5.OpenTelemetryExtension;
 import io.opentelemetry.sdk.trace.data.LinkData;
 import io.opentelemetry.sdk.trace.data.StatusData;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -114,6 +118,32 @@ class InstrumenterTest {
     }
   }
 
+  static class CountingAttributesExtractor
+      implements AttributesExtractor<Map<String, String>, Map<String, String>> {
+
+    private final AtomicInteger calls;
+
+    CountingAttributesExtractor(AtomicInteger calls) {
+      this.calls = calls;
+    }
+
+    @Override
+    public void onStart(
+        AttributesBuilder attributes, Context parentContext, Map<String, String> request) {
+      calls.incrementAndGet();
+    }
+
+    @Override
+    public void onEnd(
+        AttributesBuilder attributes,
+        Context context,
+        Map<String, String> request,
+        @Nullable Map<String, String> response,
+        @Nullable Throwable error) {
+      calls.incrementAndGet();
+    }
+  }
+
   static class AttributesExtractorWithSchemaUrl
       implements AttributesExtractor<Map<String, String>, Map<String, String>>, SchemaUrlProvider {
 
@@ -503,6 +533,228 @@ class InstrumenterTest {
     assertThat(Span.fromContext(endContext.get()).getSpanContext().isValid()).isTrue();
   }
 
+  @Test
+  void reuseBuilders() {
+    Instrumenter<Map<String, String>, Map<String, String>> instrumenter =
+        Instrumenter.<Map<String, String>, Map<String, String>>builder(
+                otelTesting.getOpenTelemetry(), "test", unused -> "span")
+            .addAttributesExtractor(new AttributesExtractor1())
+            .setReuseBuilders(true)
+            .buildInstrumenter();
+
+    Context context = instrumenter.start(Context.root(), REQUEST);
+    instrumenter.end(context, REQUEST, RESPONSE, new IllegalStateException("test"));
+
+    Map<String, String> otherRequest = new HashMap<>();
+    otherRequest.put("req1", "other_req1_value");
+    otherRequest.put("req2", "other_req2_value");
+    Map<String, String> otherResponse = new HashMap<>();
+    otherResponse.put("resp1", "other_resp1_value");
+    otherResponse.put("resp2", "other_resp2_value");
+    Context otherContext = instrumenter.start(Context.root(), otherRequest);
+    instrumenter.end(otherContext, otherRequest, otherResponse, null);
+
+    otelTesting
+        .assertTraces()
+        .hasTracesSatisfyingExactly(
+            trace ->
+                trace.hasSpansSatisfyingExactly(
+                    span ->
+                        span.hasName("span")
+                            .hasStatus(StatusData.error())
+                            .hasAttributesSatisfyingExactly(
+                                equalTo(AttributeKey.stringKey("req1"), "req1_value"),
+                                equalTo(AttributeKey.stringKey("req2"), "req2_value"),
+                                equalTo(AttributeKey.stringKey("resp1"), "resp1_value"),
+                                equalTo(AttributeKey.stringKey("resp2"), "resp2_value"))),
+            trace ->
+                trace.hasSpansSatisfyingExactly(
+                    span ->
+                        span.hasName("span")
+                            .hasStatus(StatusData.unset())
+                            .hasAttributesSatisfyingExactly(
+                                equalTo(AttributeKey.stringKey("req1"), "other_req1_value"),
+                                equalTo(AttributeKey.stringKey("req2"), "other_req2_value"),
+                                equalTo(AttributeKey.stringKey("resp1"), "other_resp1_value"),
+                                equalTo(AttributeKey.stringKey("resp2"), "other_resp2_value"))));
+  }
+
+  @Test
+  void reuseBuildersWithOperationListenerAndContextCustomizer() {
+    List<Attributes> retainedAttributes = new ArrayList<>();
+    OperationListener operationListener =
+        new OperationListener() {
+          @Override
+          public Context onStart(Context context, Attributes startAttributes, long startNanos) {
+            retainedAttributes.add(startAttributes);
+            return context;
+          }
+
+          @Override
+          public void onEnd(Context context, Attributes endAttributes, long endNanos) {
+            retainedAttributes.add(endAttributes);
+          }
+        };
+
+    Instrumenter<Map<String, String>, Map<String, String>> instrumenter =
+        Instrumenter.<Map<String, String>, Map<String, String>>builder(
+                otelTesting.getOpenTelemetry(), "test", unused -> "span")
+            .addAttributesExtractor(new AttributesExtractor1())
+            .addOperationListener(operationListener)
+            .addContextCustomizer(
+                (context, request, startAttributes) -> {
+                  retainedAttributes.add(startAttributes);
+                  return context;
+                })
+            .setReuseBuilders(true)
+            .buildInstrumenter();
+
+    Context context = instrumenter.start(Context.root(), REQUEST);
+    instrumenter.end(context, REQUEST, RESPONSE, null);
+    Map<String, String> otherRequest = new HashMap<>();
+    otherRequest.put("req1", "other_req1_value");
+    otherRequest.put("req2", "other_req2_value");
+    Map<String, String> otherResponse = new HashMap<>();
+    otherResponse.put("resp1", "other_resp1_value");
+    otherResponse.put("resp2", "other_resp2_value");
+    Context otherContext = instrumenter.start(Context.root(), otherRequest);
+    instrumenter.end(otherContext, otherRequest, otherResponse, null);
+
+    // the attributes of the first operation are not changed by the reused builders
+    assertThat(retainedAttributes).hasSize(6);
+    assertThat(retainedAttributes.get(0))
+        .containsOnly(attributeEntry("req1", "req1_value"), attributeEntry("req2", "req2_value"));
+    assertThat(retainedAttributes.get(1)).isSameAs(retainedAttributes.get(0));
+    assertThat(retainedAttributes.get(2))
+        .containsOnly(
+            attributeEntry("resp1", "resp1_value"), attributeEntry("resp2", "resp2_value"));
+    assertThat(retainedAttributes.get(3))
+        .containsOnly(
+            attributeEntry("req1", "other_req1_value"), attributeEntry("req2", "other_req2_value"));
+    assertThat(retainedAttributes.get(5))
+        .containsOnly(
+            attributeEntry("resp1", "other_resp1_value"),
+            attributeEntry("resp2", "other_resp2_value"));
+  }
+
+  @Test
+  void samplingRelevantAttributesExtractors_notSampledWithOperationListener() {
+    AtomicInteger deferredCalls = new AtomicInteger();
+    AtomicReference<Attributes> startAttributes = new AtomicReference<>();
+    AtomicReference<Attributes> endAttributes = new AtomicReference<>();
+    OperationListener operationListener =
+        new OperationListener() {
+          @Override
+          public Context onStart(Context context, Attributes attributes, long startNanos) {
+            startAttributes.set(attributes);
+            return context;
+          }
+
+          @Override
+          public void onEnd(Context context, Attributes attributes, long endNanos) {
+            endAttributes.set(attributes);
+          }
+        };
+
+    Instrumenter<Map<String, String>, Map<String, String>> instrumenter =
+        Instrumenter.<Map<String, String>, Map<String, String>>builder(
+                otelTesting.getOpenTelemetry(), "test", unused -> "span")
+            .addSamplingRelevantAttributesExtractor(new AttributesExtractor1())
+            .addListenerRelevantAttributesExtractor(new AttributesExtractor2())
+            .addAttributesExtractor(new CountingAttributesExtractor(deferredCalls))
+            .addOperationListener(operationListener)
+            .buildInstrumenter();
+
+    Context parentContext =
+        Context.root()
+            .with(
+                Span.wrap(
+                    SpanContext.createFromRemoteParent(
+                        LINK_TRACE_ID,
+                        LINK_SPAN_ID,
+                        TraceFlags.getDefault(),
+                        TraceState.getDefault())));
+    Context context = instrumenter.start(parentContext, REQUEST);
+    assertThat(Span.fromContext(context).isRecording()).isFalse();
+    instrumenter.end(context, REQUEST, RESPONSE, null);
+
+    // operation listeners (e.g. metrics) get the attributes of the extractors declared for them,
+    // the sampling relevant values win
+    assertThat(startAttributes.get())
+        .containsOnly(
+            attributeEntry("req1", "req1_value"),
+            attributeEntry("req2", "req2_value"),
+            attributeEntry("req3", "req3_value"));
+    assertThat(endAttributes.get())
+        .containsOnly(
+            attributeEntry("resp1", "resp1_value"),
+            attributeEntry("resp2", "resp2_value"),
+            attributeEntry("resp3", "resp3_value"));
+    // the other deferred extractors don't run
+    assertThat(deferredCalls).hasValue(0);
+  }
+
+  @Test
+  void samplingRelevantAttributesExtractors_notSampled() {
+    AtomicInteger deferredCalls = new AtomicInteger();
+    Instrumenter<Map<String, String>, Map<String, String>> instrumenter =
+        Instrumenter.<Map<String, String>, Map<String, String>>builder(
+                otelTesting.getOpenTelemetry(), "test", unused -> "span")
+            .addSamplingRelevantAttributesExtractor(new AttributesExtractor1())
+            .addAttributesExtractor(new CountingAttributesExtractor(deferredCalls))
+            .buildInstrumenter();
+
+    Context parentContext =
+        Context.root()
+            .with(
+                Span.wrap(
+                    SpanContext.createFromRemoteParent(
+                        LINK_TRACE_ID,
+                        LINK_SPAN_ID,
+                        TraceFlags.getDefault(),
+                        TraceState.getDefault())));
+    Context context = instrumenter.start(parentContext, REQUEST);
+    assertThat(Span.fromContext(context).isRecording()).isFalse();
+    instrumenter.end(context, REQUEST, RESPONSE, null);
+
+    // nothing would see the attributes of the deferred extractor
+    assertThat(deferredCalls).hasValue(0);
+  }
+
+  @Test
+  void samplingRelevantAttributesExtractors_sampled() {
+    AtomicInteger samplingRelevantCalls = new AtomicInteger();
+    Instrumenter<Map<String, String>, Map<String, String>> instrumenter =
+        Instrumenter.<Map<String, String>, Map<String, String>>builder(
+                otelTesting.getOpenTelemetry(), "test", unused -> "span")
+            .addSamplingRelevantAttributesExtractor(new AttributesExtractor1())
+            .addSamplingRelevantAttributesExtractor(
+                new CountingAttributesExtractor(samplingRelevantCalls))
+            .addAttributesExtractor(new AttributesExtractor2())
+            .buildInstrumenter();
+
+    Context context = instrumenter.start(Context.root(), REQUEST);
+    instrumenter.end(context, REQUEST, RESPONSE, null);
+
+    // the sampling relevant extractors run once on start and once on end
+    assertThat(samplingRelevantCalls).hasValue(2);
+
+    otelTesting
+        .assertTraces()
+        .hasTracesSatisfyingExactly(
+            trace ->
+                trace.hasSpansSatisfyingExactly(
+                    span ->
+                        span.hasName("span")
+                            .hasAttributesSatisfyingExactly(
+                                equalTo(AttributeKey.stringKey("req1"), "req1_value"),
+                                equalTo(AttributeKey.stringKey("req2"), "req2_value"),
+                                equalTo(AttributeKey.stringKey("req3"), "req3_value"),
+                                equalTo(AttributeKey.stringKey("resp1"), "resp1_value"),
+                                equalTo(AttributeKey.stringKey("resp2"), "resp2_value"),
+                                equalTo(AttributeKey.stringKey("resp3"), "resp3_value"))));
+  }
+
   @Test
   void shouldNotAddInvalidLink() {
     // given
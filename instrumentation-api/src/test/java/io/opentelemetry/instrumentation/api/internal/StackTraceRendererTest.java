@@ -0,0 +1,84 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.instrumentation.api.internal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+
+class StackTraceRendererTest {
+
+  private final AtomicLong nanoTime = new AtomicLong();
+  private final StackTraceRenderer renderer = new StackTraceRenderer(16, 1000, nanoTime::get);
+
+  @Test
+  void rendersLikePrintStackTrace() {
+    Exception exception = newException("message", "cause");
+    exception.addSuppressed(new IllegalArgumentException("suppressed"));
+
+    assertThat(renderer.renderStackTrace(exception)).isEqualTo(printStackTrace(exception));
+  }
+
+  @Test
+  void reusesRenderedStringForRepeatedStackTraces() {
+    String first = null;
+    String second = null;
+    for (int i = 0; i < 2; i++) {
+      String rendered = renderer.renderStackTrace(newException("message", "cause"));
+      if (i == 0) {
+        first = rendered;
+      } else {
+        second = rendered;
+      }
+    }
+
+    assertThat(second).isSameAs(first);
+  }
+
+  @Test
+  void rendersAgainAfterWindow() {
+    String first = renderer.renderStackTrace(newException("message", "cause"));
+    nanoTime.set(1000);
+    String second = renderer.renderStackTrace(newException("message", "cause"));
+
+    assertThat(second).isNotSameAs(first).isEqualTo(first);
+  }
+
+  @Test
+  void distinguishesMessagesAndCauses() {
+    Exception[] exceptions = new Exception[3];
+    for (int i = 0; i < 3; i++) {
+      exceptions[i] = newException(i == 2 ? "other" : "message", i == 1 ? "other" : "cause");
+    }
+
+    for (Exception exception : exceptions) {
+      assertThat(renderer.renderStackTrace(exception)).isEqualTo(printStackTrace(exception));
+    }
+  }
+
+  @Test
+  void cyclicCauses() {
+    Exception first = new Exception("first");
+    Exception second = new Exception("second", first);
+    first.initCause(second);
+
+    assertThat(renderer.renderStackTrace(second)).isEqualTo(printStackTrace(second));
+  }
+
+  private static Exception newException(String message, String causeMessage) {
+    return new IllegalStateException(message, new IOException(causeMessage));
+  }
+
+  private static String printStackTrace(Throwable throwable) {
+    StringWriter writer = new StringWriter();
+    throwable.printStackTrace(new PrintWriter(writer));
+    return writer.toString();
+  }
+}
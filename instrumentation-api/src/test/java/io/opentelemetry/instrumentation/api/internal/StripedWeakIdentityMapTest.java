@@ -0,0 +1,114 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.instrumentation.api.internal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class StripedWeakIdentityMapTest {
+
+  @Test
+  void putGetRemove() {
+    StripedWeakIdentityMap<String, String> map = new StripedWeakIdentityMap<>();
+    String cat = new String("cat");
+    String dog = new String("dog");
+
+    map.put(cat, "meow");
+    map.put(dog, "bark");
+    assertThat(map.get(cat)).isEqualTo("meow");
+    assertThat(map.get(dog)).isEqualTo("bark");
+    // keys are compared by identity
+    assertThat(map.get(new String("cat"))).isNull();
+    assertThat(map.size()).isEqualTo(2);
+
+    map.put(cat, "purr");
+    assertThat(map.get(cat)).isEqualTo("purr");
+    assertThat(map.size()).isEqualTo(2);
+
+    map.remove(cat);
+    assertThat(map.get(cat)).isNull();
+    assertThat(map.get(dog)).isEqualTo("bark");
+    assertThat(map.size()).isEqualTo(1);
+
+    map.put(cat, "meow");
+    assertThat(map.get(cat)).isEqualTo("meow");
+    assertThat(map.size()).isEqualTo(2);
+  }
+
+  @Test
+  void manyKeys() {
+    StripedWeakIdentityMap<Object, Integer> map = new StripedWeakIdentityMap<>();
+    List<Object> keys = new ArrayList<>();
+    for (int i = 0; i < 10_000; i++) {
+      Object key = new Object();
+      keys.add(key);
+      map.put(key, i);
+    }
+    assertThat(map.size()).isEqualTo(10_000);
+
+    for (int i = 0; i < keys.size(); i += 2) {
+      map.remove(keys.get(i));
+    }
+    for (int i = 0; i < keys.size(); i++) {
+      assertThat(map.get(keys.get(i))).isEqualTo(i % 2 == 0 ? null : i);
+    }
+    assertThat(map.size()).isEqualTo(5_000);
+  }
+
+  @Test
+  void weakKeys() {
+    StripedWeakIdentityMap<Object, String> map = new StripedWeakIdentityMap<>();
+    Object cat = new Object();
+    Object dog = new Object();
+    map.put(cat, "meow");
+    map.put(dog, "bark");
+    assertThat(map.size()).isEqualTo(2);
+
+    cat = null;
+    System.gc();
+    // Wait for GC to be reflected.
+    await().untilAsserted(() -> assertThat(map.size()).isEqualTo(1));
+    assertThat(map.get(dog)).isEqualTo("bark");
+
+    dog = null;
+    System.gc();
+    // Wait for GC to be reflected.
+    await().untilAsserted(() -> assertThat(map.size()).isEqualTo(0));
+  }
+
+  @Test
+  void collectStatistics() {
+    StripedWeakIdentityMap<Object, String> map = new StripedWeakIdentityMap<>();
+    Object cat = new Object();
+    Object dog = new Object();
+    map.put(cat, "meow");
+    map.put(dog, "bark");
+
+    cat = null;
+    await()
+        .untilAsserted(
+            () -> {
+              System.gc();
+              StripedWeakIdentityMap.expungeStaleEntries(Integer.MAX_VALUE);
+              assertThat(map.expungedCount()).isEqualTo(1);
+            });
+
+    // the statistics of all maps that are in use are collected, expunged counts are reported once
+    List<String> statistics = new ArrayList<>();
+    StripedWeakIdentityMap.collectStatistics(
+        (approximateSize, expungedCount) -> statistics.add(approximateSize + "/" + expungedCount));
+    assertThat(statistics).contains("1/1");
+    statistics.clear();
+    StripedWeakIdentityMap.collectStatistics(
+        (approximateSize, expungedCount) -> statistics.add(approximateSize + "/" + expungedCount));
+    assertThat(statistics).contains("1/0");
+    assertThat(map.get(dog)).isEqualTo("bark");
+  }
+}
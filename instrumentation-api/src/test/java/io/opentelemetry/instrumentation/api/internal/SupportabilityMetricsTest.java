@@ -10,6 +10,7 @@ import static org.assertj.core.api.Assertions.assertThat;
 import io.opentelemetry.api.trace.SpanKind;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 import org.junit.jupiter.api.Test;
 
 class SupportabilityMetricsTest {
@@ -55,6 +56,38 @@ class SupportabilityMetricsTest {
             "Counter 'another counter' : 1");
   }
 
+  @Test
+  void reportsTimers() {
+    List<String> reports = new ArrayList<>();
+    SupportabilityMetrics metrics = new SupportabilityMetrics(true, reports::add);
+
+    metrics.recordTime("some timer", TimeUnit.MILLISECONDS.toNanos(3));
+    metrics.recordTime("some timer", TimeUnit.MILLISECONDS.toNanos(5));
+
+    metrics.report();
+    metrics.report();
+
+    assertThat(reports).containsExactly("Timer 'some timer' : count 2, total 8 ms, max 5 ms");
+  }
+
+  @Test
+  void reportsWeakMaps() {
+    List<String> reports = new ArrayList<>();
+    SupportabilityMetrics metrics =
+        new SupportabilityMetrics(
+            true,
+            reports::add,
+            consumer -> {
+              consumer.accept(10, 2);
+              consumer.accept(30, 0);
+            });
+
+    metrics.report();
+
+    assertThat(reports)
+        .containsExactly("Weak maps : count 2, entries 40, max entries 30, expunged 2");
+  }
+
   @Test
   void resetsCountsEachReport() {
     List<String> reports = new ArrayList<>();
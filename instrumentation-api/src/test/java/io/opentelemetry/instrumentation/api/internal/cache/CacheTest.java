@@ -8,6 +8,13 @@ package io.opentelemetry.instrumentation.api.internal.cache;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.awaitility.Awaitility.await;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 
@@ -35,6 +42,107 @@ class CacheTest {
       assertThat(mapBackedCache.size()).isEqualTo(1);
       assertThat(cache.computeIfAbsent("cat", unused -> "purr")).isEqualTo("purr");
     }
+
+    @Test
+    void weighted() {
+      Cache<String, String> cache =
+          Cache.weighted(10, (key, value) -> key.length() + value.length());
+
+      MapBackedCache<?, ?> mapBackedCache = ((MapBackedCache<?, ?>) cache);
+      assertThat(cache.computeIfAbsent("cat", unused -> "meow")).isEqualTo("meow");
+      assertThat(mapBackedCache.size()).isEqualTo(1);
+
+      // 3 + 4 + 3 + 4 exceeds the maximum weight, the least recently used entry is evicted
+      cache.put("dog", "bark");
+      assertThat(cache.get("dog")).isEqualTo("bark");
+      assertThat(cache.get("cat")).isNull();
+      assertThat(mapBackedCache.size()).isEqualTo(1);
+
+      cache.put("ox", "m");
+      assertThat(cache.get("dog")).isEqualTo("bark");
+      assertThat(cache.get("ox")).isEqualTo("m");
+      assertThat(mapBackedCache.size()).isEqualTo(2);
+    }
+
+    @Test
+    void boundedTinyLfu() {
+      Cache<String, String> cache = Cache.boundedTinyLfu(1);
+
+      assertThat(cache.computeIfAbsent("bear", unused -> "roar")).isEqualTo("roar");
+      cache.remove("bear");
+
+      TinyLfuCache<?, ?> tinyLfuCache = ((TinyLfuCache<?, ?>) cache);
+      assertThat(cache.computeIfAbsent("cat", unused -> "meow")).isEqualTo("meow");
+      assertThat(tinyLfuCache.size()).isEqualTo(1);
+
+      assertThat(cache.computeIfAbsent("cat", unused -> "bark")).isEqualTo("meow");
+      assertThat(tinyLfuCache.size()).isEqualTo(1);
+
+      cache.put("dog", "bark");
+      assertThat(cache.get("dog")).isEqualTo("bark");
+      assertThat(tinyLfuCache.size()).isEqualTo(1);
+      assertThat(cache.computeIfAbsent("cat", unused -> "purr")).isEqualTo("purr");
+    }
+
+    @Test
+    void boundedTinyLfu_keepsFrequentlyUsedEntries() {
+      Cache<Integer, Integer> cache = Cache.boundedTinyLfu(100);
+      TinyLfuCache<?, ?> tinyLfuCache = ((TinyLfuCache<?, ?>) cache);
+
+      for (int i = 0; i < 100; i++) {
+        cache.put(i, i);
+      }
+      for (int round = 0; round < 5; round++) {
+        for (int i = 0; i < 10; i++) {
+          assertThat(cache.get(i)).isEqualTo(i);
+        }
+        tinyLfuCache.cleanUp();
+      }
+      // a scan of keys that are used only once does not flush out the frequently used ones
+      for (int i = 1000; i < 2000; i++) {
+        cache.put(i, i);
+      }
+
+      assertThat(tinyLfuCache.size()).isEqualTo(100);
+      for (int i = 0; i < 10; i++) {
+        assertThat(cache.get(i)).isEqualTo(i);
+      }
+    }
+
+    @Test
+    void boundedTinyLfu_computeIfAbsentIsAtomic() throws Exception {
+      Cache<String, String> cache = Cache.boundedTinyLfu(10);
+      AtomicInteger calls = new AtomicInteger();
+      int threads = 8;
+      CountDownLatch start = new CountDownLatch(1);
+      ExecutorService executor = Executors.newFixedThreadPool(threads);
+      try {
+        List<Future<String>> results = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+          results.add(
+              executor.submit(
+                  () -> {
+                    start.await();
+                    return cache.computeIfAbsent(
+                        "bear",
+                        unused -> {
+                          calls.incrementAndGet();
+                          return "roar";
+                        });
+                  }));
+        }
+        start.countDown();
+        for (Future<String> result : results) {
+          assertThat(result.get()).isEqualTo("roar");
+        }
+      } finally {
+        executor.shutdown();
+      }
+
+      assertThat(calls).hasValue(1);
+      assertThat(cache.computeIfAbsent("cat", unused -> null)).isNull();
+      assertThat(cache.get("cat")).isNull();
+    }
   }
 
   @Nested
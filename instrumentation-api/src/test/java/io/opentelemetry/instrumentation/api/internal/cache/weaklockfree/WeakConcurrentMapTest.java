@@ -0,0 +1,56 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.instrumentation.api.internal.cache.weaklockfree;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+
+class WeakConcurrentMapTest {
+
+  @Test
+  void expungedCount() {
+    WeakConcurrentMap<Object, String> map = new WeakConcurrentMap.WithInlinedExpunction<>();
+    Object cat = new Object();
+    Object dog = new Object();
+    map.put(cat, "meow");
+    map.put(dog, "bark");
+    assertThat(map.approximateSize()).isEqualTo(2);
+
+    // removed entries are not counted
+    map.remove(dog);
+    map.put(dog, "bark");
+
+    cat = null;
+    System.gc();
+    // Wait for GC to be reflected.
+    await().untilAsserted(() -> assertThat(map.approximateSize()).isEqualTo(1));
+    assertThat(map.expungedCount()).isEqualTo(1);
+    assertThat(map.get(dog)).isEqualTo("bark");
+  }
+
+  @Test
+  void collectStatistics() {
+    WeakConcurrentMap<Object, String> map = new WeakConcurrentMap<>();
+    Object cat = new Object();
+    map.put(cat, "meow");
+
+    // the statistics of all maps that are in use are collected
+    AtomicInteger maps = new AtomicInteger();
+    AtomicLong entries = new AtomicLong();
+    WeakConcurrentMap.collectStatistics(
+        (approximateSize, expungedCount) -> {
+          maps.incrementAndGet();
+          entries.addAndGet(approximateSize);
+        });
+    assertThat(maps.get()).isGreaterThanOrEqualTo(1);
+    assertThat(entries.get()).isGreaterThanOrEqualTo(1);
+    assertThat(map.get(cat)).isEqualTo("meow");
+  }
+}
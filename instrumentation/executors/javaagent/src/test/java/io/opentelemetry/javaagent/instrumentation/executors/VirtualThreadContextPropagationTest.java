@@ -0,0 +1,142 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.javaagent.instrumentation.executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import io.opentelemetry.api.baggage.Baggage;
+import io.opentelemetry.context.Scope;
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+// virtual threads are only available on JDK 21+, they're accessed through reflection so that the
+// test compiles on older JDKs
+class VirtualThreadContextPropagationTest {
+
+  // must be static! the lambda that uses that must be non-capturing
+  private static final AtomicInteger successCounter = new AtomicInteger();
+
+  @BeforeEach
+  void setUp() {
+    successCounter.set(0);
+  }
+
+  @Test
+  void shouldPropagateContextToStartVirtualThread() throws Exception {
+    Method startVirtualThread = findMethod(Thread.class, "startVirtualThread", Runnable.class);
+
+    Baggage baggage = Baggage.builder().put("test", "test").build();
+    Thread thread;
+    try (Scope ignored = baggage.makeCurrent()) {
+      thread =
+          (Thread)
+              startVirtualThread.invoke(
+                  null, (Runnable) VirtualThreadContextPropagationTest::assertBaggage);
+    }
+    thread.join();
+
+    assertThat(successCounter).hasValue(1);
+  }
+
+  @Test
+  void shouldPropagateContextToVirtualThreadBuilder() throws Exception {
+    Object builder = findMethod(Thread.class, "ofVirtual").invoke(null);
+    Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+    Method start = findMethod(builderClass, "start", Runnable.class);
+    Method unstarted = findMethod(builderClass, "unstarted", Runnable.class);
+
+    Baggage baggage = Baggage.builder().put("test", "test").build();
+    Thread started;
+    Thread notStarted;
+    try (Scope ignored = baggage.makeCurrent()) {
+      started =
+          (Thread)
+              start.invoke(builder, (Runnable) VirtualThreadContextPropagationTest::assertBaggage);
+      notStarted =
+          (Thread)
+              unstarted.invoke(
+                  builder, (Runnable) VirtualThreadContextPropagationTest::assertBaggage);
+    }
+    // the context is captured when the thread is created, not when it is started
+    notStarted.start();
+    started.join();
+    notStarted.join();
+
+    assertThat(successCounter).hasValue(2);
+  }
+
+  @Test
+  void shouldPropagateContextToVirtualThreadFactory() throws Exception {
+    Object builder = findMethod(Thread.class, "ofVirtual").invoke(null);
+    Method factory = findMethod(Class.forName("java.lang.Thread$Builder"), "factory");
+    ThreadFactory threadFactory = (ThreadFactory) factory.invoke(builder);
+
+    Baggage baggage = Baggage.builder().put("test", "test").build();
+    Thread thread;
+    try (Scope ignored = baggage.makeCurrent()) {
+      thread = threadFactory.newThread(VirtualThreadContextPropagationTest::assertBaggage);
+    }
+    thread.start();
+    thread.join();
+
+    assertThat(successCounter).hasValue(1);
+  }
+
+  @Test
+  void shouldNotPropagateContextWhenThereIsNone() throws Exception {
+    Method startVirtualThread = findMethod(Thread.class, "startVirtualThread", Runnable.class);
+
+    Thread thread =
+        (Thread)
+            startVirtualThread.invoke(
+                null, (Runnable) VirtualThreadContextPropagationTest::assertBaggage);
+    thread.join();
+
+    assertThat(successCounter).hasValue(0);
+  }
+
+  @Test
+  void shouldPropagateContextToVirtualThreadPerTaskExecutor() throws Exception {
+    Method newVirtualThreadPerTaskExecutor =
+        findMethod(Executors.class, "newVirtualThreadPerTaskExecutor");
+    ExecutorService executor = (ExecutorService) newVirtualThreadPerTaskExecutor.invoke(null);
+
+    Baggage baggage = Baggage.builder().put("test", "test").build();
+    try (Scope ignored = baggage.makeCurrent()) {
+      for (int i = 0; i < 20; i++) {
+        executor.execute(VirtualThreadContextPropagationTest::assertBaggage);
+      }
+    }
+    executor.shutdown();
+    assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+
+    assertThat(successCounter).hasValue(20);
+  }
+
+  private static Method findMethod(Class<?> type, String name, Class<?>... parameterTypes) {
+    Method method = null;
+    try {
+      method = type.getMethod(name, parameterTypes);
+    } catch (NoSuchMethodException e) {
+      // not running on a jdk that supports virtual threads
+    }
+    assumeTrue(method != null);
+    return method;
+  }
+
+  private static void assertBaggage() {
+    if (Baggage.current().getEntryValue("test") != null) {
+      successCounter.incrementAndGet();
+    }
+  }
+}
@@ -1,5 +1,6 @@
 plugins {
   id("otel.javaagent-instrumentation")
+  id("otel.jmh-conventions")
 }
 
 dependencies {
@@ -11,6 +12,9 @@ dependencies {
   testInstrumentation(project(":instrumentation:jboss-logmanager:jboss-logmanager-appender-1.1:javaagent"))
 
   testImplementation("org.awaitility:awaitility")
+
+  jmhImplementation(project(":instrumentation-api"))
+  jmhImplementation(project(":javaagent-extension-api"))
 }
 
 tasks.withType<Test>().configureEach {
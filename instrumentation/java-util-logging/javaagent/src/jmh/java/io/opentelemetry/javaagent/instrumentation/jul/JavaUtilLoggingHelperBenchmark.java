@@ -0,0 +1,50 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.javaagent.instrumentation.jul;
+
+import io.opentelemetry.api.logs.LogRecordBuilder;
+import io.opentelemetry.api.logs.Logger;
+import io.opentelemetry.api.logs.LoggerProvider;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+// maps log records with a repeated exception, run with the gc profiler to compare the allocation
+// rate
+@Fork(1)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@BenchmarkMode(Mode.AverageTime)
+@State(Scope.Thread)
+public class JavaUtilLoggingHelperBenchmark {
+
+  private final Logger logger = LoggerProvider.noop().get("benchmark");
+  private LogRecord logRecord;
+
+  @Setup
+  public void setUp() {
+    logRecord = new LogRecord(Level.SEVERE, "request failed");
+    logRecord.setThrown(new IllegalStateException("failure", new RuntimeException("cause")));
+  }
+
+  @Benchmark
+  public void mapLogRecord() {
+    LogRecordBuilder builder = logger.logRecordBuilder();
+    JavaUtilLoggingHelper.mapLogRecord(builder, logRecord);
+    builder.emit();
+  }
+}
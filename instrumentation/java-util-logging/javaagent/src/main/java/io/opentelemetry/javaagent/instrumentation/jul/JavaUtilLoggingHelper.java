@@ -12,10 +12,9 @@ import io.opentelemetry.api.common.AttributesBuilder;
 import io.opentelemetry.api.logs.LogRecordBuilder;
 import io.opentelemetry.api.logs.Severity;
 import io.opentelemetry.context.Context;
+import io.opentelemetry.instrumentation.api.internal.StackTraceRenderer;
 import io.opentelemetry.javaagent.bootstrap.internal.InstrumentationConfig;
 import io.opentelemetry.semconv.trace.attributes.SemanticAttributes;
-import java.io.PrintWriter;
-import java.io.StringWriter;
 import java.util.concurrent.TimeUnit;
 import java.util.logging.Formatter;
 import java.util.logging.Level;
@@ -60,7 +59,8 @@ public final class JavaUtilLoggingHelper {
    *   <li>Thread id - {@link LogRecord#getThreadID()}
    * </ul>
    */
-  private static void mapLogRecord(LogRecordBuilder builder, LogRecord logRecord) {
+  // visible for benchmark
+  static void mapLogRecord(LogRecordBuilder builder, LogRecord logRecord) {
     // message
     String message = FORMATTER.formatMessage(logRecord);
     if (message != null) {
@@ -88,9 +88,7 @@ public final class JavaUtilLoggingHelper {
       // io.opentelemetry:opentelemetry-api
       attributes.put(SemanticAttributes.EXCEPTION_TYPE, throwable.getClass().getName());
       attributes.put(SemanticAttributes.EXCEPTION_MESSAGE, throwable.getMessage());
-      StringWriter writer = new StringWriter();
-      throwable.printStackTrace(new PrintWriter(writer));
-      attributes.put(SemanticAttributes.EXCEPTION_STACKTRACE, writer.toString());
+      attributes.put(SemanticAttributes.EXCEPTION_STACKTRACE, StackTraceRenderer.render(throwable));
     }
 
     if (captureExperimentalAttributes) {
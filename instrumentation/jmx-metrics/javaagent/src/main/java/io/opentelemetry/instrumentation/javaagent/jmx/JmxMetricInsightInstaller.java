@@ -32,7 +32,10 @@ public class JmxMetricInsightInstaller implements AgentListener {
 
     if (config.getBoolean("otel.jmx.enabled", true)) {
       JmxMetricInsight service =
-          JmxMetricInsight.createService(GlobalOpenTelemetry.get(), beanDiscoveryDelay(config));
+          JmxMetricInsight.createService(
+              GlobalOpenTelemetry.get(),
+              beanDiscoveryDelay(config),
+              config.getBoolean("otel.jmx.experimental.batch-attribute-reads", false));
       MetricConfiguration conf = buildMetricConfiguration(config);
       service.start(conf);
     }
@@ -0,0 +1,156 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.instrumentation.jmx.engine;
+
+import static java.util.logging.Level.FINE;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.logging.Logger;
+import javax.annotation.Nullable;
+import javax.management.Attribute;
+import javax.management.AttributeList;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * The MBean attribute values read during a single metric collection. All the attributes needed
+ * from an MBean are read with a single {@link MBeanServer#getAttributes(ObjectName, String[])}
+ * call. The attribute names to read are learned from the previous collection: attributes requested
+ * for the first time are read individually, and will be part of the batch from then on. The same
+ * ObjectName can be registered in several MBeanServers, so the MBeans are identified by both.
+ * Objects of this class are not thread safe, and are meant to be discarded after the collection.
+ */
+class AttributeValueCache {
+
+  private static final Logger logger = Logger.getLogger(AttributeValueCache.class.getName());
+
+  private final Map<BeanKey, Set<String>> knownAttributeNames;
+  private final Map<BeanKey, Set<String>> requestedAttributeNames = new HashMap<>();
+  private final Map<BeanKey, Map<String, Object>> values = new HashMap<>();
+
+  /**
+   * Constructor for AttributeValueCache.
+   *
+   * @param knownAttributeNames the attribute names requested during the previous collection, as
+   *     returned by {@link #getRequestedAttributeNames()}
+   */
+  AttributeValueCache(Map<BeanKey, Set<String>> knownAttributeNames) {
+    this.knownAttributeNames = knownAttributeNames;
+  }
+
+  AttributeValueCache() {
+    this(Collections.emptyMap());
+  }
+
+  /**
+   * Get the value of the MBean attribute, reading all the attributes known to be needed from the
+   * same MBean if this is the first request for that MBean.
+   *
+   * @param server the MBeanServer to query
+   * @param objectName the ObjectName identifying the MBean, it should not be a pattern
+   * @param attributeName the name of the MBean attribute
+   * @return the attribute value, or null if it could not be read
+   */
+  @Nullable
+  Object getAttribute(MBeanServer server, ObjectName objectName, String attributeName) {
+    BeanKey key = new BeanKey(server, objectName);
+    requestedAttributeNames.computeIfAbsent(key, k -> new LinkedHashSet<>()).add(attributeName);
+
+    Map<String, Object> objectValues = values.get(key);
+    if (objectValues == null) {
+      objectValues = new HashMap<>();
+      values.put(key, objectValues);
+      Set<String> attributeNames = knownAttributeNames.get(key);
+      if (attributeNames != null) {
+        readAttributes(server, objectName, attributeNames, objectValues);
+      }
+    }
+
+    if (objectValues.containsKey(attributeName)) {
+      return objectValues.get(attributeName);
+    }
+    Object value = readAttribute(server, objectName, attributeName);
+    objectValues.put(attributeName, value);
+    return value;
+  }
+
+  /** Return the attribute names requested so far, for every MBean. */
+  Map<BeanKey, Set<String>> getRequestedAttributeNames() {
+    return requestedAttributeNames;
+  }
+
+  /** An MBean, identified by the MBeanServer it is registered in and its ObjectName. */
+  static final class BeanKey {
+    private final MBeanServer server;
+    private final ObjectName objectName;
+
+    BeanKey(MBeanServer server, ObjectName objectName) {
+      this.server = server;
+      this.objectName = objectName;
+    }
+
+    @Override
+    public boolean equals(@Nullable Object obj) {
+      if (this == obj) {
+        return true;
+      }
+      if (!(obj instanceof BeanKey)) {
+        return false;
+      }
+      BeanKey other = (BeanKey) obj;
+      // MBeanServers are compared by identity
+      return server == other.server && objectName.equals(other.objectName);
+    }
+
+    @Override
+    public int hashCode() {
+      return 31 * System.identityHashCode(server) + objectName.hashCode();
+    }
+  }
+
+  private static void readAttributes(
+      MBeanServer server,
+      ObjectName objectName,
+      Set<String> attributeNames,
+      Map<String, Object> objectValues) {
+    // Attributes that cannot be read are not part of the result, their value is null
+    for (String attributeName : attributeNames) {
+      objectValues.put(attributeName, null);
+    }
+    try {
+      AttributeList attributes =
+          server.getAttributes(objectName, attributeNames.toArray(new String[0]));
+      for (Attribute attribute : attributes.asList()) {
+        objectValues.put(attribute.getName(), attribute.getValue());
+      }
+    } catch (Exception e) {
+      // We do not really care about the actual reason for failure
+      logger.log(
+          FINE,
+          "Encountered {0} while reading attributes {1} for ObjectName {2}",
+          new Object[] {e, attributeNames, objectName});
+    }
+  }
+
+  @Nullable
+  private static Object readAttribute(
+      MBeanServer server, ObjectName objectName, String attributeName) {
+    try {
+      return server.getAttribute(objectName, attributeName);
+    } catch (Exception e) {
+      // We do not really care about the actual reason for failure
+      logger.log(
+          FINE,
+          "Encountered {0} while reading attribute {1} for ObjectName {2}",
+          new Object[] {e, attributeName, objectName});
+      return null;
+    }
+  }
+}
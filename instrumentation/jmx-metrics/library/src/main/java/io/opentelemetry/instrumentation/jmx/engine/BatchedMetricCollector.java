@@ -0,0 +1,125 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.instrumentation.jmx.engine;
+
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.metrics.BatchCallback;
+import io.opentelemetry.api.metrics.Meter;
+import io.opentelemetry.api.metrics.ObservableDoubleMeasurement;
+import io.opentelemetry.api.metrics.ObservableLongMeasurement;
+import io.opentelemetry.api.metrics.ObservableMeasurement;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.BiConsumer;
+import javax.annotation.Nullable;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * A class collecting the values of all the enrolled metrics from a single batch callback. The
+ * MBean attribute values are read through an {@link AttributeValueCache} created for each
+ * collection, so that every MBean is queried once per collection, no matter how many metrics and
+ * metric attributes it provides.
+ */
+class BatchedMetricCollector {
+
+  private final Meter meter;
+  private final List<BatchedMetric> metrics = new CopyOnWriteArrayList<>();
+
+  private final Object lock = new Object();
+
+  // guarded by lock
+  @Nullable private BatchCallback batchCallback;
+
+  private volatile Map<AttributeValueCache.BeanKey, Set<String>> knownAttributeNames =
+      Collections.emptyMap();
+
+  BatchedMetricCollector(Meter meter) {
+    this.meter = meter;
+  }
+
+  void addLongMetric(MetricExtractor extractor, ObservableLongMeasurement measurement) {
+    add(
+        new BatchedMetric(
+            extractor,
+            measurement,
+            (value, attributes) -> measurement.record(value.longValue(), attributes)));
+  }
+
+  void addDoubleMetric(MetricExtractor extractor, ObservableDoubleMeasurement measurement) {
+    add(
+        new BatchedMetric(
+            extractor,
+            measurement,
+            (value, attributes) -> measurement.record(value.doubleValue(), attributes)));
+  }
+
+  private void add(BatchedMetric metric) {
+    synchronized (lock) {
+      metrics.add(metric);
+      ObservableMeasurement[] measurements = new ObservableMeasurement[metrics.size()];
+      for (int i = 0; i < measurements.length; i++) {
+        measurements[i] = metrics.get(i).measurement;
+      }
+      // A batch callback observes a fixed set of instruments, so it has to be replaced
+      if (batchCallback != null) {
+        batchCallback.close();
+      }
+      batchCallback =
+          meter.batchCallback(
+              this::collect,
+              measurements[0],
+              Arrays.copyOfRange(measurements, 1, measurements.length));
+    }
+  }
+
+  private void collect() {
+    AttributeValueCache cache = new AttributeValueCache(knownAttributeNames);
+    for (BatchedMetric metric : metrics) {
+      metric.record(cache);
+    }
+    // MBeans which are gone are not requested anymore, and are forgotten here
+    knownAttributeNames = cache.getRequestedAttributeNames();
+  }
+
+  private static class BatchedMetric {
+    private final MetricExtractor extractor;
+    private final ObservableMeasurement measurement;
+    private final BiConsumer<Number, Attributes> recorder;
+
+    BatchedMetric(
+        MetricExtractor extractor,
+        ObservableMeasurement measurement,
+        BiConsumer<Number, Attributes> recorder) {
+      this.extractor = extractor;
+      this.measurement = measurement;
+      this.recorder = recorder;
+    }
+
+    void record(AttributeValueCache cache) {
+      DetectionStatus status = extractor.getStatus();
+      if (status != null) {
+        MBeanServer server = status.getServer();
+        for (ObjectName objectName : status.getObjectNames()) {
+          Number metricValue =
+              extractor
+                  .getMetricValueExtractor()
+                  .extractNumericalAttribute(cache, server, objectName);
+          if (metricValue != null) {
+            // get the metric attributes
+            Attributes attr =
+                MetricRegistrar.createMetricAttributes(cache, server, objectName, extractor);
+            recorder.accept(metricValue, attr);
+          }
+        }
+      }
+    }
+  }
+}
@@ -211,29 +211,7 @@ public class BeanAttributeExtractor implements MetricAttributeExtractor {
   private Object extractAttributeValue(MBeanServer server, ObjectName objectName, Logger logger) {
     try {
       Object value = server.getAttribute(objectName, baseName);
-
-      int k = 0;
-      while (k < nameChain.length) {
-        if (value instanceof CompositeData) {
-          value = ((CompositeData) value).get(nameChain[k]);
-        } else if (value instanceof TabularData) {
-          value = ((TabularData) value).get(new String[] {nameChain[k]});
-        } else {
-          if (logger != null) {
-            logger.log(
-                FINE,
-                "Encountered a value of {0} while extracting attribute {1} for ObjectName {2}; unable to extract metric value",
-                new Object[] {
-                  (value == null ? "NULL" : value.getClass().getName()),
-                  getAttributeName(),
-                  objectName
-                });
-          }
-          break;
-        }
-        k++;
-      }
-      return value;
+      return drillDown(value, objectName, logger);
     } catch (Exception e) {
       // We do not really care about the actual reason for failure
       if (logger != null) {
@@ -246,11 +224,56 @@ public class BeanAttributeExtractor implements MetricAttributeExtractor {
     return null;
   }
 
+  /**
+   * In case the value is a CompositeData or a TabularData, drills down into it following the name
+   * chain to find the correct singleton value.
+   */
+  @Nullable
+  private Object drillDown(@Nullable Object value, ObjectName objectName, Logger logger) {
+    int k = 0;
+    while (k < nameChain.length) {
+      if (value instanceof CompositeData) {
+        value = ((CompositeData) value).get(nameChain[k]);
+      } else if (value instanceof TabularData) {
+        value = ((TabularData) value).get(new String[] {nameChain[k]});
+      } else {
+        if (logger != null) {
+          logger.log(
+              FINE,
+              "Encountered a value of {0} while extracting attribute {1} for ObjectName {2}; unable to extract metric value",
+              new Object[] {
+                (value == null ? "NULL" : value.getClass().getName()),
+                getAttributeName(),
+                objectName
+              });
+        }
+        break;
+      }
+      k++;
+    }
+    return value;
+  }
+
   @Nullable
   private Object extractAttributeValue(MBeanServer server, ObjectName objectName) {
     return extractAttributeValue(server, objectName, null);
   }
 
+  /**
+   * Extracts the specified attribute value like {@link #extractAttributeValue(MBeanServer,
+   * ObjectName, Logger)}, reading the MBean attribute through the cache of the current collection.
+   */
+  @Nullable
+  private Object extractAttributeValue(
+      AttributeValueCache cache, MBeanServer server, ObjectName objectName) {
+    try {
+      return drillDown(cache.getAttribute(server, objectName, baseName), objectName, null);
+    } catch (RuntimeException e) {
+      // We do not really care about the actual reason for failure
+      return null;
+    }
+  }
+
   @Nullable
   Number extractNumericalAttribute(MBeanServer server, ObjectName objectName) {
     Object value = extractAttributeValue(server, objectName);
@@ -260,12 +283,31 @@ public class BeanAttributeExtractor implements MetricAttributeExtractor {
     return null;
   }
 
+  @Nullable
+  Number extractNumericalAttribute(
+      AttributeValueCache cache, MBeanServer server, ObjectName objectName) {
+    Object value = extractAttributeValue(cache, server, objectName);
+    if (value instanceof Number) {
+      return (Number) value;
+    }
+    return null;
+  }
+
   @Override
   @Nullable
   public String extractValue(MBeanServer server, ObjectName objectName) {
     return extractStringAttribute(server, objectName);
   }
 
+  @Nullable
+  String extractValue(AttributeValueCache cache, MBeanServer server, ObjectName objectName) {
+    Object value = extractAttributeValue(cache, server, objectName);
+    if (value instanceof String) {
+      return (String) value;
+    }
+    return null;
+  }
+
   @Nullable
   private String extractStringAttribute(MBeanServer server, ObjectName objectName) {
     Object value = extractAttributeValue(server, objectName);
@@ -5,30 +5,60 @@
 
 package io.opentelemetry.instrumentation.jmx.engine;
 
+import static java.util.logging.Level.FINE;
+
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+import javax.annotation.Nullable;
 import javax.management.MBeanServer;
+import javax.management.MBeanServerDelegate;
 import javax.management.MBeanServerFactory;
+import javax.management.MBeanServerNotification;
+import javax.management.Notification;
 import javax.management.ObjectName;
+import javax.management.relation.MBeanServerNotificationFilter;
 
 /**
  * A class responsible for finding MBeans that match metric definitions specified by a set of
  * MetricDefs.
+ *
+ * <p>MBeanServers are queried for all matching MBeans once. After that, MBeans registered or
+ * unregistered later are picked up from the notifications emitted by the {@link
+ * MBeanServerDelegate}, and matched against all MetricDefs at once using an {@link
+ * ObjectNamePatternIndex}. MBeanServers that do not emit these notifications are queried again
+ * periodically. All the state of this class is only accessed from its executor thread.
  */
 class BeanFinder {
 
+  private static final Logger logger = Logger.getLogger(BeanFinder.class.getName());
+
   private final MetricRegistrar registrar;
   private MetricConfiguration conf;
+  private ObjectNamePatternIndex index;
   private final ScheduledExecutorService exec = Executors.newSingleThreadScheduledExecutor();
   private final long discoveryDelay;
   private final long maxDelay;
   private long delay = 1000; // number of milliseconds until first attempt to discover MBeans
 
+  private final Map<MetricDef, MetricDefState> states = new HashMap<>();
+  private final Set<MBeanServer> knownServers =
+      Collections.newSetFromMap(new IdentityHashMap<>());
+  // servers delivering MBean registration and unregistration notifications
+  private final Set<MBeanServer> subscribedServers =
+      Collections.newSetFromMap(new IdentityHashMap<>());
+
   BeanFinder(MetricRegistrar registrar, long discoveryDelay) {
     this.registrar = registrar;
     this.discoveryDelay = Math.max(1000, discoveryDelay); // Enforce sanity
@@ -37,6 +67,7 @@ class BeanFinder {
 
   void discoverBeans(MetricConfiguration conf) {
     this.conf = conf;
+    this.index = new ObjectNamePatternIndex(conf.getMetricDefs());
 
     exec.schedule(
         new Runnable() {
@@ -53,78 +84,214 @@ class BeanFinder {
   }
 
   /**
-   * Go over all configured metric definitions and try to find matching MBeans. Once a match is
-   * found for a given metric definition, submit the definition to MetricRegistrar for further
-   * handling. Successive invocations of this method may find matches that were previously
-   * unavailable, in such cases MetricRegistrar will extend the coverage for the new MBeans
+   * Look for new MBeanServers and find MBeans matching the configured metric definitions. New
+   * servers are subscribed to and queried for all matching MBeans, servers which cannot be
+   * subscribed to are queried on every invocation. Once a match is found for a given metric
+   * definition, submit the definition to MetricRegistrar for further handling. MBeans that were
+   * matched but did not provide usable attribute values yet are checked again on every invocation.
    */
   private void refreshState() {
     List<MBeanServer> servers = MBeanServerFactory.findMBeanServer(null);
 
-    for (MetricDef metricDef : conf.getMetricDefs()) {
-      resolveBeans(metricDef, servers);
+    for (MBeanServer server : servers) {
+      boolean newServer = knownServers.add(server);
+      if (newServer && subscribe(server)) {
+        subscribedServers.add(server);
+      }
+      if (newServer || !subscribedServers.contains(server)) {
+        for (MetricDef metricDef : conf.getMetricDefs()) {
+          queryBeans(metricDef, server);
+        }
+      }
+    }
+
+    for (MetricDefState state : states.values()) {
+      resolveAttributes(state, state.objectNames);
+    }
+  }
+
+  private boolean subscribe(MBeanServer server) {
+    MBeanServerNotificationFilter filter = new MBeanServerNotificationFilter();
+    filter.enableAllObjectNames();
+    try {
+      server.addNotificationListener(
+          MBeanServerDelegate.DELEGATE_NAME,
+          (notification, handback) -> exec.execute(() -> onNotification(server, notification)),
+          filter,
+          null);
+      return true;
+    } catch (Exception e) {
+      logger.log(
+          FINE,
+          "Unable to subscribe to MBean notifications of {0}, falling back to polling: {1}",
+          new Object[] {server, e});
+      return false;
+    }
+  }
+
+  private void onNotification(MBeanServer server, Notification notification) {
+    if (!(notification instanceof MBeanServerNotification)) {
+      return;
+    }
+    ObjectName objectName = ((MBeanServerNotification) notification).getMBeanName();
+
+    if (MBeanServerNotification.REGISTRATION_NOTIFICATION.equals(notification.getType())) {
+      Set<MetricDef> metricDefs;
+      try {
+        metricDefs = index.findMatches(server, objectName);
+      } catch (RuntimeException e) {
+        // the MBean may already be gone
+        return;
+      }
+      for (MetricDef metricDef : metricDefs) {
+        MetricDefState state = getState(metricDef, server);
+        if (state != null && state.objectNames.add(objectName)) {
+          resolveAttributes(state, Collections.singleton(objectName));
+        }
+      }
+    } else if (MBeanServerNotification.UNREGISTRATION_NOTIFICATION.equals(
+        notification.getType())) {
+      for (MetricDefState state : states.values()) {
+        if (state.server == server && state.objectNames.remove(objectName)) {
+          removeObjectNames(state, Collections.singleton(objectName));
+        }
+      }
     }
   }
 
   /**
-   * Go over the specified list of MBeanServers and try to find any MBeans matching the specified
-   * MetricDef. If found, verify that the MBeans support the specified attributes, and set up
-   * collection of corresponding metrics.
+   * Query the specified MBeanServer for all MBeans matching the specified MetricDef. If found,
+   * verify that the new MBeans support the specified attributes, and set up collection of
+   * corresponding metrics. MBeans that are no longer known to the server are removed.
    *
    * @param metricDef the MetricDef used to find matching MBeans
-   * @param servers the list of MBeanServers to query
+   * @param server the MBeanServer to query
    */
-  private void resolveBeans(MetricDef metricDef, List<MBeanServer> servers) {
+  private void queryBeans(MetricDef metricDef, MBeanServer server) {
     BeanGroup beans = metricDef.getBeanGroup();
 
-    for (MBeanServer server : servers) {
-      // The set of all matching ObjectNames recognized by the server
-      Set<ObjectName> allObjectNames = new HashSet<>();
+    // The set of all matching ObjectNames recognized by the server
+    Set<ObjectName> allObjectNames = new LinkedHashSet<>();
+    for (ObjectName pattern : beans.getNamePatterns()) {
+      Set<ObjectName> objectNames = server.queryNames(pattern, beans.getQueryExp());
+      allObjectNames.addAll(objectNames);
+    }
 
-      for (ObjectName pattern : beans.getNamePatterns()) {
-        Set<ObjectName> objectNames = server.queryNames(pattern, beans.getQueryExp());
-        allObjectNames.addAll(objectNames);
-      }
+    MetricDefState state = states.get(metricDef);
+    if (allObjectNames.isEmpty() && (state == null || state.server != server)) {
+      return;
+    }
+    state = getState(metricDef, server);
+    if (state == null) {
+      return;
+    }
 
-      if (!allObjectNames.isEmpty()) {
-        resolveAttributes(allObjectNames, server, metricDef);
+    Set<ObjectName> removed = new HashSet<>(state.objectNames);
+    removed.removeAll(allObjectNames);
+    if (!removed.isEmpty()) {
+      state.objectNames.removeAll(removed);
+      removeObjectNames(state, removed);
+    }
 
-        // Assuming that only one MBeanServer has the required MBeans
-        break;
+    List<ObjectName> added = new ArrayList<>();
+    for (ObjectName objectName : allObjectNames) {
+      if (state.objectNames.add(objectName)) {
+        added.add(objectName);
       }
     }
+    resolveAttributes(state, added);
+  }
+
+  /**
+   * Return the state of the MetricDef, binding it to the MBeanServer if it is not bound yet.
+   *
+   * @return the state of the MetricDef, or null if it is bound to another MBeanServer
+   */
+  @Nullable
+  private MetricDefState getState(MetricDef metricDef, MBeanServer server) {
+    MetricDefState state = states.computeIfAbsent(metricDef, MetricDefState::new);
+    if (state.server == null) {
+      state.server = server;
+    }
+    // Assuming that only one MBeanServer has the required MBeans
+    return state.server == server ? state : null;
   }
 
   /**
-   * Go over the collection of matching MBeans and try to find all matching attributes. For every
-   * successful match, activate metric value collection.
+   * Go over the collection of matching MBeans and try to find all matching attributes which were
+   * not found yet. For every successful match, activate metric value collection.
    *
+   * @param state the state of the MetricDef describing the attributes to look for
    * @param objectNames the collection of ObjectNames identifying the MBeans
-   * @param server the MBeanServer which recognized the collection of ObjectNames
-   * @param metricDef the MetricDef describing the attributes to look for
    */
-  private void resolveAttributes(
-      Set<ObjectName> objectNames, MBeanServer server, MetricDef metricDef) {
-    for (MetricExtractor extractor : metricDef.getMetricExtractors()) {
+  private void resolveAttributes(MetricDefState state, Collection<ObjectName> objectNames) {
+    if (objectNames.isEmpty()) {
+      return;
+    }
+    for (MetricExtractor extractor : state.metricDef.getMetricExtractors()) {
       // For each MetricExtractor, find the subset of MBeans that have the required attribute
-      List<ObjectName> validObjectNames = new ArrayList<>();
-      AttributeInfo attributeInfo = null;
+      ExtractorState extractorState =
+          state.extractors.computeIfAbsent(extractor, e -> new ExtractorState());
+      boolean changed = false;
       for (ObjectName objectName : objectNames) {
+        if (extractorState.validObjectNames.contains(objectName)) {
+          continue;
+        }
         AttributeInfo attr =
-            extractor.getMetricValueExtractor().getAttributeInfo(server, objectName);
+            extractor.getMetricValueExtractor().getAttributeInfo(state.server, objectName);
         if (attr != null) {
-          if (attributeInfo == null) {
-            attributeInfo = attr;
+          if (extractorState.attributeInfo == null) {
+            extractorState.attributeInfo = attr;
           } else {
-            attributeInfo.updateFrom(attr);
+            extractorState.attributeInfo.updateFrom(attr);
           }
-          validObjectNames.add(objectName);
+          extractorState.validObjectNames.add(objectName);
+          changed = true;
         }
       }
-      if (!validObjectNames.isEmpty()) {
-        // Ready to collect metric values
-        registrar.enrollExtractor(server, validObjectNames, extractor, attributeInfo);
+      if (changed) {
+        enroll(state, extractor, extractorState);
+      }
+    }
+  }
+
+  private void removeObjectNames(MetricDefState state, Collection<ObjectName> objectNames) {
+    for (Map.Entry<MetricExtractor, ExtractorState> entry : state.extractors.entrySet()) {
+      ExtractorState extractorState = entry.getValue();
+      if (extractorState.validObjectNames.removeAll(objectNames)) {
+        enroll(state, entry.getKey(), extractorState);
       }
     }
   }
+
+  private void enroll(
+      MetricDefState state, MetricExtractor extractor, ExtractorState extractorState) {
+    if (extractorState.attributeInfo == null) {
+      return;
+    }
+    // Ready to collect metric values; the list is copied as it is read by the metric callbacks
+    registrar.enrollExtractor(
+        state.server,
+        new ArrayList<>(extractorState.validObjectNames),
+        extractor,
+        extractorState.attributeInfo);
+  }
+
+  /** The MBeans matching a MetricDef, found in the MBeanServer the MetricDef is bound to. */
+  private static class MetricDefState {
+    private final MetricDef metricDef;
+    @Nullable private MBeanServer server;
+    private final Set<ObjectName> objectNames = new LinkedHashSet<>();
+    private final Map<MetricExtractor, ExtractorState> extractors = new HashMap<>();
+
+    MetricDefState(MetricDef metricDef) {
+      this.metricDef = metricDef;
+    }
+  }
+
+  /** The MBeans providing usable values for a MetricExtractor. */
+  private static class ExtractorState {
+    private final Set<ObjectName> validObjectNames = new LinkedHashSet<>();
+    @Nullable private AttributeInfo attributeInfo;
+  }
 }
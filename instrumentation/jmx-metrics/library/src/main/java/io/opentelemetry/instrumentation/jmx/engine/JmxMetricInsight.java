@@ -19,18 +19,33 @@ public class JmxMetricInsight {
 
   private final OpenTelemetry openTelemetry;
   private final long discoveryDelay;
+  private final boolean batchAttributeReads;
 
   public static JmxMetricInsight createService(OpenTelemetry ot, long discoveryDelay) {
-    return new JmxMetricInsight(ot, discoveryDelay);
+    return new JmxMetricInsight(ot, discoveryDelay, false);
+  }
+
+  /**
+   * Create the service.
+   *
+   * @param batchAttributeReads whether all the attributes needed from an MBean should be read with
+   *     a single {@code MBeanServer.getAttributes()} call per metric collection, which reduces the
+   *     number of round-trips to remote or busy MBeanServers
+   */
+  public static JmxMetricInsight createService(
+      OpenTelemetry ot, long discoveryDelay, boolean batchAttributeReads) {
+    return new JmxMetricInsight(ot, discoveryDelay, batchAttributeReads);
   }
 
   public static Logger getLogger() {
     return logger;
   }
 
-  private JmxMetricInsight(OpenTelemetry openTelemetry, long discoveryDelay) {
+  private JmxMetricInsight(
+      OpenTelemetry openTelemetry, long discoveryDelay, boolean batchAttributeReads) {
     this.openTelemetry = openTelemetry;
     this.discoveryDelay = discoveryDelay;
+    this.batchAttributeReads = batchAttributeReads;
   }
 
   public void start(MetricConfiguration conf) {
@@ -40,7 +55,8 @@ public class JmxMetricInsight {
           "Empty JMX configuration, no metrics will be collected for InstrumentationScope "
               + INSTRUMENTATION_SCOPE);
     } else {
-      MetricRegistrar registrar = new MetricRegistrar(openTelemetry, INSTRUMENTATION_SCOPE);
+      MetricRegistrar registrar =
+          new MetricRegistrar(openTelemetry, INSTRUMENTATION_SCOPE, batchAttributeReads);
       BeanFinder finder = new BeanFinder(registrar, discoveryDelay);
       finder.discoverBeans(conf);
     }
@@ -5,6 +5,7 @@
 
 package io.opentelemetry.instrumentation.jmx.engine;
 
+import javax.annotation.Nullable;
 import javax.management.MBeanServer;
 import javax.management.ObjectName;
 
@@ -29,4 +30,13 @@ public class MetricAttribute {
   String acquireAttributeValue(MBeanServer server, ObjectName objectName) {
     return extractor.extractValue(server, objectName);
   }
+
+  @Nullable
+  String acquireAttributeValue(
+      AttributeValueCache cache, MBeanServer server, ObjectName objectName) {
+    if (extractor instanceof BeanAttributeExtractor) {
+      return ((BeanAttributeExtractor) extractor).extractValue(cache, server, objectName);
+    }
+    return extractor.extractValue(server, objectName);
+  }
 }
@@ -19,6 +19,7 @@ import io.opentelemetry.api.metrics.ObservableLongMeasurement;
 import java.util.Collection;
 import java.util.function.Consumer;
 import java.util.logging.Logger;
+import javax.annotation.Nullable;
 import javax.management.MBeanServer;
 import javax.management.ObjectName;
 
@@ -29,8 +30,19 @@ class MetricRegistrar {
 
   private final Meter meter;
 
-  MetricRegistrar(OpenTelemetry openTelemetry, String instrumentationScope) {
+  // Only used when MBean attributes are read in batches
+  @Nullable private final BatchedMetricCollector batchedCollector;
+
+  /**
+   * Constructor for MetricRegistrar.
+   *
+   * @param batchAttributeReads whether all the attributes needed from an MBean should be read with
+   *     a single MBeanServer call per collection, instead of one call per attribute
+   */
+  MetricRegistrar(
+      OpenTelemetry openTelemetry, String instrumentationScope, boolean batchAttributeReads) {
     meter = openTelemetry.getMeter(instrumentationScope);
+    batchedCollector = batchAttributeReads ? new BatchedMetricCollector(meter) : null;
   }
 
   /**
@@ -78,7 +90,13 @@ class MetricRegistrar {
               builder = builder.setUnit(unit);
             }
 
-            if (attributeInfo.usesDoubleValues()) {
+            if (batchedCollector != null) {
+              if (attributeInfo.usesDoubleValues()) {
+                batchedCollector.addDoubleMetric(extractor, builder.ofDoubles().buildObserver());
+              } else {
+                batchedCollector.addLongMetric(extractor, builder.buildObserver());
+              }
+            } else if (attributeInfo.usesDoubleValues()) {
               builder.ofDoubles().buildWithCallback(doubleTypeCallback(extractor));
             } else {
               builder.buildWithCallback(longTypeCallback(extractor));
@@ -99,7 +117,13 @@ class MetricRegistrar {
               builder = builder.setUnit(unit);
             }
 
-            if (attributeInfo.usesDoubleValues()) {
+            if (batchedCollector != null) {
+              if (attributeInfo.usesDoubleValues()) {
+                batchedCollector.addDoubleMetric(extractor, builder.ofDoubles().buildObserver());
+              } else {
+                batchedCollector.addLongMetric(extractor, builder.buildObserver());
+              }
+            } else if (attributeInfo.usesDoubleValues()) {
               builder.ofDoubles().buildWithCallback(doubleTypeCallback(extractor));
             } else {
               builder.buildWithCallback(longTypeCallback(extractor));
@@ -120,7 +144,13 @@ class MetricRegistrar {
               builder = builder.setUnit(unit);
             }
 
-            if (attributeInfo.usesDoubleValues()) {
+            if (batchedCollector != null) {
+              if (attributeInfo.usesDoubleValues()) {
+                batchedCollector.addDoubleMetric(extractor, builder.buildObserver());
+              } else {
+                batchedCollector.addLongMetric(extractor, builder.ofLongs().buildObserver());
+              }
+            } else if (attributeInfo.usesDoubleValues()) {
               builder.buildWithCallback(doubleTypeCallback(extractor));
             } else {
               builder.ofLongs().buildWithCallback(longTypeCallback(extractor));
@@ -191,4 +221,25 @@ class MetricRegistrar {
     }
     return attrBuilder.build();
   }
+
+  /*
+   * An auxiliary method for collecting measurement attributes to go along
+   * the metric values, reading MBean attributes through the cache of the
+   * current collection
+   */
+  static Attributes createMetricAttributes(
+      AttributeValueCache cache,
+      MBeanServer server,
+      ObjectName objectName,
+      MetricExtractor extractor) {
+    MetricAttribute[] metricAttributes = extractor.getAttributes();
+    AttributesBuilder attrBuilder = Attributes.builder();
+    for (MetricAttribute metricAttribute : metricAttributes) {
+      String attributeValue = metricAttribute.acquireAttributeValue(cache, server, objectName);
+      if (attributeValue != null) {
+        attrBuilder = attrBuilder.put(metricAttribute.getAttributeName(), attributeValue);
+      }
+    }
+    return attrBuilder.build();
+  }
 }
@@ -0,0 +1,92 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.instrumentation.jmx.engine;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import javax.annotation.Nullable;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.QueryExp;
+
+/**
+ * An index of the ObjectName patterns of all BeanGroups, used to find the MetricDefs matching a
+ * newly registered MBean in a single pass. Patterns are grouped by their domain, so that an
+ * ObjectName is only checked against the patterns of its own domain and the patterns using
+ * wildcards in their domain. Objects of this class are immutable.
+ */
+class ObjectNamePatternIndex {
+
+  private final Map<String, List<Entry>> entriesByDomain = new HashMap<>();
+  private final List<Entry> domainPatternEntries = new ArrayList<>();
+
+  ObjectNamePatternIndex(Collection<MetricDef> metricDefs) {
+    for (MetricDef metricDef : metricDefs) {
+      BeanGroup beans = metricDef.getBeanGroup();
+      for (ObjectName pattern : beans.getNamePatterns()) {
+        Entry entry = new Entry(pattern, beans.getQueryExp(), metricDef);
+        if (pattern.isDomainPattern()) {
+          domainPatternEntries.add(entry);
+        } else {
+          entriesByDomain
+              .computeIfAbsent(pattern.getDomain(), domain -> new ArrayList<>())
+              .add(entry);
+        }
+      }
+    }
+  }
+
+  /**
+   * Find all MetricDefs whose BeanGroup matches the given ObjectName.
+   *
+   * @param server the MBeanServer which recognizes the ObjectName, used to evaluate QueryExps
+   * @param objectName the ObjectName of the MBean, it should not be a pattern
+   * @return the matching MetricDefs, in configuration order
+   */
+  Set<MetricDef> findMatches(MBeanServer server, ObjectName objectName) {
+    Set<MetricDef> matches = new LinkedHashSet<>();
+    List<Entry> entries = entriesByDomain.get(objectName.getDomain());
+    if (entries != null) {
+      addMatches(entries, server, objectName, matches);
+    }
+    addMatches(domainPatternEntries, server, objectName, matches);
+    return matches;
+  }
+
+  private static void addMatches(
+      List<Entry> entries, MBeanServer server, ObjectName objectName, Set<MetricDef> matches) {
+    for (Entry entry : entries) {
+      if (!matches.contains(entry.metricDef) && entry.matches(server, objectName)) {
+        matches.add(entry.metricDef);
+      }
+    }
+  }
+
+  private static class Entry {
+    private final ObjectName pattern;
+    @Nullable private final QueryExp queryExp;
+    private final MetricDef metricDef;
+
+    Entry(ObjectName pattern, @Nullable QueryExp queryExp, MetricDef metricDef) {
+      this.pattern = pattern;
+      this.queryExp = queryExp;
+      this.metricDef = metricDef;
+    }
+
+    boolean matches(MBeanServer server, ObjectName objectName) {
+      if (!pattern.apply(objectName)) {
+        return false;
+      }
+      // QueryExps need access to the MBean attributes, let the server evaluate them
+      return queryExp == null || !server.queryNames(objectName, queryExp).isEmpty();
+    }
+  }
+}
@@ -0,0 +1,130 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.instrumentation.jmx.engine;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.management.MBeanServer;
+import javax.management.MBeanServerFactory;
+import javax.management.ObjectName;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class AttributeValueCacheTest {
+
+  // An MBean used for this test
+  @SuppressWarnings("checkstyle:AbbreviationAsWordInName")
+  public interface Test3MBean {
+
+    int getIntAttribute();
+
+    String getStringAttribute();
+  }
+
+  private static class Test3 implements Test3MBean {
+    private final int intAttribute;
+
+    Test3(int intAttribute) {
+      this.intAttribute = intAttribute;
+    }
+
+    @Override
+    public int getIntAttribute() {
+      return intAttribute;
+    }
+
+    @Override
+    public String getStringAttribute() {
+      return "value";
+    }
+  }
+
+  private final Map<String, AtomicInteger> invocations = new ConcurrentHashMap<>();
+  private ObjectName objectName;
+  private MBeanServer server;
+
+  @BeforeEach
+  void setUp() throws Exception {
+    MBeanServer theServer = MBeanServerFactory.newMBeanServer("otel.jmx.test");
+    objectName = new ObjectName("otel.jmx.test:type=Test3");
+    theServer.registerMBean(new Test3(42), objectName);
+    // count the calls made to the MBeanServer
+    server =
+        (MBeanServer)
+            Proxy.newProxyInstance(
+                MBeanServer.class.getClassLoader(),
+                new Class<?>[] {MBeanServer.class},
+                (proxy, method, args) -> {
+                  invocations
+                      .computeIfAbsent(method.getName(), name -> new AtomicInteger())
+                      .incrementAndGet();
+                  try {
+                    return method.invoke(theServer, args);
+                  } catch (InvocationTargetException e) {
+                    throw e.getCause();
+                  }
+                });
+  }
+
+  @Test
+  void attributesAreReadOncePerCollection() {
+    AttributeValueCache cache = new AttributeValueCache();
+    assertThat(cache.getAttribute(server, objectName, "IntAttribute")).isEqualTo(42);
+    assertThat(cache.getAttribute(server, objectName, "IntAttribute")).isEqualTo(42);
+    assertThat(cache.getAttribute(server, objectName, "StringAttribute")).isEqualTo("value");
+    assertThat(invocations.get("getAttribute")).hasValue(2);
+  }
+
+  @Test
+  void attributesOfPreviousCollectionAreReadInBatch() {
+    AttributeValueCache first = new AttributeValueCache();
+    first.getAttribute(server, objectName, "IntAttribute");
+    first.getAttribute(server, objectName, "StringAttribute");
+    first.getAttribute(server, objectName, "MissingAttribute");
+    invocations.clear();
+
+    AttributeValueCache second = new AttributeValueCache(first.getRequestedAttributeNames());
+    assertThat(second.getAttribute(server, objectName, "StringAttribute")).isEqualTo("value");
+    assertThat(second.getAttribute(server, objectName, "IntAttribute")).isEqualTo(42);
+    assertThat(second.getAttribute(server, objectName, "MissingAttribute")).isNull();
+    assertThat(invocations.get("getAttributes")).hasValue(1);
+    assertThat(invocations).doesNotContainKey("getAttribute");
+  }
+
+  @Test
+  void sameObjectNameInAnotherServer() throws Exception {
+    MBeanServer otherServer = MBeanServerFactory.newMBeanServer("otel.jmx.test");
+    otherServer.registerMBean(new Test3(7), objectName);
+
+    AttributeValueCache first = new AttributeValueCache();
+    assertThat(first.getAttribute(server, objectName, "IntAttribute")).isEqualTo(42);
+    assertThat(first.getAttribute(otherServer, objectName, "IntAttribute")).isEqualTo(7);
+
+    // also when the attributes of both are read in batch
+    AttributeValueCache second = new AttributeValueCache(first.getRequestedAttributeNames());
+    assertThat(second.getAttribute(otherServer, objectName, "IntAttribute")).isEqualTo(7);
+    assertThat(second.getAttribute(server, objectName, "IntAttribute")).isEqualTo(42);
+  }
+
+  @Test
+  void valuesAreExtractedFromCache() throws Exception {
+    BeanAttributeExtractor extractor = BeanAttributeExtractor.fromName("IntAttribute");
+    AttributeValueCache cache = new AttributeValueCache();
+    Number value = extractor.extractNumericalAttribute(cache, server, objectName);
+    assertThat(value).isEqualTo(42);
+
+    MetricAttribute metricAttribute =
+        new MetricAttribute("attr", MetricAttributeExtractor.fromBeanAttribute("StringAttribute"));
+    assertThat(metricAttribute.acquireAttributeValue(cache, server, objectName))
+        .isEqualTo("value");
+    assertThat(invocations.get("getAttribute")).hasValue(2);
+  }
+}
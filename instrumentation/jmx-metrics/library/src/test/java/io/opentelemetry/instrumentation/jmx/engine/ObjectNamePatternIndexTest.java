@@ -0,0 +1,105 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.instrumentation.jmx.engine;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Arrays;
+import javax.annotation.Nullable;
+import javax.management.MBeanServer;
+import javax.management.MBeanServerFactory;
+import javax.management.ObjectName;
+import javax.management.Query;
+import javax.management.QueryExp;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+class ObjectNamePatternIndexTest {
+
+  // An MBean used for this test
+  @SuppressWarnings("checkstyle:AbbreviationAsWordInName")
+  public interface Test2MBean {
+
+    int getIntAttribute();
+  }
+
+  private static class Test2 implements Test2MBean {
+    private final int value;
+
+    Test2(int value) {
+      this.value = value;
+    }
+
+    @Override
+    public int getIntAttribute() {
+      return value;
+    }
+  }
+
+  private static MBeanServer theServer;
+
+  @BeforeAll
+  static void setUp() throws Exception {
+    theServer = MBeanServerFactory.newMBeanServer("otel.jmx.test");
+    theServer.registerMBean(new Test2(1), new ObjectName("otel.jmx.test:type=Test2,name=one"));
+    theServer.registerMBean(new Test2(2), new ObjectName("otel.jmx.test:type=Test2,name=two"));
+  }
+
+  @AfterAll
+  static void tearDown() {
+    theServer = null;
+  }
+
+  @Test
+  void findsAllMatchingMetricDefs() throws Exception {
+    MetricDef byType = metricDef(null, "otel.jmx.test:type=Test2,*");
+    MetricDef byName = metricDef(null, "otel.jmx.test:type=Test2,name=one");
+    MetricDef byDomainPattern = metricDef(null, "otel.jmx.*:type=Test2,*");
+    MetricDef otherDomain = metricDef(null, "other:type=Test2,*");
+    MetricDef otherType = metricDef(null, "otel.jmx.test:type=Other,*");
+    ObjectNamePatternIndex index =
+        new ObjectNamePatternIndex(
+            Arrays.asList(byType, byName, byDomainPattern, otherDomain, otherType));
+
+    assertThat(index.findMatches(theServer, new ObjectName("otel.jmx.test:type=Test2,name=one")))
+        .containsExactly(byType, byName, byDomainPattern);
+    assertThat(index.findMatches(theServer, new ObjectName("otel.jmx.test:type=Test2,name=two")))
+        .containsExactly(byType, byDomainPattern);
+  }
+
+  @Test
+  void metricDefWithSeveralMatchingPatternsIsFoundOnce() throws Exception {
+    MetricDef metricDef =
+        metricDef(null, "otel.jmx.test:type=Test2,*", "otel.jmx.test:name=one,*", "*:*");
+    ObjectNamePatternIndex index = new ObjectNamePatternIndex(Arrays.asList(metricDef));
+
+    assertThat(index.findMatches(theServer, new ObjectName("otel.jmx.test:type=Test2,name=one")))
+        .containsExactly(metricDef);
+  }
+
+  @Test
+  void queryExpIsEvaluated() throws Exception {
+    MetricDef metricDef =
+        metricDef(
+            Query.gt(Query.attr("IntAttribute"), Query.value(1)), "otel.jmx.test:type=Test2,*");
+    ObjectNamePatternIndex index = new ObjectNamePatternIndex(Arrays.asList(metricDef));
+
+    assertThat(index.findMatches(theServer, new ObjectName("otel.jmx.test:type=Test2,name=one")))
+        .isEmpty();
+    assertThat(index.findMatches(theServer, new ObjectName("otel.jmx.test:type=Test2,name=two")))
+        .containsExactly(metricDef);
+  }
+
+  private static MetricDef metricDef(@Nullable QueryExp queryExp, String... patterns)
+      throws Exception {
+    ObjectName[] namePatterns = new ObjectName[patterns.length];
+    for (int i = 0; i < patterns.length; i++) {
+      namePatterns[i] = new ObjectName(patterns[i]);
+    }
+    return new MetricDef(new BeanGroup(queryExp, namePatterns));
+  }
+}
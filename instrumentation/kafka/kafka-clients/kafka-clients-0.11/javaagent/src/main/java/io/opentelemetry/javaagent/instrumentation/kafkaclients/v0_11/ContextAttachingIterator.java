@@ -0,0 +1,48 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.javaagent.instrumentation.kafkaclients.v0_11;
+
+import io.opentelemetry.instrumentation.kafka.internal.KafkaConsumerContext;
+import io.opentelemetry.instrumentation.kafka.internal.KafkaConsumerContextUtil;
+import java.util.Iterator;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+
+/**
+ * Attaches the receive context of the batch to each record when it is handed out. Used instead of
+ * the {@link TracingIterator} when the records are processed by an instrumentation of a messaging
+ * framework, which creates the process spans itself and reads the receive context from the
+ * individual records.
+ */
+final class ContextAttachingIterator<K, V> implements Iterator<ConsumerRecord<K, V>> {
+
+  private final Iterator<ConsumerRecord<K, V>> delegateIterator;
+  private final KafkaConsumerContext consumerContext;
+
+  ContextAttachingIterator(
+      Iterator<ConsumerRecord<K, V>> delegateIterator, KafkaConsumerContext consumerContext) {
+    this.delegateIterator = delegateIterator;
+    this.consumerContext = consumerContext;
+  }
+
+  @Override
+  public boolean hasNext() {
+    return delegateIterator.hasNext();
+  }
+
+  @Override
+  public ConsumerRecord<K, V> next() {
+    ConsumerRecord<K, V> next = delegateIterator.next();
+    if (next != null) {
+      KafkaConsumerContextUtil.attach(next, consumerContext);
+    }
+    return next;
+  }
+
+  @Override
+  public void remove() {
+    delegateIterator.remove();
+  }
+}
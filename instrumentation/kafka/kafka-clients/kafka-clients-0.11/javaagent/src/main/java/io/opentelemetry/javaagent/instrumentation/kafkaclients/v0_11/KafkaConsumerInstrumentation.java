@@ -30,7 +30,6 @@ import net.bytebuddy.asm.Advice;
 import net.bytebuddy.description.type.TypeDescription;
 import net.bytebuddy.matcher.ElementMatcher;
 import org.apache.kafka.clients.consumer.Consumer;
-import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.apache.kafka.clients.consumer.ConsumerRecords;
 
 public class KafkaConsumerInstrumentation implements TypeInstrumentation {
@@ -119,11 +118,9 @@ public class KafkaConsumerInstrumentation implements TypeInstrumentation {
         // https://github.com/open-telemetry/opentelemetry-specification/blob/main/specification/trace/semantic_conventions/messaging.md#batch-receiving
         // we're attaching the consumer to the records to be able to retrieve things like consumer
         // group or clientId later
+        // the individual records get the same context only when they're handed out of the batch,
+        // see ConsumerRecordsInstrumentation
         KafkaConsumerContextUtil.set(records, context, consumer);
-
-        for (ConsumerRecord<?, ?> record : records) {
-          KafkaConsumerContextUtil.set(record, context, consumer);
-        }
       } finally {
         KafkaClientsConsumerProcessTracing.setEnabled(previousValue);
       }
@@ -26,7 +26,7 @@ public class TracingIterable<K, V> implements Iterable<ConsumerRecord<K, V>> {
     if (KafkaClientsConsumerProcessTracing.wrappingEnabled()) {
       return new TracingIterable<>(delegate, consumerContext);
     }
-    return delegate;
+    return () -> new ContextAttachingIterator<>(delegate.iterator(), consumerContext);
   }
 
   @Override
@@ -10,6 +10,7 @@ import static io.opentelemetry.javaagent.instrumentation.kafkaclients.v0_11.Kafk
 import io.opentelemetry.context.Context;
 import io.opentelemetry.context.Scope;
 import io.opentelemetry.instrumentation.kafka.internal.KafkaConsumerContext;
+import io.opentelemetry.instrumentation.kafka.internal.KafkaConsumerContextUtil;
 import io.opentelemetry.instrumentation.kafka.internal.KafkaProcessRequest;
 import io.opentelemetry.javaagent.bootstrap.kafka.KafkaClientsConsumerProcessTracing;
 import java.util.Iterator;
@@ -45,7 +46,7 @@ public class TracingIterator<K, V> implements Iterator<ConsumerRecord<K, V>> {
     if (KafkaClientsConsumerProcessTracing.wrappingEnabled()) {
       return new TracingIterator<>(delegateIterator, consumerContext);
     }
-    return delegateIterator;
+    return new ContextAttachingIterator<>(delegateIterator, consumerContext);
   }
 
   @Override
@@ -65,6 +66,9 @@ public class TracingIterator<K, V> implements Iterator<ConsumerRecord<K, V>> {
     // suppressing the correct span
     // (https://github.com/open-telemetry/opentelemetry-java-instrumentation/issues/1947)
     ConsumerRecord<K, V> next = delegateIterator.next();
+    if (next != null) {
+      KafkaConsumerContextUtil.attach(next, consumerContext);
+    }
     if (next != null && KafkaClientsConsumerProcessTracing.wrappingEnabled()) {
       currentRequest = KafkaProcessRequest.create(consumerContext, next);
       currentContext = consumerProcessInstrumenter().start(parentContext, currentRequest);
@@ -6,6 +6,7 @@
 package io.opentelemetry.javaagent.instrumentation.kafkaclients.v0_11;
 
 import io.opentelemetry.instrumentation.kafka.internal.KafkaConsumerContext;
+import io.opentelemetry.instrumentation.kafka.internal.KafkaConsumerContextUtil;
 import io.opentelemetry.javaagent.bootstrap.kafka.KafkaClientsConsumerProcessTracing;
 import java.util.Collection;
 import java.util.List;
@@ -14,10 +15,12 @@ import org.apache.kafka.clients.consumer.ConsumerRecord;
 
 public class TracingList<K, V> extends TracingIterable<K, V> implements List<ConsumerRecord<K, V>> {
   private final List<ConsumerRecord<K, V>> delegate;
+  private final KafkaConsumerContext consumerContext;
 
   private TracingList(List<ConsumerRecord<K, V>> delegate, KafkaConsumerContext consumerContext) {
     super(delegate, consumerContext);
     this.delegate = delegate;
+    this.consumerContext = consumerContext;
   }
 
   public static <K, V> List<ConsumerRecord<K, V>> wrap(
@@ -25,6 +28,10 @@ public class TracingList<K, V> extends TracingIterable<K, V> implements List<Con
     if (KafkaClientsConsumerProcessTracing.wrappingEnabled()) {
       return new TracingList<>(delegate, consumerContext);
     }
+    // the records of a single partition are usually requested right before they're processed
+    for (ConsumerRecord<K, V> record : delegate) {
+      KafkaConsumerContextUtil.attach(record, consumerContext);
+    }
     return delegate;
   }
 
@@ -106,7 +113,12 @@ public class TracingList<K, V> extends TracingIterable<K, V> implements List<Con
   @Override
   public ConsumerRecord<K, V> get(int index) {
     // TODO: should this be instrumented as well?
-    return delegate.get(index);
+    ConsumerRecord<K, V> record = delegate.get(index);
+    if (record != null) {
+      // the record can be processed by code that reads the receive context from it
+      KafkaConsumerContextUtil.attach(record, consumerContext);
+    }
+    return record;
   }
 
   @Override
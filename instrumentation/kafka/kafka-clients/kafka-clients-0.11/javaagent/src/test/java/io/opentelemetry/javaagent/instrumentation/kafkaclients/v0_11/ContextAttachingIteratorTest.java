@@ -0,0 +1,103 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.javaagent.instrumentation.kafkaclients.v0_11;
+
+import static java.util.Collections.emptyMap;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.opentelemetry.context.Context;
+import io.opentelemetry.context.ContextKey;
+import io.opentelemetry.instrumentation.kafka.internal.KafkaConsumerContext;
+import io.opentelemetry.instrumentation.kafka.internal.KafkaConsumerContextUtil;
+import io.opentelemetry.javaagent.bootstrap.kafka.KafkaClientsConsumerProcessTracing;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class ContextAttachingIteratorTest {
+
+  private static final ContextKey<String> KEY = ContextKey.named("test");
+
+  private KafkaConsumerContext consumerContext;
+  private boolean previousWrappingEnabled;
+
+  @BeforeEach
+  void setUp() {
+    ConsumerRecords<String, String> batch = new ConsumerRecords<>(emptyMap());
+    KafkaConsumerContextUtil.set(batch, Context.root().with(KEY, "receive"), null);
+    consumerContext = KafkaConsumerContextUtil.get(batch);
+    previousWrappingEnabled = KafkaClientsConsumerProcessTracing.setEnabled(false);
+  }
+
+  @AfterEach
+  void tearDown() {
+    KafkaClientsConsumerProcessTracing.setEnabled(previousWrappingEnabled);
+  }
+
+  @Test
+  void attachesContextToRecordsHandedOut() {
+    List<ConsumerRecord<String, String>> records = records(3);
+
+    Iterator<ConsumerRecord<String, String>> iterator =
+        TracingIterator.wrap(records.iterator(), consumerContext);
+
+    assertThat(iterator).isInstanceOf(ContextAttachingIterator.class);
+    ConsumerRecord<String, String> first = iterator.next();
+    assertThat(KafkaConsumerContextUtil.get(first)).isSameAs(consumerContext);
+    // records that were not handed out yet are not touched
+    assertThat(KafkaConsumerContextUtil.get(records.get(1)).getContext()).isNull();
+
+    iterator.forEachRemaining(
+        record -> assertThat(KafkaConsumerContextUtil.get(record)).isSameAs(consumerContext));
+  }
+
+  @Test
+  void attachesContextWhenIterable() {
+    List<ConsumerRecord<String, String>> records = records(2);
+
+    for (ConsumerRecord<String, String> record : TracingIterable.wrap(records, consumerContext)) {
+      assertThat(KafkaConsumerContextUtil.get(record)).isSameAs(consumerContext);
+    }
+  }
+
+  @Test
+  void attachesContextToPartitionList() {
+    List<ConsumerRecord<String, String>> records = records(2);
+
+    List<ConsumerRecord<String, String>> list = TracingList.wrap(records, consumerContext);
+
+    assertThat(list).isSameAs(records);
+    assertThat(records)
+        .allSatisfy(
+            record -> assertThat(KafkaConsumerContextUtil.get(record)).isSameAs(consumerContext));
+  }
+
+  @Test
+  void attachesContextOnListGetWhenWrapping() {
+    KafkaClientsConsumerProcessTracing.setEnabled(true);
+    List<ConsumerRecord<String, String>> records = records(2);
+
+    List<ConsumerRecord<String, String>> list = TracingList.wrap(records, consumerContext);
+
+    assertThat(list).isInstanceOf(TracingList.class);
+    ConsumerRecord<String, String> second = list.get(1);
+    assertThat(KafkaConsumerContextUtil.get(second)).isSameAs(consumerContext);
+    assertThat(KafkaConsumerContextUtil.get(records.get(0)).getContext()).isNull();
+  }
+
+  private static List<ConsumerRecord<String, String>> records(int count) {
+    List<ConsumerRecord<String, String>> records = new ArrayList<>();
+    for (int i = 0; i < count; i++) {
+      records.add(new ConsumerRecord<>("topic", 0, i, null, "value"));
+    }
+    return records;
+  }
+}
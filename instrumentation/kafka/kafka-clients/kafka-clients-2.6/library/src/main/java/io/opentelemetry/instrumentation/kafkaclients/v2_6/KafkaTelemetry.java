@@ -10,12 +10,10 @@ import static java.util.logging.Level.WARNING;
 import io.opentelemetry.api.OpenTelemetry;
 import io.opentelemetry.context.Context;
 import io.opentelemetry.context.Scope;
-import io.opentelemetry.context.propagation.TextMapPropagator;
-import io.opentelemetry.context.propagation.TextMapSetter;
 import io.opentelemetry.instrumentation.api.instrumenter.Instrumenter;
-import io.opentelemetry.instrumentation.kafka.internal.KafkaHeadersSetter;
 import io.opentelemetry.instrumentation.kafka.internal.KafkaProcessRequest;
 import io.opentelemetry.instrumentation.kafka.internal.KafkaProducerRequest;
+import io.opentelemetry.instrumentation.kafka.internal.KafkaTraceContextPropagation;
 import io.opentelemetry.instrumentation.kafka.internal.KafkaUtil;
 import io.opentelemetry.instrumentation.kafka.internal.OpenTelemetryMetricsReporter;
 import io.opentelemetry.instrumentation.kafka.internal.OpenTelemetrySupplier;
@@ -37,18 +35,16 @@ import org.apache.kafka.clients.producer.KafkaProducer;
 import org.apache.kafka.clients.producer.Producer;
 import org.apache.kafka.clients.producer.ProducerRecord;
 import org.apache.kafka.clients.producer.RecordMetadata;
-import org.apache.kafka.common.header.Headers;
 import org.apache.kafka.common.metrics.MetricsReporter;
 
 public final class KafkaTelemetry {
   private static final Logger logger = Logger.getLogger(KafkaTelemetry.class.getName());
 
-  private static final TextMapSetter<Headers> SETTER = KafkaHeadersSetter.INSTANCE;
-
   private final OpenTelemetry openTelemetry;
   private final Instrumenter<KafkaProducerRequest, RecordMetadata> producerInstrumenter;
   private final Instrumenter<KafkaProcessRequest, Void> consumerProcessInstrumenter;
   private final boolean producerPropagationEnabled;
+  private final KafkaTraceContextPropagation propagation;
 
   KafkaTelemetry(
       OpenTelemetry openTelemetry,
@@ -59,6 +55,8 @@ public final class KafkaTelemetry {
     this.producerInstrumenter = producerInstrumenter;
     this.consumerProcessInstrumenter = consumerProcessInstrumenter;
     this.producerPropagationEnabled = producerPropagationEnabled;
+    this.propagation =
+        KafkaTraceContextPropagation.create(openTelemetry.getPropagators().getTextMapPropagator());
   }
 
   /** Returns a new {@link KafkaTelemetry} configured with the given {@link OpenTelemetry}. */
@@ -73,10 +71,6 @@ public final class KafkaTelemetry {
     return new KafkaTelemetryBuilder(openTelemetry);
   }
 
-  private TextMapPropagator propagator() {
-    return openTelemetry.getPropagators().getTextMapPropagator();
-  }
-
   /** Returns a decorated {@link Producer} that emits spans for each sent message. */
   @SuppressWarnings("unchecked")
   public <K, V> Producer<K, V> wrap(Producer<K, V> producer) {
@@ -185,7 +179,7 @@ public final class KafkaTelemetry {
     Context context = producerInstrumenter.start(parentContext, request);
     if (producerPropagationEnabled) {
       try {
-        propagator().inject(context, record.headers(), SETTER);
+        propagation.inject(context, record.headers());
       } catch (Throwable t) {
         // it can happen if headers are read only (when record is sent second time)
         logger.log(WARNING, "failed to inject span context. sending record second time?", t);
@@ -215,7 +209,7 @@ public final class KafkaTelemetry {
 
     Context context = producerInstrumenter.start(parentContext, request);
     try (Scope ignored = context.makeCurrent()) {
-      propagator().inject(context, record.headers(), SETTER);
+      propagation.inject(context, record.headers());
       callback = new ProducerCallback(callback, parentContext, context, request);
       return sendFn.apply(record, callback);
     }
@@ -1,9 +1,15 @@
 plugins {
   id("otel.library-instrumentation")
+  id("otel.jmh-conventions")
 }
 
 dependencies {
   compileOnly("org.apache.kafka:kafka-clients:0.11.0.0")
   compileOnly("com.google.auto.value:auto-value-annotations")
   annotationProcessor("com.google.auto.value:auto-value")
+
+  testImplementation("org.apache.kafka:kafka-clients:0.11.0.0")
+
+  jmhImplementation("org.apache.kafka:kafka-clients:0.11.0.0")
+  jmhImplementation("io.opentelemetry:opentelemetry-sdk-testing")
 }
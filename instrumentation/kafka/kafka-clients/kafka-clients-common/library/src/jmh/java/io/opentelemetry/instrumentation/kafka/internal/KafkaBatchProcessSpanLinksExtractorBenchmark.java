@@ -0,0 +1,139 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.instrumentation.kafka.internal;
+
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.SpanContext;
+import io.opentelemetry.api.trace.propagation.W3CTraceContextPropagator;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.context.propagation.TextMapPropagator;
+import io.opentelemetry.instrumentation.api.instrumenter.SpanLinksBuilder;
+import io.opentelemetry.instrumentation.api.instrumenter.SpanLinksExtractor;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.internals.RecordHeader;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.apache.kafka.common.record.TimestampType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+// links of the batch process span of a 5000 record batch, each record carrying a traceparent header
+@Fork(1)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@BenchmarkMode(Mode.AverageTime)
+@State(Scope.Benchmark)
+public class KafkaBatchProcessSpanLinksExtractorBenchmark {
+
+  private static final int RECORDS = 5000;
+
+  // number of distinct traces the records belong to
+  @Param({"1", "5000"})
+  public int traces;
+
+  private final TextMapPropagator propagator = W3CTraceContextPropagator.getInstance();
+  private KafkaReceiveRequest request;
+  private SpanLinksExtractor<KafkaReceiveRequest> cappedExtractor;
+  private SpanLinksExtractor<KafkaReceiveRequest> deduplicatingExtractor;
+
+  @Setup
+  public void setUp() {
+    TopicPartition topicPartition = new TopicPartition("topic", 0);
+    List<ConsumerRecord<String, String>> records = new ArrayList<>(RECORDS);
+    for (int i = 0; i < RECORDS; i++) {
+      String traceparent = String.format("00-%032x-%016x-01", (i % traces) + 1, i + 1);
+      Header header = new RecordHeader("traceparent", traceparent.getBytes(StandardCharsets.UTF_8));
+      records.add(
+          new ConsumerRecord<>(
+              topicPartition.topic(),
+              topicPartition.partition(),
+              i,
+              0L,
+              TimestampType.CREATE_TIME,
+              0L,
+              -1,
+              -1,
+              null,
+              "value",
+              new RecordHeaders(new Header[] {header})));
+    }
+    request =
+        KafkaReceiveRequest.create(
+            new ConsumerRecords<>(Collections.singletonMap(topicPartition, records)),
+            "group",
+            "client");
+    KafkaTraceContextPropagation propagation = KafkaTraceContextPropagation.create(propagator);
+    cappedExtractor =
+        new KafkaBatchProcessSpanLinksExtractor(
+            propagation, KafkaInstrumenterFactory.DEFAULT_MAX_LINKS, false);
+    deduplicatingExtractor =
+        new KafkaBatchProcessSpanLinksExtractor(
+            propagation, KafkaInstrumenterFactory.DEFAULT_MAX_LINKS, true);
+  }
+
+  // the extraction before links were capped: every record is wrapped in a request and parsed
+  @Benchmark
+  public int perRecord() {
+    CountingSpanLinksBuilder links = new CountingSpanLinksBuilder();
+    for (ConsumerRecord<?, ?> record : request.getRecords()) {
+      KafkaProcessRequest processRequest =
+          KafkaProcessRequest.create(record, request.getConsumerGroup(), request.getClientId());
+      Context extracted =
+          propagator.extract(
+              Context.root(), processRequest.getRecord().headers(), KafkaHeadersGetter.INSTANCE);
+      links.addLink(Span.fromContext(extracted).getSpanContext());
+    }
+    return links.count;
+  }
+
+  @Benchmark
+  public int capped() {
+    CountingSpanLinksBuilder links = new CountingSpanLinksBuilder();
+    cappedExtractor.extract(links, Context.root(), request);
+    return links.count;
+  }
+
+  @Benchmark
+  public int deduplicated() {
+    CountingSpanLinksBuilder links = new CountingSpanLinksBuilder();
+    deduplicatingExtractor.extract(links, Context.root(), request);
+    return links.count;
+  }
+
+  private static final class CountingSpanLinksBuilder implements SpanLinksBuilder {
+    int count;
+
+    @Override
+    public SpanLinksBuilder addLink(SpanContext spanContext) {
+      count++;
+      return this;
+    }
+
+    @Override
+    public SpanLinksBuilder addLink(SpanContext spanContext, Attributes attributes) {
+      count++;
+      return this;
+    }
+  }
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.instrumentation.kafka.internal;
+
+import io.opentelemetry.context.Context;
+import io.opentelemetry.context.ContextKey;
+import io.opentelemetry.instrumentation.api.util.VirtualField;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.common.TopicPartition;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+// receive context bookkeeping for 1M records polled in batches of 1000, with every record
+// processed by a framework that reads the receive context of the record; run with -prof gc to
+// compare the allocations. Without the agent the virtual fields fall back to weak maps, as they do
+// for classes that can't get an injected field.
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@BenchmarkMode(Mode.AverageTime)
+@State(Scope.Benchmark)
+public class KafkaConsumerContextUtilBenchmark {
+
+  private static final int BATCHES = 1000;
+  private static final int BATCH_SIZE = 1000;
+
+  // the fields used before the context was stored once per batch
+  private static final VirtualField<ConsumerRecord<?, ?>, Context> recordContextField =
+      VirtualField.find(ConsumerRecord.class, Context.class);
+  private static final VirtualField<ConsumerRecord<?, ?>, Consumer<?, ?>> recordConsumerField =
+      VirtualField.find(ConsumerRecord.class, Consumer.class);
+
+  private final List<ConsumerRecords<String, String>> batches = new ArrayList<>(BATCHES);
+  private final Context receiveContext =
+      Context.root().with(ContextKey.named("receive"), "receive");
+
+  @Setup
+  public void setUp() {
+    TopicPartition topicPartition = new TopicPartition("topic", 0);
+    for (int i = 0; i < BATCHES; i++) {
+      List<ConsumerRecord<String, String>> records = new ArrayList<>(BATCH_SIZE);
+      for (int j = 0; j < BATCH_SIZE; j++) {
+        records.add(new ConsumerRecord<>("topic", 0, (long) i * BATCH_SIZE + j, null, "value"));
+      }
+      Map<TopicPartition, List<ConsumerRecord<String, String>>> recordsByPartition =
+          new HashMap<>();
+      recordsByPartition.put(topicPartition, records);
+      batches.add(new ConsumerRecords<>(recordsByPartition));
+    }
+  }
+
+  @Benchmark
+  public void perRecordFieldsAtPoll(Blackhole blackhole) {
+    for (ConsumerRecords<String, String> records : batches) {
+      KafkaConsumerContextUtil.set(records, receiveContext, null);
+      for (ConsumerRecord<?, ?> record : records) {
+        recordContextField.set(record, receiveContext);
+        recordConsumerField.set(record, null);
+      }
+      for (ConsumerRecord<?, ?> record : records) {
+        blackhole.consume(
+            KafkaConsumerContext.create(
+                recordContextField.get(record), recordConsumerField.get(record)));
+      }
+    }
+  }
+
+  @Benchmark
+  public void batchContextAttachedOnIteration(Blackhole blackhole) {
+    for (ConsumerRecords<String, String> records : batches) {
+      KafkaConsumerContextUtil.set(records, receiveContext, null);
+      KafkaConsumerContext consumerContext = KafkaConsumerContextUtil.get(records);
+      for (ConsumerRecord<?, ?> record : records) {
+        KafkaConsumerContextUtil.attach(record, consumerContext);
+        blackhole.consume(KafkaConsumerContextUtil.get(record));
+      }
+    }
+  }
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.instrumentation.kafka.internal;
+
+import io.opentelemetry.api.baggage.propagation.W3CBaggagePropagator;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.SpanContext;
+import io.opentelemetry.api.trace.TraceFlags;
+import io.opentelemetry.api.trace.TraceState;
+import io.opentelemetry.api.trace.propagation.W3CTraceContextPropagator;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.context.propagation.TextMapPropagator;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.header.internals.RecordHeader;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+// run with -prof gc to compare the allocations of the two paths
+@Fork(1)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@BenchmarkMode(Mode.AverageTime)
+@State(Scope.Benchmark)
+public class KafkaTraceContextPropagationBenchmark {
+
+  @Param({"tracecontext", "tracecontext,baggage"})
+  public String propagators;
+
+  private TextMapPropagator propagator;
+  private KafkaTraceContextPropagation propagation;
+  private Headers headers;
+  private Context context;
+
+  @Setup
+  public void setUp() {
+    propagator =
+        propagators.equals("tracecontext")
+            ? W3CTraceContextPropagator.getInstance()
+            : TextMapPropagator.composite(
+                W3CTraceContextPropagator.getInstance(), W3CBaggagePropagator.getInstance());
+    propagation = KafkaTraceContextPropagation.create(propagator);
+    headers =
+        new RecordHeaders(
+            new Header[] {
+              new RecordHeader(
+                  "traceparent",
+                  "00-0af7651916cd43dd8448eb211c80319c-b7ad6b7169203331-01"
+                      .getBytes(StandardCharsets.UTF_8))
+            });
+    context =
+        Context.root()
+            .with(
+                Span.wrap(
+                    SpanContext.create(
+                        "0af7651916cd43dd8448eb211c80319c",
+                        "b7ad6b7169203331",
+                        TraceFlags.getSampled(),
+                        TraceState.getDefault())));
+  }
+
+  @Benchmark
+  public Context extractWithGetter() {
+    return propagator.extract(Context.root(), headers, KafkaHeadersGetter.INSTANCE);
+  }
+
+  @Benchmark
+  public Context extractFromBytes() {
+    return propagation.extract(Context.root(), headers);
+  }
+
+  @Benchmark
+  public Headers injectWithSetter() {
+    Headers carrier = new RecordHeaders();
+    propagator.inject(context, carrier, KafkaHeadersSetter.INSTANCE);
+    return carrier;
+  }
+
+  @Benchmark
+  public Headers injectEncoded() {
+    Headers carrier = new RecordHeaders();
+    propagation.inject(context, carrier);
+    return carrier;
+  }
+}
@@ -0,0 +1,149 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.instrumentation.kafka.internal;
+
+import io.opentelemetry.sdk.OpenTelemetrySdk;
+import io.opentelemetry.sdk.metrics.SdkMeterProvider;
+import io.opentelemetry.sdk.testing.exporter.InMemoryMetricReader;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.kafka.common.MetricName;
+import org.apache.kafka.common.metrics.KafkaMetric;
+import org.apache.kafka.common.metrics.MetricConfig;
+import org.apache.kafka.common.metrics.Metrics;
+import org.apache.kafka.common.metrics.stats.Avg;
+import org.apache.kafka.common.metrics.stats.Max;
+import org.apache.kafka.common.utils.Time;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+// 10k kafka metrics: 10 per-partition metrics for 1000 partitions, registered and removed as in a
+// rebalance, and collected
+@Fork(1)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@BenchmarkMode(Mode.AverageTime)
+public class OpenTelemetryMetricsReporterBenchmark {
+
+  private static final int METRIC_NAMES = 10;
+  private static final int PARTITIONS = 1000;
+  private static final int THREADS = 4;
+
+  @State(Scope.Benchmark)
+  public static class ReporterState {
+    final AtomicInteger clientIds = new AtomicInteger();
+    InMemoryMetricReader metricReader;
+    OpenTelemetryMetricsReporter reporter;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+      metricReader = InMemoryMetricReader.create();
+      OpenTelemetrySdk openTelemetry =
+          OpenTelemetrySdk.builder()
+              .setMeterProvider(
+                  SdkMeterProvider.builder().registerMetricReader(metricReader).build())
+              .build();
+      reporter = new OpenTelemetryMetricsReporter();
+      Map<String, Object> config = new HashMap<>();
+      config.put(
+          OpenTelemetryMetricsReporter.CONFIG_KEY_OPENTELEMETRY_SUPPLIER,
+          new OpenTelemetrySupplier(openTelemetry));
+      config.put(
+          OpenTelemetryMetricsReporter.CONFIG_KEY_OPENTELEMETRY_INSTRUMENTATION_NAME, "benchmark");
+      reporter.configure(config);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+      reporter.close();
+    }
+  }
+
+  @State(Scope.Thread)
+  public static class MetricsState {
+    List<KafkaMetric> kafkaMetrics;
+
+    @Setup(Level.Trial)
+    public void setUp(ReporterState reporterState) {
+      kafkaMetrics = createMetrics("client-" + reporterState.clientIds.incrementAndGet());
+    }
+  }
+
+  @State(Scope.Benchmark)
+  public static class CollectState {
+    ReporterState reporterState;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+      reporterState = new ReporterState();
+      reporterState.setUp();
+      reporterState.reporter.init(createMetrics("client"));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+      reporterState.tearDown();
+    }
+  }
+
+  private static List<KafkaMetric> createMetrics(String clientId) {
+    Metrics metrics = new Metrics(new MetricConfig(), Collections.emptyList(), Time.SYSTEM);
+    for (int partition = 0; partition < PARTITIONS; partition++) {
+      Map<String, String> tags = new LinkedHashMap<>();
+      tags.put("client-id", clientId);
+      tags.put("topic", "topic");
+      tags.put("partition", String.valueOf(partition));
+      for (int i = 0; i < METRIC_NAMES; i++) {
+        MetricName metricName =
+            metrics.metricName("records-" + i, "consumer-fetch-manager-metrics", "", tags);
+        metrics.addMetric(metricName, i % 2 == 0 ? new Avg() : new Max());
+      }
+    }
+    List<KafkaMetric> kafkaMetrics = new ArrayList<>(metrics.metrics().values());
+    kafkaMetrics.removeIf(metric -> !metric.metricName().group().contains("consumer"));
+    return kafkaMetrics;
+  }
+
+  @Benchmark
+  public void metricChangeAndRemoval(ReporterState reporterState, MetricsState metricsState) {
+    for (KafkaMetric metric : metricsState.kafkaMetrics) {
+      reporterState.reporter.metricChange(metric);
+    }
+    for (KafkaMetric metric : metricsState.kafkaMetrics) {
+      reporterState.reporter.metricRemoval(metric);
+    }
+  }
+
+  @Benchmark
+  @Threads(THREADS)
+  public void metricChangeAndRemovalConcurrent(
+      ReporterState reporterState, MetricsState metricsState) {
+    metricChangeAndRemoval(reporterState, metricsState);
+  }
+
+  @Benchmark
+  public Object collect(CollectState collectState) {
+    return collectState.reporterState.metricReader.collectAllMetrics();
+  }
+}
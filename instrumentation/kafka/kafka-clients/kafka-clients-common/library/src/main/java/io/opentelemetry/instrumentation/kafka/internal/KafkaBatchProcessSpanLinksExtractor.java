@@ -5,33 +5,112 @@
 
 package io.opentelemetry.instrumentation.kafka.internal;
 
+import static io.opentelemetry.api.common.AttributeKey.longKey;
+
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.common.AttributesBuilder;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.SpanContext;
 import io.opentelemetry.context.Context;
-import io.opentelemetry.context.propagation.TextMapPropagator;
+import io.opentelemetry.instrumentation.api.instrumenter.AttributesExtractor;
 import io.opentelemetry.instrumentation.api.instrumenter.SpanLinksBuilder;
 import io.opentelemetry.instrumentation.api.instrumenter.SpanLinksExtractor;
-import io.opentelemetry.instrumentation.api.internal.PropagatorBasedSpanLinksExtractor;
+import java.lang.ref.WeakReference;
+import java.util.HashSet;
+import java.util.Set;
+import javax.annotation.Nullable;
 import org.apache.kafka.clients.consumer.ConsumerRecord;
 
-final class KafkaBatchProcessSpanLinksExtractor implements SpanLinksExtractor<KafkaReceiveRequest> {
+/**
+ * Links the batch process span to the spans that produced the records of the batch. At most {@code
+ * maxLinks} links are added, the headers of the records after that are not parsed. When links are
+ * deduplicated by trace id, only the first record of each trace is linked. The number of records
+ * that were not linked because of the cap or the deduplication is added as the {@code
+ * kafka.batch.elided_link_count} attribute, so this extractor has to be added both as a span links
+ * extractor and as an attributes extractor.
+ */
+final class KafkaBatchProcessSpanLinksExtractor
+    implements SpanLinksExtractor<KafkaReceiveRequest>,
+        AttributesExtractor<KafkaReceiveRequest, Void> {
+
+  // the number of records of the batch that the batch process span is not linked to
+  static final AttributeKey<Long> KAFKA_BATCH_ELIDED_LINK_COUNT =
+      longKey("kafka.batch.elided_link_count");
 
-  private final SpanLinksExtractor<KafkaProcessRequest> singleRecordLinkExtractor;
+  private final KafkaTraceContextPropagation propagation;
+  private final int maxLinks;
+  private final boolean deduplicateByTraceId;
+  // the instrumenter extracts the links of a request right before its attributes, on the same
+  // thread; the request is weakly referenced so that the thread doesn't keep the batch reachable
+  private final ThreadLocal<ElidedLinks> lastElidedLinks = new ThreadLocal<>();
 
-  KafkaBatchProcessSpanLinksExtractor(TextMapPropagator propagator) {
-    this.singleRecordLinkExtractor =
-        new PropagatorBasedSpanLinksExtractor<>(propagator, KafkaConsumerRecordGetter.INSTANCE);
+  KafkaBatchProcessSpanLinksExtractor(
+      KafkaTraceContextPropagation propagation, int maxLinks, boolean deduplicateByTraceId) {
+    this.propagation = propagation;
+    this.maxLinks = maxLinks;
+    this.deduplicateByTraceId = deduplicateByTraceId;
   }
 
   @Override
   public void extract(
       SpanLinksBuilder spanLinks, Context parentContext, KafkaReceiveRequest request) {
 
+    int recordCount = request.getRecords().count();
+    int parsed = 0;
+    int linked = 0;
+    int duplicates = 0;
+    Set<String> linkedTraceIds = deduplicateByTraceId ? new HashSet<>() : null;
     for (ConsumerRecord<?, ?> record : request.getRecords()) {
+      if (linked >= maxLinks) {
+        break;
+      }
+      parsed++;
       // explicitly passing root to avoid situation where context propagation is turned off and the
       // parent (CONSUMER receive) span is linked
-      singleRecordLinkExtractor.extract(
-          spanLinks,
-          Context.root(),
-          KafkaProcessRequest.create(record, request.getConsumerGroup(), request.getClientId()));
+      Context extracted = propagation.extract(Context.root(), record.headers());
+      SpanContext spanContext = Span.fromContext(extracted).getSpanContext();
+      if (!spanContext.isValid()) {
+        continue;
+      }
+      if (linkedTraceIds != null && !linkedTraceIds.add(spanContext.getTraceId())) {
+        duplicates++;
+        continue;
+      }
+      spanLinks.addLink(spanContext);
+      linked++;
+    }
+    int elidedLinkCount = duplicates + recordCount - parsed;
+    if (elidedLinkCount > 0) {
+      lastElidedLinks.set(new ElidedLinks(request, elidedLinkCount));
+    } else {
+      lastElidedLinks.remove();
+    }
+  }
+
+  @Override
+  public void onStart(
+      AttributesBuilder attributes, Context parentContext, KafkaReceiveRequest request) {
+    ElidedLinks elidedLinks = lastElidedLinks.get();
+    if (elidedLinks != null && elidedLinks.request.get() == request) {
+      attributes.put(KAFKA_BATCH_ELIDED_LINK_COUNT, elidedLinks.count);
+    }
+  }
+
+  @Override
+  public void onEnd(
+      AttributesBuilder attributes,
+      Context context,
+      KafkaReceiveRequest request,
+      @Nullable Void unused,
+      @Nullable Throwable error) {}
+
+  private static final class ElidedLinks {
+    private final WeakReference<KafkaReceiveRequest> request;
+    private final long count;
+
+    private ElidedLinks(KafkaReceiveRequest request, long count) {
+      this.request = new WeakReference<>(request);
+      this.count = count;
     }
   }
 }
@@ -12,48 +12,52 @@ import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.apache.kafka.clients.consumer.ConsumerRecords;
 
 /**
- * This class is internal and is hence not for public use. Its APIs are unstable and can change at
- * any time.
+ * Stores the receive context and the consumer of a batch of records. They are stored once for the
+ * whole batch, and the same {@link KafkaConsumerContext} is attached to the individual records only
+ * when they are handed out of the batch to code that processes single records, see {@link
+ * #attach(ConsumerRecord, KafkaConsumerContext)}.
+ *
+ * <p>This class is internal and is hence not for public use. Its APIs are unstable and can change
+ * at any time.
  */
 public final class KafkaConsumerContextUtil {
-  private static final VirtualField<ConsumerRecord<?, ?>, Context> recordContextField =
-      VirtualField.find(ConsumerRecord.class, Context.class);
-  private static final VirtualField<ConsumerRecord<?, ?>, Consumer<?, ?>> recordConsumerField =
-      VirtualField.find(ConsumerRecord.class, Consumer.class);
-  private static final VirtualField<ConsumerRecords<?, ?>, Context> recordsContextField =
-      VirtualField.find(ConsumerRecords.class, Context.class);
-  private static final VirtualField<ConsumerRecords<?, ?>, Consumer<?, ?>> recordsConsumerField =
-      VirtualField.find(ConsumerRecords.class, Consumer.class);
-
-  public static KafkaConsumerContext get(ConsumerRecord<?, ?> records) {
-    Context receiveContext = recordContextField.get(records);
-    Consumer<?, ?> consumer = recordConsumerField.get(records);
-    return KafkaConsumerContext.create(receiveContext, consumer);
-  }
+  private static final VirtualField<ConsumerRecord<?, ?>, KafkaConsumerContext> recordContextField =
+      VirtualField.find(ConsumerRecord.class, KafkaConsumerContext.class);
+  private static final VirtualField<ConsumerRecords<?, ?>, KafkaConsumerContext>
+      recordsContextField = VirtualField.find(ConsumerRecords.class, KafkaConsumerContext.class);
 
-  public static KafkaConsumerContext get(ConsumerRecords<?, ?> records) {
-    Context receiveContext = recordsContextField.get(records);
-    Consumer<?, ?> consumer = recordsConsumerField.get(records);
-    return KafkaConsumerContext.create(receiveContext, consumer);
+  private static final KafkaConsumerContext EMPTY = KafkaConsumerContext.create(null, null);
+
+  public static KafkaConsumerContext get(ConsumerRecord<?, ?> record) {
+    KafkaConsumerContext consumerContext = recordContextField.get(record);
+    return consumerContext != null ? consumerContext : EMPTY;
   }
 
-  public static void set(ConsumerRecord<?, ?> record, Context context, Consumer<?, ?> consumer) {
-    recordContextField.set(record, context);
-    recordConsumerField.set(record, consumer);
+  public static KafkaConsumerContext get(ConsumerRecords<?, ?> records) {
+    KafkaConsumerContext consumerContext = recordsContextField.get(records);
+    return consumerContext != null ? consumerContext : EMPTY;
   }
 
   public static void set(ConsumerRecord<?, ?> record, KafkaConsumerContext consumerContext) {
-    set(record, consumerContext.getContext(), consumerContext.getConsumer());
+    recordContextField.set(record, consumerContext);
   }
 
   public static void set(ConsumerRecords<?, ?> records, Context context, Consumer<?, ?> consumer) {
-    recordsContextField.set(records, context);
-    recordsConsumerField.set(records, consumer);
+    recordsContextField.set(records, KafkaConsumerContext.create(context, consumer));
+  }
+
+  /**
+   * Attaches the context of the batch to a record that is handed out of it. Only the reference to
+   * the batch context is stored, nothing is allocated.
+   */
+  public static void attach(ConsumerRecord<?, ?> record, KafkaConsumerContext consumerContext) {
+    if (consumerContext != EMPTY) {
+      recordContextField.set(record, consumerContext);
+    }
   }
 
   public static void copy(ConsumerRecord<?, ?> from, ConsumerRecord<?, ?> to) {
     recordContextField.set(to, recordContextField.get(from));
-    recordConsumerField.set(to, recordConsumerField.get(from));
   }
 
   private KafkaConsumerContextUtil() {}
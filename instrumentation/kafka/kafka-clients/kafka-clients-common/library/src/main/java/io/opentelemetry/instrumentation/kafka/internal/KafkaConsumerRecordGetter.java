@@ -6,33 +6,22 @@
 package io.opentelemetry.instrumentation.kafka.internal;
 
 import io.opentelemetry.context.propagation.TextMapGetter;
-import java.nio.charset.StandardCharsets;
-import java.util.stream.Collectors;
-import java.util.stream.StreamSupport;
 import javax.annotation.Nullable;
-import org.apache.kafka.common.header.Header;
 
 enum KafkaConsumerRecordGetter implements TextMapGetter<KafkaProcessRequest> {
   INSTANCE;
 
   @Override
   public Iterable<String> keys(KafkaProcessRequest carrier) {
-    return StreamSupport.stream(carrier.getRecord().headers().spliterator(), false)
-        .map(Header::key)
-        .collect(Collectors.toList());
+    return KafkaHeadersGetter.INSTANCE.keys(carrier.getRecord().headers());
   }
 
   @Nullable
   @Override
   public String get(@Nullable KafkaProcessRequest carrier, String key) {
-    Header header = carrier.getRecord().headers().lastHeader(key);
-    if (header == null) {
+    if (carrier == null) {
       return null;
     }
-    byte[] value = header.value();
-    if (value == null) {
-      return null;
-    }
-    return new String(value, StandardCharsets.UTF_8);
+    return KafkaHeadersGetter.INSTANCE.get(carrier.getRecord().headers(), key);
   }
 }
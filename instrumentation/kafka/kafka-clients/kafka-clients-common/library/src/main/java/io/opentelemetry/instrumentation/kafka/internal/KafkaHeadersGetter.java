@@ -0,0 +1,39 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.instrumentation.kafka.internal;
+
+import io.opentelemetry.context.propagation.TextMapGetter;
+import java.nio.charset.StandardCharsets;
+import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
+import javax.annotation.Nullable;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.Headers;
+
+enum KafkaHeadersGetter implements TextMapGetter<Headers> {
+  INSTANCE;
+
+  @Override
+  public Iterable<String> keys(Headers carrier) {
+    return StreamSupport.stream(carrier.spliterator(), false)
+        .map(Header::key)
+        .collect(Collectors.toList());
+  }
+
+  @Nullable
+  @Override
+  public String get(@Nullable Headers carrier, String key) {
+    Header header = carrier.lastHeader(key);
+    if (header == null) {
+      return null;
+    }
+    byte[] value = header.value();
+    if (value == null) {
+      return null;
+    }
+    return new String(value, StandardCharsets.UTF_8);
+  }
+}
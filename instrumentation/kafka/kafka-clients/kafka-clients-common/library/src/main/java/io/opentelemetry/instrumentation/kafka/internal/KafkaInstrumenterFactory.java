@@ -9,6 +9,8 @@ import static java.util.Collections.emptyList;
 
 import com.google.errorprone.annotations.CanIgnoreReturnValue;
 import io.opentelemetry.api.OpenTelemetry;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.context.Context;
 import io.opentelemetry.instrumentation.api.instrumenter.AttributesExtractor;
 import io.opentelemetry.instrumentation.api.instrumenter.ErrorCauseExtractor;
 import io.opentelemetry.instrumentation.api.instrumenter.Instrumenter;
@@ -18,7 +20,6 @@ import io.opentelemetry.instrumentation.api.instrumenter.messaging.MessageOperat
 import io.opentelemetry.instrumentation.api.instrumenter.messaging.MessagingAttributesExtractor;
 import io.opentelemetry.instrumentation.api.instrumenter.messaging.MessagingAttributesGetter;
 import io.opentelemetry.instrumentation.api.instrumenter.messaging.MessagingSpanNameExtractor;
-import io.opentelemetry.instrumentation.api.internal.PropagatorBasedSpanLinksExtractor;
 import java.util.Collections;
 import java.util.List;
 import org.apache.kafka.clients.producer.RecordMetadata;
@@ -29,12 +30,20 @@ import org.apache.kafka.clients.producer.RecordMetadata;
  */
 public final class KafkaInstrumenterFactory {
 
+  /**
+   * The default maximum number of records of a batch the batch process span is linked to, the
+   * default span link limit of the SDK.
+   */
+  public static final int DEFAULT_MAX_LINKS = 128;
+
   private final OpenTelemetry openTelemetry;
   private final String instrumentationName;
   private ErrorCauseExtractor errorCauseExtractor = ErrorCauseExtractor.getDefault();
   private List<String> capturedHeaders = emptyList();
   private boolean captureExperimentalSpanAttributes = false;
   private boolean messagingReceiveInstrumentationEnabled = false;
+  private int batchProcessMaxLinks = DEFAULT_MAX_LINKS;
+  private boolean batchProcessDeduplicateLinks = false;
 
   public KafkaInstrumenterFactory(OpenTelemetry openTelemetry, String instrumentationName) {
     this.openTelemetry = openTelemetry;
@@ -78,6 +87,33 @@ public final class KafkaInstrumenterFactory {
     return this;
   }
 
+  /**
+   * Sets the maximum number of records of a batch the batch process span is linked to. The headers
+   * of the records after that are not parsed. Defaults to {@link #DEFAULT_MAX_LINKS}.
+   *
+   * @throws IllegalArgumentException if {@code batchProcessMaxLinks} is negative
+   */
+  @CanIgnoreReturnValue
+  public KafkaInstrumenterFactory setBatchProcessMaxLinks(int batchProcessMaxLinks) {
+    if (batchProcessMaxLinks < 0) {
+      throw new IllegalArgumentException(
+          "batchProcessMaxLinks must not be negative: " + batchProcessMaxLinks);
+    }
+    this.batchProcessMaxLinks = batchProcessMaxLinks;
+    return this;
+  }
+
+  /**
+   * Sets whether the batch process span should be linked to a single record per trace, instead of
+   * to every record of the batch.
+   */
+  @CanIgnoreReturnValue
+  public KafkaInstrumenterFactory setBatchProcessDeduplicateLinks(
+      boolean batchProcessDeduplicateLinks) {
+    this.batchProcessDeduplicateLinks = batchProcessDeduplicateLinks;
+    return this;
+  }
+
   public Instrumenter<KafkaProducerRequest, RecordMetadata> createProducerInstrumenter() {
     return createProducerInstrumenter(Collections.emptyList());
   }
@@ -141,10 +177,14 @@ public final class KafkaInstrumenterFactory {
     }
 
     if (messagingReceiveInstrumentationEnabled) {
+      KafkaTraceContextPropagation propagation =
+          KafkaTraceContextPropagation.create(
+              openTelemetry.getPropagators().getTextMapPropagator());
       builder.addSpanLinksExtractor(
-          new PropagatorBasedSpanLinksExtractor<>(
-              openTelemetry.getPropagators().getTextMapPropagator(),
-              KafkaConsumerRecordGetter.INSTANCE));
+          (spanLinks, parentContext, request) -> {
+            Context extracted = propagation.extract(parentContext, request.getRecord().headers());
+            spanLinks.addLink(Span.fromContext(extracted).getSpanContext());
+          });
       return builder.buildInstrumenter(SpanKindExtractor.alwaysConsumer());
     } else {
       return builder.buildConsumerInstrumenter(KafkaConsumerRecordGetter.INSTANCE);
@@ -154,6 +194,12 @@ public final class KafkaInstrumenterFactory {
   public Instrumenter<KafkaReceiveRequest, Void> createBatchProcessInstrumenter() {
     KafkaReceiveAttributesGetter getter = KafkaReceiveAttributesGetter.INSTANCE;
     MessageOperation operation = MessageOperation.PROCESS;
+    KafkaBatchProcessSpanLinksExtractor spanLinksExtractor =
+        new KafkaBatchProcessSpanLinksExtractor(
+            KafkaTraceContextPropagation.create(
+                openTelemetry.getPropagators().getTextMapPropagator()),
+            batchProcessMaxLinks,
+            batchProcessDeduplicateLinks);
 
     return Instrumenter.<KafkaReceiveRequest, Void>builder(
             openTelemetry,
@@ -162,9 +208,8 @@ public final class KafkaInstrumenterFactory {
         .addAttributesExtractor(
             buildMessagingAttributesExtractor(getter, operation, capturedHeaders))
         .addAttributesExtractor(KafkaReceiveAttributesExtractor.INSTANCE)
-        .addSpanLinksExtractor(
-            new KafkaBatchProcessSpanLinksExtractor(
-                openTelemetry.getPropagators().getTextMapPropagator()))
+        .addAttributesExtractor(spanLinksExtractor)
+        .addSpanLinksExtractor(spanLinksExtractor)
         .setErrorCauseExtractor(errorCauseExtractor)
         .buildInstrumenter(SpanKindExtractor.alwaysConsumer());
   }
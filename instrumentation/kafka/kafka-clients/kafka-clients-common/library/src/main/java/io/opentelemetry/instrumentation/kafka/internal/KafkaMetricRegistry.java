@@ -12,6 +12,7 @@ import io.opentelemetry.api.common.Attributes;
 import io.opentelemetry.api.common.AttributesBuilder;
 import io.opentelemetry.api.metrics.Meter;
 import io.opentelemetry.api.metrics.ObservableDoubleMeasurement;
+import io.opentelemetry.instrumentation.api.internal.cache.Cache;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -19,7 +20,6 @@ import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.function.Consumer;
 import javax.annotation.Nullable;
 import org.apache.kafka.common.MetricName;
 import org.apache.kafka.common.metrics.KafkaMetric;
@@ -31,6 +31,9 @@ final class KafkaMetricRegistry {
   private static final Set<String> groups = new HashSet<>(Arrays.asList("consumer", "producer"));
   private static final Map<Class<?>, String> measurableToInstrumentType = new HashMap<>();
   private static final Map<String, String> descriptionCache = new ConcurrentHashMap<>();
+  // the metrics of a topic partition or of a node share their tags
+  private static final Cache<Map<String, String>, Attributes> attributesCache =
+      Cache.bounded(1000);
 
   static {
     Map<String, String> classNameToType = new HashMap<>();
@@ -59,7 +62,7 @@ final class KafkaMetricRegistry {
   }
 
   @Nullable
-  static RegisteredObservable getRegisteredObservable(Meter meter, KafkaMetric kafkaMetric) {
+  static RegisteredObservable getRegisteredObservable(KafkaMetric kafkaMetric) {
     // If metric is not a Measurable, we can't map it to an instrument
     Class<? extends Measurable> measurable = getMeasurable(kafkaMetric);
     if (measurable == null) {
@@ -82,10 +85,9 @@ final class KafkaMetricRegistry {
 
     InstrumentDescriptor instrumentDescriptor =
         toInstrumentDescriptor(instrumentType, instrumentName, instrumentDescription);
-    Attributes attributes = toAttributes(metricName.tags());
-    AutoCloseable observable =
-        createObservable(meter, attributes, instrumentDescriptor, kafkaMetric);
-    return RegisteredObservable.create(metricName, instrumentDescriptor, attributes, observable);
+    Attributes attributes =
+        attributesCache.computeIfAbsent(metricName.tags(), KafkaMetricRegistry::toAttributes);
+    return RegisteredObservable.create(metricName, instrumentDescriptor, attributes, kafkaMetric);
   }
 
   @Nullable
@@ -115,25 +117,21 @@ final class KafkaMetricRegistry {
     return attributesBuilder.build();
   }
 
-  private static AutoCloseable createObservable(
-      Meter meter,
-      Attributes attributes,
-      InstrumentDescriptor instrumentDescriptor,
-      KafkaMetric kafkaMetric) {
-    Consumer<ObservableDoubleMeasurement> callback =
-        observableMeasurement -> observableMeasurement.record(value(kafkaMetric), attributes);
+  /** Creates the observer through which the values of the instrument's metrics are recorded. */
+  static ObservableDoubleMeasurement createObserver(
+      Meter meter, InstrumentDescriptor instrumentDescriptor) {
     switch (instrumentDescriptor.getInstrumentType()) {
       case INSTRUMENT_TYPE_DOUBLE_OBSERVABLE_GAUGE:
         return meter
             .gaugeBuilder(instrumentDescriptor.getName())
             .setDescription(instrumentDescriptor.getDescription())
-            .buildWithCallback(callback);
+            .buildObserver();
       case INSTRUMENT_TYPE_DOUBLE_OBSERVABLE_COUNTER:
         return meter
             .counterBuilder(instrumentDescriptor.getName())
             .setDescription(instrumentDescriptor.getDescription())
             .ofDoubles()
-            .buildWithCallback(callback);
+            .buildObserver();
       default: // Continue below to throw
     }
     // TODO: add support for other instrument types and value types as needed for new instruments.
@@ -141,8 +139,8 @@ final class KafkaMetricRegistry {
     throw new IllegalStateException("Unrecognized instrument type. This is a bug.");
   }
 
-  private static double value(KafkaMetric kafkaMetric) {
-    return kafkaMetric.measurable().measure(kafkaMetric.config(), System.currentTimeMillis());
+  static double value(KafkaMetric kafkaMetric, long nowMillis) {
+    return kafkaMetric.measurable().measure(kafkaMetric.config(), nowMillis);
   }
 
   private KafkaMetricRegistry() {}
@@ -7,6 +7,8 @@ package io.opentelemetry.instrumentation.kafka.internal;
 
 import io.opentelemetry.api.GlobalOpenTelemetry;
 import io.opentelemetry.context.Context;
+import io.opentelemetry.context.propagation.TextMapPropagator;
+import javax.annotation.Nullable;
 import org.apache.kafka.clients.ApiVersions;
 import org.apache.kafka.clients.producer.ProducerRecord;
 import org.apache.kafka.common.record.RecordBatch;
@@ -17,7 +19,8 @@ import org.apache.kafka.common.record.RecordBatch;
  */
 public final class KafkaPropagation {
 
-  private static final KafkaHeadersSetter SETTER = KafkaHeadersSetter.INSTANCE;
+  // created again only when the global propagator changes, i.e. in tests
+  @Nullable private static volatile KafkaTraceContextPropagation propagation;
 
   // Do not inject headers for batch versions below 2
   // This is how similar check is being done in Kafka client itself:
@@ -51,9 +54,17 @@ public final class KafkaPropagation {
   }
 
   private static <K, V> void inject(Context context, ProducerRecord<K, V> record) {
-    GlobalOpenTelemetry.getPropagators()
-        .getTextMapPropagator()
-        .inject(context, record.headers(), SETTER);
+    getPropagation().inject(context, record.headers());
+  }
+
+  private static KafkaTraceContextPropagation getPropagation() {
+    TextMapPropagator propagator = GlobalOpenTelemetry.getPropagators().getTextMapPropagator();
+    KafkaTraceContextPropagation current = propagation;
+    if (current == null || current.getPropagator() != propagator) {
+      current = KafkaTraceContextPropagation.create(propagator);
+      propagation = current;
+    }
+    return current;
   }
 
   private KafkaPropagation() {}
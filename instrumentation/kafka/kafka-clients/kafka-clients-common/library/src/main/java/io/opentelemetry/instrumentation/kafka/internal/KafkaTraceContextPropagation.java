@@ -0,0 +1,219 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.instrumentation.kafka.internal;
+
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.SpanContext;
+import io.opentelemetry.api.trace.TraceFlags;
+import io.opentelemetry.api.trace.TraceState;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.context.propagation.TextMapGetter;
+import io.opentelemetry.context.propagation.TextMapPropagator;
+import io.opentelemetry.context.propagation.TextMapSetter;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import javax.annotation.Nullable;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.Headers;
+
+/**
+ * Propagates the context through kafka record headers with a fast path for the W3C {@code
+ * traceparent} header: the header is parsed directly from its bytes on extraction and written from
+ * the span context on injection, without the intermediate header strings of the {@link
+ * TextMapGetter} and {@link TextMapSetter} APIs.
+ *
+ * <p>The fast path is taken when the W3C trace context is the only span context format of the
+ * propagator, i.e. when it handles the {@code traceparent} and {@code tracestate} fields and at
+ * most the {@code baggage} field besides them, and when the trace state is empty, which is the case
+ * for almost all records. Baggage is still handled by the propagator. With any other propagator,
+ * e.g. a composite propagator that also reads B3 headers, the order of the propagators decides
+ * which span context wins, so those propagators are always used alone, as are records with a trace
+ * state.
+ *
+ * <p>This class is internal and is hence not for public use. Its APIs are unstable and can change
+ * at any time.
+ */
+public final class KafkaTraceContextPropagation {
+
+  private static final String TRACEPARENT = "traceparent";
+  private static final String TRACESTATE = "tracestate";
+  private static final String BAGGAGE = "baggage";
+
+  // version 00 of the traceparent header: 00-<trace id>-<span id>-<trace flags>
+  private static final int TRACE_ID_OFFSET = 3;
+  private static final int SPAN_ID_OFFSET = TRACE_ID_OFFSET + 32 + 1;
+  private static final int TRACE_FLAGS_OFFSET = SPAN_ID_OFFSET + 16 + 1;
+  private static final int TRACEPARENT_LENGTH = TRACE_FLAGS_OFFSET + 2;
+
+  private final TextMapPropagator propagator;
+  private final boolean fastPath;
+  // whether the propagator also handles baggage
+  private final boolean otherFields;
+
+  public static KafkaTraceContextPropagation create(TextMapPropagator propagator) {
+    return new KafkaTraceContextPropagation(propagator);
+  }
+
+  private KafkaTraceContextPropagation(TextMapPropagator propagator) {
+    this.propagator = propagator;
+    Collection<String> fields = propagator.fields();
+    boolean onlyTraceContextAndBaggage = true;
+    for (String field : fields) {
+      if (!TRACEPARENT.equals(field) && !TRACESTATE.equals(field) && !BAGGAGE.equals(field)) {
+        onlyTraceContextAndBaggage = false;
+        break;
+      }
+    }
+    this.fastPath =
+        onlyTraceContextAndBaggage && fields.contains(TRACEPARENT) && fields.contains(TRACESTATE);
+    this.otherFields = fastPath && fields.contains(BAGGAGE);
+  }
+
+  TextMapPropagator getPropagator() {
+    return propagator;
+  }
+
+  /** Extracts the context propagated in the {@code headers} into the {@code context}. */
+  public Context extract(Context context, Headers headers) {
+    if (!fastPath || headers.lastHeader(TRACESTATE) != null) {
+      return propagator.extract(context, headers, KafkaHeadersGetter.INSTANCE);
+    }
+    Header traceparent = headers.lastHeader(TRACEPARENT);
+    if (traceparent != null) {
+      SpanContext spanContext = parseTraceparent(traceparent.value());
+      if (spanContext != null) {
+        context = context.with(Span.wrap(spanContext));
+      }
+    }
+    if (otherFields) {
+      context = propagator.extract(context, headers, TraceContextHidingGetter.INSTANCE);
+    }
+    return context;
+  }
+
+  /** Injects the {@code context} into the {@code headers}. */
+  public void inject(Context context, Headers headers) {
+    SpanContext spanContext = Span.fromContext(context).getSpanContext();
+    if (!fastPath || !spanContext.getTraceState().isEmpty()) {
+      propagator.inject(context, headers, KafkaHeadersSetter.INSTANCE);
+      return;
+    }
+    if (spanContext.isValid()) {
+      headers.remove(TRACEPARENT).add(TRACEPARENT, encodeTraceparent(spanContext));
+    }
+    if (otherFields) {
+      propagator.inject(context, headers, TraceContextHidingSetter.INSTANCE);
+    }
+  }
+
+  // visible for testing
+  static byte[] encodeTraceparent(SpanContext spanContext) {
+    byte[] value = new byte[TRACEPARENT_LENGTH];
+    value[0] = '0';
+    value[1] = '0';
+    value[TRACE_ID_OFFSET - 1] = '-';
+    writeAscii(spanContext.getTraceId(), value, TRACE_ID_OFFSET);
+    value[SPAN_ID_OFFSET - 1] = '-';
+    writeAscii(spanContext.getSpanId(), value, SPAN_ID_OFFSET);
+    value[TRACE_FLAGS_OFFSET - 1] = '-';
+    writeAscii(spanContext.getTraceFlags().asHex(), value, TRACE_FLAGS_OFFSET);
+    return value;
+  }
+
+  private static void writeAscii(String value, byte[] destination, int offset) {
+    for (int i = 0; i < value.length(); i++) {
+      destination[offset + i] = (byte) value.charAt(i);
+    }
+  }
+
+  // validates the header as the W3CTraceContextPropagator does
+  @Nullable
+  static SpanContext parseTraceparent(@Nullable byte[] value) {
+    if (value == null
+        || value.length < TRACEPARENT_LENGTH
+        || (value.length > TRACEPARENT_LENGTH && value[TRACEPARENT_LENGTH] != '-')
+        || value[TRACE_ID_OFFSET - 1] != '-'
+        || value[SPAN_ID_OFFSET - 1] != '-'
+        || value[TRACE_FLAGS_OFFSET - 1] != '-') {
+      return null;
+    }
+    int version = hexByte(value, 0);
+    if (version == -1 || version == 0xff || (version == 0 && value.length > TRACEPARENT_LENGTH)) {
+      return null;
+    }
+    int traceFlags = hexByte(value, TRACE_FLAGS_OFFSET);
+    if (traceFlags == -1
+        || !isHex(value, TRACE_ID_OFFSET, 32)
+        || !isHex(value, SPAN_ID_OFFSET, 16)) {
+      return null;
+    }
+    SpanContext spanContext =
+        SpanContext.createFromRemoteParent(
+            new String(value, TRACE_ID_OFFSET, 32, StandardCharsets.ISO_8859_1),
+            new String(value, SPAN_ID_OFFSET, 16, StandardCharsets.ISO_8859_1),
+            TraceFlags.fromByte((byte) traceFlags),
+            TraceState.getDefault());
+    return spanContext.isValid() ? spanContext : null;
+  }
+
+  private static boolean isHex(byte[] value, int offset, int length) {
+    for (int i = offset; i < offset + length; i++) {
+      if (hexDigit(value[i]) == -1) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static int hexByte(byte[] value, int offset) {
+    int high = hexDigit(value[offset]);
+    int low = hexDigit(value[offset + 1]);
+    return high == -1 || low == -1 ? -1 : (high << 4) | low;
+  }
+
+  // lower case only, as required by the W3C trace context specification
+  private static int hexDigit(byte b) {
+    if (b >= '0' && b <= '9') {
+      return b - '0';
+    }
+    if (b >= 'a' && b <= 'f') {
+      return b - 'a' + 10;
+    }
+    return -1;
+  }
+
+  // lets the propagator handle its other fields, the trace context was already extracted
+  private enum TraceContextHidingGetter implements TextMapGetter<Headers> {
+    INSTANCE;
+
+    @Override
+    public Iterable<String> keys(Headers carrier) {
+      return KafkaHeadersGetter.INSTANCE.keys(carrier);
+    }
+
+    @Nullable
+    @Override
+    public String get(@Nullable Headers carrier, String key) {
+      if (TRACEPARENT.equals(key) || TRACESTATE.equals(key)) {
+        return null;
+      }
+      return KafkaHeadersGetter.INSTANCE.get(carrier, key);
+    }
+  }
+
+  // lets the propagator handle its other fields, the trace context was already injected
+  private enum TraceContextHidingSetter implements TextMapSetter<Headers> {
+    INSTANCE;
+
+    @Override
+    public void set(@Nullable Headers carrier, String key, String value) {
+      if (TRACEPARENT.equals(key) || TRACESTATE.equals(key)) {
+        return;
+      }
+      KafkaHeadersSetter.INSTANCE.set(carrier, key, value);
+    }
+  }
+}
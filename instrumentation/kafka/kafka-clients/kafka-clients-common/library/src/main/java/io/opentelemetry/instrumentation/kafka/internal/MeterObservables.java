@@ -0,0 +1,79 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.instrumentation.kafka.internal;
+
+import io.opentelemetry.api.metrics.BatchCallback;
+import io.opentelemetry.api.metrics.Meter;
+import io.opentelemetry.api.metrics.ObservableDoubleMeasurement;
+import io.opentelemetry.instrumentation.api.internal.GuardedBy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The instruments created with a single {@link Meter}. Every instrument gets a callback when it is
+ * created, which records the values of the kafka metrics that its {@link ObservableGroup} contains
+ * at the time of the collection; adding metrics to and removing metrics from a group swaps the
+ * contents of the group and never registers a callback again. Instruments are only added when
+ * kafka reports a metric with a name that wasn't seen before, only that takes a lock.
+ */
+final class MeterObservables {
+
+  private final Meter meter;
+  private final Map<InstrumentDescriptor, ObservableGroup> groups = new ConcurrentHashMap<>();
+  private final Object lock = new Object();
+
+  @GuardedBy("lock")
+  private final List<BatchCallback> callbacks = new ArrayList<>();
+
+  @GuardedBy("lock")
+  private boolean closed;
+
+  MeterObservables(Meter meter) {
+    this.meter = meter;
+  }
+
+  ObservableGroup getGroup(InstrumentDescriptor instrumentDescriptor) {
+    ObservableGroup group = groups.get(instrumentDescriptor);
+    if (group != null) {
+      return group;
+    }
+    synchronized (lock) {
+      group = groups.get(instrumentDescriptor);
+      if (group != null) {
+        return group;
+      }
+      ObservableDoubleMeasurement observer =
+          KafkaMetricRegistry.createObserver(meter, instrumentDescriptor);
+      ObservableGroup createdGroup = new ObservableGroup(instrumentDescriptor, observer);
+      if (!closed) {
+        callbacks.add(
+            meter.batchCallback(() -> createdGroup.record(System.currentTimeMillis()), observer));
+      }
+      groups.put(instrumentDescriptor, createdGroup);
+      return createdGroup;
+    }
+  }
+
+  List<RegisteredObservable> getRegisteredObservables() {
+    List<RegisteredObservable> registeredObservables = new ArrayList<>();
+    for (ObservableGroup group : groups.values()) {
+      registeredObservables.addAll(group.getRegisteredObservables());
+    }
+    return registeredObservables;
+  }
+
+  void close() {
+    synchronized (lock) {
+      closed = true;
+      for (BatchCallback callback : callbacks) {
+        callback.close();
+      }
+      callbacks.clear();
+    }
+  }
+}
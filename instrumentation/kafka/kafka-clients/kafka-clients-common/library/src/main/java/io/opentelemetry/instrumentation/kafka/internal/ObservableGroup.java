@@ -0,0 +1,113 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.instrumentation.kafka.internal;
+
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.metrics.ObservableDoubleMeasurement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+import org.apache.kafka.common.MetricName;
+
+/**
+ * The kafka metrics reported with a single instrument. The metrics are kept in a copy-on-write
+ * array, so that the batch callback reads them without locking while kafka adds and removes
+ * metrics.
+ */
+final class ObservableGroup {
+
+  private static final RegisteredObservable[] EMPTY = new RegisteredObservable[0];
+
+  private final InstrumentDescriptor instrumentDescriptor;
+  private final ObservableDoubleMeasurement observer;
+  private final AtomicReference<RegisteredObservable[]> observables = new AtomicReference<>(EMPTY);
+
+  ObservableGroup(InstrumentDescriptor instrumentDescriptor, ObservableDoubleMeasurement observer) {
+    this.instrumentDescriptor = instrumentDescriptor;
+    this.observer = observer;
+  }
+
+  InstrumentDescriptor getInstrumentDescriptor() {
+    return instrumentDescriptor;
+  }
+
+  ObservableDoubleMeasurement getObserver() {
+    return observer;
+  }
+
+  /**
+   * Adds the metric, replacing the metrics whose attribute keys are a strict subset of the keys of
+   * the added metric, which would otherwise be reported twice with fewer dimensions. Returns the
+   * replaced metrics.
+   */
+  List<RegisteredObservable> add(RegisteredObservable added) {
+    Set<AttributeKey<?>> attributeKeys = added.getAttributes().asMap().keySet();
+    while (true) {
+      RegisteredObservable[] current = observables.get();
+      List<RegisteredObservable> replaced = Collections.emptyList();
+      List<RegisteredObservable> updated = new ArrayList<>(current.length + 1);
+      for (RegisteredObservable observable : current) {
+        if (observable.getKafkaMetricName().equals(added.getKafkaMetricName())) {
+          // already replaced by the caller
+          continue;
+        }
+        Set<AttributeKey<?>> curAttributeKeys = observable.getAttributes().asMap().keySet();
+        if (attributeKeys.size() > curAttributeKeys.size()
+            && attributeKeys.containsAll(curAttributeKeys)) {
+          if (replaced.isEmpty()) {
+            replaced = new ArrayList<>();
+          }
+          replaced.add(observable);
+        } else {
+          updated.add(observable);
+        }
+      }
+      updated.add(added);
+      if (observables.compareAndSet(current, updated.toArray(EMPTY))) {
+        return replaced;
+      }
+    }
+  }
+
+  /** Removes the metric with the given name, if it is reported with this instrument. */
+  void remove(MetricName metricName) {
+    while (true) {
+      RegisteredObservable[] current = observables.get();
+      int index = -1;
+      for (int i = 0; i < current.length; i++) {
+        if (current[i].getKafkaMetricName().equals(metricName)) {
+          index = i;
+          break;
+        }
+      }
+      if (index == -1) {
+        return;
+      }
+      RegisteredObservable[] updated = new RegisteredObservable[current.length - 1];
+      System.arraycopy(current, 0, updated, 0, index);
+      System.arraycopy(current, index + 1, updated, index, current.length - index - 1);
+      if (observables.compareAndSet(current, updated)) {
+        return;
+      }
+    }
+  }
+
+  /** Records the values of all metrics of this instrument, called from the batch callback. */
+  void record(long nowMillis) {
+    for (RegisteredObservable observable : observables.get()) {
+      observer.record(
+          KafkaMetricRegistry.value(observable.getKafkaMetric(), nowMillis),
+          observable.getAttributes());
+    }
+  }
+
+  List<RegisteredObservable> getRegisteredObservables() {
+    return Arrays.asList(observables.get());
+  }
+}
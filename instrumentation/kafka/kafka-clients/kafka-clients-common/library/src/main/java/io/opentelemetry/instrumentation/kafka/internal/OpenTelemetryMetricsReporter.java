@@ -6,18 +6,17 @@
 package io.opentelemetry.instrumentation.kafka.internal;
 
 import io.opentelemetry.api.OpenTelemetry;
-import io.opentelemetry.api.common.AttributeKey;
 import io.opentelemetry.api.metrics.Meter;
 import io.opentelemetry.api.metrics.MeterBuilder;
 import io.opentelemetry.instrumentation.api.internal.EmbeddedInstrumentationProperties;
-import io.opentelemetry.instrumentation.api.internal.GuardedBy;
 import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.logging.Level;
 import java.util.logging.Logger;
+import org.apache.kafka.common.MetricName;
 import org.apache.kafka.common.metrics.KafkaMetric;
 import org.apache.kafka.common.metrics.MetricsReporter;
 
@@ -43,10 +42,10 @@ public final class OpenTelemetryMetricsReporter implements MetricsReporter {
       Logger.getLogger(OpenTelemetryMetricsReporter.class.getName());
   private volatile Meter meter;
 
-  private static final Object lock = new Object();
-
-  @GuardedBy("lock")
-  private static final List<RegisteredObservable> registeredObservables = new ArrayList<>();
+  // the metrics of all clients, by the meter of the client that reported them
+  private static final Map<Meter, MeterObservables> meterObservables = new ConcurrentHashMap<>();
+  private static final Map<MetricName, ObservableGroup> groupsByMetricName =
+      new ConcurrentHashMap<>();
 
   /**
    * Reset for test by resetting the {@link #meter} to {@code null} and closing all registered
@@ -58,9 +57,11 @@ public final class OpenTelemetryMetricsReporter implements MetricsReporter {
 
   // Visible for test
   static List<RegisteredObservable> getRegisteredObservables() {
-    synchronized (lock) {
-      return new ArrayList<>(registeredObservables);
+    List<RegisteredObservable> registeredObservables = new ArrayList<>();
+    for (MeterObservables observables : meterObservables.values()) {
+      registeredObservables.addAll(observables.getRegisteredObservables());
     }
+    return registeredObservables;
   }
 
   @Override
@@ -77,52 +78,38 @@ public final class OpenTelemetryMetricsReporter implements MetricsReporter {
     }
 
     RegisteredObservable registeredObservable =
-        KafkaMetricRegistry.getRegisteredObservable(currentMeter, metric);
+        KafkaMetricRegistry.getRegisteredObservable(metric);
     if (registeredObservable == null) {
       logger.log(
           Level.FINEST, "Metric changed but cannot map to instrument: {0}", metric.metricName());
       return;
     }
 
-    Set<AttributeKey<?>> attributeKeys = registeredObservable.getAttributes().asMap().keySet();
-    synchronized (lock) {
-      for (Iterator<RegisteredObservable> it = registeredObservables.iterator(); it.hasNext(); ) {
-        RegisteredObservable curRegisteredObservable = it.next();
-        Set<AttributeKey<?>> curAttributeKeys =
-            curRegisteredObservable.getAttributes().asMap().keySet();
-        if (curRegisteredObservable.getKafkaMetricName().equals(metric.metricName())) {
-          logger.log(Level.FINEST, "Replacing instrument: {0}", curRegisteredObservable);
-          closeInstrument(curRegisteredObservable.getObservable());
-          it.remove();
-        } else if (curRegisteredObservable
-                .getInstrumentDescriptor()
-                .equals(registeredObservable.getInstrumentDescriptor())
-            && attributeKeys.size() > curAttributeKeys.size()
-            && attributeKeys.containsAll(curAttributeKeys)) {
-          logger.log(
-              Level.FINEST,
-              "Replacing instrument with higher dimension version: {0}",
-              curRegisteredObservable);
-          closeInstrument(curRegisteredObservable.getObservable());
-          it.remove();
-        }
-      }
-
-      registeredObservables.add(registeredObservable);
+    // kafka reports the changes of the metrics of a client while holding a lock of the client, so
+    // the changes of a single metric are not concurrent
+    ObservableGroup group =
+        meterObservables
+            .computeIfAbsent(currentMeter, MeterObservables::new)
+            .getGroup(registeredObservable.getInstrumentDescriptor());
+    MetricName metricName = metric.metricName();
+    ObservableGroup previousGroup = groupsByMetricName.put(metricName, group);
+    if (previousGroup != null && previousGroup != group) {
+      logger.log(Level.FINEST, "Replacing instrument of metric: {0}", metricName);
+      previousGroup.remove(metricName);
+    }
+    for (RegisteredObservable replaced : group.add(registeredObservable)) {
+      logger.log(
+          Level.FINEST, "Replacing instrument with higher dimension version: {0}", replaced);
+      groupsByMetricName.remove(replaced.getKafkaMetricName(), group);
     }
   }
 
   @Override
   public void metricRemoval(KafkaMetric metric) {
     logger.log(Level.FINEST, "Metric removed: {0}", metric.metricName());
-    synchronized (lock) {
-      for (Iterator<RegisteredObservable> it = registeredObservables.iterator(); it.hasNext(); ) {
-        RegisteredObservable current = it.next();
-        if (current.getKafkaMetricName().equals(metric.metricName())) {
-          closeInstrument(current.getObservable());
-          it.remove();
-        }
-      }
+    ObservableGroup group = groupsByMetricName.remove(metric.metricName());
+    if (group != null) {
+      group.remove(metric.metricName());
     }
   }
 
@@ -132,20 +119,11 @@ public final class OpenTelemetryMetricsReporter implements MetricsReporter {
   }
 
   private static void closeAllInstruments() {
-    synchronized (lock) {
-      for (Iterator<RegisteredObservable> it = registeredObservables.iterator(); it.hasNext(); ) {
-        closeInstrument(it.next().getObservable());
-        it.remove();
-      }
-    }
-  }
-
-  private static void closeInstrument(AutoCloseable observable) {
-    try {
-      observable.close();
-    } catch (Exception e) {
-      throw new IllegalStateException("Error occurred closing instrument", e);
+    for (Iterator<MeterObservables> it = meterObservables.values().iterator(); it.hasNext(); ) {
+      it.next().close();
+      it.remove();
     }
+    groupsByMetricName.clear();
   }
 
   @Override
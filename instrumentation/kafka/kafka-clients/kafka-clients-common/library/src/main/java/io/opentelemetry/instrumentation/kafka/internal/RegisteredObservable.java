@@ -8,7 +8,9 @@ package io.opentelemetry.instrumentation.kafka.internal;
 import com.google.auto.value.AutoValue;
 import io.opentelemetry.api.common.Attributes;
 import org.apache.kafka.common.MetricName;
+import org.apache.kafka.common.metrics.KafkaMetric;
 
+/** A kafka metric, and the instrument and attributes it is reported with. */
 @AutoValue
 abstract class RegisteredObservable {
 
@@ -18,14 +20,14 @@ abstract class RegisteredObservable {
 
   abstract Attributes getAttributes();
 
-  abstract AutoCloseable getObservable();
+  abstract KafkaMetric getKafkaMetric();
 
   static RegisteredObservable create(
       MetricName metricName,
       InstrumentDescriptor instrumentDescriptor,
       Attributes attributes,
-      AutoCloseable observable) {
+      KafkaMetric kafkaMetric) {
     return new AutoValue_RegisteredObservable(
-        metricName, instrumentDescriptor, attributes, observable);
+        metricName, instrumentDescriptor, attributes, kafkaMetric);
   }
 }
@@ -0,0 +1,201 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.instrumentation.kafka.internal;
+
+import static io.opentelemetry.instrumentation.kafka.internal.KafkaBatchProcessSpanLinksExtractor.KAFKA_BATCH_ELIDED_LINK_COUNT;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import io.opentelemetry.api.OpenTelemetry;
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.common.AttributesBuilder;
+import io.opentelemetry.api.trace.SpanContext;
+import io.opentelemetry.api.trace.propagation.W3CTraceContextPropagator;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.instrumentation.api.instrumenter.SpanLinksBuilder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.internals.RecordHeader;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.apache.kafka.common.record.TimestampType;
+import org.junit.jupiter.api.Test;
+
+class KafkaBatchProcessSpanLinksExtractorTest {
+
+  private static final KafkaTraceContextPropagation propagation =
+      KafkaTraceContextPropagation.create(W3CTraceContextPropagator.getInstance());
+
+  @Test
+  void linksAllRecordsBelowCap() {
+    KafkaBatchProcessSpanLinksExtractor extractor =
+        new KafkaBatchProcessSpanLinksExtractor(propagation, 10, false);
+    KafkaReceiveRequest request = request(1, 2, 3);
+
+    assertThat(extractLinks(extractor, request)).hasSize(3);
+    assertThat(extractAttributes(extractor, request)).isEqualTo(Attributes.empty());
+  }
+
+  @Test
+  void capsLinks() {
+    KafkaBatchProcessSpanLinksExtractor extractor =
+        new KafkaBatchProcessSpanLinksExtractor(propagation, 2, false);
+    KafkaReceiveRequest request = request(1, 2, 3, 4, 5);
+
+    List<SpanContext> links = extractLinks(extractor, request);
+    assertThat(links)
+        .extracting(SpanContext::getSpanId)
+        .containsExactly(spanId(1), spanId(2));
+    assertThat(extractAttributes(extractor, request).get(KAFKA_BATCH_ELIDED_LINK_COUNT))
+        .isEqualTo(3L);
+  }
+
+  @Test
+  void zeroMaxLinksElidesAllRecords() {
+    KafkaBatchProcessSpanLinksExtractor extractor =
+        new KafkaBatchProcessSpanLinksExtractor(propagation, 0, false);
+    KafkaReceiveRequest request = request(1, 2);
+
+    assertThat(extractLinks(extractor, request)).isEmpty();
+    assertThat(extractAttributes(extractor, request).get(KAFKA_BATCH_ELIDED_LINK_COUNT))
+        .isEqualTo(2L);
+  }
+
+  @Test
+  void deduplicatesByTraceId() {
+    KafkaBatchProcessSpanLinksExtractor extractor =
+        new KafkaBatchProcessSpanLinksExtractor(propagation, 10, true);
+    // records 1 and 3 belong to trace 1, records 2 and 4 to trace 2
+    KafkaReceiveRequest request = request(1, 2, 1, 2, 3);
+
+    List<SpanContext> links = extractLinks(extractor, request);
+    assertThat(links)
+        .extracting(SpanContext::getTraceId)
+        .containsExactly(traceId(1), traceId(2), traceId(3));
+    assertThat(links)
+        .extracting(SpanContext::getSpanId)
+        .containsExactly(spanId(1), spanId(2), spanId(5));
+    assertThat(extractAttributes(extractor, request).get(KAFKA_BATCH_ELIDED_LINK_COUNT))
+        .isEqualTo(2L);
+  }
+
+  @Test
+  void countsDuplicatesAndCappedRecords() {
+    KafkaBatchProcessSpanLinksExtractor extractor =
+        new KafkaBatchProcessSpanLinksExtractor(propagation, 2, true);
+    // the duplicate of trace 1 is skipped, the cap is reached at the record of trace 2, and the
+    // last two records are not parsed
+    KafkaReceiveRequest request = request(1, 1, 2, 3, 4);
+
+    assertThat(extractLinks(extractor, request))
+        .extracting(SpanContext::getTraceId)
+        .containsExactly(traceId(1), traceId(2));
+    assertThat(extractAttributes(extractor, request).get(KAFKA_BATCH_ELIDED_LINK_COUNT))
+        .isEqualTo(3L);
+  }
+
+  @Test
+  void recordsWithoutContextAreNotElided() {
+    KafkaBatchProcessSpanLinksExtractor extractor =
+        new KafkaBatchProcessSpanLinksExtractor(propagation, 10, false);
+    KafkaReceiveRequest request = request(1, 0, 2);
+
+    assertThat(extractLinks(extractor, request)).hasSize(2);
+    assertThat(extractAttributes(extractor, request)).isEqualTo(Attributes.empty());
+  }
+
+  @Test
+  void elidedCountIsNotAddedToOtherRequests() {
+    KafkaBatchProcessSpanLinksExtractor extractor =
+        new KafkaBatchProcessSpanLinksExtractor(propagation, 1, false);
+    KafkaReceiveRequest request = request(1, 2);
+    extractLinks(extractor, request);
+
+    assertThat(extractAttributes(extractor, request(1, 2))).isEqualTo(Attributes.empty());
+  }
+
+  @Test
+  void negativeMaxLinksIsRejected() {
+    KafkaInstrumenterFactory factory = new KafkaInstrumenterFactory(OpenTelemetry.noop(), "test");
+
+    assertThatThrownBy(() -> factory.setBatchProcessMaxLinks(-1))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  private static List<SpanContext> extractLinks(
+      KafkaBatchProcessSpanLinksExtractor extractor, KafkaReceiveRequest request) {
+    List<SpanContext> links = new ArrayList<>();
+    extractor.extract(
+        new SpanLinksBuilder() {
+          @Override
+          public SpanLinksBuilder addLink(SpanContext spanContext) {
+            links.add(spanContext);
+            return this;
+          }
+
+          @Override
+          public SpanLinksBuilder addLink(SpanContext spanContext, Attributes attributes) {
+            links.add(spanContext);
+            return this;
+          }
+        },
+        Context.root(),
+        request);
+    return links;
+  }
+
+  private static Attributes extractAttributes(
+      KafkaBatchProcessSpanLinksExtractor extractor, KafkaReceiveRequest request) {
+    AttributesBuilder attributes = Attributes.builder();
+    extractor.onStart(attributes, Context.root(), request);
+    return attributes.build();
+  }
+
+  // one record per trace id, 0 stands for a record without a traceparent header
+  private static KafkaReceiveRequest request(int... traceIds) {
+    TopicPartition topicPartition = new TopicPartition("topic", 0);
+    List<ConsumerRecord<String, String>> records = new ArrayList<>();
+    for (int i = 0; i < traceIds.length; i++) {
+      RecordHeaders headers = new RecordHeaders();
+      if (traceIds[i] != 0) {
+        String traceparent = "00-" + traceId(traceIds[i]) + "-" + spanId(i + 1) + "-01";
+        Header header =
+            new RecordHeader("traceparent", traceparent.getBytes(StandardCharsets.UTF_8));
+        headers.add(header);
+      }
+      records.add(
+          new ConsumerRecord<>(
+              topicPartition.topic(),
+              topicPartition.partition(),
+              i,
+              0L,
+              TimestampType.CREATE_TIME,
+              0L,
+              -1,
+              -1,
+              null,
+              "value",
+              headers));
+    }
+    return KafkaReceiveRequest.create(
+        new ConsumerRecords<>(Collections.singletonMap(topicPartition, records)),
+        "group",
+        "client");
+  }
+
+  private static String traceId(int id) {
+    return String.format("%032x", id);
+  }
+
+  private static String spanId(int id) {
+    return String.format("%016x", id);
+  }
+}
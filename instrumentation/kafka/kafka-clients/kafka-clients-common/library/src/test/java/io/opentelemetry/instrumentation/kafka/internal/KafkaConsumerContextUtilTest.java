@@ -0,0 +1,76 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.instrumentation.kafka.internal;
+
+import static java.util.Collections.emptyMap;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.opentelemetry.context.Context;
+import io.opentelemetry.context.ContextKey;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.junit.jupiter.api.Test;
+
+class KafkaConsumerContextUtilTest {
+
+  private static final ContextKey<String> KEY = ContextKey.named("test");
+
+  @Test
+  void attachSharesBatchContext() {
+    ConsumerRecords<String, String> batch = batch("receive");
+    KafkaConsumerContext consumerContext = KafkaConsumerContextUtil.get(batch);
+    ConsumerRecord<String, String> first = record(0);
+    ConsumerRecord<String, String> second = record(1);
+
+    KafkaConsumerContextUtil.attach(first, consumerContext);
+    KafkaConsumerContextUtil.attach(second, consumerContext);
+
+    assertThat(consumerContext.getContext().get(KEY)).isEqualTo("receive");
+    assertThat(KafkaConsumerContextUtil.get(first)).isSameAs(consumerContext);
+    assertThat(KafkaConsumerContextUtil.get(second)).isSameAs(consumerContext);
+  }
+
+  @Test
+  void attachReplacesContextOfEarlierBatch() {
+    ConsumerRecord<String, String> record = record(0);
+    KafkaConsumerContextUtil.attach(record, KafkaConsumerContextUtil.get(batch("first")));
+    KafkaConsumerContext second = KafkaConsumerContextUtil.get(batch("second"));
+
+    KafkaConsumerContextUtil.attach(record, second);
+
+    assertThat(KafkaConsumerContextUtil.get(record)).isSameAs(second);
+  }
+
+  @Test
+  void attachIgnoresBatchWithoutContext() {
+    ConsumerRecord<String, String> record = record(0);
+    KafkaConsumerContext consumerContext = KafkaConsumerContextUtil.get(batch("receive"));
+    KafkaConsumerContextUtil.attach(record, consumerContext);
+
+    KafkaConsumerContextUtil.attach(
+        record, KafkaConsumerContextUtil.get(new ConsumerRecords<>(emptyMap())));
+
+    assertThat(KafkaConsumerContextUtil.get(record)).isSameAs(consumerContext);
+  }
+
+  @Test
+  void recordWithoutContext() {
+    KafkaConsumerContext consumerContext = KafkaConsumerContextUtil.get(record(0));
+
+    assertThat(consumerContext.getContext()).isNull();
+    assertThat(consumerContext.getConsumer()).isNull();
+  }
+
+  private static ConsumerRecords<String, String> batch(String value) {
+    ConsumerRecords<String, String> batch = new ConsumerRecords<>(emptyMap());
+    KafkaConsumerContextUtil.set(batch, Context.root().with(KEY, value), null);
+    return batch;
+  }
+
+  private static ConsumerRecord<String, String> record(int offset) {
+    return new ConsumerRecord<>("topic", 0, offset, null, "value");
+  }
+}
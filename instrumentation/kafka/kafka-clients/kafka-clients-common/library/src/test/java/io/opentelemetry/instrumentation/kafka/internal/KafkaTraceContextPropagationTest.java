@@ -0,0 +1,255 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.instrumentation.kafka.internal;
+
+import static java.util.Collections.singletonList;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.opentelemetry.api.baggage.Baggage;
+import io.opentelemetry.api.baggage.propagation.W3CBaggagePropagator;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.SpanContext;
+import io.opentelemetry.api.trace.TraceFlags;
+import io.opentelemetry.api.trace.TraceState;
+import io.opentelemetry.api.trace.propagation.W3CTraceContextPropagator;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.context.propagation.TextMapGetter;
+import io.opentelemetry.context.propagation.TextMapPropagator;
+import io.opentelemetry.context.propagation.TextMapSetter;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import javax.annotation.Nullable;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class KafkaTraceContextPropagationTest {
+
+  private static final String TRACE_ID = "0af7651916cd43dd8448eb211c80319c";
+  private static final String SPAN_ID = "b7ad6b7169203331";
+
+  private static final W3CTraceContextPropagator w3c = W3CTraceContextPropagator.getInstance();
+
+  @ParameterizedTest
+  @ValueSource(
+      strings = {
+        "00-" + TRACE_ID + "-" + SPAN_ID + "-01",
+        "00-" + TRACE_ID + "-" + SPAN_ID + "-00",
+        "00-" + TRACE_ID + "-" + SPAN_ID + "-ff",
+        "00-" + TRACE_ID + "-" + SPAN_ID + "-1g",
+        "00-" + TRACE_ID + "-" + SPAN_ID + "-0",
+        // invalid versions
+        "ff-" + TRACE_ID + "-" + SPAN_ID + "-01",
+        "0g-" + TRACE_ID + "-" + SPAN_ID + "-01",
+        "0A-" + TRACE_ID + "-" + SPAN_ID + "-01",
+        // future versions may append data, version 00 must not
+        "01-" + TRACE_ID + "-" + SPAN_ID + "-01",
+        "01-" + TRACE_ID + "-" + SPAN_ID + "-01-future",
+        "01-" + TRACE_ID + "-" + SPAN_ID + "-01future",
+        "00-" + TRACE_ID + "-" + SPAN_ID + "-01-future",
+        // all-zero ids
+        "00-00000000000000000000000000000000-" + SPAN_ID + "-01",
+        "00-" + TRACE_ID + "-0000000000000000-01",
+        // bad hex
+        "00-0AF7651916CD43DD8448EB211C80319C-" + SPAN_ID + "-01",
+        "00-" + TRACE_ID + "-B7AD6B7169203331-01",
+        "00-0af7651916cd43dd8448eb211c80319z-" + SPAN_ID + "-01",
+        "00-" + TRACE_ID + "-b7ad6b716920333x-01",
+        // wrong length or delimiters
+        "00-0af7651916cd43dd8448eb211c80319-" + SPAN_ID + "-01",
+        "00-" + TRACE_ID + "-b7ad6b716920333-01",
+        "00-" + TRACE_ID + "0-" + SPAN_ID + "-01",
+        "00_" + TRACE_ID + "-" + SPAN_ID + "-01",
+        "00-" + TRACE_ID + "_" + SPAN_ID + "-01",
+        "00-" + TRACE_ID + "-" + SPAN_ID + "_01",
+        "00-" + TRACE_ID + "-" + SPAN_ID,
+        ""
+      })
+  void parsesTraceparentLikeW3CPropagator(String traceparent) {
+    Map<String, String> carrier = new HashMap<>();
+    carrier.put("traceparent", traceparent);
+    SpanContext expected =
+        Span.fromContext(w3c.extract(Context.root(), carrier, MapGetter.INSTANCE))
+            .getSpanContext();
+
+    SpanContext parsed =
+        KafkaTraceContextPropagation.parseTraceparent(
+            traceparent.getBytes(StandardCharsets.UTF_8));
+
+    if (expected.isValid()) {
+      assertThat(parsed).isEqualTo(expected);
+    } else {
+      assertThat(parsed).isNull();
+    }
+  }
+
+  @ParameterizedTest
+  @ValueSource(strings = {"00", "01", "ff"})
+  void writesTraceparentLikeW3CPropagator(String traceFlags) {
+    Context context =
+        Context.root()
+            .with(
+                Span.wrap(
+                    SpanContext.create(
+                        TRACE_ID,
+                        SPAN_ID,
+                        TraceFlags.fromHex(traceFlags, 0),
+                        TraceState.getDefault())));
+    Map<String, String> expected = new HashMap<>();
+    w3c.inject(context, expected, MapSetter.INSTANCE);
+
+    Headers headers = new RecordHeaders();
+    KafkaTraceContextPropagation.create(w3c).inject(context, headers);
+
+    assertThat(toMap(headers)).isEqualTo(expected);
+  }
+
+  @Test
+  void replacesExistingTraceparent() {
+    Headers headers = new RecordHeaders();
+    headers.add("traceparent", "stale".getBytes(StandardCharsets.UTF_8));
+    Context context =
+        Context.root()
+            .with(
+                Span.wrap(
+                    SpanContext.create(
+                        TRACE_ID, SPAN_ID, TraceFlags.getSampled(), TraceState.getDefault())));
+
+    KafkaTraceContextPropagation.create(w3c).inject(context, headers);
+
+    assertThat(headers.headers("traceparent")).hasSize(1);
+    assertThat(toMap(headers).get("traceparent"))
+        .isEqualTo("00-" + TRACE_ID + "-" + SPAN_ID + "-01");
+  }
+
+  @Test
+  void propagatesTraceStateAndBaggageLikePropagator() {
+    TextMapPropagator propagator =
+        TextMapPropagator.composite(w3c, W3CBaggagePropagator.getInstance());
+    Context context =
+        Context.root()
+            .with(
+                Span.wrap(
+                    SpanContext.create(
+                        TRACE_ID,
+                        SPAN_ID,
+                        TraceFlags.getSampled(),
+                        TraceState.builder().put("vendor", "value").build())))
+            .with(Baggage.builder().put("key", "value").build());
+
+    assertRoundTripLikePropagator(propagator, context);
+    assertRoundTripLikePropagator(
+        propagator,
+        context.with(
+            Span.wrap(
+                SpanContext.create(
+                    TRACE_ID, SPAN_ID, TraceFlags.getSampled(), TraceState.getDefault()))));
+  }
+
+  @Test
+  void honoursOrderOfCompositePropagator() {
+    Headers headers = new RecordHeaders();
+    headers.add(
+        "traceparent",
+        ("00-" + TRACE_ID + "-" + SPAN_ID + "-01").getBytes(StandardCharsets.UTF_8));
+    headers.add("custom-span", "1111111111111111".getBytes(StandardCharsets.UTF_8));
+
+    for (TextMapPropagator propagator :
+        new TextMapPropagator[] {
+          TextMapPropagator.composite(w3c, CustomPropagator.INSTANCE),
+          TextMapPropagator.composite(CustomPropagator.INSTANCE, w3c)
+        }) {
+      Context expected = propagator.extract(Context.root(), headers, KafkaHeadersGetter.INSTANCE);
+
+      Context extracted =
+          KafkaTraceContextPropagation.create(propagator).extract(Context.root(), headers);
+
+      assertThat(Span.fromContext(extracted).getSpanContext())
+          .isEqualTo(Span.fromContext(expected).getSpanContext());
+    }
+  }
+
+  private static void assertRoundTripLikePropagator(
+      TextMapPropagator propagator, Context context) {
+    Map<String, String> expected = new HashMap<>();
+    propagator.inject(context, expected, MapSetter.INSTANCE);
+    Context expectedExtracted = propagator.extract(Context.root(), expected, MapGetter.INSTANCE);
+
+    KafkaTraceContextPropagation propagation = KafkaTraceContextPropagation.create(propagator);
+    Headers headers = new RecordHeaders();
+    propagation.inject(context, headers);
+    Context extracted = propagation.extract(Context.root(), headers);
+
+    assertThat(toMap(headers)).isEqualTo(expected);
+    assertThat(Span.fromContext(extracted).getSpanContext())
+        .isEqualTo(Span.fromContext(expectedExtracted).getSpanContext());
+    assertThat(Baggage.fromContext(extracted)).isEqualTo(Baggage.fromContext(expectedExtracted));
+  }
+
+  private static Map<String, String> toMap(Headers headers) {
+    Map<String, String> map = new HashMap<>();
+    for (Header header : headers) {
+      map.put(header.key(), new String(header.value(), StandardCharsets.UTF_8));
+    }
+    return map;
+  }
+
+  // a span context format other than the W3C trace context, with the trace id of the traceparent
+  private enum CustomPropagator implements TextMapPropagator {
+    INSTANCE;
+
+    @Override
+    public Collection<String> fields() {
+      return singletonList("custom-span");
+    }
+
+    @Override
+    public <C> void inject(Context context, @Nullable C carrier, TextMapSetter<C> setter) {}
+
+    @Override
+    public <C> Context extract(Context context, @Nullable C carrier, TextMapGetter<C> getter) {
+      String spanId = getter.get(carrier, "custom-span");
+      if (spanId == null) {
+        return context;
+      }
+      return context.with(
+          Span.wrap(
+              SpanContext.createFromRemoteParent(
+                  TRACE_ID, spanId, TraceFlags.getDefault(), TraceState.getDefault())));
+    }
+  }
+
+  private enum MapGetter implements TextMapGetter<Map<String, String>> {
+    INSTANCE;
+
+    @Override
+    public Iterable<String> keys(Map<String, String> carrier) {
+      return carrier.keySet();
+    }
+
+    @Nullable
+    @Override
+    public String get(@Nullable Map<String, String> carrier, String key) {
+      return carrier == null ? null : carrier.get(key);
+    }
+  }
+
+  private enum MapSetter implements TextMapSetter<Map<String, String>> {
+    INSTANCE;
+
+    @Override
+    public void set(@Nullable Map<String, String> carrier, String key, String value) {
+      if (carrier != null) {
+        carrier.put(key, value);
+      }
+    }
+  }
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.instrumentation.kafka.internal;
+
+import static io.opentelemetry.api.common.AttributeKey.stringKey;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.sdk.metrics.SdkMeterProvider;
+import io.opentelemetry.sdk.metrics.data.MetricData;
+import io.opentelemetry.sdk.testing.exporter.InMemoryMetricReader;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.apache.kafka.common.MetricName;
+import org.apache.kafka.common.metrics.KafkaMetric;
+import org.apache.kafka.common.metrics.MetricConfig;
+import org.apache.kafka.common.metrics.Metrics;
+import org.apache.kafka.common.utils.Time;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class MeterObservablesTest {
+
+  private static final InstrumentDescriptor LAG =
+      InstrumentDescriptor.createDoubleGauge("kafka.consumer.records_lag", "lag");
+  private static final InstrumentDescriptor LEAD =
+      InstrumentDescriptor.createDoubleGauge("kafka.consumer.records_lead", "lead");
+
+  private final InMemoryMetricReader metricReader = InMemoryMetricReader.create();
+  private final SdkMeterProvider meterProvider =
+      SdkMeterProvider.builder().registerMetricReader(metricReader).build();
+  private final Metrics metrics =
+      new Metrics(new MetricConfig(), Collections.emptyList(), Time.SYSTEM);
+  private final MeterObservables meterObservables =
+      new MeterObservables(meterProvider.get("test"));
+
+  @AfterEach
+  void tearDown() {
+    meterProvider.close();
+  }
+
+  @Test
+  void collectsCurrentContentsOfGroups() {
+    ObservableGroup lagGroup = meterObservables.getGroup(LAG);
+    assertThat(meterObservables.getGroup(LAG)).isSameAs(lagGroup);
+    RegisteredObservable lag = observable(LAG, "records-lag", 1);
+    lagGroup.add(lag);
+    assertThat(collect()).containsExactly("kafka.consumer.records_lag=1.0");
+
+    // a new instrument doesn't change how the existing ones are reported
+    ObservableGroup leadGroup = meterObservables.getGroup(LEAD);
+    leadGroup.add(observable(LEAD, "records-lead", 2));
+    assertThat(collect())
+        .containsExactlyInAnyOrder(
+            "kafka.consumer.records_lag=1.0", "kafka.consumer.records_lead=2.0");
+
+    RegisteredObservable otherLag = observable(LAG, "records-lag-other", 3);
+    lagGroup.add(otherLag);
+    lagGroup.remove(lag.getKafkaMetricName());
+    assertThat(collect())
+        .containsExactlyInAnyOrder(
+            "kafka.consumer.records_lag=3.0", "kafka.consumer.records_lead=2.0");
+    assertThat(meterObservables.getRegisteredObservables()).hasSize(2);
+  }
+
+  @Test
+  void closeStopsReporting() {
+    meterObservables.getGroup(LAG).add(observable(LAG, "records-lag", 1));
+    assertThat(collect()).hasSize(1);
+
+    meterObservables.close();
+    assertThat(collect()).isEmpty();
+
+    // instruments created after closing are not reported
+    meterObservables.getGroup(LEAD).add(observable(LEAD, "records-lead", 2));
+    assertThat(collect()).isEmpty();
+  }
+
+  private RegisteredObservable observable(
+      InstrumentDescriptor instrumentDescriptor, String name, double value) {
+    MetricName metricName =
+        metrics.metricName(
+            name,
+            "consumer-fetch-manager-metrics",
+            "",
+            Collections.singletonMap("client-id", "client"));
+    metrics.addMetric(metricName, (config, now) -> value);
+    KafkaMetric kafkaMetric = metrics.metrics().get(metricName);
+    return RegisteredObservable.create(
+        metricName,
+        instrumentDescriptor,
+        Attributes.of(stringKey("client-id"), "client"),
+        kafkaMetric);
+  }
+
+  // the value of every point, as name=value
+  private List<String> collect() {
+    return metricReader.collectAllMetrics().stream()
+        .flatMap(
+            (MetricData metricData) ->
+                metricData.getDoubleGaugeData().getPoints().stream()
+                    .map(point -> metricData.getName() + "=" + point.getValue()))
+        .collect(Collectors.toList());
+  }
+}
@@ -0,0 +1,129 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.instrumentation.kafka.internal;
+
+import static io.opentelemetry.api.common.AttributeKey.stringKey;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.common.AttributesBuilder;
+import io.opentelemetry.api.metrics.ObservableDoubleMeasurement;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import org.apache.kafka.common.MetricName;
+import org.apache.kafka.common.metrics.KafkaMetric;
+import org.apache.kafka.common.metrics.MetricConfig;
+import org.apache.kafka.common.metrics.Metrics;
+import org.apache.kafka.common.utils.Time;
+import org.junit.jupiter.api.Test;
+
+class ObservableGroupTest {
+
+  private static final InstrumentDescriptor INSTRUMENT =
+      InstrumentDescriptor.createDoubleGauge("kafka.consumer.records_lag", "lag");
+
+  private final Metrics metrics =
+      new Metrics(new MetricConfig(), Collections.emptyList(), Time.SYSTEM);
+  private final ObservableDoubleMeasurement observer = mock(ObservableDoubleMeasurement.class);
+  private final ObservableGroup group = new ObservableGroup(INSTRUMENT, observer);
+
+  @Test
+  void addReplacesLowerDimensionMetrics() {
+    RegisteredObservable topic = observable("records-lag", 1, "topic", "test");
+    RegisteredObservable otherTopic = observable("records-lag", 2, "client-id", "client");
+    RegisteredObservable partition =
+        observable("records-lag", 3, "topic", "test", "partition", "0");
+
+    assertThat(group.add(topic)).isEmpty();
+    assertThat(group.add(otherTopic)).isEmpty();
+    assertThat(group.add(partition)).containsExactly(topic);
+    assertThat(group.getRegisteredObservables()).containsExactly(otherTopic, partition);
+
+    // the same number of dimensions doesn't replace anything
+    RegisteredObservable otherPartition =
+        observable("records-lag", 4, "topic", "test", "partition", "1");
+    assertThat(group.add(otherPartition)).isEmpty();
+    assertThat(group.getRegisteredObservables())
+        .containsExactly(otherTopic, partition, otherPartition);
+  }
+
+  @Test
+  void addReplacesMetricWithSameName() {
+    RegisteredObservable first = observable("records-lag", 1, "topic", "test");
+    RegisteredObservable second =
+        RegisteredObservable.create(
+            first.getKafkaMetricName(),
+            INSTRUMENT,
+            first.getAttributes(),
+            kafkaMetric("records-lag-2", 2));
+
+    group.add(first);
+    assertThat(group.add(second)).isEmpty();
+    assertThat(group.getRegisteredObservables()).containsExactly(second);
+  }
+
+  @Test
+  void remove() {
+    RegisteredObservable first = observable("records-lag", 1, "topic", "first");
+    RegisteredObservable second = observable("records-lag", 2, "topic", "second");
+    group.add(first);
+    group.add(second);
+
+    group.remove(first.getKafkaMetricName());
+    assertThat(group.getRegisteredObservables()).containsExactly(second);
+
+    // removing a metric that isn't part of the group does nothing
+    group.remove(first.getKafkaMetricName());
+    assertThat(group.getRegisteredObservables()).containsExactly(second);
+
+    group.remove(second.getKafkaMetricName());
+    assertThat(group.getRegisteredObservables()).isEmpty();
+  }
+
+  @Test
+  void recordsCurrentMetrics() {
+    RegisteredObservable first = observable("records-lag", 1, "topic", "first");
+    RegisteredObservable second = observable("records-lag", 2, "topic", "second");
+    group.add(first);
+    group.add(second);
+    group.remove(first.getKafkaMetricName());
+
+    group.record(System.currentTimeMillis());
+
+    verify(observer).record(2.0, second.getAttributes());
+    verifyNoMoreInteractions(observer);
+  }
+
+  private RegisteredObservable observable(String name, double value, String... tags) {
+    Map<String, String> tagMap = new LinkedHashMap<>();
+    for (int i = 0; i < tags.length; i += 2) {
+      tagMap.put(tags[i], tags[i + 1]);
+    }
+    KafkaMetric kafkaMetric = kafkaMetric(name, value, tagMap);
+    return RegisteredObservable.create(
+        kafkaMetric.metricName(), INSTRUMENT, attributes(tagMap), kafkaMetric);
+  }
+
+  private KafkaMetric kafkaMetric(String name, double value) {
+    return kafkaMetric(name, value, Collections.emptyMap());
+  }
+
+  private KafkaMetric kafkaMetric(String name, double value, Map<String, String> tags) {
+    MetricName metricName = metrics.metricName(name, "consumer-fetch-manager-metrics", "", tags);
+    metrics.addMetric(metricName, (config, now) -> value);
+    return metrics.metrics().get(metricName);
+  }
+
+  private static Attributes attributes(Map<String, String> tags) {
+    AttributesBuilder builder = Attributes.builder();
+    tags.forEach((key, value) -> builder.put(stringKey(key), value));
+    return builder.build();
+  }
+}
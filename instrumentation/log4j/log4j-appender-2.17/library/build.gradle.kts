@@ -1,9 +1,12 @@
 plugins {
   id("otel.library-instrumentation")
+  id("otel.jmh-conventions")
 }
 
 dependencies {
   library("org.apache.logging.log4j:log4j-core:2.17.0")
 
   testImplementation("io.opentelemetry:opentelemetry-sdk-testing")
+
+  jmhImplementation("org.apache.logging.log4j:log4j-core:2.17.0")
 }
@@ -0,0 +1,94 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.instrumentation.log4j.appender.v2_17.internal;
+
+import static java.util.Collections.singletonList;
+
+import io.opentelemetry.api.logs.LogRecordBuilder;
+import io.opentelemetry.api.logs.Logger;
+import io.opentelemetry.api.logs.LoggerProvider;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+import javax.annotation.Nullable;
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.message.Message;
+import org.apache.logging.log4j.message.SimpleMessage;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+// maps events with many distinct context data keys and a repeated exception, run with the gc
+// profiler to compare the allocation rate
+@Fork(1)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@BenchmarkMode(Mode.AverageTime)
+@State(Scope.Thread)
+public class LogEventMapperBenchmark {
+
+  private static final int EVENT_COUNT = 1024;
+  private static final int CONTEXT_DATA_ENTRIES_PER_EVENT = 10;
+
+  // number of distinct context data keys across all events
+  @Param({"50", "500"})
+  public int contextDataKeyCount;
+
+  private final Logger logger = LoggerProvider.noop().get("benchmark");
+  private final LogEventMapper<Map<String, String>> mapper =
+      new LogEventMapper<>(MapAccessor.INSTANCE, false, false, false, singletonList("*"));
+  private final Message message = new SimpleMessage("request failed");
+  private final Exception exception =
+      new IllegalStateException("failure", new RuntimeException("cause"));
+  @SuppressWarnings({"unchecked", "rawtypes"})
+  private final Map<String, String>[] contextData = new Map[EVENT_COUNT];
+  private int index;
+
+  @Setup
+  public void setUp() {
+    for (int i = 0; i < EVENT_COUNT; i++) {
+      Map<String, String> data = new HashMap<>();
+      for (int j = 0; j < CONTEXT_DATA_ENTRIES_PER_EVENT; j++) {
+        data.put("key" + ((i * CONTEXT_DATA_ENTRIES_PER_EVENT + j) % contextDataKeyCount), "value");
+      }
+      contextData[i] = data;
+    }
+  }
+
+  @Benchmark
+  public void mapLogEvent() {
+    int i = index++ & (EVENT_COUNT - 1);
+    LogRecordBuilder builder = logger.logRecordBuilder();
+    mapper.mapLogEvent(
+        builder, message, Level.ERROR, null, i % 2 == 0 ? exception : null, contextData[i]);
+    builder.emit();
+  }
+
+  private enum MapAccessor implements ContextDataAccessor<Map<String, String>> {
+    INSTANCE;
+
+    @Override
+    @Nullable
+    public Object getValue(Map<String, String> contextData, String key) {
+      return contextData.get(key);
+    }
+
+    @Override
+    public void forEach(Map<String, String> contextData, BiConsumer<String, Object> action) {
+      contextData.forEach(action);
+    }
+  }
+}
@@ -11,10 +11,9 @@ import io.opentelemetry.api.common.AttributesBuilder;
 import io.opentelemetry.api.logs.LogRecordBuilder;
 import io.opentelemetry.api.logs.Severity;
 import io.opentelemetry.context.Context;
-import io.opentelemetry.instrumentation.api.internal.cache.Cache;
+import io.opentelemetry.instrumentation.api.internal.AttributeKeyCache;
+import io.opentelemetry.instrumentation.api.internal.StackTraceRenderer;
 import io.opentelemetry.semconv.trace.attributes.SemanticAttributes;
-import java.io.PrintWriter;
-import java.io.StringWriter;
 import java.util.List;
 import javax.annotation.Nullable;
 import org.apache.logging.log4j.Level;
@@ -31,10 +30,10 @@ public final class LogEventMapper<T> {
 
   private static final String SPECIAL_MAP_MESSAGE_ATTRIBUTE = "message";
 
-  private static final Cache<String, AttributeKey<String>> contextDataAttributeKeyCache =
-      Cache.bounded(100);
-  private static final Cache<String, AttributeKey<String>> mapMessageAttributeKeyCache =
-      Cache.bounded(100);
+  private static final AttributeKeyCache contextDataAttributeKeyCache =
+      AttributeKeyCache.create("log4j.context_data.");
+  private static final AttributeKeyCache mapMessageAttributeKeyCache =
+      AttributeKeyCache.create("log4j.map_message.");
 
   private static final AttributeKey<String> LOG_MARKER = AttributeKey.stringKey("log4j.marker");
 
@@ -175,13 +174,11 @@ public final class LogEventMapper<T> {
   }
 
   public static AttributeKey<String> getContextDataAttributeKey(String key) {
-    return contextDataAttributeKeyCache.computeIfAbsent(
-        key, k -> AttributeKey.stringKey("log4j.context_data." + k));
+    return contextDataAttributeKeyCache.get(key);
   }
 
   public static AttributeKey<String> getMapMessageAttributeKey(String key) {
-    return mapMessageAttributeKeyCache.computeIfAbsent(
-        key, k -> AttributeKey.stringKey("log4j.map_message." + k));
+    return mapMessageAttributeKeyCache.get(key);
   }
 
   private static void setThrowable(AttributesBuilder attributes, Throwable throwable) {
@@ -189,9 +186,7 @@ public final class LogEventMapper<T> {
     // io.opentelemetry:opentelemetry-api
     attributes.put(SemanticAttributes.EXCEPTION_TYPE, throwable.getClass().getName());
     attributes.put(SemanticAttributes.EXCEPTION_MESSAGE, throwable.getMessage());
-    StringWriter writer = new StringWriter();
-    throwable.printStackTrace(new PrintWriter(writer));
-    attributes.put(SemanticAttributes.EXCEPTION_STACKTRACE, writer.toString());
+    attributes.put(SemanticAttributes.EXCEPTION_STACKTRACE, StackTraceRenderer.render(throwable));
   }
 
   private static Severity levelToSeverity(Level level) {
@@ -0,0 +1,79 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.instrumentation.logback.appender.v1_0.internal;
+
+import static java.util.Collections.singletonList;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.LoggingEvent;
+import io.opentelemetry.api.logs.LoggerProvider;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+// maps events with many distinct MDC keys and a repeated exception, run with the gc profiler to
+// compare the allocation rate
+@Fork(1)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@BenchmarkMode(Mode.AverageTime)
+@State(Scope.Thread)
+public class LoggingEventMapperBenchmark {
+
+  private static final int EVENT_COUNT = 1024;
+  private static final int MDC_ENTRIES_PER_EVENT = 10;
+
+  // number of distinct MDC keys across all events
+  @Param({"50", "500"})
+  public int mdcKeyCount;
+
+  private final LoggerProvider loggerProvider = LoggerProvider.noop();
+  private final LoggingEventMapper mapper =
+      new LoggingEventMapper(false, singletonList("*"), false, false, false);
+  private final LoggingEvent[] events = new LoggingEvent[EVENT_COUNT];
+  private int index;
+
+  @Setup
+  public void setUp() {
+    LoggerContext loggerContext = new LoggerContext();
+    ch.qos.logback.classic.Logger logger = loggerContext.getLogger("benchmark");
+    Exception exception = new IllegalStateException("failure", new RuntimeException("cause"));
+    for (int i = 0; i < EVENT_COUNT; i++) {
+      LoggingEvent event =
+          new LoggingEvent(
+              LoggingEventMapperBenchmark.class.getName(),
+              logger,
+              Level.ERROR,
+              "request failed",
+              i % 2 == 0 ? exception : null,
+              null);
+      Map<String, String> mdc = new HashMap<>();
+      for (int j = 0; j < MDC_ENTRIES_PER_EVENT; j++) {
+        mdc.put("key" + ((i * MDC_ENTRIES_PER_EVENT + j) % mdcKeyCount), "value");
+      }
+      event.setMDCPropertyMap(mdc);
+      events[i] = event;
+    }
+  }
+
+  @Benchmark
+  public void emit() {
+    mapper.emit(loggerProvider, events[index++ & (EVENT_COUNT - 1)]);
+  }
+}
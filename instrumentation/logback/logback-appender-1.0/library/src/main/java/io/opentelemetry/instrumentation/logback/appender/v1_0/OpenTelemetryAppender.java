@@ -11,24 +11,36 @@ import ch.qos.logback.classic.LoggerContext;
 import ch.qos.logback.classic.spi.ILoggingEvent;
 import ch.qos.logback.core.UnsynchronizedAppenderBase;
 import io.opentelemetry.api.OpenTelemetry;
+import io.opentelemetry.instrumentation.logback.appender.v1_0.internal.AsyncLoggingEventEmitter;
 import io.opentelemetry.instrumentation.logback.appender.v1_0.internal.LoggingEventMapper;
 import java.util.Arrays;
 import java.util.List;
 import java.util.stream.Collectors;
+import javax.annotation.Nullable;
 import org.slf4j.ILoggerFactory;
 import org.slf4j.LoggerFactory;
 import org.slf4j.MDC;
 
 public class OpenTelemetryAppender extends UnsynchronizedAppenderBase<ILoggingEvent> {
 
+  private static final int DEFAULT_ASYNC_QUEUE_SIZE = 8192;
+  private static final long ASYNC_STOP_TIMEOUT_MILLIS = 5000;
+
   private boolean captureExperimentalAttributes = false;
   private boolean captureCodeAttributes = false;
   private boolean captureMarkerAttribute = false;
   private boolean captureKeyValuePairAttributes = false;
   private List<String> captureMdcAttributes = emptyList();
+  private boolean async = false;
+  private int asyncQueueSize = DEFAULT_ASYNC_QUEUE_SIZE;
+  private boolean asyncBlockWhenFull = false;
 
-  private OpenTelemetry openTelemetry;
+  // read on the async emitter thread
+  private volatile OpenTelemetry openTelemetry;
   private LoggingEventMapper mapper;
+  @Nullable private volatile AsyncLoggingEventEmitter asyncEmitter;
+  private long droppedCountBeforeRestart;
+  private boolean droppedWarningLogged;
 
   public OpenTelemetryAppender() {}
 
@@ -66,12 +78,52 @@ public class OpenTelemetryAppender extends UnsynchronizedAppenderBase<ILoggingEv
     if (openTelemetry == null) {
       openTelemetry = OpenTelemetry.noop();
     }
+    if (async) {
+      asyncEmitter =
+          new AsyncLoggingEventEmitter(
+              mapper,
+              () -> openTelemetry.getLogsBridge(),
+              this::addError,
+              asyncQueueSize,
+              asyncBlockWhenFull);
+    }
     super.start();
   }
 
+  @Override
+  public void stop() {
+    super.stop();
+    AsyncLoggingEventEmitter emitter = asyncEmitter;
+    if (emitter != null) {
+      asyncEmitter = null;
+      emitter.stop(ASYNC_STOP_TIMEOUT_MILLIS);
+      droppedCountBeforeRestart += emitter.getDroppedCount();
+    }
+  }
+
   @Override
   protected void append(ILoggingEvent event) {
-    mapper.emit(openTelemetry.getLogsBridge(), event);
+    AsyncLoggingEventEmitter emitter = asyncEmitter;
+    if (emitter == null) {
+      mapper.emit(openTelemetry.getLogsBridge(), event);
+    } else if (!emitter.emit(event) && !droppedWarningLogged) {
+      // racy, at worst the warning is logged a few times
+      droppedWarningLogged = true;
+      addWarn(
+          "The async queue of size "
+              + asyncQueueSize
+              + " is full, log records are dropped. Use getDroppedLogRecordCount() to monitor the"
+              + " number of dropped log records.");
+    }
+  }
+
+  /**
+   * Returns the number of log records dropped in async mode because the queue was full. Always 0
+   * when async mode is disabled or when the async queue blocks when full.
+   */
+  public long getDroppedLogRecordCount() {
+    AsyncLoggingEventEmitter emitter = asyncEmitter;
+    return droppedCountBeforeRestart + (emitter == null ? 0 : emitter.getDroppedCount());
   }
 
   /**
@@ -122,6 +174,33 @@ public class OpenTelemetryAppender extends UnsynchronizedAppenderBase<ILoggingEv
     }
   }
 
+  /**
+   * Sets whether logs should be emitted asynchronously. In async mode, the logging thread only
+   * captures the event (the formatted message, the MDC, the caller data, the thread and the current
+   * context) into a bounded queue, and the events are mapped and emitted in batches on a dedicated
+   * thread. Events still queued when the appender is stopped are emitted before it stops.
+   */
+  public void setAsync(boolean async) {
+    this.async = async;
+  }
+
+  /**
+   * Sets the maximum number of log records waiting to be emitted in async mode, rounded up to a
+   * power of two. Defaults to 8192.
+   */
+  public void setAsyncQueueSize(int asyncQueueSize) {
+    this.asyncQueueSize = asyncQueueSize;
+  }
+
+  /**
+   * Sets whether the logging thread should wait for the async queue to have room when it is full.
+   * By default log records are dropped when the queue is full, see {@link
+   * #getDroppedLogRecordCount()}.
+   */
+  public void setAsyncBlockWhenFull(boolean asyncBlockWhenFull) {
+    this.asyncBlockWhenFull = asyncBlockWhenFull;
+  }
+
   /**
    * Configures the {@link OpenTelemetry} used to append logs. This MUST be called for the appender
    * to function. See {@link #install(OpenTelemetry)} for simple installation option.
@@ -0,0 +1,165 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.instrumentation.logback.appender.v1_0.internal;
+
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import io.opentelemetry.api.logs.LoggerProvider;
+import io.opentelemetry.context.Context;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
+
+/**
+ * Emits logging events on a dedicated thread. The logging thread only captures what cannot be
+ * captured later (the formatted message, the MDC, the caller data, the thread and the {@link
+ * Context}) and adds the event to a bounded {@link MpscRingBuffer}; the emitter thread drains the
+ * ring buffer in batches, maps the events to log records and emits them.
+ *
+ * <p>When the ring buffer is full, events are either dropped and counted, or the logging thread
+ * waits for the emitter thread to make room.
+ *
+ * <p>This class is internal and is hence not for public use. Its APIs are unstable and can change at
+ * any time.
+ */
+public final class AsyncLoggingEventEmitter {
+
+  private static final int MAX_BATCH_SIZE = 512;
+  // upper bound for the emitter thread to notice a new event when a wakeup was missed
+  private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+  private static final long FULL_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
+
+  private final LoggingEventMapper mapper;
+  private final Supplier<LoggerProvider> loggerProvider;
+  private final BiConsumer<String, Throwable> errorHandler;
+  private final boolean blockWhenFull;
+  private final MpscRingBuffer<CapturedEvent> ringBuffer;
+  private final AtomicLong droppedCount = new AtomicLong();
+  private final AtomicBoolean idle = new AtomicBoolean();
+  private final Thread thread;
+  private volatile boolean running = true;
+
+  public AsyncLoggingEventEmitter(
+      LoggingEventMapper mapper,
+      Supplier<LoggerProvider> loggerProvider,
+      BiConsumer<String, Throwable> errorHandler,
+      int queueSize,
+      boolean blockWhenFull) {
+    this.mapper = mapper;
+    this.loggerProvider = loggerProvider;
+    this.errorHandler = errorHandler;
+    this.blockWhenFull = blockWhenFull;
+    this.ringBuffer = new MpscRingBuffer<>(queueSize);
+    this.thread = new Thread(this::run, "otel-logback-appender");
+    thread.setDaemon(true);
+    thread.start();
+  }
+
+  /**
+   * Captures the event and queues it for emitting. Returns {@code false} if the event was dropped
+   * because the queue was full.
+   */
+  public boolean emit(ILoggingEvent event) {
+    event.prepareForDeferredProcessing();
+    if (mapper.isCaptureCodeAttributes()) {
+      event.getCallerData();
+    }
+    Thread currentThread = Thread.currentThread();
+    CapturedEvent captured =
+        new CapturedEvent(event, currentThread.getName(), currentThread.getId(), Context.current());
+
+    while (!ringBuffer.offer(captured)) {
+      if (!blockWhenFull || !running) {
+        droppedCount.incrementAndGet();
+        return false;
+      }
+      wakeUp();
+      LockSupport.parkNanos(FULL_PARK_NANOS);
+    }
+    if (idle.get()) {
+      wakeUp();
+    }
+    return true;
+  }
+
+  /** Returns the number of events dropped because the queue was full. */
+  public long getDroppedCount() {
+    return droppedCount.get();
+  }
+
+  /**
+   * Stops the emitter thread after it has emitted the queued events, waiting at most {@code
+   * timeoutMillis} for it.
+   */
+  public void stop(long timeoutMillis) {
+    running = false;
+    LockSupport.unpark(thread);
+    try {
+      thread.join(timeoutMillis);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private void wakeUp() {
+    if (idle.compareAndSet(true, false)) {
+      LockSupport.unpark(thread);
+    }
+  }
+
+  private void run() {
+    while (true) {
+      int emitted = emitBatch();
+      if (emitted > 0) {
+        continue;
+      }
+      if (!running && ringBuffer.isEmpty()) {
+        return;
+      }
+      idle.set(true);
+      // re-check after publishing the idle flag, an event may have been added in between
+      if (ringBuffer.isEmpty() && running) {
+        LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+      } else if (!ringBuffer.isEmpty()) {
+        // an event is being added, let its producer finish
+        Thread.yield();
+      }
+      idle.set(false);
+    }
+  }
+
+  private int emitBatch() {
+    LoggerProvider provider = loggerProvider.get();
+    int emitted = 0;
+    CapturedEvent captured;
+    while (emitted < MAX_BATCH_SIZE && (captured = ringBuffer.poll()) != null) {
+      try {
+        mapper.emit(
+            provider, captured.event, captured.threadName, captured.threadId, captured.context);
+      } catch (RuntimeException e) {
+        errorHandler.accept("Failed to emit log record", e);
+      }
+      emitted++;
+    }
+    return emitted;
+  }
+
+  private static final class CapturedEvent {
+    private final ILoggingEvent event;
+    private final String threadName;
+    private final long threadId;
+    private final Context context;
+
+    private CapturedEvent(ILoggingEvent event, String threadName, long threadId, Context context) {
+      this.event = event;
+      this.threadName = threadName;
+      this.threadId = threadId;
+      this.context = context;
+    }
+  }
+}
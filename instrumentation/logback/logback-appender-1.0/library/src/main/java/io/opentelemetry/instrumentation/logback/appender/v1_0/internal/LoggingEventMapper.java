@@ -15,11 +15,10 @@ import io.opentelemetry.api.logs.LogRecordBuilder;
 import io.opentelemetry.api.logs.LoggerProvider;
 import io.opentelemetry.api.logs.Severity;
 import io.opentelemetry.context.Context;
-import io.opentelemetry.instrumentation.api.internal.cache.Cache;
+import io.opentelemetry.instrumentation.api.internal.AttributeKeyCache;
+import io.opentelemetry.instrumentation.api.internal.StackTraceRenderer;
 import io.opentelemetry.javaagent.tooling.muzzle.NoMuzzle;
 import io.opentelemetry.semconv.trace.attributes.SemanticAttributes;
-import java.io.PrintWriter;
-import java.io.StringWriter;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
@@ -35,7 +34,8 @@ public final class LoggingEventMapper {
 
   private static final boolean supportsKeyValuePairs = supportsKeyValuePairs();
   private static final boolean supportsMultipleMarkers = supportsMultipleMarkers();
-  private static final Cache<String, AttributeKey<String>> mdcAttributeKeys = Cache.bounded(100);
+  private static final AttributeKeyCache mdcAttributeKeys =
+      AttributeKeyCache.create("logback.mdc.");
 
   private static final AttributeKey<List<String>> LOG_MARKER =
       AttributeKey.stringArrayKey("logback.marker");
@@ -63,16 +63,35 @@ public final class LoggingEventMapper {
   }
 
   public void emit(LoggerProvider loggerProvider, ILoggingEvent event) {
+    Thread currentThread = Thread.currentThread();
+    emit(loggerProvider, event, currentThread.getName(), currentThread.getId(), Context.current());
+  }
+
+  /**
+   * Emits an event which was logged on another thread, with the thread and the {@link Context}
+   * captured when it was logged.
+   */
+  public void emit(
+      LoggerProvider loggerProvider,
+      ILoggingEvent event,
+      String threadName,
+      long threadId,
+      Context context) {
     String instrumentationName = event.getLoggerName();
     if (instrumentationName == null || instrumentationName.isEmpty()) {
       instrumentationName = "ROOT";
     }
     LogRecordBuilder builder =
         loggerProvider.loggerBuilder(instrumentationName).build().logRecordBuilder();
-    mapLoggingEvent(builder, event);
+    mapLoggingEvent(builder, event, threadName, threadId, context);
     builder.emit();
   }
 
+  /** Whether the caller data of the events has to be captured before they are emitted. */
+  public boolean isCaptureCodeAttributes() {
+    return captureCodeAttributes;
+  }
+
   /**
    * Map the {@link ILoggingEvent} data model onto the {@link LogRecordBuilder}. Unmapped fields
    * include:
@@ -83,7 +102,12 @@ public final class LoggingEventMapper {
    *   <li>Mapped diagnostic context - {@link ILoggingEvent#getMDCPropertyMap()}
    * </ul>
    */
-  private void mapLoggingEvent(LogRecordBuilder builder, ILoggingEvent loggingEvent) {
+  private void mapLoggingEvent(
+      LogRecordBuilder builder,
+      ILoggingEvent loggingEvent,
+      String threadName,
+      long threadId,
+      Context context) {
     // message
     String message = loggingEvent.getFormattedMessage();
     if (message != null) {
@@ -118,9 +142,8 @@ public final class LoggingEventMapper {
     captureMdcAttributes(attributes, loggingEvent.getMDCPropertyMap());
 
     if (captureExperimentalAttributes) {
-      Thread currentThread = Thread.currentThread();
-      attributes.put(SemanticAttributes.THREAD_NAME, currentThread.getName());
-      attributes.put(SemanticAttributes.THREAD_ID, currentThread.getId());
+      attributes.put(SemanticAttributes.THREAD_NAME, threadName);
+      attributes.put(SemanticAttributes.THREAD_ID, threadId);
     }
 
     if (captureCodeAttributes) {
@@ -151,7 +174,7 @@ public final class LoggingEventMapper {
     builder.setAllAttributes(attributes.build());
 
     // span context
-    builder.setContext(Context.current());
+    builder.setContext(context);
   }
 
   // visible for testing
@@ -173,7 +196,7 @@ public final class LoggingEventMapper {
   }
 
   public static AttributeKey<String> getMdcAttributeKey(String key) {
-    return mdcAttributeKeys.computeIfAbsent(key, k -> AttributeKey.stringKey("logback.mdc." + k));
+    return mdcAttributeKeys.get(key);
   }
 
   private static void setThrowable(AttributesBuilder attributes, Throwable throwable) {
@@ -181,9 +204,7 @@ public final class LoggingEventMapper {
     // io.opentelemetry:opentelemetry-api
     attributes.put(SemanticAttributes.EXCEPTION_TYPE, throwable.getClass().getName());
     attributes.put(SemanticAttributes.EXCEPTION_MESSAGE, throwable.getMessage());
-    StringWriter writer = new StringWriter();
-    throwable.printStackTrace(new PrintWriter(writer));
-    attributes.put(SemanticAttributes.EXCEPTION_STACKTRACE, writer.toString());
+    attributes.put(SemanticAttributes.EXCEPTION_STACKTRACE, StackTraceRenderer.render(throwable));
   }
 
   private static Severity levelToSeverity(Level level) {
@@ -0,0 +1,95 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.instrumentation.logback.appender.v1_0.internal;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import javax.annotation.Nullable;
+
+/**
+ * A bounded lock-free queue for many producers and a single consumer, based on Dmitry Vyukov's
+ * bounded MPMC queue. Each slot has a sequence number telling whether it is free for the producer
+ * of a given position or holds the element of a given position for the consumer, so producers
+ * only contend on the tail position and never wait for each other.
+ *
+ * <p>This class is internal and is hence not for public use. Its APIs are unstable and can change at
+ * any time.
+ */
+public final class MpscRingBuffer<E> {
+
+  private final int mask;
+  private final AtomicReferenceArray<E> elements;
+  private final AtomicLongArray sequences;
+  private final AtomicLong tail = new AtomicLong();
+  // only accessed by the consumer thread
+  private long head;
+
+  /** Creates a ring buffer holding {@code capacity}, rounded up to a power of two, elements. */
+  public MpscRingBuffer(int capacity) {
+    if (capacity < 1) {
+      throw new IllegalArgumentException("capacity must be positive");
+    }
+    int size = capacity == 1 ? 1 : Integer.highestOneBit(capacity - 1) << 1;
+    mask = size - 1;
+    elements = new AtomicReferenceArray<>(size);
+    sequences = new AtomicLongArray(size);
+    for (int i = 0; i < size; i++) {
+      sequences.set(i, i);
+    }
+  }
+
+  public int capacity() {
+    return mask + 1;
+  }
+
+  /** Adds the element, returns {@code false} if the ring buffer is full. */
+  public boolean offer(E element) {
+    long position = tail.get();
+    while (true) {
+      int index = (int) (position & mask);
+      long difference = sequences.get(index) - position;
+      if (difference == 0) {
+        if (tail.compareAndSet(position, position + 1)) {
+          elements.lazySet(index, element);
+          // publishes the element to the consumer
+          sequences.lazySet(index, position + 1);
+          return true;
+        }
+        position = tail.get();
+      } else if (difference < 0) {
+        // the slot still holds the element of the previous lap
+        return false;
+      } else {
+        // another producer took the position
+        position = tail.get();
+      }
+    }
+  }
+
+  /**
+   * Removes and returns the oldest element, or {@code null} if the ring buffer is empty or its
+   * oldest element is still being added. Must only be called by the consumer thread.
+   */
+  @Nullable
+  public E poll() {
+    int index = (int) (head & mask);
+    if (sequences.get(index) != head + 1) {
+      return null;
+    }
+    E element = elements.get(index);
+    elements.lazySet(index, null);
+    // frees the slot for the producers of the next lap
+    sequences.lazySet(index, head + mask + 1);
+    head++;
+    return element;
+  }
+
+  /** Returns whether all added elements have been polled. Must only be called by the consumer. */
+  public boolean isEmpty() {
+    return tail.get() == head;
+  }
+}
@@ -0,0 +1,178 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.instrumentation.logback.appender.v1_0;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.SpanContext;
+import io.opentelemetry.context.Scope;
+import io.opentelemetry.sdk.OpenTelemetrySdk;
+import io.opentelemetry.sdk.logs.SdkLoggerProvider;
+import io.opentelemetry.sdk.logs.data.LogRecordData;
+import io.opentelemetry.sdk.logs.export.SimpleLogRecordProcessor;
+import io.opentelemetry.sdk.testing.exporter.InMemoryLogRecordExporter;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import io.opentelemetry.semconv.trace.attributes.SemanticAttributes;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class AsyncOpenTelemetryAppenderTest {
+
+  private InMemoryLogRecordExporter logRecordExporter;
+  private OpenTelemetrySdk openTelemetrySdk;
+  private LoggerContext loggerContext;
+  private OpenTelemetryAppender appender;
+  private Logger logger;
+
+  @BeforeEach
+  void setup() {
+    logRecordExporter = InMemoryLogRecordExporter.create();
+    openTelemetrySdk =
+        OpenTelemetrySdk.builder()
+            .setTracerProvider(SdkTracerProvider.builder().build())
+            .setLoggerProvider(
+                SdkLoggerProvider.builder()
+                    .addLogRecordProcessor(SimpleLogRecordProcessor.create(logRecordExporter))
+                    .build())
+            .build();
+
+    loggerContext = new LoggerContext();
+    appender = new OpenTelemetryAppender();
+    appender.setContext(loggerContext);
+    appender.setOpenTelemetry(openTelemetrySdk);
+    appender.setCaptureExperimentalAttributes(true);
+    appender.setCaptureCodeAttributes(true);
+    appender.setAsync(true);
+
+    logger = loggerContext.getLogger("AsyncTestLogger");
+    logger.setLevel(Level.INFO);
+    logger.setAdditive(false);
+    logger.addAppender(appender);
+  }
+
+  @AfterEach
+  void cleanup() {
+    appender.stop();
+    openTelemetrySdk.getSdkLoggerProvider().close();
+    openTelemetrySdk.getSdkTracerProvider().close();
+  }
+
+  @Test
+  void emitsOnAnotherThreadWithCallerState() throws InterruptedException {
+    appender.start();
+
+    Span span = openTelemetrySdk.getTracer("test").spanBuilder("span").startSpan();
+    Thread thread =
+        new Thread(
+            () -> {
+              try (Scope ignored = span.makeCurrent()) {
+                logger.info("log message {}", 1);
+              }
+            },
+            "async-test-thread");
+    thread.start();
+    thread.join();
+    span.end();
+    appender.stop();
+
+    List<LogRecordData> logDataList = logRecordExporter.getFinishedLogRecordItems();
+    assertThat(logDataList).hasSize(1);
+    LogRecordData logData = logDataList.get(0);
+    assertThat(logData.getBody().asString()).isEqualTo("log message 1");
+    assertThat(logData.getSpanContext()).isEqualTo(span.getSpanContext());
+    assertThat(logData.getAttributes().get(SemanticAttributes.THREAD_NAME))
+        .isEqualTo("async-test-thread");
+    assertThat(logData.getAttributes().get(SemanticAttributes.THREAD_ID))
+        .isEqualTo(thread.getId());
+    assertThat(logData.getAttributes().get(SemanticAttributes.CODE_NAMESPACE))
+        .isEqualTo(AsyncOpenTelemetryAppenderTest.class.getName());
+  }
+
+  @Test
+  void stopEmitsQueuedRecords() {
+    appender.setAsyncBlockWhenFull(true);
+    appender.setAsyncQueueSize(16);
+    appender.start();
+
+    for (int i = 0; i < 1000; i++) {
+      logger.info("log message " + i);
+    }
+    appender.stop();
+
+    List<LogRecordData> logDataList = logRecordExporter.getFinishedLogRecordItems();
+    assertThat(logDataList).hasSize(1000);
+    for (int i = 0; i < 1000; i++) {
+      assertThat(logDataList.get(i).getBody().asString()).isEqualTo("log message " + i);
+    }
+    assertThat(appender.getDroppedLogRecordCount()).isZero();
+  }
+
+  @Test
+  void dropsWhenFull() throws InterruptedException {
+    CountDownLatch exporting = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    openTelemetrySdk.getSdkLoggerProvider().close();
+    openTelemetrySdk =
+        OpenTelemetrySdk.builder()
+            .setLoggerProvider(
+                SdkLoggerProvider.builder()
+                    .addLogRecordProcessor(
+                        (context, logRecord) -> {
+                          exporting.countDown();
+                          try {
+                            release.await();
+                          } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                          }
+                        })
+                    .build())
+            .build();
+    appender.setOpenTelemetry(openTelemetrySdk);
+    appender.setAsyncQueueSize(4);
+    appender.start();
+
+    // the emitter thread is blocked on the first record, the next 4 fill the queue
+    logger.info("first");
+    assertThat(exporting.await(10, TimeUnit.SECONDS)).isTrue();
+    for (int i = 0; i < 10; i++) {
+      logger.info("log message " + i);
+    }
+    assertThat(appender.getDroppedLogRecordCount()).isEqualTo(6);
+
+    release.countDown();
+    appender.stop();
+    assertThat(appender.getDroppedLogRecordCount()).isEqualTo(6);
+  }
+
+  @Test
+  void spanContextCapturedOnCallerThread() {
+    appender.start();
+
+    SpanContext spanContext;
+    Span span = openTelemetrySdk.getTracer("test").spanBuilder("span").startSpan();
+    try (Scope ignored = span.makeCurrent()) {
+      logger.info("in span");
+      spanContext = span.getSpanContext();
+    } finally {
+      span.end();
+    }
+    logger.info("outside span");
+    appender.stop();
+
+    List<LogRecordData> logDataList = logRecordExporter.getFinishedLogRecordItems();
+    assertThat(logDataList).hasSize(2);
+    assertThat(logDataList.get(0).getSpanContext()).isEqualTo(spanContext);
+    assertThat(logDataList.get(1).getSpanContext().isValid()).isFalse();
+  }
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.instrumentation.logback.appender.v1_0.internal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import org.junit.jupiter.api.Test;
+
+class MpscRingBufferTest {
+
+  @Test
+  void capacityIsRoundedUpToPowerOfTwo() {
+    assertThat(new MpscRingBuffer<>(1).capacity()).isEqualTo(1);
+    assertThat(new MpscRingBuffer<>(1000).capacity()).isEqualTo(1024);
+    assertThat(new MpscRingBuffer<>(1024).capacity()).isEqualTo(1024);
+  }
+
+  @Test
+  void offerFailsWhenFull() {
+    MpscRingBuffer<Integer> ringBuffer = new MpscRingBuffer<>(4);
+    for (int i = 0; i < 4; i++) {
+      assertThat(ringBuffer.offer(i)).isTrue();
+    }
+    assertThat(ringBuffer.offer(4)).isFalse();
+
+    assertThat(ringBuffer.poll()).isEqualTo(0);
+    assertThat(ringBuffer.offer(4)).isTrue();
+    for (int i = 1; i <= 4; i++) {
+      assertThat(ringBuffer.poll()).isEqualTo(i);
+    }
+    assertThat(ringBuffer.poll()).isNull();
+    assertThat(ringBuffer.isEmpty()).isTrue();
+  }
+
+  @Test
+  void multipleProducers() throws InterruptedException {
+    int producers = 4;
+    int perProducer = 100_000;
+    MpscRingBuffer<long[]> ringBuffer = new MpscRingBuffer<>(64);
+    CountDownLatch start = new CountDownLatch(1);
+    List<Thread> threads = new ArrayList<>();
+    for (int p = 0; p < producers; p++) {
+      int producer = p;
+      Thread thread =
+          new Thread(
+              () -> {
+                try {
+                  start.await();
+                } catch (InterruptedException e) {
+                  Thread.currentThread().interrupt();
+                  return;
+                }
+                for (int i = 0; i < perProducer; i++) {
+                  long[] element = {producer, i};
+                  while (!ringBuffer.offer(element)) {
+                    Thread.yield();
+                  }
+                }
+              });
+      thread.start();
+      threads.add(thread);
+    }
+    start.countDown();
+
+    long[] next = new long[producers];
+    int received = 0;
+    while (received < producers * perProducer) {
+      long[] element = ringBuffer.poll();
+      if (element == null) {
+        Thread.yield();
+        continue;
+      }
+      // elements of the same producer are received in order, without loss or duplicates
+      assertThat(element[1]).isEqualTo(next[(int) element[0]]);
+      next[(int) element[0]]++;
+      received++;
+    }
+    for (Thread thread : threads) {
+      thread.join();
+    }
+    assertThat(ringBuffer.isEmpty()).isTrue();
+  }
+}
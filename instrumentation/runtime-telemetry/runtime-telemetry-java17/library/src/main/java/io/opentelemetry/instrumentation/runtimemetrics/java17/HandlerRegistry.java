@@ -6,6 +6,8 @@
 package io.opentelemetry.instrumentation.runtimemetrics.java17;
 
 import io.opentelemetry.api.OpenTelemetry;
+import io.opentelemetry.api.logs.Logger;
+import io.opentelemetry.api.logs.LoggerBuilder;
 import io.opentelemetry.api.metrics.Meter;
 import io.opentelemetry.api.metrics.MeterBuilder;
 import io.opentelemetry.instrumentation.api.internal.EmbeddedInstrumentationProperties;
@@ -46,14 +48,24 @@ final class HandlerRegistry {
 
   private HandlerRegistry() {}
 
-  static List<RecordedEventHandler> getHandlers(
-      OpenTelemetry openTelemetry, Predicate<JfrFeature> featurePredicate) {
-
+  static Meter getMeter(OpenTelemetry openTelemetry) {
     MeterBuilder meterBuilder = openTelemetry.meterBuilder(SCOPE_NAME);
     if (SCOPE_VERSION != null) {
       meterBuilder.setInstrumentationVersion(SCOPE_VERSION);
     }
-    Meter meter = meterBuilder.build();
+    return meterBuilder.build();
+  }
+
+  static Logger getLogger(OpenTelemetry openTelemetry) {
+    LoggerBuilder loggerBuilder = openTelemetry.getLogsBridge().loggerBuilder(SCOPE_NAME);
+    if (SCOPE_VERSION != null) {
+      loggerBuilder.setInstrumentationVersion(SCOPE_VERSION);
+    }
+    return loggerBuilder.build();
+  }
+
+  static List<RecordedEventHandler> getHandlers(
+      Meter meter, Predicate<JfrFeature> featurePredicate, ThreadGrouper grouper) {
 
     List<RecordedEventHandler> handlers = new ArrayList<RecordedEventHandler>();
     for (GarbageCollectorMXBean bean : ManagementFactory.getGarbageCollectorMXBeans()) {
@@ -84,7 +96,6 @@ final class HandlerRegistry {
       }
     }
 
-    ThreadGrouper grouper = new ThreadGrouper();
     List<RecordedEventHandler> basicHandlers =
         List.of(
             new ObjectAllocationInNewTlabHandler(meter, grouper),
@@ -0,0 +1,226 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.instrumentation.runtimemetrics.java17;
+
+import static io.opentelemetry.api.common.AttributeKey.stringKey;
+
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.metrics.Meter;
+import io.opentelemetry.instrumentation.runtimemetrics.java17.internal.Constants;
+import io.opentelemetry.instrumentation.runtimemetrics.java17.internal.RecordedEventHandler;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.annotation.Nullable;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingStream;
+
+/**
+ * Counts the JFR events and the time spent handling them, to report them as metrics and to adapt
+ * the thresholds of the events to the configured event rate budget.
+ *
+ * <p>When an event type exceeds the budget, the threshold of its events is doubled (starting at
+ * {@link #MIN_ADAPTIVE_THRESHOLD}, up to {@link #MAX_ADAPTIVE_THRESHOLD}) so that JFR records fewer
+ * of them. It is halved again, down to the configured threshold, when the rate has stayed well
+ * below the budget for {@link #QUIET_INTERVALS_BEFORE_LOWERING} intervals in a row. Events without
+ * a duration cannot be filtered with a threshold, the stack traces of those events are turned off
+ * instead, as capturing them is the main cost of such events.
+ *
+ * <p>Thresholds are adapted in {@link #onFlush()}, which runs on the thread of the recording
+ * stream after each chunk of events, with the event rates measured over intervals of at least
+ * {@link #ADAPTATION_INTERVAL}.
+ */
+final class JfrEventMonitor {
+
+  private static final Logger logger = Logger.getLogger(JfrEventMonitor.class.getName());
+
+  private static final String METRIC_NAME_EVENTS = "process.runtime.jvm.jfr.events";
+  private static final String METRIC_DESCRIPTION_EVENTS = "Number of JFR events handled";
+  private static final String METRIC_NAME_PROCESSING_TIME =
+      "process.runtime.jvm.jfr.processing_time";
+  private static final String METRIC_DESCRIPTION_PROCESSING_TIME =
+      "Time spent handling JFR events";
+  private static final AttributeKey<String> ATTR_EVENT = stringKey("event");
+
+  static final Duration MIN_ADAPTIVE_THRESHOLD = Duration.ofMillis(1);
+  static final Duration MAX_ADAPTIVE_THRESHOLD = Duration.ofSeconds(1);
+  static final Duration ADAPTATION_INTERVAL = Duration.ofSeconds(1);
+  // a raised threshold usually filters out most of the events, lowering it as soon as the rate
+  // drops would make the threshold flip between two values
+  static final int QUIET_INTERVALS_BEFORE_LOWERING = 30;
+
+  private final RecordingStream recordingStream;
+  private final JfrFeatureSettings settings;
+  private final List<MonitoredHandler> handlers = new CopyOnWriteArrayList<>();
+  private final List<AutoCloseable> observables = new ArrayList<>();
+  private long lastIntervalNanos = System.nanoTime();
+
+  JfrEventMonitor(Meter meter, RecordingStream recordingStream, JfrFeatureSettings settings) {
+    this.recordingStream = recordingStream;
+    this.settings = settings;
+    if (settings.isSelfMetricsEnabled()) {
+      observables.add(
+          meter
+              .counterBuilder(METRIC_NAME_EVENTS)
+              .setDescription(METRIC_DESCRIPTION_EVENTS)
+              .setUnit("{event}")
+              .buildWithCallback(
+                  measurement -> {
+                    for (MonitoredHandler handler : handlers) {
+                      measurement.record(handler.events.sum(), handler.attributes);
+                    }
+                  }));
+      observables.add(
+          meter
+              .counterBuilder(METRIC_NAME_PROCESSING_TIME)
+              .ofDoubles()
+              .setDescription(METRIC_DESCRIPTION_PROCESSING_TIME)
+              .setUnit(Constants.MILLISECONDS)
+              .buildWithCallback(
+                  measurement -> {
+                    for (MonitoredHandler handler : handlers) {
+                      double millis =
+                          handler.processingNanos.sum() / (double) TimeUnit.MILLISECONDS.toNanos(1);
+                      measurement.record(millis, handler.attributes);
+                    }
+                  }));
+    }
+  }
+
+  /** Returns a consumer that passes the events to the handler and counts them. */
+  Consumer<RecordedEvent> monitor(RecordedEventHandler handler) {
+    MonitoredHandler monitored = new MonitoredHandler(handler, settings.getThreshold(handler));
+    handlers.add(monitored);
+    return monitored;
+  }
+
+  void onFlush() {
+    if (!settings.isAdaptive()) {
+      return;
+    }
+    long now = System.nanoTime();
+    long elapsedNanos = now - lastIntervalNanos;
+    if (elapsedNanos < ADAPTATION_INTERVAL.toNanos()) {
+      return;
+    }
+    lastIntervalNanos = now;
+    double elapsedSeconds = elapsedNanos / (double) TimeUnit.SECONDS.toNanos(1);
+    for (MonitoredHandler handler : handlers) {
+      long events = handler.events.sum();
+      long newEvents = events - handler.eventsAtLastInterval;
+      handler.eventsAtLastInterval = events;
+      adapt(handler, newEvents / elapsedSeconds);
+    }
+  }
+
+  private void adapt(MonitoredHandler handler, double eventsPerSecond) {
+    String eventName = handler.handler.getEventName();
+    if (!handler.handler.hasDuration()) {
+      if (eventsPerSecond > settings.getMaxEventsPerSecond() && !handler.stackTracesDisabled) {
+        handler.stackTracesDisabled = true;
+        recordingStream.enable(eventName).withoutStackTrace();
+        logger.log(
+            Level.FINE,
+            "Disabled stack traces of {0} events, {1} events per second exceed the budget",
+            new Object[] {eventName, eventsPerSecond});
+      }
+      return;
+    }
+    long maxEventsPerSecond = settings.getMaxEventsPerSecond();
+    handler.quietIntervals =
+        eventsPerSecond < maxEventsPerSecond / 4.0 ? handler.quietIntervals + 1 : 0;
+    Duration threshold =
+        nextThreshold(
+            handler.threshold,
+            handler.initialThreshold,
+            eventsPerSecond,
+            maxEventsPerSecond,
+            handler.quietIntervals);
+    if (!threshold.equals(handler.threshold)) {
+      handler.threshold = threshold;
+      handler.quietIntervals = 0;
+      recordingStream.enable(eventName).withThreshold(threshold);
+      logger.log(
+          Level.FINE,
+          "Changed the threshold of {0} events to {1}, at {2} events per second",
+          new Object[] {eventName, threshold, eventsPerSecond});
+    }
+  }
+
+  /**
+   * Returns the threshold to use for the next interval: doubled while the event rate is over the
+   * budget, and halved back towards the initial threshold once the rate has stayed below a quarter
+   * of the budget for long enough.
+   */
+  // Visible for testing
+  static Duration nextThreshold(
+      Duration threshold,
+      Duration initialThreshold,
+      double eventsPerSecond,
+      long maxPerSecond,
+      int quietIntervals) {
+    if (eventsPerSecond > maxPerSecond) {
+      if (threshold.compareTo(MIN_ADAPTIVE_THRESHOLD) < 0) {
+        return MIN_ADAPTIVE_THRESHOLD;
+      }
+      if (threshold.compareTo(MAX_ADAPTIVE_THRESHOLD) >= 0) {
+        return threshold;
+      }
+      Duration raised = threshold.multipliedBy(2);
+      return raised.compareTo(MAX_ADAPTIVE_THRESHOLD) > 0 ? MAX_ADAPTIVE_THRESHOLD : raised;
+    }
+    if (quietIntervals >= QUIET_INTERVALS_BEFORE_LOWERING
+        && threshold.compareTo(initialThreshold) > 0) {
+      Duration lowered = threshold.dividedBy(2);
+      return lowered.compareTo(initialThreshold) < 0
+              || lowered.compareTo(MIN_ADAPTIVE_THRESHOLD) < 0
+          ? initialThreshold
+          : lowered;
+    }
+    return threshold;
+  }
+
+  void close() {
+    RecordedEventHandler.closeObservables(observables);
+  }
+
+  private static class MonitoredHandler implements Consumer<RecordedEvent> {
+    private final RecordedEventHandler handler;
+    private final Attributes attributes;
+    private final Duration initialThreshold;
+    // read by the metric callbacks, which are not called on the recording stream thread
+    private final LongAdder events = new LongAdder();
+    private final LongAdder processingNanos = new LongAdder();
+
+    // only accessed on the recording stream thread
+    private long eventsAtLastInterval;
+    private int quietIntervals;
+    private Duration threshold;
+    private boolean stackTracesDisabled;
+
+    MonitoredHandler(RecordedEventHandler handler, @Nullable Duration threshold) {
+      this.handler = handler;
+      this.attributes = Attributes.of(ATTR_EVENT, handler.getEventName());
+      this.initialThreshold = threshold == null ? Duration.ZERO : threshold;
+      this.threshold = initialThreshold;
+    }
+
+    @Override
+    public void accept(RecordedEvent event) {
+      long start = System.nanoTime();
+      handler.accept(event);
+      processingNanos.add(System.nanoTime() - start);
+      events.increment();
+    }
+  }
+}
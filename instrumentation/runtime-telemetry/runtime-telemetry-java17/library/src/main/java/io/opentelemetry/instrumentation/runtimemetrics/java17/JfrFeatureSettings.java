@@ -0,0 +1,87 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.instrumentation.runtimemetrics.java17;
+
+import io.opentelemetry.instrumentation.runtimemetrics.java17.internal.RecordedEventHandler;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import javax.annotation.Nullable;
+import jdk.jfr.EventSettings;
+
+/**
+ * The JFR event settings configured with {@link RuntimeMetricsBuilder}. Settings configured for a
+ * {@link JfrFeature} apply to the events of all handlers of that feature and take precedence over
+ * the defaults of the handlers.
+ */
+final class JfrFeatureSettings {
+
+  // Visible for testing
+  final Map<JfrFeature, Duration> thresholds = new EnumMap<>(JfrFeature.class);
+  // Visible for testing
+  final Map<JfrFeature, Duration> periods = new EnumMap<>(JfrFeature.class);
+  // Visible for testing
+  final Map<JfrFeature, Boolean> stackTraces = new EnumMap<>(JfrFeature.class);
+
+  // events per second allowed for a single event type, adaptive thresholds are disabled if 0
+  private long maxEventsPerSecond;
+  private boolean selfMetricsEnabled;
+
+  void setMaxEventsPerSecond(long maxEventsPerSecond) {
+    this.maxEventsPerSecond = maxEventsPerSecond;
+  }
+
+  long getMaxEventsPerSecond() {
+    return maxEventsPerSecond;
+  }
+
+  boolean isAdaptive() {
+    return maxEventsPerSecond > 0;
+  }
+
+  void setSelfMetricsEnabled(boolean selfMetricsEnabled) {
+    this.selfMetricsEnabled = selfMetricsEnabled;
+  }
+
+  boolean isSelfMetricsEnabled() {
+    return selfMetricsEnabled;
+  }
+
+  /** Whether events have to be counted, either for the self metrics or the adaptive thresholds. */
+  boolean isMonitoringEnabled() {
+    return selfMetricsEnabled || isAdaptive();
+  }
+
+  /** Returns the threshold of the events of the handler, if any. */
+  @Nullable
+  Duration getThreshold(RecordedEventHandler handler) {
+    Duration threshold = thresholds.get(handler.getFeature());
+    return threshold != null ? threshold : handler.getThreshold().orElse(null);
+  }
+
+  /** Applies the period, threshold and stack trace settings of the handler to its JFR events. */
+  void apply(RecordedEventHandler handler, EventSettings eventSettings) {
+    JfrFeature feature = handler.getFeature();
+    Duration period = periods.get(feature);
+    if (period != null) {
+      eventSettings.withPeriod(period);
+    } else {
+      handler.getPollingDuration().ifPresent(eventSettings::withPeriod);
+    }
+    Duration threshold = getThreshold(handler);
+    if (threshold != null) {
+      eventSettings.withThreshold(threshold);
+    }
+    Boolean stackTrace = stackTraces.get(feature);
+    if (stackTrace != null) {
+      if (stackTrace) {
+        eventSettings.withStackTrace();
+      } else {
+        eventSettings.withoutStackTrace();
+      }
+    }
+  }
+}
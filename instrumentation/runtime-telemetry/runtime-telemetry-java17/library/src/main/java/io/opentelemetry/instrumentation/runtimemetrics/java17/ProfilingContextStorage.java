@@ -0,0 +1,67 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.instrumentation.runtimemetrics.java17;
+
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.SpanContext;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.context.ContextStorage;
+import io.opentelemetry.context.Scope;
+import io.opentelemetry.instrumentation.runtimemetrics.java17.internal.profiling.SpanContextEvent;
+import javax.annotation.Nullable;
+
+/**
+ * A {@link ContextStorage} wrapper which records the span changes of each thread as JFR events, so
+ * that the profiles of {@link RuntimeMetricsBuilder#enableProfiling()} carry the trace and span ID
+ * of the span that was current when a stack was sampled. The events are only committed while
+ * profiling is enabled.
+ */
+public final class ProfilingContextStorage implements ContextStorage {
+
+  /**
+   * Wraps the {@link ContextStorage}. Must be called before the first {@link Context} is used, as
+   * required by {@link ContextStorage#addWrapper}.
+   */
+  public static void install() {
+    ContextStorage.addWrapper(ProfilingContextStorage::new);
+  }
+
+  private final ContextStorage delegate;
+
+  private ProfilingContextStorage(ContextStorage delegate) {
+    this.delegate = delegate;
+  }
+
+  @Override
+  public Scope attach(Context toAttach) {
+    SpanContext previous = spanContext(delegate.current());
+    SpanContext attached = spanContext(toAttach);
+    Scope scope = delegate.attach(toAttach);
+    if (sameSpan(previous, attached)) {
+      return scope;
+    }
+    SpanContextEvent.commit(attached);
+    return () -> {
+      scope.close();
+      SpanContextEvent.commit(previous);
+    };
+  }
+
+  @Override
+  @Nullable
+  public Context current() {
+    return delegate.current();
+  }
+
+  private static SpanContext spanContext(@Nullable Context context) {
+    return context == null ? SpanContext.getInvalid() : Span.fromContext(context).getSpanContext();
+  }
+
+  private static boolean sameSpan(SpanContext first, SpanContext second) {
+    return first.getSpanId().equals(second.getSpanId())
+        && first.getTraceId().equals(second.getTraceId());
+  }
+}
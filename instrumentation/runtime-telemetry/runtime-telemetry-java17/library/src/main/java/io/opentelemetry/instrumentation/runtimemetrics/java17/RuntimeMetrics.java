@@ -6,7 +6,10 @@
 package io.opentelemetry.instrumentation.runtimemetrics.java17;
 
 import io.opentelemetry.api.OpenTelemetry;
+import io.opentelemetry.api.metrics.Meter;
 import io.opentelemetry.instrumentation.runtimemetrics.java17.internal.RecordedEventHandler;
+import io.opentelemetry.instrumentation.runtimemetrics.java17.internal.ThreadGrouper;
+import io.opentelemetry.instrumentation.runtimemetrics.java17.internal.profiling.JfrProfiler;
 import io.opentelemetry.instrumentation.runtimemetrics.java8.internal.JmxRuntimeMetricsUtil;
 import java.io.Closeable;
 import java.util.List;
@@ -87,18 +90,38 @@ public final class RuntimeMetrics implements Closeable {
   static class JfrRuntimeMetrics implements Closeable {
     private final List<RecordedEventHandler> recordedEventHandlers;
     private final RecordingStream recordingStream;
+    @Nullable private final JfrEventMonitor eventMonitor;
+    @Nullable private final JfrProfiler profiler;
     private final CountDownLatch startUpLatch = new CountDownLatch(1);
 
-    private JfrRuntimeMetrics(OpenTelemetry openTelemetry, Predicate<JfrFeature> featurePredicate) {
-      this.recordedEventHandlers = HandlerRegistry.getHandlers(openTelemetry, featurePredicate);
+    private JfrRuntimeMetrics(
+        OpenTelemetry openTelemetry,
+        Predicate<JfrFeature> featurePredicate,
+        ThreadGrouper grouper,
+        JfrFeatureSettings settings,
+        @Nullable JfrProfiler profiler) {
+      Meter meter = HandlerRegistry.getMeter(openTelemetry);
+      this.recordedEventHandlers = HandlerRegistry.getHandlers(meter, featurePredicate, grouper);
       recordingStream = new RecordingStream();
+      eventMonitor =
+          settings.isMonitoringEnabled()
+              ? new JfrEventMonitor(meter, recordingStream, settings)
+              : null;
       recordedEventHandlers.forEach(
           handler -> {
             EventSettings eventSettings = recordingStream.enable(handler.getEventName());
-            handler.getPollingDuration().ifPresent(eventSettings::withPeriod);
-            handler.getThreshold().ifPresent(eventSettings::withThreshold);
-            recordingStream.onEvent(handler.getEventName(), handler);
+            settings.apply(handler, eventSettings);
+            recordingStream.onEvent(
+                handler.getEventName(),
+                eventMonitor == null ? handler : eventMonitor.monitor(handler));
           });
+      if (eventMonitor != null) {
+        recordingStream.onFlush(eventMonitor::onFlush);
+      }
+      this.profiler = profiler;
+      if (profiler != null) {
+        profiler.enable(recordingStream);
+      }
       recordingStream.onMetadata(event -> startUpLatch.countDown());
       Thread daemonRunner = new Thread(() -> recordingStream.start());
       daemonRunner.setDaemon(true);
@@ -106,17 +129,27 @@ public final class RuntimeMetrics implements Closeable {
     }
 
     static JfrRuntimeMetrics build(
-        OpenTelemetry openTelemetry, Predicate<JfrFeature> featurePredicate) {
+        OpenTelemetry openTelemetry,
+        Predicate<JfrFeature> featurePredicate,
+        ThreadGrouper grouper,
+        JfrFeatureSettings settings,
+        @Nullable JfrProfiler profiler) {
       if (!hasJfrRecordingStream()) {
         return null;
       }
-      return new JfrRuntimeMetrics(openTelemetry, featurePredicate);
+      return new JfrRuntimeMetrics(openTelemetry, featurePredicate, grouper, settings, profiler);
     }
 
     @Override
     public void close() {
       recordingStream.close();
       recordedEventHandlers.forEach(RecordedEventHandler::close);
+      if (eventMonitor != null) {
+        eventMonitor.close();
+      }
+      if (profiler != null) {
+        profiler.close();
+      }
     }
 
     // Visible for testing
@@ -7,12 +7,19 @@ package io.opentelemetry.instrumentation.runtimemetrics.java17;
 
 import com.google.errorprone.annotations.CanIgnoreReturnValue;
 import io.opentelemetry.api.OpenTelemetry;
+import io.opentelemetry.instrumentation.runtimemetrics.java17.internal.ThreadGrouper;
+import io.opentelemetry.instrumentation.runtimemetrics.java17.internal.profiling.JfrProfiler;
+import io.opentelemetry.instrumentation.runtimemetrics.java17.internal.profiling.LogRecordProfileExporter;
+import io.opentelemetry.instrumentation.runtimemetrics.java17.internal.profiling.PprofProfileExporter;
+import io.opentelemetry.instrumentation.runtimemetrics.java17.internal.profiling.ProfileExporter;
 import io.opentelemetry.instrumentation.runtimemetrics.java8.BufferPools;
 import io.opentelemetry.instrumentation.runtimemetrics.java8.Classes;
 import io.opentelemetry.instrumentation.runtimemetrics.java8.Cpu;
 import io.opentelemetry.instrumentation.runtimemetrics.java8.GarbageCollector;
 import io.opentelemetry.instrumentation.runtimemetrics.java8.MemoryPools;
 import io.opentelemetry.instrumentation.runtimemetrics.java8.Threads;
+import java.nio.file.Path;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
@@ -28,6 +35,15 @@ public final class RuntimeMetricsBuilder {
   final EnumMap<JfrFeature, Boolean> enabledFeatureMap;
 
   private boolean disableJmx = false;
+  private final List<ThreadGrouper.Rule> threadGroupingRules = new ArrayList<>();
+  private int maxThreadGroups = ThreadGrouper.DEFAULT_MAX_THREAD_GROUPS;
+  // Visible for testing
+  final JfrFeatureSettings featureSettings = new JfrFeatureSettings();
+
+  private boolean profilingEnabled = false;
+  @Nullable private Path pprofDirectory;
+  private Duration profilingInterval = Duration.ofMinutes(1);
+  private int maxProfiledStacks = 10_000;
 
   RuntimeMetricsBuilder(OpenTelemetry openTelemetry) {
     this.openTelemetry = openTelemetry;
@@ -80,6 +96,153 @@ public final class RuntimeMetricsBuilder {
     return this;
   }
 
+  /**
+   * Add a rule for grouping the threads reported in the thread name attribute of the JFR based
+   * metrics. The parts of a thread name matching {@code regex} are replaced with {@code
+   * replacement}, e.g. the rule {@code addThreadGroupingRule("-\\d+$", "")} reports the threads
+   * {@code pool-1-thread-1} and {@code pool-1-thread-2} as {@code pool-1-thread}. Only the first
+   * matching rule is applied, in the order the rules were added.
+   *
+   * @param regex the regular expression matched against the thread names
+   * @param replacement the replacement, which can reference the captured groups as in {@link
+   *     java.util.regex.Matcher#replaceAll(String)}
+   */
+  @CanIgnoreReturnValue
+  public RuntimeMetricsBuilder addThreadGroupingRule(String regex, String replacement) {
+    threadGroupingRules.add(new ThreadGrouper.Rule(regex, replacement));
+    return this;
+  }
+
+  /**
+   * Set the maximum number of thread groups for which the JFR based metrics keep state. When there
+   * are more thread groups, the state of the least recently seen ones is dropped and created again
+   * when needed. Defaults to 1000.
+   */
+  @CanIgnoreReturnValue
+  public RuntimeMetricsBuilder setMaxThreadGroups(int maxThreadGroups) {
+    if (maxThreadGroups < 1) {
+      throw new IllegalArgumentException("maxThreadGroups must be positive");
+    }
+    this.maxThreadGroups = maxThreadGroups;
+    return this;
+  }
+
+  /**
+   * Set the threshold of the JFR events associated with the {@link JfrFeature}. Events which take
+   * less time than the threshold are not recorded. Only applies to events with a duration, e.g.
+   * the events of {@link JfrFeature#LOCK_METRICS} and {@link JfrFeature#NETWORK_IO_METRICS}.
+   */
+  @CanIgnoreReturnValue
+  public RuntimeMetricsBuilder setThreshold(JfrFeature feature, Duration threshold) {
+    if (threshold.isNegative()) {
+      throw new IllegalArgumentException("threshold must not be negative");
+    }
+    featureSettings.thresholds.put(feature, threshold);
+    return this;
+  }
+
+  /**
+   * Set the period at which the JFR events associated with the {@link JfrFeature} are emitted.
+   * Only applies to periodic events, e.g. the events of {@link JfrFeature#CPU_UTILIZATION_METRICS}
+   * which are emitted every second by default.
+   */
+  @CanIgnoreReturnValue
+  public RuntimeMetricsBuilder setPeriod(JfrFeature feature, Duration period) {
+    if (period.isNegative() || period.isZero()) {
+      throw new IllegalArgumentException("period must be positive");
+    }
+    featureSettings.periods.put(feature, period);
+    return this;
+  }
+
+  /**
+   * Set whether JFR captures stack traces for the events associated with the {@link JfrFeature}.
+   * None of the metrics use the stack traces, disabling them reduces the overhead of frequent
+   * events, e.g. the allocation events of {@link JfrFeature#MEMORY_ALLOCATION_METRICS}. When not
+   * set, the default of each JFR event is used.
+   */
+  @CanIgnoreReturnValue
+  public RuntimeMetricsBuilder setStackTraceEnabled(JfrFeature feature, boolean enabled) {
+    featureSettings.stackTraces.put(feature, enabled);
+    return this;
+  }
+
+  /**
+   * Adapt the JFR settings when a JFR event type is recorded more often than {@code
+   * maxEventsPerSecond}. The threshold of events with a duration is raised until their rate is back
+   * within the budget, and lowered again down to the configured threshold when the rate drops. The
+   * stack traces of frequent events without a duration are disabled.
+   */
+  @CanIgnoreReturnValue
+  public RuntimeMetricsBuilder enableAdaptiveThresholds(long maxEventsPerSecond) {
+    if (maxEventsPerSecond < 1) {
+      throw new IllegalArgumentException("maxEventsPerSecond must be positive");
+    }
+    featureSettings.setMaxEventsPerSecond(maxEventsPerSecond);
+    return this;
+  }
+
+  /**
+   * Enable the metrics reporting the number of JFR events handled and the time spent handling them,
+   * per JFR event type, to monitor the overhead of the JFR based metrics.
+   */
+  @CanIgnoreReturnValue
+  public RuntimeMetricsBuilder enableJfrSelfMetrics() {
+    featureSettings.setSelfMetricsEnabled(true);
+    return this;
+  }
+
+  /**
+   * Enable continuous profiling: the stacks of threads running Java code and of allocations are
+   * sampled with JFR, aggregated per profiling interval, and exported as log records with the
+   * {@link OpenTelemetry} instance. The body of each log record lists the sampled stacks in the
+   * folded stack format. When {@link ProfilingContextStorage} is installed, the samples taken while
+   * a span was current are exported in separate log records carrying the span's trace and span ID.
+   */
+  @CanIgnoreReturnValue
+  public RuntimeMetricsBuilder enableProfiling() {
+    profilingEnabled = true;
+    pprofDirectory = null;
+    return this;
+  }
+
+  /**
+   * Enable continuous profiling like {@link #enableProfiling()}, but write the profiles of each
+   * interval as gzipped pprof files to {@code directory} instead of exporting log records. The
+   * samples taken while a span was current are labelled with the {@code trace_id} and {@code
+   * span_id} of the span.
+   */
+  @CanIgnoreReturnValue
+  public RuntimeMetricsBuilder enableProfiling(Path directory) {
+    profilingEnabled = true;
+    pprofDirectory = directory;
+    return this;
+  }
+
+  /** Set the interval at which profiles are exported. Defaults to 1 minute. */
+  @CanIgnoreReturnValue
+  public RuntimeMetricsBuilder setProfilingInterval(Duration interval) {
+    if (interval.isNegative() || interval.isZero()) {
+      throw new IllegalArgumentException("interval must be positive");
+    }
+    profilingInterval = interval;
+    return this;
+  }
+
+  /**
+   * Set the maximum number of distinct stacks kept by the profiler, which bounds its memory use.
+   * Samples of further stacks in a profiling interval are reported as a single {@code [other]}
+   * stack. Defaults to 10000.
+   */
+  @CanIgnoreReturnValue
+  public RuntimeMetricsBuilder setMaxProfiledStacks(int maxProfiledStacks) {
+    if (maxProfiledStacks < 1) {
+      throw new IllegalArgumentException("maxProfiledStacks must be positive");
+    }
+    this.maxProfiledStacks = maxProfiledStacks;
+    return this;
+  }
+
   /** Build and start an {@link RuntimeMetrics} with the config from this builder. */
   public RuntimeMetrics build() {
     List<AutoCloseable> observables = buildObservables();
@@ -109,9 +272,27 @@ public final class RuntimeMetricsBuilder {
 
   @Nullable
   private RuntimeMetrics.JfrRuntimeMetrics buildJfrMetrics() {
-    if (enabledFeatureMap.values().stream().noneMatch(isEnabled -> isEnabled)) {
+    if (enabledFeatureMap.values().stream().noneMatch(isEnabled -> isEnabled)
+        && !profilingEnabled) {
+      return null;
+    }
+    return RuntimeMetrics.JfrRuntimeMetrics.build(
+        openTelemetry,
+        enabledFeatureMap::get,
+        new ThreadGrouper(threadGroupingRules, maxThreadGroups),
+        featureSettings,
+        buildProfiler());
+  }
+
+  @Nullable
+  private JfrProfiler buildProfiler() {
+    if (!profilingEnabled) {
       return null;
     }
-    return RuntimeMetrics.JfrRuntimeMetrics.build(openTelemetry, enabledFeatureMap::get);
+    ProfileExporter exporter =
+        pprofDirectory != null
+            ? new PprofProfileExporter(pprofDirectory)
+            : new LogRecordProfileExporter(HandlerRegistry.getLogger(openTelemetry));
+    return new JfrProfiler(exporter, profilingInterval, maxProfiledStacks);
   }
 }
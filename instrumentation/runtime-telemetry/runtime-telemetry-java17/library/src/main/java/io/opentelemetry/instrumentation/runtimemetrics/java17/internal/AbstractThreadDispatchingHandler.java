@@ -5,7 +5,6 @@
 
 package io.opentelemetry.instrumentation.runtimemetrics.java17.internal;
 
-import java.util.HashMap;
 import java.util.Map;
 import java.util.function.Consumer;
 import jdk.jfr.consumer.RecordedEvent;
@@ -15,12 +14,14 @@ import jdk.jfr.consumer.RecordedEvent;
  * any time.
  */
 public abstract class AbstractThreadDispatchingHandler implements RecordedEventHandler {
-  // Will need pruning code for fast-cycling thread frameworks to prevent memory leaks
-  private final Map<String, Consumer<RecordedEvent>> perThread = new HashMap<>();
+  // Bounded for fast-cycling thread frameworks, the least recently used thread groups are evicted
+  // and their summarizers are created again when their threads show up again
+  private final Map<String, Consumer<RecordedEvent>> perThread;
   private final ThreadGrouper grouper;
 
   protected AbstractThreadDispatchingHandler(ThreadGrouper grouper) {
     this.grouper = grouper;
+    this.perThread = ThreadGrouper.lruMap(grouper.getMaxThreadGroups());
   }
 
   @Override
@@ -32,7 +33,22 @@ public abstract class AbstractThreadDispatchingHandler implements RecordedEventH
   public void accept(RecordedEvent ev) {
     String groupedName = grouper.groupedName(ev);
     if (groupedName != null) {
-      perThread.computeIfAbsent(groupedName, this::createPerThreadSummarizer).accept(ev);
+      getPerThreadSummarizer(groupedName).accept(ev);
     }
   }
+
+  // Visible for testing
+  Consumer<RecordedEvent> getPerThreadSummarizer(String groupedName) {
+    Consumer<RecordedEvent> summarizer = perThread.get(groupedName);
+    if (summarizer == null) {
+      summarizer = createPerThreadSummarizer(groupedName);
+      perThread.put(groupedName, summarizer);
+    }
+    return summarizer;
+  }
+
+  // Visible for testing
+  int getPerThreadSummarizerCount() {
+    return perThread.size();
+  }
 }
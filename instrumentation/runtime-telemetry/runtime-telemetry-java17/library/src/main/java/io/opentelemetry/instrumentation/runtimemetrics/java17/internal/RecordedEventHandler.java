@@ -63,6 +63,15 @@ public interface RecordedEventHandler
     return Optional.empty();
   }
 
+  /**
+   * Whether the JFR events have a duration, so that they can be filtered with a threshold.
+   *
+   * @return true if the events have a duration, false for instant and periodic events
+   */
+  default boolean hasDuration() {
+    return false;
+  }
+
   static void closeObservables(List<AutoCloseable> observables) {
     observables.forEach(
         observable -> {
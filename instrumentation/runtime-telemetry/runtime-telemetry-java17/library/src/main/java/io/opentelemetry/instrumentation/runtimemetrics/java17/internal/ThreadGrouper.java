@@ -5,24 +5,109 @@
 
 package io.opentelemetry.instrumentation.runtimemetrics.java17.internal;
 
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 import javax.annotation.Nullable;
 import jdk.jfr.consumer.RecordedEvent;
 import jdk.jfr.consumer.RecordedThread;
 
 /**
- * This class is internal and is hence not for public use. Its APIs are unstable and can change at
+ * Maps the thread of a JFR event to the name of its thread group, which is used as the thread name
+ * attribute of the metrics. Thread names are normalized with the first matching grouping rule, so
+ * that short-lived threads of the same pool share their per-thread state and their metric series.
+ * For example, the rule {@code -\d+$} with an empty replacement groups {@code pool-1-thread-1} and
+ * {@code pool-1-thread-2} as {@code pool-1-thread}.
+ *
+ * <p>JFR events are dispatched on the single thread of the recording stream, so this class is not
+ * thread safe.
+ *
+ * <p>This class is internal and is hence not for public use. Its APIs are unstable and can change at
  * any time.
  */
 public final class ThreadGrouper {
 
-  // FIXME doesn't actually do any grouping, but should be safe for now
+  public static final int DEFAULT_MAX_THREAD_GROUPS = 1000;
+
+  private final List<Rule> rules;
+  private final int maxThreadGroups;
+  // thread names are looked up for every event, avoid evaluating the rules again and again
+  private final Map<String, String> groupedNames;
+
+  public ThreadGrouper() {
+    this(List.of(), DEFAULT_MAX_THREAD_GROUPS);
+  }
+
+  public ThreadGrouper(List<Rule> rules, int maxThreadGroups) {
+    this.rules = List.copyOf(rules);
+    this.maxThreadGroups = maxThreadGroups;
+    this.groupedNames = lruMap(maxThreadGroups);
+  }
+
+  /** Returns a map which evicts its least recently used entry when it exceeds the max size. */
+  public static <K, V> Map<K, V> lruMap(int maxSize) {
+    return new LinkedHashMap<>(16, 0.75f, /* accessOrder= */ true) {
+      private static final long serialVersionUID = 1L;
+
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+        return size() > maxSize;
+      }
+    };
+  }
+
+  /** The maximum number of thread groups for which per-thread state is kept. */
+  public int getMaxThreadGroups() {
+    return maxThreadGroups;
+  }
+
   @Nullable
   public String groupedName(RecordedEvent ev) {
     Object thisField = ev.getValue("eventThread");
     if (thisField instanceof RecordedThread) {
       RecordedThread thread = (RecordedThread) thisField;
-      return thread.getJavaName();
+      String javaName = thread.getJavaName();
+      return javaName == null ? null : groupedName(javaName);
     }
     return null;
   }
+
+  public String groupedName(String threadName) {
+    if (rules.isEmpty()) {
+      return threadName;
+    }
+    String groupedName = groupedNames.get(threadName);
+    if (groupedName == null) {
+      groupedName = applyRules(threadName);
+      groupedNames.put(threadName, groupedName);
+    }
+    return groupedName;
+  }
+
+  private String applyRules(String threadName) {
+    for (Rule rule : rules) {
+      Matcher matcher = rule.pattern.matcher(threadName);
+      if (matcher.find()) {
+        return matcher.replaceAll(rule.replacement);
+      }
+    }
+    return threadName;
+  }
+
+  /**
+   * A thread name grouping rule. The parts of the thread name matching the regular expression are
+   * replaced with the replacement, which can reference the groups captured by the expression as in
+   * {@link Matcher#replaceAll(String)}.
+   */
+  public static final class Rule {
+    private final Pattern pattern;
+    private final String replacement;
+
+    public Rule(String regex, String replacement) {
+      this.pattern = Pattern.compile(regex);
+      this.replacement = replacement;
+    }
+  }
 }
@@ -44,6 +44,11 @@ public final class LongLockHandler extends AbstractThreadDispatchingHandler {
     return EVENT_NAME;
   }
 
+  @Override
+  public boolean hasDuration() {
+    return true;
+  }
+
   @Override
   public JfrFeature getFeature() {
     return JfrFeature.LOCK_METRICS;
@@ -67,6 +67,11 @@ public final class NetworkWriteHandler extends AbstractThreadDispatchingHandler
     return EVENT_NAME;
   }
 
+  @Override
+  public boolean hasDuration() {
+    return true;
+  }
+
   @Override
   public JfrFeature getFeature() {
     return JfrFeature.NETWORK_IO_METRICS;
@@ -0,0 +1,116 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.instrumentation.runtimemetrics.java17.internal.profiling;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedThread;
+import jdk.jfr.consumer.RecordingStream;
+
+/**
+ * Profiles CPU usage and allocations with the {@code jdk.ExecutionSample} and {@code
+ * jdk.ObjectAllocationSample} JFR events, and exports the sampled stacks aggregated per interval.
+ * Samples are attributed to the span that was current on the sampled thread when {@link
+ * SpanContextEvent}s are committed, see {@code ProfilingContextStorage}.
+ *
+ * <p>This class is internal and is hence not for public use. Its APIs are unstable and can change
+ * at any time.
+ */
+public final class JfrProfiler implements Closeable {
+
+  private static final Logger logger = Logger.getLogger(JfrProfiler.class.getName());
+
+  private static final String EXECUTION_SAMPLE = "jdk.ExecutionSample";
+  private static final String ALLOCATION_SAMPLE = "jdk.ObjectAllocationSample";
+  private static final Duration SAMPLING_PERIOD = Duration.ofMillis(10);
+  // the rate of allocation samples of the default JFR configuration
+  private static final String ALLOCATION_THROTTLE = "150/s";
+
+  private final ProfileExporter exporter;
+  private final long intervalNanos;
+  private final ProfileAggregator aggregator;
+  private long intervalStartNanos = System.nanoTime();
+
+  public JfrProfiler(ProfileExporter exporter, Duration interval, int maxStacks) {
+    this.exporter = exporter;
+    this.intervalNanos = interval.toNanos();
+    this.aggregator = new ProfileAggregator(maxStacks, SAMPLING_PERIOD.toNanos(), nowEpochNanos());
+  }
+
+  /** Enables the profiling events in the recording stream and starts handling them. */
+  public void enable(RecordingStream recordingStream) {
+    recordingStream.enable(EXECUTION_SAMPLE).withPeriod(SAMPLING_PERIOD).withStackTrace();
+    recordingStream
+        .enable(ALLOCATION_SAMPLE)
+        .with("throttle", ALLOCATION_THROTTLE)
+        .withStackTrace();
+    recordingStream.enable(SpanContextEvent.class);
+    recordingStream.onEvent(EXECUTION_SAMPLE, this::onExecutionSample);
+    recordingStream.onEvent(ALLOCATION_SAMPLE, this::onAllocationSample);
+    recordingStream.onEvent(SpanContextEvent.NAME, this::onSpanContext);
+    recordingStream.onFlush(this::onFlush);
+  }
+
+  private void onExecutionSample(RecordedEvent event) {
+    Stack stack = Stack.from(event.getStackTrace());
+    if (stack != null) {
+      long threadId = threadId(event.getThread("sampledThread"));
+      aggregator.record(ProfileType.CPU, threadId, stack, SAMPLING_PERIOD.toNanos());
+    }
+  }
+
+  private void onAllocationSample(RecordedEvent event) {
+    Stack stack = Stack.from(event.getStackTrace());
+    if (stack != null) {
+      long threadId = threadId(event.getThread());
+      aggregator.record(ProfileType.ALLOCATION, threadId, stack, event.getLong("weight"));
+    }
+  }
+
+  private void onSpanContext(RecordedEvent event) {
+    aggregator.setSpan(
+        threadId(event.getThread()), event.getString("traceId"), event.getString("spanId"));
+  }
+
+  private static long threadId(RecordedThread thread) {
+    return thread == null ? -1 : thread.getJavaThreadId();
+  }
+
+  private void onFlush() {
+    long now = System.nanoTime();
+    if (now - intervalStartNanos >= intervalNanos) {
+      intervalStartNanos = now;
+      export(aggregator.drain(nowEpochNanos()));
+    }
+  }
+
+  private void export(List<Profile> profiles) {
+    for (Profile profile : profiles) {
+      try {
+        exporter.export(profile);
+      } catch (IOException | RuntimeException e) {
+        logger.log(
+            Level.WARNING, "Failed to export the " + profile.getType().getName() + " profile", e);
+      }
+    }
+  }
+
+  private static long nowEpochNanos() {
+    return TimeUnit.MILLISECONDS.toNanos(System.currentTimeMillis());
+  }
+
+  /** Exports the samples of the last, partial, interval. */
+  @Override
+  public void close() {
+    export(aggregator.drain(nowEpochNanos()));
+  }
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.instrumentation.runtimemetrics.java17.internal.profiling;
+
+import static io.opentelemetry.api.common.AttributeKey.stringKey;
+
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.logs.LogRecordBuilder;
+import io.opentelemetry.api.logs.Logger;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.SpanContext;
+import io.opentelemetry.api.trace.TraceFlags;
+import io.opentelemetry.api.trace.TraceState;
+import io.opentelemetry.context.Context;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Exports profiles as log records, one per span (and one for the samples taken outside of any
+ * span), so that the trace and span ID of the log record correlate the samples with the span. The
+ * body of a log record lists the sampled stacks in the folded stack format, one stack per line
+ * followed by its value, e.g. {@code java.lang.Thread.run;com.example.Worker.work 20000000}.
+ *
+ * <p>This class is internal and is hence not for public use. Its APIs are unstable and can change
+ * at any time.
+ */
+public final class LogRecordProfileExporter implements ProfileExporter {
+
+  static final AttributeKey<String> PROFILE_TYPE = stringKey("profile.type");
+  static final AttributeKey<String> PROFILE_UNIT = stringKey("profile.unit");
+
+  private final Logger logger;
+
+  public LogRecordProfileExporter(Logger logger) {
+    this.logger = logger;
+  }
+
+  @Override
+  public void export(Profile profile) {
+    Map<String, List<Profile.Sample>> samplesBySpan = new LinkedHashMap<>();
+    for (Profile.Sample sample : profile.getSamples()) {
+      String spanKey =
+          sample.getTraceId() == null ? "" : sample.getTraceId() + "-" + sample.getSpanId();
+      samplesBySpan.computeIfAbsent(spanKey, unused -> new ArrayList<>()).add(sample);
+    }
+
+    for (List<Profile.Sample> samples : samplesBySpan.values()) {
+      StringBuilder body = new StringBuilder();
+      for (Profile.Sample sample : samples) {
+        body.append(sample.getStack().toFolded());
+        body.append(' ').append(sample.getValue()).append('\n');
+      }
+
+      LogRecordBuilder builder =
+          logger
+              .logRecordBuilder()
+              .setTimestamp(profile.getStartEpochNanos(), TimeUnit.NANOSECONDS)
+              .setBody(body.toString())
+              .setAttribute(PROFILE_TYPE, profile.getType().getName())
+              .setAttribute(PROFILE_UNIT, profile.getType().getUnit());
+      Profile.Sample first = samples.get(0);
+      if (first.getTraceId() != null && first.getSpanId() != null) {
+        SpanContext spanContext =
+            SpanContext.create(
+                first.getTraceId(),
+                first.getSpanId(),
+                TraceFlags.getDefault(),
+                TraceState.getDefault());
+        builder.setContext(Context.root().with(Span.wrap(spanContext)));
+      }
+      builder.emit();
+    }
+  }
+}
@@ -0,0 +1,221 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.instrumentation.runtimemetrics.java17.internal.profiling;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Encodes a {@link Profile} in the protobuf format of pprof (see
+ * https://github.com/google/pprof/blob/main/proto/profile.proto). The message is small and flat
+ * enough to be written by hand, which avoids a dependency on protobuf.
+ */
+final class PprofEncoder {
+
+  // field numbers of the Profile message
+  private static final int PROFILE_SAMPLE_TYPE = 1;
+  private static final int PROFILE_SAMPLE = 2;
+  private static final int PROFILE_LOCATION = 4;
+  private static final int PROFILE_FUNCTION = 5;
+  private static final int PROFILE_STRING_TABLE = 6;
+  private static final int PROFILE_TIME_NANOS = 9;
+  private static final int PROFILE_DURATION_NANOS = 10;
+  private static final int PROFILE_PERIOD_TYPE = 11;
+  private static final int PROFILE_PERIOD = 12;
+  // field numbers of the ValueType message
+  private static final int VALUE_TYPE_TYPE = 1;
+  private static final int VALUE_TYPE_UNIT = 2;
+  // field numbers of the Sample message
+  private static final int SAMPLE_LOCATION_ID = 1;
+  private static final int SAMPLE_VALUE = 2;
+  private static final int SAMPLE_LABEL = 3;
+  // field numbers of the Label message
+  private static final int LABEL_KEY = 1;
+  private static final int LABEL_STR = 2;
+  // field numbers of the Location message
+  private static final int LOCATION_ID = 1;
+  private static final int LOCATION_LINE = 4;
+  // field numbers of the Line message
+  private static final int LINE_FUNCTION_ID = 1;
+  private static final int LINE_LINE = 2;
+  // field numbers of the Function message
+  private static final int FUNCTION_ID = 1;
+  private static final int FUNCTION_NAME = 2;
+  private static final int FUNCTION_SYSTEM_NAME = 3;
+
+  private final Map<String, Long> strings = new LinkedHashMap<>();
+  private final Map<String, Long> functionIds = new HashMap<>();
+  private final Map<Long, Long> locationIds = new HashMap<>();
+  private final ProtoWriter functions = new ProtoWriter();
+  private final ProtoWriter locations = new ProtoWriter();
+
+  private PprofEncoder() {
+    // the string at index 0 must be the empty string
+    strings.put("", 0L);
+  }
+
+  static byte[] encode(Profile profile) {
+    return new PprofEncoder().encodeProfile(profile);
+  }
+
+  private byte[] encodeProfile(Profile profile) {
+    ProfileType type = profile.getType();
+    ProtoWriter out = new ProtoWriter();
+    out.writeMessage(PROFILE_SAMPLE_TYPE, valueType("samples", "count"));
+    out.writeMessage(PROFILE_SAMPLE_TYPE, valueType(type.getValueType(), type.getUnit()));
+
+    long traceIdKey = string("trace_id");
+    long spanIdKey = string("span_id");
+    for (Profile.Sample sample : profile.getSamples()) {
+      Stack stack = sample.getStack();
+      long[] stackLocationIds = new long[stack.size()];
+      for (int i = 0; i < stackLocationIds.length; i++) {
+        stackLocationIds[i] = location(stack.getFrame(i), stack.getLineNumber(i));
+      }
+      ProtoWriter encodedSample = new ProtoWriter();
+      encodedSample.writePacked(SAMPLE_LOCATION_ID, stackLocationIds);
+      encodedSample.writePacked(SAMPLE_VALUE, new long[] {sample.getCount(), sample.getValue()});
+      if (sample.getTraceId() != null && sample.getSpanId() != null) {
+        encodedSample.writeMessage(SAMPLE_LABEL, label(traceIdKey, sample.getTraceId()));
+        encodedSample.writeMessage(SAMPLE_LABEL, label(spanIdKey, sample.getSpanId()));
+      }
+      out.writeMessage(PROFILE_SAMPLE, encodedSample);
+    }
+
+    out.append(locations);
+    out.append(functions);
+    out.writeUint64(PROFILE_TIME_NANOS, profile.getStartEpochNanos());
+    out.writeUint64(
+        PROFILE_DURATION_NANOS, profile.getEndEpochNanos() - profile.getStartEpochNanos());
+    if (profile.getPeriodNanos() > 0) {
+      out.writeMessage(PROFILE_PERIOD_TYPE, valueType(type.getValueType(), type.getUnit()));
+      out.writeUint64(PROFILE_PERIOD, profile.getPeriodNanos());
+    }
+    // written last, after all the other fields have added their strings
+    for (String string : strings.keySet()) {
+      out.writeString(PROFILE_STRING_TABLE, string);
+    }
+    return out.toByteArray();
+  }
+
+  private ProtoWriter valueType(String type, String unit) {
+    ProtoWriter valueType = new ProtoWriter();
+    valueType.writeUint64(VALUE_TYPE_TYPE, string(type));
+    valueType.writeUint64(VALUE_TYPE_UNIT, string(unit));
+    return valueType;
+  }
+
+  private ProtoWriter label(long key, String value) {
+    ProtoWriter label = new ProtoWriter();
+    label.writeUint64(LABEL_KEY, key);
+    label.writeUint64(LABEL_STR, string(value));
+    return label;
+  }
+
+  private long location(String frame, int lineNumber) {
+    long functionId = function(frame);
+    long key = (functionId << 32) | (lineNumber & 0xFFFFFFFFL);
+    Long id = locationIds.get(key);
+    if (id == null) {
+      id = locationIds.size() + 1L;
+      locationIds.put(key, id);
+      ProtoWriter line = new ProtoWriter();
+      line.writeUint64(LINE_FUNCTION_ID, functionId);
+      if (lineNumber > 0) {
+        line.writeUint64(LINE_LINE, lineNumber);
+      }
+      ProtoWriter location = new ProtoWriter();
+      location.writeUint64(LOCATION_ID, id);
+      location.writeMessage(LOCATION_LINE, line);
+      locations.writeMessage(PROFILE_LOCATION, location);
+    }
+    return id;
+  }
+
+  private long function(String frame) {
+    Long id = functionIds.get(frame);
+    if (id == null) {
+      id = functionIds.size() + 1L;
+      functionIds.put(frame, id);
+      long name = string(frame);
+      ProtoWriter function = new ProtoWriter();
+      function.writeUint64(FUNCTION_ID, id);
+      function.writeUint64(FUNCTION_NAME, name);
+      function.writeUint64(FUNCTION_SYSTEM_NAME, name);
+      functions.writeMessage(PROFILE_FUNCTION, function);
+    }
+    return id;
+  }
+
+  private long string(String string) {
+    Long index = strings.get(string);
+    if (index == null) {
+      index = (long) strings.size();
+      strings.put(string, index);
+    }
+    return index;
+  }
+
+  /** Writes the protobuf wire format, see https://protobuf.dev/programming-guides/encoding/. */
+  private static final class ProtoWriter {
+    private static final int WIRE_TYPE_VARINT = 0;
+    private static final int WIRE_TYPE_LENGTH_DELIMITED = 2;
+
+    private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+    void writeUint64(int field, long value) {
+      if (value != 0) {
+        writeTag(field, WIRE_TYPE_VARINT);
+        writeVarint(value);
+      }
+    }
+
+    void writeString(int field, String value) {
+      byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+      writeTag(field, WIRE_TYPE_LENGTH_DELIMITED);
+      writeVarint(bytes.length);
+      out.write(bytes, 0, bytes.length);
+    }
+
+    void writePacked(int field, long[] values) {
+      ProtoWriter packed = new ProtoWriter();
+      for (long value : values) {
+        packed.writeVarint(value);
+      }
+      writeMessage(field, packed);
+    }
+
+    void writeMessage(int field, ProtoWriter message) {
+      writeTag(field, WIRE_TYPE_LENGTH_DELIMITED);
+      writeVarint(message.out.size());
+      append(message);
+    }
+
+    /** Appends the fields already encoded by {@code other}. */
+    void append(ProtoWriter other) {
+      out.writeBytes(other.toByteArray());
+    }
+
+    byte[] toByteArray() {
+      return out.toByteArray();
+    }
+
+    private void writeTag(int field, int wireType) {
+      writeVarint(((long) field << 3) | wireType);
+    }
+
+    private void writeVarint(long value) {
+      while ((value & ~0x7FL) != 0) {
+        out.write((int) ((value & 0x7F) | 0x80));
+        value >>>= 7;
+      }
+      out.write((int) value);
+    }
+  }
+}
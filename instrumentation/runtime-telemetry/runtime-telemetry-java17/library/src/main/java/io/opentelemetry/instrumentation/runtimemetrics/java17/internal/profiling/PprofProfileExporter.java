@@ -0,0 +1,52 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.instrumentation.runtimemetrics.java17.internal.profiling;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Writes each profile to a gzipped pprof file in a directory, named after the profile type and the
+ * start of the profiling interval, e.g. {@code cpu-1697500800000.pb.gz}. Files are written to a
+ * temporary file first and then moved, so that tools watching the directory never see partially
+ * written profiles.
+ *
+ * <p>This class is internal and is hence not for public use. Its APIs are unstable and can change
+ * at any time.
+ */
+public final class PprofProfileExporter implements ProfileExporter {
+
+  private final Path directory;
+
+  public PprofProfileExporter(Path directory) {
+    this.directory = directory;
+  }
+
+  @Override
+  public void export(Profile profile) throws IOException {
+    Files.createDirectories(directory);
+    byte[] encoded = PprofEncoder.encode(profile);
+    String name =
+        profile.getType().getName()
+            + "-"
+            + TimeUnit.NANOSECONDS.toMillis(profile.getStartEpochNanos())
+            + ".pb.gz";
+    Path temporary = Files.createTempFile(directory, name, ".tmp");
+    try {
+      try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(temporary))) {
+        out.write(encoded);
+      }
+      Files.move(temporary, directory.resolve(name), StandardCopyOption.REPLACE_EXISTING);
+    } finally {
+      Files.deleteIfExists(temporary);
+    }
+  }
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.instrumentation.runtimemetrics.java17.internal.profiling;
+
+import java.util.List;
+import javax.annotation.Nullable;
+
+/**
+ * The samples of one {@link ProfileType} collected during a profiling interval, aggregated by
+ * stack and span.
+ *
+ * <p>This class is internal and is hence not for public use. Its APIs are unstable and can change
+ * at any time.
+ */
+public final class Profile {
+
+  private final ProfileType type;
+  private final long startEpochNanos;
+  private final long endEpochNanos;
+  private final long periodNanos;
+  private final List<Sample> samples;
+
+  Profile(
+      ProfileType type,
+      long startEpochNanos,
+      long endEpochNanos,
+      long periodNanos,
+      List<Sample> samples) {
+    this.type = type;
+    this.startEpochNanos = startEpochNanos;
+    this.endEpochNanos = endEpochNanos;
+    this.periodNanos = periodNanos;
+    this.samples = samples;
+  }
+
+  public ProfileType getType() {
+    return type;
+  }
+
+  public long getStartEpochNanos() {
+    return startEpochNanos;
+  }
+
+  public long getEndEpochNanos() {
+    return endEpochNanos;
+  }
+
+  /** Returns the sampling period of CPU profiles, 0 for allocation profiles. */
+  public long getPeriodNanos() {
+    return periodNanos;
+  }
+
+  public List<Sample> getSamples() {
+    return samples;
+  }
+
+  /** The samples of a stack taken while a span, or no span, was current. */
+  public static final class Sample {
+    private final Stack stack;
+    @Nullable private final String traceId;
+    @Nullable private final String spanId;
+    private long count;
+    private long value;
+
+    Sample(Stack stack, @Nullable String traceId, @Nullable String spanId) {
+      this.stack = stack;
+      this.traceId = traceId;
+      this.spanId = spanId;
+    }
+
+    void add(long value) {
+      this.count++;
+      this.value += value;
+    }
+
+    public Stack getStack() {
+      return stack;
+    }
+
+    @Nullable
+    public String getTraceId() {
+      return traceId;
+    }
+
+    @Nullable
+    public String getSpanId() {
+      return spanId;
+    }
+
+    /** Returns the number of samples. */
+    public long getCount() {
+      return count;
+    }
+
+    /** Returns the sum of the sample values, in the unit of the {@link ProfileType}. */
+    public long getValue() {
+      return value;
+    }
+  }
+}
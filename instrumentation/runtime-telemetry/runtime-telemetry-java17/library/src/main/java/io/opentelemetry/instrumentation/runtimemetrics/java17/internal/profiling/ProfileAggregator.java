@@ -0,0 +1,150 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.instrumentation.runtimemetrics.java17.internal.profiling;
+
+import io.opentelemetry.instrumentation.runtimemetrics.java17.internal.ThreadGrouper;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import javax.annotation.Nullable;
+
+/**
+ * Aggregates the samples of a profiling interval by stack and by the span that was current on the
+ * sampled thread. Both the interned stacks and the distinct samples of an interval are bounded by
+ * {@code maxStacks}, samples that do not fit are aggregated into the {@link Stack#OTHER} stack.
+ *
+ * <p>Samples and span changes are recorded on the thread of the recording stream, while the last
+ * interval is drained by the thread closing the profiler, so the methods of this class are
+ * synchronized.
+ */
+final class ProfileAggregator {
+
+  // threads which ended while a span was current are never removed, bound them
+  private static final int MAX_THREADS_WITH_SPAN = 10_000;
+
+  private static final SampleKey OTHER = new SampleKey(Stack.OTHER, null, null);
+
+  private final int maxStacks;
+  private final long periodNanos;
+  private final StackInterner interner;
+  private final Map<Long, SpanIds> spans = ThreadGrouper.lruMap(MAX_THREADS_WITH_SPAN);
+  private final Map<ProfileType, Map<SampleKey, Profile.Sample>> samples =
+      new EnumMap<>(ProfileType.class);
+  private int sampleCount;
+  private long intervalStartEpochNanos;
+
+  ProfileAggregator(int maxStacks, long periodNanos, long startEpochNanos) {
+    this.maxStacks = maxStacks;
+    this.periodNanos = periodNanos;
+    this.interner = new StackInterner(maxStacks);
+    this.intervalStartEpochNanos = startEpochNanos;
+    for (ProfileType type : ProfileType.values()) {
+      samples.put(type, new HashMap<>());
+    }
+  }
+
+  /** Records the span that is now current on the thread, {@code null} when there is none. */
+  synchronized void setSpan(long threadId, @Nullable String traceId, @Nullable String spanId) {
+    if (traceId == null || traceId.isEmpty() || spanId == null) {
+      spans.remove(threadId);
+    } else {
+      spans.put(threadId, new SpanIds(traceId, spanId));
+    }
+  }
+
+  synchronized void record(ProfileType type, long threadId, Stack stack, long value) {
+    SpanIds span = spans.get(threadId);
+    String traceId = span == null ? null : span.traceId;
+    String spanId = span == null ? null : span.spanId;
+    Map<SampleKey, Profile.Sample> typeSamples = samples.get(type);
+    SampleKey key = new SampleKey(stack, traceId, spanId);
+    Profile.Sample sample = typeSamples.get(key);
+    if (sample == null) {
+      if (sampleCount >= maxStacks) {
+        key = OTHER;
+        sample = typeSamples.get(key);
+      } else {
+        key = new SampleKey(interner.intern(stack), traceId, spanId);
+      }
+      if (sample == null) {
+        sample = new Profile.Sample(key.stack, key.traceId, key.spanId);
+        typeSamples.put(key, sample);
+        sampleCount++;
+      }
+    }
+    sample.add(value);
+  }
+
+  /** Returns the profiles of the interval ending now, and starts the next interval. */
+  synchronized List<Profile> drain(long endEpochNanos) {
+    List<Profile> profiles = new ArrayList<>();
+    for (ProfileType type : ProfileType.values()) {
+      Map<SampleKey, Profile.Sample> typeSamples = samples.get(type);
+      if (!typeSamples.isEmpty()) {
+        profiles.add(
+            new Profile(
+                type,
+                intervalStartEpochNanos,
+                endEpochNanos,
+                type == ProfileType.CPU ? periodNanos : 0,
+                new ArrayList<>(typeSamples.values())));
+        samples.put(type, new HashMap<>());
+      }
+    }
+    sampleCount = 0;
+    intervalStartEpochNanos = endEpochNanos;
+    return profiles;
+  }
+
+  // Visible for testing
+  synchronized int getInternedStackCount() {
+    return interner.size();
+  }
+
+  private static final class SpanIds {
+    private final String traceId;
+    private final String spanId;
+
+    private SpanIds(String traceId, String spanId) {
+      this.traceId = traceId;
+      this.spanId = spanId;
+    }
+  }
+
+  private static final class SampleKey {
+    private final Stack stack;
+    @Nullable private final String traceId;
+    @Nullable private final String spanId;
+
+    private SampleKey(Stack stack, @Nullable String traceId, @Nullable String spanId) {
+      this.stack = stack;
+      this.traceId = traceId;
+      this.spanId = spanId;
+    }
+
+    @Override
+    public boolean equals(@Nullable Object obj) {
+      if (this == obj) {
+        return true;
+      }
+      if (!(obj instanceof SampleKey)) {
+        return false;
+      }
+      SampleKey other = (SampleKey) obj;
+      return stack.equals(other.stack)
+          && Objects.equals(traceId, other.traceId)
+          && Objects.equals(spanId, other.spanId);
+    }
+
+    @Override
+    public int hashCode() {
+      return 31 * (31 * stack.hashCode() + Objects.hashCode(traceId)) + Objects.hashCode(spanId);
+    }
+  }
+}
@@ -0,0 +1,41 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.instrumentation.runtimemetrics.java17.internal.profiling;
+
+/**
+ * The kinds of profiles, with the type and unit of their sample values.
+ *
+ * <p>This class is internal and is hence not for public use. Its APIs are unstable and can change
+ * at any time.
+ */
+public enum ProfileType {
+  /** Sampled stacks of the threads running Java code, valued with the sampling period. */
+  CPU("cpu", "cpu", "nanoseconds"),
+  /** Sampled allocations, valued with the bytes allocated since the previous sample. */
+  ALLOCATION("allocation", "alloc_space", "bytes");
+
+  private final String name;
+  private final String valueType;
+  private final String unit;
+
+  ProfileType(String name, String valueType, String unit) {
+    this.name = name;
+    this.valueType = valueType;
+    this.unit = unit;
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  public String getValueType() {
+    return valueType;
+  }
+
+  public String getUnit() {
+    return unit;
+  }
+}
@@ -0,0 +1,51 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.instrumentation.runtimemetrics.java17.internal.profiling;
+
+import io.opentelemetry.api.trace.SpanContext;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event committed when the span of a thread changes, so that the profiler can attribute the
+ * samples of the thread to the span that was current when they were taken. The events of the
+ * recording stream are delivered in order, which makes the span of a sample the span of the last
+ * event of its thread before the sample.
+ *
+ * <p>This class is internal and is hence not for public use. Its APIs are unstable and can change
+ * at any time.
+ */
+@Name(SpanContextEvent.NAME)
+@Label("Span Context")
+@Category("OpenTelemetry")
+@Description("The current span of the thread has changed")
+@StackTrace(false)
+public final class SpanContextEvent extends Event {
+
+  public static final String NAME = "io.opentelemetry.SpanContext";
+
+  @Label("Trace ID")
+  String traceId;
+
+  @Label("Span ID")
+  String spanId;
+
+  /** Records that the span of the current thread is now {@code spanContext}. */
+  public static void commit(SpanContext spanContext) {
+    SpanContextEvent event = new SpanContextEvent();
+    if (event.isEnabled()) {
+      if (spanContext.isValid()) {
+        event.traceId = spanContext.getTraceId();
+        event.spanId = spanContext.getSpanId();
+      }
+      event.commit();
+    }
+  }
+}
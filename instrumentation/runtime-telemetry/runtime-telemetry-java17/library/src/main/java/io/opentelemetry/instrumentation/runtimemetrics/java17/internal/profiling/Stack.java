@@ -0,0 +1,97 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.instrumentation.runtimemetrics.java17.internal.profiling;
+
+import java.util.Arrays;
+import java.util.List;
+import javax.annotation.Nullable;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedMethod;
+import jdk.jfr.consumer.RecordedStackTrace;
+
+/**
+ * The frames of a sampled stack trace, the leaf frame first.
+ *
+ * <p>This class is internal and is hence not for public use. Its APIs are unstable and can change
+ * at any time.
+ */
+public final class Stack {
+
+  /** Stands for the samples that did not fit in the bounded number of samples of a profile. */
+  public static final Stack OTHER = new Stack(new String[] {"[other]"}, new int[] {0});
+
+  private final String[] frames;
+  private final int[] lineNumbers;
+  private final int hashCode;
+
+  public Stack(String[] frames, int[] lineNumbers) {
+    this.frames = frames;
+    this.lineNumbers = lineNumbers;
+    this.hashCode = 31 * Arrays.hashCode(frames) + Arrays.hashCode(lineNumbers);
+  }
+
+  @Nullable
+  public static Stack from(@Nullable RecordedStackTrace stackTrace) {
+    if (stackTrace == null) {
+      return null;
+    }
+    List<RecordedFrame> recordedFrames = stackTrace.getFrames();
+    String[] frames = new String[recordedFrames.size()];
+    int[] lineNumbers = new int[recordedFrames.size()];
+    for (int i = 0; i < frames.length; i++) {
+      RecordedFrame frame = recordedFrames.get(i);
+      RecordedMethod method = frame.getMethod();
+      frames[i] = method.getType().getName() + "." + method.getName();
+      lineNumbers[i] = frame.getLineNumber();
+    }
+    return new Stack(frames, lineNumbers);
+  }
+
+  public int size() {
+    return frames.length;
+  }
+
+  /** Returns the name of the frame at {@code index}, where the leaf frame is at index 0. */
+  public String getFrame(int index) {
+    return frames[index];
+  }
+
+  /** Returns the line number of the frame at {@code index}, or -1 when it is not known. */
+  public int getLineNumber(int index) {
+    return lineNumbers[index];
+  }
+
+  /** Returns the frames in the folded stack format, the root frame first, separated by ';'. */
+  public String toFolded() {
+    StringBuilder builder = new StringBuilder();
+    for (int i = frames.length - 1; i >= 0; i--) {
+      builder.append(frames[i]);
+      if (i > 0) {
+        builder.append(';');
+      }
+    }
+    return builder.toString();
+  }
+
+  @Override
+  public boolean equals(@Nullable Object obj) {
+    if (this == obj) {
+      return true;
+    }
+    if (!(obj instanceof Stack)) {
+      return false;
+    }
+    Stack other = (Stack) obj;
+    return hashCode == other.hashCode
+        && Arrays.equals(frames, other.frames)
+        && Arrays.equals(lineNumbers, other.lineNumbers);
+  }
+
+  @Override
+  public int hashCode() {
+    return hashCode;
+  }
+}
@@ -0,0 +1,39 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.instrumentation.runtimemetrics.java17.internal.profiling;
+
+import io.opentelemetry.instrumentation.runtimemetrics.java17.internal.ThreadGrouper;
+import java.util.Map;
+
+/**
+ * Returns the same {@link Stack} instance for equal stacks, so that the samples of a hot stack
+ * share a single copy of its frames. At most {@code maxStacks} stacks are kept, the least recently
+ * sampled ones are dropped first; dropping a stack only means that its next sample is interned
+ * again.
+ *
+ * <p>This class is not thread safe.
+ */
+final class StackInterner {
+
+  private final Map<Stack, Stack> stacks;
+
+  StackInterner(int maxStacks) {
+    stacks = ThreadGrouper.lruMap(maxStacks);
+  }
+
+  Stack intern(Stack stack) {
+    Stack interned = stacks.get(stack);
+    if (interned == null) {
+      stacks.put(stack, stack);
+      return stack;
+    }
+    return interned;
+  }
+
+  int size() {
+    return stacks.size();
+  }
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.instrumentation.runtimemetrics.java17;
+
+import static io.opentelemetry.instrumentation.runtimemetrics.java17.JfrEventMonitor.MAX_ADAPTIVE_THRESHOLD;
+import static io.opentelemetry.instrumentation.runtimemetrics.java17.JfrEventMonitor.MIN_ADAPTIVE_THRESHOLD;
+import static io.opentelemetry.instrumentation.runtimemetrics.java17.JfrEventMonitor.QUIET_INTERVALS_BEFORE_LOWERING;
+import static io.opentelemetry.instrumentation.runtimemetrics.java17.JfrEventMonitor.nextThreshold;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import org.junit.jupiter.api.Test;
+
+class JfrEventMonitorTest {
+
+  @Test
+  void raisesThresholdOverBudget() {
+    Duration threshold = nextThreshold(Duration.ZERO, Duration.ZERO, 5000, 1000, 0);
+    assertThat(threshold).isEqualTo(MIN_ADAPTIVE_THRESHOLD);
+
+    threshold = nextThreshold(threshold, Duration.ZERO, 5000, 1000, 0);
+    assertThat(threshold).isEqualTo(MIN_ADAPTIVE_THRESHOLD.multipliedBy(2));
+
+    for (int i = 0; i < 20; i++) {
+      threshold = nextThreshold(threshold, Duration.ZERO, 5000, 1000, 0);
+    }
+    assertThat(threshold).isEqualTo(MAX_ADAPTIVE_THRESHOLD);
+  }
+
+  @Test
+  void keepsThresholdWithinBudget() {
+    Duration threshold = Duration.ofMillis(8);
+
+    assertThat(nextThreshold(threshold, Duration.ZERO, 1000, 1000, 0)).isEqualTo(threshold);
+    assertThat(nextThreshold(threshold, Duration.ZERO, 300, 1000, 0)).isEqualTo(threshold);
+  }
+
+  @Test
+  void lowersThresholdBackToInitial() {
+    Duration initial = Duration.ofMillis(5);
+    int quiet = QUIET_INTERVALS_BEFORE_LOWERING;
+
+    assertThat(nextThreshold(Duration.ofMillis(40), initial, 10, 1000, quiet))
+        .isEqualTo(Duration.ofMillis(20));
+    assertThat(nextThreshold(Duration.ofMillis(8), initial, 10, 1000, quiet)).isEqualTo(initial);
+    assertThat(nextThreshold(initial, initial, 10, 1000, quiet)).isEqualTo(initial);
+    assertThat(nextThreshold(MIN_ADAPTIVE_THRESHOLD, Duration.ZERO, 10, 1000, quiet))
+        .isEqualTo(Duration.ZERO);
+  }
+
+  @Test
+  void lowersThresholdOnlyAfterQuietIntervals() {
+    Duration threshold = Duration.ofMillis(40);
+
+    assertThat(nextThreshold(threshold, Duration.ZERO, 0, 1000, 1)).isEqualTo(threshold);
+    assertThat(
+            nextThreshold(threshold, Duration.ZERO, 0, 1000, QUIET_INTERVALS_BEFORE_LOWERING - 1))
+        .isEqualTo(threshold);
+  }
+
+  @Test
+  void keepsConfiguredThresholdAboveMaximum() {
+    Duration threshold = Duration.ofSeconds(2);
+
+    assertThat(nextThreshold(threshold, threshold, 5000, 1000, 0)).isEqualTo(threshold);
+  }
+}
@@ -0,0 +1,54 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.instrumentation.runtimemetrics.java17;
+
+import static io.opentelemetry.api.common.AttributeKey.stringKey;
+import static io.opentelemetry.instrumentation.runtimemetrics.java17.internal.Constants.MILLISECONDS;
+import static io.opentelemetry.sdk.testing.assertj.OpenTelemetryAssertions.assertThat;
+import static io.opentelemetry.sdk.testing.assertj.OpenTelemetryAssertions.equalTo;
+
+import java.time.Duration;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+class JfrSelfMetricsTest {
+
+  @RegisterExtension
+  JfrExtension jfrExtension =
+      new JfrExtension(
+          builder ->
+              builder
+                  .disableAllFeatures()
+                  .enableFeature(JfrFeature.CPU_UTILIZATION_METRICS)
+                  .setPeriod(JfrFeature.CPU_UTILIZATION_METRICS, Duration.ofMillis(100))
+                  .enableJfrSelfMetrics());
+
+  @Test
+  void shouldReportHandledEvents() {
+    jfrExtension.waitAndAssertMetrics(
+        metric ->
+            metric
+                .hasName("process.runtime.jvm.jfr.events")
+                .hasUnit("{event}")
+                .hasDescription("Number of JFR events handled")
+                .hasLongSumSatisfying(
+                    sum ->
+                        sum.isMonotonic()
+                            .hasPointsSatisfying(
+                                point ->
+                                    point
+                                        .hasAttributesSatisfying(
+                                            equalTo(stringKey("event"), "jdk.CPULoad"))
+                                        .satisfies(
+                                            data -> assertThat(data.getValue()).isPositive())))),
+        metric ->
+            metric
+                .hasName("process.runtime.jvm.jfr.processing_time")
+                .hasUnit(MILLISECONDS)
+                .hasDescription("Time spent handling JFR events")
+                .hasDoubleSumSatisfying(sum -> sum.isMonotonic()));
+  }
+}
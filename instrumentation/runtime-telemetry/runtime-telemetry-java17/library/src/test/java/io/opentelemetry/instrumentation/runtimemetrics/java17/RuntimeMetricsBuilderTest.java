@@ -6,13 +6,18 @@
 package io.opentelemetry.instrumentation.runtimemetrics.java17;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.entry;
 
 import io.opentelemetry.api.OpenTelemetry;
+import java.nio.file.Path;
+import java.time.Duration;
 import java.util.Arrays;
 import java.util.HashMap;
 import org.junit.jupiter.api.Assumptions;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
 class RuntimeMetricsBuilderTest {
 
@@ -61,6 +66,79 @@ class RuntimeMetricsBuilderTest {
     assertThat(builder.enabledFeatureMap.get(JfrFeature.BUFFER_METRICS)).isFalse();
   }
 
+  @Test
+  void featureSettings() {
+    var builder =
+        new RuntimeMetricsBuilder(OpenTelemetry.noop())
+            .setThreshold(JfrFeature.LOCK_METRICS, Duration.ofMillis(10))
+            .setPeriod(JfrFeature.CPU_UTILIZATION_METRICS, Duration.ofSeconds(5))
+            .setStackTraceEnabled(JfrFeature.MEMORY_ALLOCATION_METRICS, false)
+            .enableAdaptiveThresholds(1000)
+            .enableJfrSelfMetrics();
+
+    JfrFeatureSettings settings = builder.featureSettings;
+    assertThat(settings.thresholds)
+        .containsOnly(entry(JfrFeature.LOCK_METRICS, Duration.ofMillis(10)));
+    assertThat(settings.periods)
+        .containsOnly(entry(JfrFeature.CPU_UTILIZATION_METRICS, Duration.ofSeconds(5)));
+    assertThat(settings.stackTraces)
+        .containsOnly(entry(JfrFeature.MEMORY_ALLOCATION_METRICS, false));
+    assertThat(settings.getMaxEventsPerSecond()).isEqualTo(1000);
+    assertThat(settings.isAdaptive()).isTrue();
+    assertThat(settings.isSelfMetricsEnabled()).isTrue();
+  }
+
+  @Test
+  void invalidFeatureSettings() {
+    var builder = new RuntimeMetricsBuilder(OpenTelemetry.noop());
+
+    assertThatThrownBy(() -> builder.setThreshold(JfrFeature.LOCK_METRICS, Duration.ofMillis(-1)))
+        .isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> builder.setPeriod(JfrFeature.CPU_UTILIZATION_METRICS, Duration.ZERO))
+        .isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> builder.enableAdaptiveThresholds(0))
+        .isInstanceOf(IllegalArgumentException.class);
+    assertThat(builder.featureSettings.isMonitoringEnabled()).isFalse();
+  }
+
+  @Test
+  void buildWithFeatureSettings() {
+    try (var jfrTelemetry =
+        new RuntimeMetricsBuilder(OpenTelemetry.noop())
+            .setThreshold(JfrFeature.NETWORK_IO_METRICS, Duration.ofMillis(5))
+            .setStackTraceEnabled(JfrFeature.MEMORY_ALLOCATION_METRICS, false)
+            .enableAdaptiveThresholds(1000)
+            .enableJfrSelfMetrics()
+            .build()) {
+      assertThat(jfrTelemetry.getJfrRuntimeMetrics().getRecordedEventHandlers())
+          .hasSizeGreaterThan(0);
+    }
+  }
+
+  @Test
+  void buildWithProfilingOnly(@TempDir Path directory) {
+    try (var jfrTelemetry =
+        new RuntimeMetricsBuilder(OpenTelemetry.noop())
+            .disableAllFeatures()
+            .enableProfiling(directory)
+            .setProfilingInterval(Duration.ofSeconds(10))
+            .setMaxProfiledStacks(100)
+            .build()) {
+      assertThat(jfrTelemetry.getJfrRuntimeMetrics()).isNotNull();
+      assertThat(jfrTelemetry.getJfrRuntimeMetrics().getRecordedEventHandlers()).isEmpty();
+    }
+  }
+
+  @Test
+  void invalidProfilingSettings() {
+    var builder = new RuntimeMetricsBuilder(OpenTelemetry.noop());
+
+    assertThatThrownBy(() -> builder.setProfilingInterval(Duration.ZERO))
+        .isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> builder.setMaxProfiledStacks(0))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
   @Test
   void build() {
     var openTelemetry = OpenTelemetry.noop();
@@ -0,0 +1,92 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.instrumentation.runtimemetrics.java17.internal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.opentelemetry.instrumentation.runtimemetrics.java17.JfrFeature;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import jdk.jfr.consumer.RecordedEvent;
+import org.junit.jupiter.api.Test;
+
+class AbstractThreadDispatchingHandlerTest {
+
+  @Test
+  void perThreadStateIsBounded() {
+    ThreadGrouper grouper = new ThreadGrouper(List.of(), 100);
+    TestHandler handler = new TestHandler(grouper);
+
+    // a million short-lived threads, each with a unique name
+    for (int i = 0; i < 1_000_000; i++) {
+      handler.getPerThreadSummarizer(grouper.groupedName("Thread-" + i));
+    }
+
+    assertThat(handler.getPerThreadSummarizerCount()).isEqualTo(100);
+    assertThat(handler.created).hasValue(1_000_000);
+  }
+
+  @Test
+  void recentlyUsedThreadGroupsAreKept() {
+    ThreadGrouper grouper = new ThreadGrouper(List.of(), 2);
+    TestHandler handler = new TestHandler(grouper);
+
+    Consumer<RecordedEvent> main = handler.getPerThreadSummarizer("main");
+    handler.getPerThreadSummarizer("worker-1");
+    handler.getPerThreadSummarizer("main");
+    handler.getPerThreadSummarizer("worker-2");
+
+    assertThat(handler.getPerThreadSummarizer("main")).isSameAs(main);
+    assertThat(handler.created).hasValue(3);
+  }
+
+  @Test
+  void threadsAreGroupedByRules() {
+    ThreadGrouper grouper =
+        new ThreadGrouper(
+            List.of(
+                new ThreadGrouper.Rule("^pool-(\\d+)-thread-\\d+$", "pool-$1"),
+                new ThreadGrouper.Rule("-\\d+$", "")),
+            100);
+    TestHandler handler = new TestHandler(grouper);
+
+    for (int i = 0; i < 1_000_000; i++) {
+      handler.getPerThreadSummarizer(grouper.groupedName("pool-1-thread-" + i));
+      handler.getPerThreadSummarizer(grouper.groupedName("http-nio-8080-exec-" + i));
+    }
+
+    assertThat(grouper.groupedName("pool-2-thread-7")).isEqualTo("pool-2");
+    assertThat(grouper.groupedName("http-nio-8080-exec-7")).isEqualTo("http-nio-8080-exec");
+    assertThat(grouper.groupedName("main")).isEqualTo("main");
+    assertThat(handler.getPerThreadSummarizerCount()).isEqualTo(2);
+    assertThat(handler.created).hasValue(2);
+  }
+
+  private static class TestHandler extends AbstractThreadDispatchingHandler {
+    private final AtomicInteger created = new AtomicInteger();
+
+    TestHandler(ThreadGrouper grouper) {
+      super(grouper);
+    }
+
+    @Override
+    public String getEventName() {
+      return "test.Event";
+    }
+
+    @Override
+    public JfrFeature getFeature() {
+      return JfrFeature.LOCK_METRICS;
+    }
+
+    @Override
+    public Consumer<RecordedEvent> createPerThreadSummarizer(String threadName) {
+      created.incrementAndGet();
+      return event -> {};
+    }
+  }
+}
@@ -0,0 +1,62 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.instrumentation.runtimemetrics.java17.internal.profiling;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.opentelemetry.sdk.logs.SdkLoggerProvider;
+import io.opentelemetry.sdk.logs.data.LogRecordData;
+import io.opentelemetry.sdk.logs.export.SimpleLogRecordProcessor;
+import io.opentelemetry.sdk.testing.exporter.InMemoryLogRecordExporter;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class LogRecordProfileExporterTest {
+
+  private static final String TRACE_ID = "0123456789abcdef0123456789abcdef";
+  private static final String SPAN_ID = "0123456789abcdef";
+
+  @Test
+  void exportsLogRecordPerSpan() {
+    InMemoryLogRecordExporter logRecordExporter = InMemoryLogRecordExporter.create();
+    SdkLoggerProvider loggerProvider =
+        SdkLoggerProvider.builder()
+            .addLogRecordProcessor(SimpleLogRecordProcessor.create(logRecordExporter))
+            .build();
+    LogRecordProfileExporter exporter =
+        new LogRecordProfileExporter(loggerProvider.get("profiler"));
+
+    ProfileAggregator aggregator = new ProfileAggregator(100, 10, 1000);
+    aggregator.record(ProfileType.CPU, 1, ProfileAggregatorTest.stack("idle", "run"), 10);
+    aggregator.setSpan(1, TRACE_ID, SPAN_ID);
+    aggregator.record(ProfileType.CPU, 1, ProfileAggregatorTest.stack("work", "run"), 10);
+    aggregator.record(ProfileType.CPU, 1, ProfileAggregatorTest.stack("work", "run"), 10);
+    aggregator.drain(2000).forEach(exporter::export);
+
+    List<LogRecordData> logRecords = logRecordExporter.getFinishedLogRecordItems();
+    assertThat(logRecords).hasSize(2);
+    assertThat(logRecords)
+        .allSatisfy(
+            logRecord -> {
+              assertThat(logRecord.getTimestampEpochNanos()).isEqualTo(1000);
+              assertThat(logRecord.getAttributes().get(LogRecordProfileExporter.PROFILE_TYPE))
+                  .isEqualTo("cpu");
+              assertThat(logRecord.getAttributes().get(LogRecordProfileExporter.PROFILE_UNIT))
+                  .isEqualTo("nanoseconds");
+            })
+        .anySatisfy(
+            logRecord -> {
+              assertThat(logRecord.getSpanContext().isValid()).isFalse();
+              assertThat(logRecord.getBody().asString()).isEqualTo("run;idle 10\n");
+            })
+        .anySatisfy(
+            logRecord -> {
+              assertThat(logRecord.getSpanContext().getTraceId()).isEqualTo(TRACE_ID);
+              assertThat(logRecord.getSpanContext().getSpanId()).isEqualTo(SPAN_ID);
+              assertThat(logRecord.getBody().asString()).isEqualTo("run;work 20\n");
+            });
+  }
+}
@@ -0,0 +1,55 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.instrumentation.runtimemetrics.java17.internal.profiling;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class PprofProfileExporterTest {
+
+  @TempDir Path directory;
+
+  @Test
+  void writesGzippedProfile() throws IOException {
+    ProfileAggregator aggregator = new ProfileAggregator(100, 10_000_000, 1_000_000_000);
+    aggregator.setSpan(1, "0123456789abcdef0123456789abcdef", "0123456789abcdef");
+    Stack stack =
+        new Stack(
+            new String[] {"com.example.Worker.work", "java.lang.Thread.run"}, new int[] {42, 7});
+    aggregator.record(ProfileType.CPU, 1, stack, 10_000_000);
+    Profile profile = aggregator.drain(2_000_000_000).get(0);
+
+    new PprofProfileExporter(directory).export(profile);
+
+    Path file = directory.resolve("cpu-1000.pb.gz");
+    // the temporary file has been moved
+    try (Stream<Path> files = Files.list(directory)) {
+      assertThat(files).containsExactly(file);
+    }
+    byte[] encoded;
+    try (InputStream in = new GZIPInputStream(Files.newInputStream(file))) {
+      encoded = in.readAllBytes();
+    }
+    assertThat(encoded).isEqualTo(PprofEncoder.encode(profile));
+    String strings = new String(encoded, StandardCharsets.UTF_8);
+    assertThat(strings)
+        .contains("com.example.Worker.work")
+        .contains("java.lang.Thread.run")
+        .contains("cpu")
+        .contains("nanoseconds")
+        .contains("trace_id")
+        .contains("0123456789abcdef0123456789abcdef");
+  }
+}
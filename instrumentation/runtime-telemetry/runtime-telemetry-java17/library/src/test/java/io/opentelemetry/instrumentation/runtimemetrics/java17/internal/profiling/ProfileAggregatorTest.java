@@ -0,0 +1,113 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.instrumentation.runtimemetrics.java17.internal.profiling;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class ProfileAggregatorTest {
+
+  private static final String TRACE_ID = "0123456789abcdef0123456789abcdef";
+  private static final String SPAN_ID = "0123456789abcdef";
+
+  static Stack stack(String... frames) {
+    return new Stack(frames, new int[frames.length]);
+  }
+
+  @Test
+  void aggregatesSamplesByStack() {
+    ProfileAggregator aggregator = new ProfileAggregator(100, 10, 1000);
+
+    aggregator.record(ProfileType.CPU, 1, stack("work", "run"), 10);
+    aggregator.record(ProfileType.CPU, 2, stack("work", "run"), 10);
+    aggregator.record(ProfileType.CPU, 1, stack("sleep", "run"), 10);
+    aggregator.record(ProfileType.ALLOCATION, 1, stack("work", "run"), 512);
+
+    List<Profile> profiles = aggregator.drain(2000);
+
+    assertThat(profiles).hasSize(2);
+    Profile cpu = profiles.get(0);
+    assertThat(cpu.getType()).isEqualTo(ProfileType.CPU);
+    assertThat(cpu.getStartEpochNanos()).isEqualTo(1000);
+    assertThat(cpu.getEndEpochNanos()).isEqualTo(2000);
+    assertThat(cpu.getPeriodNanos()).isEqualTo(10);
+    assertThat(cpu.getSamples())
+        .anySatisfy(
+            sample -> {
+              assertThat(sample.getStack().toFolded()).isEqualTo("run;work");
+              assertThat(sample.getCount()).isEqualTo(2);
+              assertThat(sample.getValue()).isEqualTo(20);
+            })
+        .anySatisfy(sample -> assertThat(sample.getStack().toFolded()).isEqualTo("run;sleep"));
+    Profile allocation = profiles.get(1);
+    assertThat(allocation.getType()).isEqualTo(ProfileType.ALLOCATION);
+    assertThat(allocation.getPeriodNanos()).isZero();
+    assertThat(allocation.getSamples())
+        .singleElement()
+        .satisfies(sample -> assertThat(sample.getValue()).isEqualTo(512));
+
+    // the next interval starts empty
+    assertThat(aggregator.drain(3000)).isEmpty();
+  }
+
+  @Test
+  void attributesSamplesToCurrentSpan() {
+    ProfileAggregator aggregator = new ProfileAggregator(100, 10, 0);
+
+    aggregator.setSpan(1, TRACE_ID, SPAN_ID);
+    aggregator.record(ProfileType.CPU, 1, stack("work"), 10);
+    aggregator.record(ProfileType.CPU, 2, stack("work"), 10);
+    aggregator.setSpan(1, null, null);
+    aggregator.record(ProfileType.CPU, 1, stack("work"), 10);
+
+    List<Profile.Sample> samples = aggregator.drain(1).get(0).getSamples();
+
+    assertThat(samples).hasSize(2);
+    assertThat(samples)
+        .anySatisfy(
+            sample -> {
+              assertThat(sample.getTraceId()).isEqualTo(TRACE_ID);
+              assertThat(sample.getSpanId()).isEqualTo(SPAN_ID);
+              assertThat(sample.getCount()).isEqualTo(1);
+            })
+        .anySatisfy(
+            sample -> {
+              assertThat(sample.getTraceId()).isNull();
+              assertThat(sample.getCount()).isEqualTo(2);
+            });
+  }
+
+  @Test
+  void boundsStacks() {
+    ProfileAggregator aggregator = new ProfileAggregator(10, 10, 0);
+
+    for (int i = 0; i < 1000; i++) {
+      aggregator.record(ProfileType.CPU, 1, stack("frame" + i), 10);
+    }
+
+    List<Profile.Sample> samples = aggregator.drain(1).get(0).getSamples();
+    assertThat(samples).hasSize(11);
+    assertThat(samples)
+        .filteredOn(sample -> sample.getStack() == Stack.OTHER)
+        .singleElement()
+        .satisfies(sample -> assertThat(sample.getCount()).isEqualTo(990));
+    assertThat(aggregator.getInternedStackCount()).isEqualTo(10);
+  }
+
+  @Test
+  void internsStacks() {
+    ProfileAggregator aggregator = new ProfileAggregator(10, 10, 0);
+
+    aggregator.record(ProfileType.CPU, 1, stack("work", "run"), 10);
+    Stack first = aggregator.drain(1).get(0).getSamples().get(0).getStack();
+    aggregator.record(ProfileType.CPU, 1, stack("work", "run"), 10);
+    Stack second = aggregator.drain(2).get(0).getSamples().get(0).getStack();
+
+    assertThat(second).isSameAs(first);
+  }
+}
@@ -18,6 +18,7 @@ import io.opentelemetry.instrumentation.api.instrumenter.http.HttpServerAttribut
 import io.opentelemetry.instrumentation.api.instrumenter.http.HttpServerMetrics;
 import io.opentelemetry.instrumentation.api.instrumenter.http.HttpSpanNameExtractor;
 import io.opentelemetry.instrumentation.api.instrumenter.http.HttpSpanStatusExtractor;
+import io.opentelemetry.instrumentation.api.internal.InstrumenterUtil;
 import io.opentelemetry.javaagent.bootstrap.internal.CommonConfig;
 import java.util.ArrayList;
 import java.util.List;
@@ -57,15 +58,18 @@ public final class ServletInstrumenterBuilder<REQUEST, RESPONSE> {
                 GlobalOpenTelemetry.get(), instrumentationName, spanNameExtractor)
             .setSpanStatusExtractor(HttpSpanStatusExtractor.create(httpAttributesGetter))
             .setErrorCauseExtractor(errorCauseExtractor)
-            .addAttributesExtractor(
-                HttpServerAttributesExtractor.builder(httpAttributesGetter)
-                    .setCapturedRequestHeaders(CommonConfig.get().getServerRequestHeaders())
-                    .setCapturedResponseHeaders(CommonConfig.get().getServerResponseHeaders())
-                    .setKnownMethods(CommonConfig.get().getKnownHttpRequestMethods())
-                    .build())
-            .addAttributesExtractor(additionalAttributesExtractor)
             .addOperationMetrics(HttpServerMetrics.get())
             .addContextCustomizer(HttpRouteHolder.create(httpAttributesGetter));
+    // the http server attributes are all that the sampler and the http server metrics need, the
+    // servlet specific attributes are only extracted for recording spans
+    InstrumenterUtil.addSamplingRelevantAttributesExtractor(
+        builder,
+        HttpServerAttributesExtractor.builder(httpAttributesGetter)
+            .setCapturedRequestHeaders(CommonConfig.get().getServerRequestHeaders())
+            .setCapturedResponseHeaders(CommonConfig.get().getServerResponseHeaders())
+            .setKnownMethods(CommonConfig.get().getKnownHttpRequestMethods())
+            .build());
+    builder.addAttributesExtractor(additionalAttributesExtractor);
     if (ServletRequestParametersExtractor.enabled()) {
       AttributesExtractor<ServletRequestContext<REQUEST>, ServletResponseContext<RESPONSE>>
           requestParametersExtractor = new ServletRequestParametersExtractor<>(accessor);
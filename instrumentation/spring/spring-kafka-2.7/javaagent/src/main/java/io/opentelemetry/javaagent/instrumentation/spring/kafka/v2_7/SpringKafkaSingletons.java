@@ -6,6 +6,7 @@
 package io.opentelemetry.javaagent.instrumentation.spring.kafka.v2_7;
 
 import io.opentelemetry.api.GlobalOpenTelemetry;
+import io.opentelemetry.instrumentation.kafka.internal.KafkaInstrumenterFactory;
 import io.opentelemetry.instrumentation.spring.kafka.v2_7.SpringKafkaTelemetry;
 import io.opentelemetry.javaagent.bootstrap.internal.ExperimentalConfig;
 import io.opentelemetry.javaagent.bootstrap.internal.InstrumentationConfig;
@@ -19,6 +20,15 @@ public final class SpringKafkaSingletons {
                   .getBoolean("otel.instrumentation.kafka.experimental-span-attributes", false))
           .setMessagingReceiveInstrumentationEnabled(
               ExperimentalConfig.get().messagingReceiveInstrumentationEnabled())
+          .setBatchMaxLinks(
+              InstrumentationConfig.get()
+                  .getInt(
+                      "otel.instrumentation.kafka.experimental-batch-max-links",
+                      KafkaInstrumenterFactory.DEFAULT_MAX_LINKS))
+          .setBatchDeduplicateLinks(
+              InstrumentationConfig.get()
+                  .getBoolean(
+                      "otel.instrumentation.kafka.experimental-batch-deduplicate-links", false))
           .build();
 
   public static SpringKafkaTelemetry telemetry() {
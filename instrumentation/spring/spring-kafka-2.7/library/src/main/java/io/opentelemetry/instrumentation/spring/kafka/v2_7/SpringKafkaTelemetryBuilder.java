@@ -21,6 +21,8 @@ public final class SpringKafkaTelemetryBuilder {
   private List<String> capturedHeaders = emptyList();
   private boolean captureExperimentalSpanAttributes = false;
   private boolean messagingReceiveInstrumentationEnabled = false;
+  private int batchMaxLinks = KafkaInstrumenterFactory.DEFAULT_MAX_LINKS;
+  private boolean batchDeduplicateLinks = false;
 
   SpringKafkaTelemetryBuilder(OpenTelemetry openTelemetry) {
     this.openTelemetry = openTelemetry;
@@ -57,6 +59,32 @@ public final class SpringKafkaTelemetryBuilder {
     return this;
   }
 
+  /**
+   * Sets the maximum number of records a batch process span is linked to. The headers of the
+   * records after that are not parsed, and the number of records that are not linked is recorded in
+   * the {@code kafka.batch.elided_link_count} attribute. Defaults to 128.
+   *
+   * @throws IllegalArgumentException if {@code batchMaxLinks} is negative
+   */
+  @CanIgnoreReturnValue
+  public SpringKafkaTelemetryBuilder setBatchMaxLinks(int batchMaxLinks) {
+    if (batchMaxLinks < 0) {
+      throw new IllegalArgumentException("batchMaxLinks must not be negative: " + batchMaxLinks);
+    }
+    this.batchMaxLinks = batchMaxLinks;
+    return this;
+  }
+
+  /**
+   * Sets whether a batch process span should be linked to a single record per trace, instead of to
+   * every record of the batch.
+   */
+  @CanIgnoreReturnValue
+  public SpringKafkaTelemetryBuilder setBatchDeduplicateLinks(boolean batchDeduplicateLinks) {
+    this.batchDeduplicateLinks = batchDeduplicateLinks;
+    return this;
+  }
+
   /**
    * Returns a new {@link SpringKafkaTelemetry} with the settings of this {@link
    * SpringKafkaTelemetryBuilder}.
@@ -67,6 +95,8 @@ public final class SpringKafkaTelemetryBuilder {
             .setCapturedHeaders(capturedHeaders)
             .setCaptureExperimentalSpanAttributes(captureExperimentalSpanAttributes)
             .setMessagingReceiveInstrumentationEnabled(messagingReceiveInstrumentationEnabled)
+            .setBatchProcessMaxLinks(batchMaxLinks)
+            .setBatchProcessDeduplicateLinks(batchDeduplicateLinks)
             .setErrorCauseExtractor(SpringKafkaErrorCauseExtractor.INSTANCE);
 
     return new SpringKafkaTelemetry(
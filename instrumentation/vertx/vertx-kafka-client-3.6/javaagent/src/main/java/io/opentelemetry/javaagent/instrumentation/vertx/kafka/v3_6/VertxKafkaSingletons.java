@@ -28,7 +28,16 @@ public final class VertxKafkaSingletons {
                 InstrumentationConfig.get()
                     .getBoolean("otel.instrumentation.kafka.experimental-span-attributes", false))
             .setMessagingReceiveInstrumentationEnabled(
-                ExperimentalConfig.get().messagingReceiveInstrumentationEnabled());
+                ExperimentalConfig.get().messagingReceiveInstrumentationEnabled())
+            .setBatchProcessMaxLinks(
+                InstrumentationConfig.get()
+                    .getInt(
+                        "otel.instrumentation.kafka.experimental-batch-max-links",
+                        KafkaInstrumenterFactory.DEFAULT_MAX_LINKS))
+            .setBatchProcessDeduplicateLinks(
+                InstrumentationConfig.get()
+                    .getBoolean(
+                        "otel.instrumentation.kafka.experimental-batch-deduplicate-links", false));
     BATCH_PROCESS_INSTRUMENTER = factory.createBatchProcessInstrumenter();
     PROCESS_INSTRUMENTER = factory.createConsumerProcessInstrumenter();
   }
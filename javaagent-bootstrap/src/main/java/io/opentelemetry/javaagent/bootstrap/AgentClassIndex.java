@@ -0,0 +1,148 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.javaagent.bootstrap;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import javax.annotation.Nullable;
+
+/**
+ * Index of the agent classes that are stored uncompressed in the agent jar. The index is written
+ * by the javaagent build when it is run with {@code -PindexAgentClasses=true}, it maps the names of
+ * the class entries (relative to the internal jar) to the offsets of their local file headers. This
+ * lets the {@link AgentClassLoader} define the classes straight from the memory-mapped agent jar,
+ * without looking up jar entries and inflating them.
+ */
+final class AgentClassIndex {
+
+  // relative to the internal jar, needs to match the javaagent build
+  static final String INDEX_ENTRY_NAME = "META-INF/class-index";
+  private static final int FORMAT_VERSION = 1;
+
+  private static final String META_INF_VERSIONS = "META-INF/versions/";
+
+  private static final int LOCAL_HEADER_SIGNATURE = 0x04034b50;
+  private static final int LOCAL_HEADER_LENGTH = 30;
+  private static final int STORED = 0;
+  // sizes are in a data descriptor following the data, not in the local header
+  private static final int DATA_DESCRIPTOR_FLAG = 0x08;
+
+  private final ByteBuffer mappedJar;
+  private final String jarEntryPrefix;
+  private final Map<String, Integer> localHeaderOffsets;
+  private final boolean hasVersionedEntries;
+
+  /** Returns the index of the agent jar, or {@code null} if the agent jar has no index. */
+  @Nullable
+  static AgentClassIndex open(File javaagentFile, JarFile jarFile, String jarEntryPrefix) {
+    JarEntry indexEntry = jarFile.getJarEntry(jarEntryPrefix + INDEX_ENTRY_NAME);
+    if (indexEntry == null) {
+      return null;
+    }
+    try (DataInputStream in =
+            new DataInputStream(new BufferedInputStream(jarFile.getInputStream(indexEntry)));
+        FileChannel channel = FileChannel.open(javaagentFile.toPath(), StandardOpenOption.READ)) {
+      if (in.readInt() != FORMAT_VERSION) {
+        return null;
+      }
+      int count = in.readInt();
+      Map<String, Integer> localHeaderOffsets = new HashMap<>((int) (count / 0.75f) + 1);
+      boolean hasVersionedEntries = false;
+      for (int i = 0; i < count; i++) {
+        String name = in.readUTF();
+        localHeaderOffsets.put(name, in.readInt());
+        hasVersionedEntries |= name.startsWith(META_INF_VERSIONS);
+      }
+      // the mapping stays valid after the channel is closed
+      ByteBuffer mappedJar = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+      return new AgentClassIndex(
+          mappedJar, jarEntryPrefix, localHeaderOffsets, hasVersionedEntries);
+    } catch (IOException e) {
+      return null;
+    }
+  }
+
+  private AgentClassIndex(
+      ByteBuffer mappedJar,
+      String jarEntryPrefix,
+      Map<String, Integer> localHeaderOffsets,
+      boolean hasVersionedEntries) {
+    this.mappedJar = mappedJar;
+    this.jarEntryPrefix = jarEntryPrefix;
+    this.localHeaderOffsets = localHeaderOffsets;
+    this.hasVersionedEntries = hasVersionedEntries;
+  }
+
+  boolean hasVersionedEntries() {
+    return hasVersionedEntries;
+  }
+
+  /**
+   * Returns a buffer positioned on the bytes of the entry, or {@code null} if the entry is not in
+   * the index.
+   *
+   * @throws IOException if the index doesn't match the agent jar
+   */
+  @Nullable
+  ByteBuffer getEntryBytes(String name) throws IOException {
+    Integer offset = localHeaderOffsets.get(name);
+    if (offset == null) {
+      return null;
+    }
+    // duplicates are big endian, zip headers are little endian
+    ByteBuffer jar = mappedJar.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+    int headerOffset = offset;
+    if (headerOffset < 0
+        || headerOffset > jar.limit() - LOCAL_HEADER_LENGTH
+        || jar.getInt(headerOffset) != LOCAL_HEADER_SIGNATURE
+        || (jar.getShort(headerOffset + 6) & DATA_DESCRIPTOR_FLAG) != 0
+        || jar.getShort(headerOffset + 8) != STORED) {
+      throw new IOException("Agent class index doesn't match the agent jar: " + name);
+    }
+    int size = jar.getInt(headerOffset + 18);
+    int nameLength = jar.getShort(headerOffset + 26) & 0xffff;
+    int extraLength = jar.getShort(headerOffset + 28) & 0xffff;
+    int dataOffset = headerOffset + LOCAL_HEADER_LENGTH + nameLength + extraLength;
+    if (size < 0
+        || dataOffset > jar.limit() - size
+        || !nameMatches(jar, headerOffset + LOCAL_HEADER_LENGTH, nameLength, name)) {
+      throw new IOException("Agent class index doesn't match the agent jar: " + name);
+    }
+    jar.position(dataOffset);
+    jar.limit(dataOffset + size);
+    return jar;
+  }
+
+  // entry names of agent classes are ascii, other names fail the check and the class loader falls
+  // back to looking up the classes in the jar file
+  private boolean nameMatches(ByteBuffer jar, int offset, int length, String name) {
+    if (length != jarEntryPrefix.length() + name.length()) {
+      return false;
+    }
+    for (int i = 0; i < jarEntryPrefix.length(); i++) {
+      if (jar.get(offset + i) != jarEntryPrefix.charAt(i)) {
+        return false;
+      }
+    }
+    int nameOffset = offset + jarEntryPrefix.length();
+    for (int i = 0; i < name.length(); i++) {
+      if (jar.get(nameOffset + i) != name.charAt(i)) {
+        return false;
+      }
+    }
+    return true;
+  }
+}
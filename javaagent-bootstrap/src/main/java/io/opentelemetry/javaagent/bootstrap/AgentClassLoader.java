@@ -16,6 +16,7 @@ import java.net.URL;
 import java.net.URLClassLoader;
 import java.net.URLConnection;
 import java.net.URLStreamHandler;
+import java.nio.ByteBuffer;
 import java.security.AllPermission;
 import java.security.CodeSource;
 import java.security.Permission;
@@ -68,6 +69,8 @@ public class AgentClassLoader extends URLClassLoader {
   private final CodeSource codeSource;
   private final boolean isSecurityManagerSupportEnabled;
   private final Manifest manifest;
+  // present when the agent jar was built with an index of the uncompressed agent classes
+  @Nullable private volatile AgentClassIndex classIndex;
 
   // Used by tests
   public AgentClassLoader(File javaagentFile) {
@@ -107,6 +110,7 @@ public class AgentClassLoader extends URLClassLoader {
           new URL("x-internal-jar", null, 0, "/", new AgentClassLoaderUrlStreamHandler(jarFile));
       codeSource = new CodeSource(javaagentFile.toURI().toURL(), (Certificate[]) null);
       manifest = jarFile.getManifest();
+      classIndex = AgentClassIndex.open(javaagentFile, jarFile, jarEntryPrefix);
     } catch (IOException e) {
       throw new IllegalStateException("Unable to open agent jar", e);
     }
@@ -169,6 +173,21 @@ public class AgentClassLoader extends URLClassLoader {
   }
 
   private Class<?> findAgentClass(String name) throws ClassNotFoundException {
+    AgentClassIndex index = classIndex;
+    if (index != null) {
+      try {
+        ByteBuffer bytes = findIndexedClassBytes(index, name.replace('.', '/') + ".class");
+        if (bytes == null) {
+          return null;
+        }
+        definePackageIfNeeded(name);
+        return defineClass(name, bytes, codeSource);
+      } catch (IOException exception) {
+        // the agent jar was modified after it was indexed, stop using the index
+        classIndex = null;
+      }
+    }
+
     JarEntry jarEntry = findJarEntry(name.replace('.', '/') + ".class");
     if (jarEntry != null) {
       byte[] bytes;
@@ -250,6 +269,23 @@ public class AgentClassLoader extends URLClassLoader {
     return jarEntry;
   }
 
+  // same lookup order as findJarEntry
+  @Nullable
+  private ByteBuffer findIndexedClassBytes(AgentClassIndex index, String name)
+      throws IOException {
+    // shading renames .class to .classdata
+    name += getClassSuffix();
+    if (MULTI_RELEASE_JAR_ENABLE && index.hasVersionedEntries()) {
+      for (int version = JAVA_VERSION; version >= MIN_MULTI_RELEASE_JAR_JAVA_VERSION; version--) {
+        ByteBuffer bytes = index.getEntryBytes(META_INF_VERSIONS + version + "/" + name);
+        if (bytes != null) {
+          return bytes;
+        }
+      }
+    }
+    return index.getEntryBytes(name);
+  }
+
   // suffix appended to class resource names
   // this is in a protected method so that unit tests could override it
   protected String getClassSuffix() {
@@ -9,7 +9,12 @@ import io.opentelemetry.sdk.internal.JavaVersionSpecific
 import spock.lang.Specification
 
 import java.lang.reflect.Field
+import java.nio.file.Files
 import java.util.concurrent.Phaser
+import java.util.zip.CRC32
+import java.util.zip.ZipEntry
+import java.util.zip.ZipFile
+import java.util.zip.ZipOutputStream
 
 class AgentClassLoaderTest extends Specification {
 
@@ -84,4 +89,89 @@ class AgentClassLoaderTest extends Specification {
     // expect a versioned class on java 9+
     jdk8 != javaVersionSpecific.getClass().getName().endsWith("Java9VersionSpecific")
   }
+
+  def "indexed jar"() {
+    setup:
+    boolean jdk8 = "1.8" == System.getProperty("java.specification.version")
+    // sdk is a multi release jar
+    URL multiReleaseJar = JavaVersionSpecific.getProtectionDomain().getCodeSource().getLocation()
+    File indexedJar = Files.createTempFile("indexed", ".jar").toFile()
+    indexedJar.deleteOnExit()
+    writeIndexedJar(new File(multiReleaseJar.toURI()), indexedJar)
+    AgentClassLoader loader = new AgentClassLoader(indexedJar) {
+      @Override
+      protected String getClassSuffix() {
+        return ""
+      }
+    }
+
+    when:
+    Class<?> clazz = loader.loadClass(JavaVersionSpecific.getName())
+
+    then:
+    clazz.getClassLoader() == loader
+    Field field = clazz.getDeclaredField("CURRENT")
+    field.setAccessible(true)
+    Object javaVersionSpecific = field.get(null)
+    // expect a versioned class on java 9+
+    jdk8 != javaVersionSpecific.getClass().getName().endsWith("Java9VersionSpecific")
+    // the classes were defined from the index, which is still in use
+    loader.classIndex != null
+  }
+
+  // same as the indexAgentClasses function of the javaagent build, with an empty internal jar name
+  static void writeIndexedJar(File jar, File indexedJar) {
+    Map<String, Integer> localHeaderOffsets = new LinkedHashMap<>()
+    new ZipFile(jar).withCloseable { zipFile ->
+      def counter = new CountingOutputStream(new FileOutputStream(indexedJar))
+      new ZipOutputStream(counter).withCloseable { out ->
+        for (ZipEntry entry : Collections.list(zipFile.entries())) {
+          byte[] bytes = zipFile.getInputStream(entry).withCloseable { it.bytes }
+          ZipEntry indexedEntry = new ZipEntry(entry.name)
+          if (entry.name.endsWith(".class")) {
+            indexedEntry.method = ZipEntry.STORED
+            indexedEntry.size = bytes.length
+            indexedEntry.compressedSize = bytes.length
+            CRC32 crc = new CRC32()
+            crc.update(bytes)
+            indexedEntry.crc = crc.value
+            localHeaderOffsets.put(entry.name, (int) counter.count)
+          }
+          out.putNextEntry(indexedEntry)
+          out.write(bytes)
+          out.closeEntry()
+        }
+        out.putNextEntry(new ZipEntry(AgentClassIndex.INDEX_ENTRY_NAME))
+        DataOutputStream index = new DataOutputStream(out)
+        index.writeInt(1)
+        index.writeInt(localHeaderOffsets.size())
+        localHeaderOffsets.each { name, offset ->
+          index.writeUTF(name)
+          index.writeInt(offset)
+        }
+        index.flush()
+        out.closeEntry()
+      }
+    }
+  }
+
+  static class CountingOutputStream extends FilterOutputStream {
+    long count
+
+    CountingOutputStream(OutputStream out) {
+      super(out)
+    }
+
+    @Override
+    void write(int b) {
+      out.write(b)
+      count++
+    }
+
+    @Override
+    void write(byte[] b, int off, int len) {
+      out.write(b, off, len)
+      count += len
+    }
+  }
 }
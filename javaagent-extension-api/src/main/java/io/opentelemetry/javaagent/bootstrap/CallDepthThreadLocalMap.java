@@ -5,6 +5,12 @@
 
 package io.opentelemetry.javaagent.bootstrap;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.Arrays;
+import javax.annotation.Nullable;
+
 final class CallDepthThreadLocalMap {
 
   private static final ClassValue<ThreadLocalDepth> TLS =
@@ -15,10 +21,43 @@ final class CallDepthThreadLocalMap {
         }
       };
 
+  // a virtual thread usually runs a single short task that touches few instrumented classes; one
+  // compact thread local per virtual thread is much cheaper than one thread local map entry per
+  // class, which adds up with millions of virtual threads
+  private static final ThreadLocal<CompactCallDepths> VIRTUAL_THREAD_TLS =
+      ThreadLocal.withInitial(CompactCallDepths::new);
+
+  @Nullable private static final MethodHandle isVirtual = findIsVirtual();
+
   static CallDepth getCallDepth(Class<?> k) {
+    if (isVirtualThread()) {
+      return VIRTUAL_THREAD_TLS.get().get(k);
+    }
     return TLS.get(k).get();
   }
 
+  private static boolean isVirtualThread() {
+    if (isVirtual == null) {
+      return false;
+    }
+    try {
+      return (boolean) isVirtual.invokeExact(Thread.currentThread());
+    } catch (Throwable e) {
+      return false;
+    }
+  }
+
+  @Nullable
+  private static MethodHandle findIsVirtual() {
+    try {
+      return MethodHandles.publicLookup()
+          .findVirtual(Thread.class, "isVirtual", MethodType.methodType(boolean.class));
+    } catch (NoSuchMethodException | IllegalAccessException e) {
+      // not running on a jdk that supports virtual threads
+      return null;
+    }
+  }
+
   private static final class ThreadLocalDepth extends ThreadLocal<CallDepth> {
     @Override
     protected CallDepth initialValue() {
@@ -26,5 +65,29 @@ final class CallDepthThreadLocalMap {
     }
   }
 
+  /** The call depths of a single thread, looked up with a linear scan. */
+  private static final class CompactCallDepths {
+    private Class<?>[] keys = new Class<?>[4];
+    private CallDepth[] values = new CallDepth[4];
+    private int size;
+
+    CallDepth get(Class<?> k) {
+      for (int i = 0; i < size; i++) {
+        if (keys[i] == k) {
+          return values[i];
+        }
+      }
+      if (size == keys.length) {
+        keys = Arrays.copyOf(keys, size * 2);
+        values = Arrays.copyOf(values, size * 2);
+      }
+      CallDepth callDepth = new CallDepth();
+      keys[size] = k;
+      values[size] = callDepth;
+      size++;
+      return callDepth;
+    }
+  }
+
   private CallDepthThreadLocalMap() {}
 }
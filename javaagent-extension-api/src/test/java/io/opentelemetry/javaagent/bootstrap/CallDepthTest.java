@@ -6,7 +6,11 @@
 package io.opentelemetry.javaagent.bootstrap;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
 
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import org.junit.jupiter.api.Test;
 
 class CallDepthTest {
@@ -28,4 +32,40 @@ class CallDepthTest {
     assertThat(CallDepth.forClass(Double.class).getAndIncrement()).isZero();
     assertThat(CallDepth.forClass(Double.class).decrementAndGet()).isZero();
   }
+
+  @Test
+  void incrementDecrementOnVirtualThread() throws Exception {
+    Method newVirtualThreadPerTaskExecutor = null;
+    try {
+      newVirtualThreadPerTaskExecutor =
+          Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+    } catch (NoSuchMethodException e) {
+      // not running on a jdk that supports virtual threads
+    }
+    assumeTrue(newVirtualThreadPerTaskExecutor != null);
+
+    ExecutorService executor = (ExecutorService) newVirtualThreadPerTaskExecutor.invoke(null);
+    try {
+      executor.submit(CallDepthTest::incrementDecrementManyClasses).get();
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  private static void incrementDecrementManyClasses() {
+    // more classes than the initial capacity of the virtual thread call depths
+    Class<?>[] classes = {
+      String.class, Integer.class, Long.class, Double.class, Float.class, Short.class,
+    };
+    for (Class<?> cls : classes) {
+      assertThat(CallDepth.forClass(cls).getAndIncrement()).isZero();
+    }
+    for (Class<?> cls : classes) {
+      assertThat(CallDepth.forClass(cls).getAndIncrement()).isOne();
+    }
+    for (Class<?> cls : classes) {
+      assertThat(CallDepth.forClass(cls).decrementAndGet()).isOne();
+      assertThat(CallDepth.forClass(cls).decrementAndGet()).isZero();
+    }
+  }
 }
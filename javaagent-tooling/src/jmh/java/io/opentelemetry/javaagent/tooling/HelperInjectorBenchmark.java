@@ -0,0 +1,177 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.javaagent.tooling;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import net.bytebuddy.ByteBuddy;
+import net.bytebuddy.description.type.TypeDescription;
+import net.bytebuddy.dynamic.DynamicType;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+// injection of the helpers of 50 modules with 40 helpers each into 50 web app class loaders, as on
+// an app server; the helper classes are only defined when they are first referenced, so this
+// measures the bookkeeping that every class loader pays for, run with -prof gc to compare the
+// allocations; coldStart measures the time and the metaspace of starting an application that
+// references only a share of the helpers
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@BenchmarkMode(Mode.AverageTime)
+@State(Scope.Benchmark)
+public class HelperInjectorBenchmark {
+
+  private static final int MODULES = 50;
+  private static final int HELPERS_PER_MODULE = 40;
+  private static final int CLASS_LOADERS = 50;
+
+  private static final TypeDescription instrumentedType =
+      new TypeDescription.Latent("com.example.myapp.Servlet", 0, null);
+
+  private final List<HelperInjector> helperInjectors = new ArrayList<>(MODULES);
+  private ClassLoader injectedClassLoader;
+
+  @Setup
+  public void setUp() {
+    for (int i = 0; i < MODULES; i++) {
+      List<String> helperClassNames = new ArrayList<>(HELPERS_PER_MODULE);
+      for (int j = 0; j < HELPERS_PER_MODULE; j++) {
+        helperClassNames.add("io.opentelemetry.javaagent.instrumentation.m" + i + ".Helper" + j);
+      }
+      helperInjectors.add(
+          new HelperInjector(
+              "module" + i,
+              helperClassNames,
+              Collections.emptyList(),
+              HelperInjectorBenchmark.class.getClassLoader(),
+              null));
+    }
+    injectedClassLoader = newClassLoader();
+    injectAll(injectedClassLoader);
+  }
+
+  @Benchmark
+  public List<ClassLoader> injectHelpers() {
+    List<ClassLoader> classLoaders = new ArrayList<>(CLASS_LOADERS);
+    for (int i = 0; i < CLASS_LOADERS; i++) {
+      ClassLoader classLoader = newClassLoader();
+      injectAll(classLoader);
+      classLoaders.add(classLoader);
+    }
+    return classLoaders;
+  }
+
+  // the ignore matcher checks every class that is loaded
+  @Benchmark
+  public boolean isInjectedClassAppType() {
+    return HelperInjector.isInjectedClass(injectedClassLoader, "com.example.myapp.Main");
+  }
+
+  @Benchmark
+  public boolean isInjectedClassHelper() {
+    return HelperInjector.isInjectedClass(
+        injectedClassLoader, "io.opentelemetry.javaagent.instrumentation.m25.Helper20");
+  }
+
+  // a single shot per fork, so that no helper is defined yet; the metaspace counter is the
+  // metaspace used by the injection and the helpers that the application referenced
+  @Benchmark
+  @BenchmarkMode(Mode.SingleShotTime)
+  @Fork(5)
+  @Warmup(iterations = 0)
+  @Measurement(iterations = 1)
+  @OutputTimeUnit(TimeUnit.MILLISECONDS)
+  public ClassLoader coldStart(ColdStart coldStart, MetaspaceCounter counter) {
+    long metaspaceBefore = metaspaceUsed();
+    ClassLoader classLoader = newClassLoader();
+    for (HelperInjector helperInjector : coldStart.helperInjectors) {
+      helperInjector.transform(null, instrumentedType, classLoader, null, null);
+    }
+    for (String helperClassName : coldStart.referencedHelperClassNames) {
+      HelperInjector.loadHelperClass(classLoader, helperClassName);
+    }
+    counter.metaspaceBytes += metaspaceUsed() - metaspaceBefore;
+    return classLoader;
+  }
+
+  @State(Scope.Benchmark)
+  public static class ColdStart {
+
+    // the share of the helpers of every module that the application references, 100 compares with
+    // defining all helpers eagerly
+    @Param({"10", "100"})
+    public int referencedPercent;
+
+    final List<HelperInjector> helperInjectors = new ArrayList<>(MODULES);
+    final List<String> referencedHelperClassNames = new ArrayList<>();
+
+    @Setup
+    public void setUp() {
+      for (int i = 0; i < MODULES; i++) {
+        List<DynamicType.Unloaded<?>> helpers = new ArrayList<>(HELPERS_PER_MODULE);
+        for (int j = 0; j < HELPERS_PER_MODULE; j++) {
+          String helperClassName =
+              "io.opentelemetry.javaagent.instrumentation.cold" + i + ".Helper" + j;
+          helpers.add(new ByteBuddy().subclass(Object.class).name(helperClassName).make());
+          if (j < HELPERS_PER_MODULE * referencedPercent / 100) {
+            referencedHelperClassNames.add(helperClassName);
+          }
+        }
+        helperInjectors.add(HelperInjector.forDynamicTypes("cold" + i, helpers, null));
+      }
+    }
+  }
+
+  @AuxCounters(AuxCounters.Type.EVENTS)
+  @State(Scope.Thread)
+  public static class MetaspaceCounter {
+
+    public long metaspaceBytes;
+
+    @Setup(Level.Iteration)
+    public void reset() {
+      metaspaceBytes = 0;
+    }
+  }
+
+  private static long metaspaceUsed() {
+    for (MemoryPoolMXBean memoryPool : ManagementFactory.getMemoryPoolMXBeans()) {
+      if ("Metaspace".equals(memoryPool.getName())) {
+        return memoryPool.getUsage().getUsed();
+      }
+    }
+    return 0;
+  }
+
+  private void injectAll(ClassLoader classLoader) {
+    for (HelperInjector helperInjector : helperInjectors) {
+      helperInjector.transform(null, instrumentedType, classLoader, null, null);
+    }
+  }
+
+  private static ClassLoader newClassLoader() {
+    return new URLClassLoader(new URL[0], null);
+  }
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.javaagent.tooling.muzzle;
+
+import io.opentelemetry.javaagent.tooling.muzzle.references.ClassRef;
+import io.opentelemetry.javaagent.tooling.muzzle.references.ClassRefBuilder;
+import io.opentelemetry.javaagent.tooling.muzzle.references.Flag;
+import io.opentelemetry.javaagent.tooling.muzzle.references.Source;
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import net.bytebuddy.ByteBuddy;
+import net.bytebuddy.agent.builder.AgentBuilder;
+import net.bytebuddy.asm.Advice;
+import net.bytebuddy.description.method.MethodDescription;
+import net.bytebuddy.description.type.TypeDescription;
+import net.bytebuddy.dynamic.DynamicType;
+import net.bytebuddy.implementation.MethodDelegation;
+import net.bytebuddy.matcher.ElementMatchers;
+import net.bytebuddy.pool.TypePool;
+import org.objectweb.asm.Type;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+// the cost of a muzzle fingerprint cache miss compared to the full reference check that it saves,
+// for a module referencing the public methods of a few library classes; every invocation uses a new
+// class loader, like a newly deployed web application, so that no type descriptions are cached
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@BenchmarkMode(Mode.AverageTime)
+@State(Scope.Benchmark)
+public class ReferenceMatcherBenchmark {
+
+  private static final Class<?>[] REFERENCED_CLASSES = {
+    ByteBuddy.class,
+    AgentBuilder.class,
+    Advice.class,
+    MethodDescription.class,
+    TypeDescription.class,
+    DynamicType.Builder.class,
+    MethodDelegation.class,
+    ElementMatchers.class,
+    TypePool.Default.class,
+  };
+
+  private URL libraryJar;
+  private ReferenceMatcher referenceMatcher;
+  private URLClassLoader classLoader;
+
+  @Setup
+  public void setUp() {
+    libraryJar = ByteBuddy.class.getProtectionDomain().getCodeSource().getLocation();
+    Map<String, ClassRef> references = new HashMap<>();
+    for (Class<?> referencedClass : REFERENCED_CLASSES) {
+      ClassRefBuilder builder = ClassRef.builder(referencedClass.getName());
+      for (Method method : referencedClass.getDeclaredMethods()) {
+        if (Modifier.isPublic(method.getModifiers())) {
+          builder.addMethod(
+              new Source[0],
+              new Flag[0],
+              method.getName(),
+              Type.getType(method.getReturnType()),
+              Type.getArgumentTypes(method));
+        }
+      }
+      references.put(referencedClass.getName(), builder.build());
+    }
+    List<String> helperClassNames = Collections.emptyList();
+    referenceMatcher = new ReferenceMatcher(helperClassNames, references, className -> false);
+  }
+
+  @Setup(Level.Invocation)
+  public void createClassLoader() {
+    classLoader = new URLClassLoader(new URL[] {libraryJar}, null);
+  }
+
+  @TearDown(Level.Invocation)
+  public void closeClassLoader() throws IOException {
+    classLoader.close();
+  }
+
+  @Benchmark
+  public String fingerprint() {
+    return referenceMatcher.fingerprint(classLoader);
+  }
+
+  @Benchmark
+  public List<Mismatch> referenceCheck() {
+    return referenceMatcher.getMismatchedReferenceSources(classLoader);
+  }
+}
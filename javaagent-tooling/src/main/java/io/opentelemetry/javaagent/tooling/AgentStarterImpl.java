@@ -98,6 +98,11 @@ public class AgentStarterImpl implements AgentStarter {
       AgentInstaller.installBytebuddyAgent(instrumentation, extensionClassLoader, earlyConfig);
       WeakConcurrentMapCleaner.start();
 
+      if (earlyConfig.getBoolean(CdsTrainingRun.CDS_TRAINING_ENABLED_CONFIG, false)) {
+        CdsTrainingRun.loadAllClasses(
+            javaagentFile, getClass().getClassLoader(), extensionClassLoader, earlyConfig);
+      }
+
       // LazyStorage reads system properties. Initialize it here where we have permissions to avoid
       // failing permission checks when it is initialized from user code.
       if (System.getSecurityManager() != null) {
@@ -0,0 +1,138 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.javaagent.tooling;
+
+import static java.util.logging.Level.FINE;
+import static java.util.logging.Level.INFO;
+import static java.util.logging.Level.WARNING;
+
+import io.opentelemetry.javaagent.tooling.config.EarlyInitAgentConfig;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Enumeration;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.jar.JarInputStream;
+import java.util.logging.Logger;
+import javax.annotation.Nullable;
+
+/**
+ * Loads all bootstrap, agent and extension classes, so that a JVM started with {@code
+ * -XX:ArchiveClassesAtExit=<archive>} writes them to the dynamic class data sharing (CDS) archive
+ * that it creates when it exits. A JVM started with {@code -XX:SharedArchiveFile=<archive>} then
+ * maps the already parsed and verified classes from the archive instead of parsing and verifying
+ * them again when they are loaded.
+ *
+ * <p>The bootstrap classes are only archived when the agent jar is also passed with {@code
+ * -Xbootclasspath/a:<agent jar>}, the JVM doesn't archive classes from jars that are appended to
+ * the bootstrap class path at runtime. Classes that fail to load, e.g. because they reference a
+ * library that the application doesn't use, are skipped.
+ */
+final class CdsTrainingRun {
+
+  private static final Logger logger = Logger.getLogger(CdsTrainingRun.class.getName());
+
+  static final String CDS_TRAINING_ENABLED_CONFIG =
+      "otel.javaagent.experimental.cds-training.enabled";
+
+  private static final String CLASS_SUFFIX = ".class";
+  // shading renames .class to .classdata
+  private static final String AGENT_CLASS_PREFIX = "inst/";
+  private static final String AGENT_CLASS_SUFFIX = ".classdata";
+  private static final String EMBEDDED_EXTENSIONS_PREFIX = "extensions/";
+  private static final String META_INF = "META-INF/";
+
+  private int loaded;
+  private int failed;
+
+  static void loadAllClasses(
+      File javaagentFile,
+      ClassLoader agentClassLoader,
+      ClassLoader extensionClassLoader,
+      EarlyInitAgentConfig earlyConfig) {
+    CdsTrainingRun trainingRun = new CdsTrainingRun();
+    try (JarFile agentJar = new JarFile(javaagentFile, false)) {
+      Enumeration<JarEntry> entries = agentJar.entries();
+      while (entries.hasMoreElements()) {
+        JarEntry entry = entries.nextElement();
+        String name = entry.getName();
+        if (name.startsWith(AGENT_CLASS_PREFIX)) {
+          if (name.endsWith(AGENT_CLASS_SUFFIX)
+              && !name.startsWith(AGENT_CLASS_PREFIX + META_INF)) {
+            trainingRun.load(
+                name.substring(
+                    AGENT_CLASS_PREFIX.length(), name.length() - AGENT_CLASS_SUFFIX.length()),
+                agentClassLoader);
+          }
+        } else if (name.startsWith(EMBEDDED_EXTENSIONS_PREFIX)) {
+          if (!entry.isDirectory()) {
+            try (InputStream in = agentJar.getInputStream(entry)) {
+              trainingRun.loadExtension(in, extensionClassLoader);
+            }
+          }
+        } else if (isClass(name)) {
+          trainingRun.load(name.substring(0, name.length() - CLASS_SUFFIX.length()), null);
+        }
+      }
+      for (File extension :
+          ExtensionClassLoader.getConfiguredExtensionFiles(javaagentFile, earlyConfig)) {
+        try (JarFile extensionJar = new JarFile(extension, false)) {
+          Enumeration<JarEntry> extensionEntries = extensionJar.entries();
+          while (extensionEntries.hasMoreElements()) {
+            trainingRun.loadExtensionClass(
+                extensionEntries.nextElement().getName(), extensionClassLoader);
+          }
+        }
+      }
+    } catch (IOException e) {
+      logger.log(WARNING, "Failed to read the agent classes for the CDS training run", e);
+    }
+    logger.log(
+        INFO,
+        "CDS training run loaded {0} classes, {1} classes could not be loaded",
+        new Object[] {trainingRun.loaded, trainingRun.failed});
+  }
+
+  private void loadExtension(InputStream in, ClassLoader extensionClassLoader)
+      throws IOException {
+    // not closed, that would close the stream of the agent jar entry
+    JarInputStream extensionJar = new JarInputStream(in);
+    for (JarEntry entry = extensionJar.getNextJarEntry();
+        entry != null;
+        entry = extensionJar.getNextJarEntry()) {
+      loadExtensionClass(entry.getName(), extensionClassLoader);
+    }
+  }
+
+  private void loadExtensionClass(String entryName, ClassLoader extensionClassLoader) {
+    if (isClass(entryName)) {
+      load(
+          entryName.substring(0, entryName.length() - CLASS_SUFFIX.length()),
+          extensionClassLoader);
+    }
+  }
+
+  private void load(String internalName, @Nullable ClassLoader classLoader) {
+    String className = internalName.replace('/', '.');
+    try {
+      // classes are loaded without being initialized, initialization is not archived anyway
+      Class.forName(className, false, classLoader);
+      loaded++;
+    } catch (ClassNotFoundException | LinkageError e) {
+      logger.log(FINE, "Failed to load " + className + " for the CDS training run", e);
+      failed++;
+    }
+  }
+
+  private static boolean isClass(String entryName) {
+    return entryName.endsWith(CLASS_SUFFIX)
+        && !entryName.startsWith(META_INF)
+        && !entryName.endsWith("module-info.class");
+  }
+
+  private CdsTrainingRun() {}
+}
@@ -60,13 +60,9 @@ public class ExtensionClassLoader extends URLClassLoader {
 
     includeEmbeddedExtensionsIfFound(extensions, javaagentFile);
 
-    extensions.addAll(parseLocation(earlyConfig.getString(EXTENSIONS_CONFIG), javaagentFile));
-
-    extensions.addAll(
-        parseLocation(
-            earlyConfig.getString("otel.javaagent.experimental.extensions"), javaagentFile));
-
-    // TODO when logging is configured add warning about deprecated property
+    for (File file : getConfiguredExtensionFiles(javaagentFile, earlyConfig)) {
+      addFileUrl(extensions, file);
+    }
 
     if (extensions.isEmpty()) {
       return parent;
@@ -128,13 +124,36 @@ public class ExtensionClassLoader extends URLClassLoader {
     return new ExtensionClassLoader(extensionUrl, parent, isSecurityManagerSupportEnabled);
   }
 
+  /** Returns the extension jars configured with the extensions properties. */
+  static List<File> getConfiguredExtensionFiles(
+      File javaagentFile, EarlyInitAgentConfig earlyConfig) {
+    List<File> files = new ArrayList<>();
+    files.addAll(parseLocationFiles(earlyConfig.getString(EXTENSIONS_CONFIG), javaagentFile));
+
+    files.addAll(
+        parseLocationFiles(
+            earlyConfig.getString("otel.javaagent.experimental.extensions"), javaagentFile));
+
+    // TODO when logging is configured add warning about deprecated property
+    return files;
+  }
+
   // visible for testing
   static List<URL> parseLocation(@Nullable String locationName, File javaagentFile) {
+    List<URL> result = new ArrayList<>();
+    for (File file : parseLocationFiles(locationName, javaagentFile)) {
+      addFileUrl(result, file);
+    }
+    return result;
+  }
+
+  private static List<File> parseLocationFiles(
+      @Nullable String locationName, File javaagentFile) {
     if (locationName == null) {
       return Collections.emptyList();
     }
 
-    List<URL> result = new ArrayList<>();
+    List<File> result = new ArrayList<>();
     for (String location : locationName.split(",")) {
       parseLocation(location, javaagentFile, result);
     }
@@ -142,20 +161,21 @@ public class ExtensionClassLoader extends URLClassLoader {
     return result;
   }
 
-  private static void parseLocation(String locationName, File javaagentFile, List<URL> locations) {
+  private static void parseLocation(
+      String locationName, File javaagentFile, List<File> locations) {
     if (locationName.isEmpty()) {
       return;
     }
 
     File location = new File(locationName);
     if (isJar(location)) {
-      addFileUrl(locations, location);
+      locations.add(location);
     } else if (location.isDirectory()) {
       File[] files = location.listFiles(ExtensionClassLoader::isJar);
       if (files != null) {
         for (File file : files) {
           if (isJar(file) && !file.getAbsolutePath().equals(javaagentFile.getAbsolutePath())) {
-            addFileUrl(locations, file);
+            locations.add(file);
           }
         }
       }
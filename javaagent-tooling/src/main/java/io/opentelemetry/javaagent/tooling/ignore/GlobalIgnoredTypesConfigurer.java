@@ -76,6 +76,10 @@ public class GlobalIgnoredTypesConfigurer implements IgnoredTypesConfigurer {
         // when SecurityManager is enabled. ClassLoader$1 is used in ClassLoader.checkPackageAccess
         .ignoreClass("java.lang.ClassLoader$")
         .allowClass("java.lang.invoke.InnerClassLambdaMetafactory")
+        // virtual threads (JDK 21+) are created through ThreadBuilders.newVirtualThread(), its inner
+        // classes are the virtual thread implementations and builders and don't need instrumenting
+        .allowClass("java.lang.ThreadBuilders")
+        .ignoreClass("java.lang.ThreadBuilders$")
         // Concurrent instrumentation modifies the structure of
         // Cleaner class incompatibly with java9+ modules.
         // Working around until a long-term fix for modules can be
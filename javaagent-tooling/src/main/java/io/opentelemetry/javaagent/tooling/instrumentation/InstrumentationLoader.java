@@ -28,6 +28,7 @@ public class InstrumentationLoader implements AgentExtension {
   @Override
   public AgentBuilder extend(AgentBuilder agentBuilder, ConfigProperties config) {
     int numberOfLoadedModules = 0;
+    PersistentMatchCache persistentMatchCache = PersistentMatchCache.create(config);
     for (InstrumentationModule instrumentationModule :
         loadOrdered(InstrumentationModule.class, Utils.getExtensionsClassLoader())) {
       if (logger.isLoggable(FINE)) {
@@ -41,7 +42,8 @@ public class InstrumentationLoader implements AgentExtension {
       }
       try {
         agentBuilder =
-            instrumentationModuleInstaller.install(instrumentationModule, agentBuilder, config);
+            instrumentationModuleInstaller.install(
+                instrumentationModule, agentBuilder, config, persistentMatchCache);
         numberOfLoadedModules++;
       } catch (Exception | LinkageError e) {
         logger.log(
@@ -27,6 +27,7 @@ import io.opentelemetry.javaagent.tooling.util.NamedMatcher;
 import io.opentelemetry.sdk.autoconfigure.spi.ConfigProperties;
 import java.lang.instrument.Instrumentation;
 import java.util.List;
+import javax.annotation.Nullable;
 import net.bytebuddy.agent.builder.AgentBuilder;
 import net.bytebuddy.description.annotation.AnnotationSource;
 import net.bytebuddy.description.type.TypeDescription;
@@ -53,7 +54,8 @@ public final class InstrumentationModuleInstaller {
   AgentBuilder install(
       InstrumentationModule instrumentationModule,
       AgentBuilder parentAgentBuilder,
-      ConfigProperties config) {
+      ConfigProperties config,
+      @Nullable PersistentMatchCache persistentMatchCache) {
     if (!AgentConfig.isInstrumentationEnabled(
         config,
         instrumentationModule.instrumentationNames(),
@@ -80,7 +82,8 @@ public final class InstrumentationModuleInstaller {
 
     ElementMatcher.Junction<ClassLoader> moduleClassLoaderMatcher =
         instrumentationModule.classLoaderMatcher();
-    MuzzleMatcher muzzleMatcher = new MuzzleMatcher(logger, instrumentationModule, config);
+    MuzzleMatcher muzzleMatcher =
+        new MuzzleMatcher(logger, instrumentationModule, config, persistentMatchCache);
     AgentBuilder.Transformer helperInjector =
         new HelperInjector(
             instrumentationModule.instrumentationName(),
@@ -105,17 +108,30 @@ public final class InstrumentationModuleInstaller {
                   + "#"
                   + typeInstrumentation.getClass().getSimpleName(),
               moduleClassLoaderMatcher.and(typeInstrumentation.classLoaderOptimization()));
+      ElementMatcher<TypeDescription> failSafeTypeMatcher =
+          new LoggingFailSafeMatcher<>(
+              typeMatcher, "Instrumentation type matcher unexpected exception: " + typeMatcher);
+      ElementMatcher<ClassLoader> failSafeClassLoaderMatcher =
+          new LoggingFailSafeMatcher<>(
+              classLoaderMatcher,
+              "Instrumentation class loader matcher unexpected exception: " + classLoaderMatcher);
+
+      AgentBuilder.Identified.Narrowable narrowableAgentBuilder;
+      if (persistentMatchCache != null) {
+        narrowableAgentBuilder =
+            agentBuilder.type(
+                persistentMatchCache.typeMatcher(
+                    instrumentationModule.getClass().getName()
+                        + "#"
+                        + typeInstrumentation.getClass().getName(),
+                    failSafeTypeMatcher,
+                    failSafeClassLoaderMatcher));
+      } else {
+        narrowableAgentBuilder = agentBuilder.type(failSafeTypeMatcher, failSafeClassLoaderMatcher);
+      }
 
       AgentBuilder.Identified.Extendable extendableAgentBuilder =
-          agentBuilder
-              .type(
-                  new LoggingFailSafeMatcher<>(
-                      typeMatcher,
-                      "Instrumentation type matcher unexpected exception: " + typeMatcher),
-                  new LoggingFailSafeMatcher<>(
-                      classLoaderMatcher,
-                      "Instrumentation class loader matcher unexpected exception: "
-                          + classLoaderMatcher))
+          narrowableAgentBuilder
               .and(
                   (typeDescription, classLoader, module, classBeingRedefined, protectionDomain) ->
                       classLoader == null || NOT_DECORATOR_MATCHER.matches(typeDescription))
@@ -9,6 +9,7 @@ import static java.util.logging.Level.FINE;
 import static java.util.logging.Level.WARNING;
 import static net.bytebuddy.dynamic.loading.ClassLoadingStrategy.BOOTSTRAP_LOADER;
 
+import io.opentelemetry.instrumentation.api.internal.SupportabilityMetrics;
 import io.opentelemetry.instrumentation.api.internal.cache.Cache;
 import io.opentelemetry.javaagent.extension.instrumentation.InstrumentationModule;
 import io.opentelemetry.javaagent.tooling.TransformSafeLogger;
@@ -22,6 +23,7 @@ import java.util.List;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.logging.Level;
 import java.util.logging.Logger;
+import javax.annotation.Nullable;
 import net.bytebuddy.agent.builder.AgentBuilder;
 import net.bytebuddy.description.type.TypeDescription;
 import net.bytebuddy.utility.JavaModule;
@@ -34,20 +36,24 @@ import net.bytebuddy.utility.JavaModule;
 class MuzzleMatcher implements AgentBuilder.RawMatcher {
 
   private static final Logger muzzleLogger = Logger.getLogger(MuzzleMatcher.class.getName());
+  private static final SupportabilityMetrics supportability = SupportabilityMetrics.instance();
 
   private final TransformSafeLogger instrumentationLogger;
   private final InstrumentationModule instrumentationModule;
   private final Level muzzleLogLevel;
   private final AtomicBoolean initialized = new AtomicBoolean(false);
   private final Cache<ClassLoader, Boolean> matchCache = Cache.weak();
+  @Nullable private final PersistentMatchCache persistentMatchCache;
   private volatile ReferenceMatcher referenceMatcher;
 
   MuzzleMatcher(
       TransformSafeLogger instrumentationLogger,
       InstrumentationModule instrumentationModule,
-      ConfigProperties config) {
+      ConfigProperties config,
+      @Nullable PersistentMatchCache persistentMatchCache) {
     this.instrumentationLogger = instrumentationLogger;
     this.instrumentationModule = instrumentationModule;
+    this.persistentMatchCache = persistentMatchCache;
     this.muzzleLogLevel = AgentConfig.isDebugModeEnabled(config) ? WARNING : FINE;
   }
 
@@ -66,7 +72,20 @@ class MuzzleMatcher implements AgentBuilder.RawMatcher {
 
   private boolean doesMatch(ClassLoader classLoader) {
     ReferenceMatcher muzzle = getReferenceMatcher();
-    boolean isMatch = muzzle.matches(classLoader);
+    boolean isMatch;
+    if (persistentMatchCache != null) {
+      String moduleName = instrumentationModule.getClass().getName();
+      String classLoaderKey = PersistentMatchCache.classLoaderKey(classLoader);
+      Boolean cached = persistentMatchCache.getMuzzleResult(moduleName, classLoaderKey);
+      if (cached != null) {
+        isMatch = cached;
+      } else {
+        isMatch = timedMatches(muzzle, classLoader);
+        persistentMatchCache.putMuzzleResult(moduleName, classLoaderKey, isMatch);
+      }
+    } else {
+      isMatch = timedMatches(muzzle, classLoader);
+    }
 
     if (!isMatch) {
       MuzzleFailureCounter.inc();
@@ -100,6 +119,15 @@ class MuzzleMatcher implements AgentBuilder.RawMatcher {
     return isMatch;
   }
 
+  private boolean timedMatches(ReferenceMatcher muzzle, ClassLoader classLoader) {
+    long startTime = System.nanoTime();
+    boolean isMatch = muzzle.matches(classLoader);
+    supportability.recordTime(
+        "Muzzle check " + instrumentationModule.getClass().getName(),
+        System.nanoTime() - startTime);
+    return isMatch;
+  }
+
   // ReferenceMatcher is lazily created to avoid unnecessarily loading the muzzle references from
   // the module during the agent setup
   private ReferenceMatcher getReferenceMatcher() {
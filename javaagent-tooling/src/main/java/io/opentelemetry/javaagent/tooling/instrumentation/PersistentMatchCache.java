@@ -0,0 +1,649 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.javaagent.tooling.instrumentation;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.logging.Level.FINE;
+import static java.util.logging.Level.WARNING;
+
+import io.opentelemetry.instrumentation.api.internal.cache.Cache;
+import io.opentelemetry.javaagent.tooling.AgentVersion;
+import io.opentelemetry.sdk.autoconfigure.spi.ConfigProperties;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.ref.WeakReference;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.CodeSource;
+import java.security.ProtectionDomain;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Logger;
+import java.util.regex.Pattern;
+import javax.annotation.Nullable;
+import net.bytebuddy.agent.builder.AgentBuilder;
+import net.bytebuddy.description.type.TypeDescription;
+import net.bytebuddy.matcher.ElementMatcher;
+import net.bytebuddy.utility.JavaModule;
+
+/**
+ * An opt-in cache of type matching and muzzle results that is persisted to disk, so that
+ * subsequent starts of the same application image can skip the type matchers of classes that were
+ * already matched in a previous run.
+ *
+ * <p>Type matching results are recorded per jar file, keyed by the path, size and modification time
+ * of the jar that the matched class was loaded from; classes loaded from directories or other
+ * locations are always matched normally. Since type matchers may look at the supertypes of a class,
+ * which can come from other jars, the keys of the jars that supplied its (transitive) supertypes
+ * are recorded along with the result, and the result is only reused while all of these jars are
+ * unchanged. Checking that only takes a file lookup per jar and run, the supertypes are not
+ * resolved again. Classes with a supertype loaded from a directory are always matched normally,
+ * supertypes from the JDK are covered by the JVM version check below. At most {@code
+ * otel.javaagent.experimental.type-match-cache.max-classes} classes are recorded. Muzzle results
+ * are recorded per class loader, keyed by the class loader type and the jars on its (and its
+ * parents') class path, for {@link URLClassLoader}s and the system class loader only. The whole
+ * file is discarded when the agent or the JVM version changes.
+ *
+ * <p>The cache file is written when the JVM shuts down. To pre-warm the cache at container build
+ * time, start the application once with the cache enabled (e.g. in a smoke test) and ship the
+ * resulting file in the image, with {@code
+ * otel.javaagent.experimental.type-match-cache.read-only} set to {@code true} so that it's not
+ * rewritten at runtime.
+ */
+final class PersistentMatchCache {
+
+  private static final Logger logger = Logger.getLogger(PersistentMatchCache.class.getName());
+
+  private static final String FILE_CONFIG = "otel.javaagent.experimental.type-match-cache.file";
+  private static final String READ_ONLY_CONFIG =
+      "otel.javaagent.experimental.type-match-cache.read-only";
+  private static final String MAX_CLASSES_CONFIG =
+      "otel.javaagent.experimental.type-match-cache.max-classes";
+  private static final int DEFAULT_MAX_CLASSES = 100_000;
+
+  private static final String FORMAT_VERSION = "3";
+  private static final String HEADER =
+      "otel-type-match-cache\t"
+          + FORMAT_VERSION
+          + '\t'
+          + AgentVersion.VERSION
+          + '\t'
+          + System.getProperty("java.version");
+
+  // marks code sources that can't be cached
+  private static final JarMatches NOT_CACHEABLE = new JarMatches("");
+
+  // all instrumentations match the same type description one after another, so its supertypes only
+  // need to be resolved once
+  private static final ThreadLocal<SupertypeJars> lastSupertypeJars =
+      ThreadLocal.withInitial(SupertypeJars::new);
+
+  private final Path file;
+  private final boolean readOnly;
+  private final int maxClasses;
+  private final AtomicInteger classCount = new AtomicInteger();
+
+  private final ConcurrentMap<String, Integer> instrumentationIds = new ConcurrentHashMap<>();
+  private final List<String> instrumentationIdsByIndex = new ArrayList<>();
+  private final ConcurrentMap<String, JarMatches> jars = new ConcurrentHashMap<>();
+  private final ConcurrentMap<String, ConcurrentMap<String, Boolean>> muzzleResults =
+      new ConcurrentHashMap<>();
+  private final Cache<CodeSource, JarMatches> codeSourceCache = Cache.weak();
+  // whether the jars that supertypes were recorded from are unchanged, checked once per run
+  private final ConcurrentMap<String, Boolean> currentJars = new ConcurrentHashMap<>();
+  private volatile boolean modified;
+
+  /**
+   * Returns the persistent match cache configured through {@code
+   * otel.javaagent.experimental.type-match-cache.file}, or {@code null} if it's not enabled.
+   */
+  @Nullable
+  static PersistentMatchCache create(ConfigProperties config) {
+    String fileName = config.getString(FILE_CONFIG);
+    if (fileName == null || fileName.isEmpty()) {
+      return null;
+    }
+    PersistentMatchCache cache =
+        new PersistentMatchCache(
+            Paths.get(fileName),
+            config.getBoolean(READ_ONLY_CONFIG, false),
+            config.getInt(MAX_CLASSES_CONFIG, DEFAULT_MAX_CLASSES));
+    cache.load();
+    if (!cache.readOnly) {
+      Thread thread = new Thread(cache::save, "otel-javaagent-type-match-cache-writer");
+      Runtime.getRuntime().addShutdownHook(thread);
+    }
+    return cache;
+  }
+
+  // Visible for testing
+  PersistentMatchCache(Path file, boolean readOnly) {
+    this(file, readOnly, DEFAULT_MAX_CLASSES);
+  }
+
+  // Visible for testing
+  PersistentMatchCache(Path file, boolean readOnly, int maxClasses) {
+    this.file = file;
+    this.readOnly = readOnly;
+    this.maxClasses = maxClasses;
+  }
+
+  /**
+   * Returns a matcher that first applies the {@code classLoaderMatcher}, and then either answers
+   * from the cache or applies the {@code typeMatcher} and records its result.
+   */
+  AgentBuilder.RawMatcher typeMatcher(
+      String instrumentationId,
+      ElementMatcher<TypeDescription> typeMatcher,
+      ElementMatcher<ClassLoader> classLoaderMatcher) {
+    return new CachingTypeMatcher(
+        this, instrumentationIdIndex(instrumentationId), typeMatcher, classLoaderMatcher);
+  }
+
+  /**
+   * Returns the muzzle result recorded for the given module and class loader, or {@code null} if
+   * there is none.
+   */
+  @Nullable
+  Boolean getMuzzleResult(String moduleName, @Nullable String classLoaderKey) {
+    if (classLoaderKey == null) {
+      return null;
+    }
+    Map<String, Boolean> results = muzzleResults.get(classLoaderKey);
+    return results == null ? null : results.get(moduleName);
+  }
+
+  void putMuzzleResult(String moduleName, @Nullable String classLoaderKey, boolean matches) {
+    if (classLoaderKey == null) {
+      return;
+    }
+    muzzleResults
+        .computeIfAbsent(classLoaderKey, k -> new ConcurrentHashMap<>())
+        .put(moduleName, matches);
+    modified = true;
+  }
+
+  /**
+   * Returns a key identifying the classes visible to the class loader across JVM restarts, or
+   * {@code null} if the class loader can't be identified this way.
+   */
+  @Nullable
+  static String classLoaderKey(@Nullable ClassLoader classLoader) {
+    ClassLoader systemClassLoader = ClassLoader.getSystemClassLoader();
+    ClassLoader platformClassLoader = systemClassLoader.getParent();
+    StringBuilder key = new StringBuilder();
+    for (ClassLoader cl = classLoader; cl != platformClassLoader; cl = cl.getParent()) {
+      if (cl == null) {
+        // bootstrap proxy or a class loader that doesn't delegate to the platform class loader
+        return null;
+      }
+      key.append(cl.getClass().getName());
+      if (cl instanceof URLClassLoader) {
+        for (URL url : ((URLClassLoader) cl).getURLs()) {
+          String jarKey = jarKey(url.toString());
+          if (jarKey == null) {
+            return null;
+          }
+          key.append(File.pathSeparatorChar).append(jarKey);
+        }
+      } else if (cl == systemClassLoader) {
+        for (String entry : System.getProperty("java.class.path", "").split(File.pathSeparator)) {
+          String jarKey = entry.isEmpty() ? null : jarKey(new File(entry));
+          if (jarKey == null) {
+            return null;
+          }
+          key.append(File.pathSeparatorChar).append(jarKey);
+        }
+      } else {
+        return null;
+      }
+      key.append(';');
+    }
+    return key.toString();
+  }
+
+  private int instrumentationIdIndex(String instrumentationId) {
+    Integer index = instrumentationIds.get(instrumentationId);
+    if (index != null) {
+      return index;
+    }
+    synchronized (instrumentationIdsByIndex) {
+      return instrumentationIds.computeIfAbsent(
+          instrumentationId,
+          id -> {
+            instrumentationIdsByIndex.add(id);
+            return instrumentationIdsByIndex.size() - 1;
+          });
+    }
+  }
+
+  @Nullable
+  private JarMatches jarMatches(@Nullable ProtectionDomain protectionDomain) {
+    CodeSource codeSource = protectionDomain == null ? null : protectionDomain.getCodeSource();
+    if (codeSource == null) {
+      return null;
+    }
+    JarMatches jarMatches = codeSourceCache.computeIfAbsent(codeSource, this::computeJarMatches);
+    return jarMatches == NOT_CACHEABLE ? null : jarMatches;
+  }
+
+  private JarMatches computeJarMatches(CodeSource codeSource) {
+    URL location = codeSource.getLocation();
+    String jarKey = location == null ? null : jarKey(location.toString());
+    if (jarKey == null) {
+      return NOT_CACHEABLE;
+    }
+    return jars.computeIfAbsent(jarKey, JarMatches::new);
+  }
+
+  // returns a key made of the path, size and modification time of the jar file, or null if the url
+  // does not point to a local jar file
+  @Nullable
+  private static String jarKey(String url) {
+    String nestedPath = "";
+    if (url.startsWith("jar:")) {
+      // e.g. jar:file:/app.jar!/BOOT-INF/lib/library.jar!/
+      int separator = url.indexOf("!/");
+      if (separator == -1) {
+        return null;
+      }
+      nestedPath = url.substring(separator);
+      if (nestedPath.equals("!/")) {
+        // jar:file:/library.jar!/ is the same jar as file:/library.jar
+        nestedPath = "";
+      }
+      url = url.substring("jar:".length(), separator);
+    }
+    if (!url.startsWith("file:")) {
+      return null;
+    }
+    try {
+      String jarKey = jarKey(new File(new URI(url)));
+      return jarKey == null ? null : jarKey + nestedPath;
+    } catch (URISyntaxException | IllegalArgumentException e) {
+      return null;
+    }
+  }
+
+  @Nullable
+  private static String jarKey(File file) {
+    // directory modification times don't reflect changes to the files they contain
+    if (!file.isFile()) {
+      return null;
+    }
+    return file.getAbsolutePath() + '|' + file.length() + '|' + file.lastModified();
+  }
+
+  private boolean isCurrent(List<String> jarKeys) {
+    for (String jarKey : jarKeys) {
+      if (!currentJars.computeIfAbsent(jarKey, PersistentMatchCache::isCurrentJar)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static boolean isCurrentJar(String jarKey) {
+    int nestedPath = jarKey.indexOf("!/");
+    String fileKey = nestedPath == -1 ? jarKey : jarKey.substring(0, nestedPath);
+    int lastModified = fileKey.lastIndexOf('|');
+    int length = lastModified <= 0 ? -1 : fileKey.lastIndexOf('|', lastModified - 1);
+    return length > 0 && fileKey.equals(jarKey(new File(fileKey.substring(0, length))));
+  }
+
+  // Visible for testing
+  void load() {
+    if (!Files.exists(file)) {
+      return;
+    }
+    try (BufferedReader reader = Files.newBufferedReader(file, UTF_8)) {
+      if (!HEADER.equals(reader.readLine())) {
+        logger.log(FINE, "Ignoring type match cache {0} created by a different version", file);
+        return;
+      }
+      Map<Integer, Integer> indexMapping = new HashMap<>();
+      JarMatches currentJar = null;
+      ConcurrentMap<String, Boolean> currentLoader = null;
+      String line;
+      while ((line = reader.readLine()) != null) {
+        String[] parts = line.split("\t", -1);
+        switch (parts[0]) {
+          case "I":
+            indexMapping.put(Integer.parseInt(parts[1]), instrumentationIdIndex(parts[2]));
+            break;
+          case "J":
+            currentJar = jars.computeIfAbsent(parts[1], JarMatches::new);
+            break;
+          case "C":
+            if (currentJar != null && classCount.get() < maxClasses) {
+              ClassMatches previous =
+                  currentJar.classes.put(
+                      parts[1],
+                      new ClassMatches(
+                          decodeJarKeys(parts[2]),
+                          remap(decode(parts[3]), indexMapping),
+                          remap(decode(parts[4]), indexMapping)));
+              if (previous == null) {
+                classCount.incrementAndGet();
+              }
+            }
+            break;
+          case "L":
+            currentLoader = muzzleResults.computeIfAbsent(parts[1], k -> new ConcurrentHashMap<>());
+            break;
+          case "M":
+            if (currentLoader != null) {
+              currentLoader.put(parts[1], "1".equals(parts[2]));
+            }
+            break;
+          default:
+            throw new IOException("Unexpected line: " + line);
+        }
+      }
+      logger.log(FINE, "Loaded type match cache {0}", file);
+    } catch (IOException | RuntimeException e) {
+      logger.log(WARNING, "Failed to load type match cache " + file, e);
+      jars.clear();
+      muzzleResults.clear();
+      classCount.set(0);
+    }
+  }
+
+  // Visible for testing
+  void save() {
+    if (!modified) {
+      return;
+    }
+    Path tempFile = file.resolveSibling(file.getFileName() + ".tmp");
+    try {
+      try (Writer writer = new BufferedWriter(Files.newBufferedWriter(tempFile, UTF_8))) {
+        writer.write(HEADER);
+        writer.write('\n');
+        List<String> ids;
+        synchronized (instrumentationIdsByIndex) {
+          ids = new ArrayList<>(instrumentationIdsByIndex);
+        }
+        for (int i = 0; i < ids.size(); i++) {
+          writer.write("I\t" + i + '\t' + ids.get(i) + '\n');
+        }
+        for (JarMatches jarMatches : jars.values()) {
+          writer.write("J\t" + jarMatches.key + '\n');
+          for (Map.Entry<String, ClassMatches> entry : jarMatches.classes.entrySet()) {
+            writer.write("C\t" + entry.getKey() + '\t' + entry.getValue().encode() + '\n');
+          }
+        }
+        for (Map.Entry<String, ConcurrentMap<String, Boolean>> loader : muzzleResults.entrySet()) {
+          writer.write("L\t" + loader.getKey() + '\n');
+          for (Map.Entry<String, Boolean> entry : loader.getValue().entrySet()) {
+            writer.write("M\t" + entry.getKey() + '\t' + (entry.getValue() ? '1' : '0') + '\n');
+          }
+        }
+      }
+      try {
+        Files.move(
+            tempFile,
+            file,
+            StandardCopyOption.REPLACE_EXISTING,
+            StandardCopyOption.ATOMIC_MOVE);
+      } catch (AtomicMoveNotSupportedException e) {
+        Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING);
+      }
+    } catch (IOException | RuntimeException e) {
+      logger.log(WARNING, "Failed to save type match cache " + file, e);
+    }
+  }
+
+  private static List<String> decodeJarKeys(String value) {
+    return value.isEmpty()
+        ? Collections.emptyList()
+        : Arrays.asList(value.split(Pattern.quote(File.pathSeparator)));
+  }
+
+  private static BitSet decode(String value) {
+    return BitSet.valueOf(Base64.getDecoder().decode(value));
+  }
+
+  private static BitSet remap(BitSet bits, Map<Integer, Integer> indexMapping) {
+    BitSet result = new BitSet();
+    for (int i = bits.nextSetBit(0); i >= 0; i = bits.nextSetBit(i + 1)) {
+      Integer index = indexMapping.get(i);
+      if (index != null) {
+        result.set(index);
+      }
+    }
+    return result;
+  }
+
+  // returns the keys of the jars, other than the jar of the type itself, that supplied the
+  // supertypes of the type, or null if a supertype can't be resolved or was not loaded from a jar
+  @Nullable
+  private static List<String> supertypeJars(
+      TypeDescription type, @Nullable ClassLoader classLoader, String jarKey) {
+    SupertypeJars last = lastSupertypeJars.get();
+    if (last.type.get() != type) {
+      last.type = new WeakReference<>(type);
+      last.jarKeys = computeSupertypeJars(type, classLoader, jarKey);
+    }
+    return last.jarKeys;
+  }
+
+  @Nullable
+  private static List<String> computeSupertypeJars(
+      TypeDescription type, @Nullable ClassLoader classLoader, String jarKey) {
+    Set<String> names = new HashSet<>();
+    Set<String> jarKeys = new TreeSet<>();
+    Deque<TypeDescription> queue = new ArrayDeque<>();
+    queue.add(type);
+    try {
+      while (!queue.isEmpty()) {
+        TypeDescription current = queue.poll();
+        List<TypeDescription> supertypes = new ArrayList<>(current.getInterfaces().asErasures());
+        TypeDescription.Generic superClass = current.getSuperClass();
+        if (superClass != null) {
+          supertypes.add(superClass.asErasure());
+        }
+        for (TypeDescription supertype : supertypes) {
+          if (!names.add(supertype.getName())) {
+            continue;
+          }
+          String supertypeJarKey = classJarKey(supertype.getName(), classLoader);
+          if (supertypeJarKey == null) {
+            return null;
+          }
+          if (!supertypeJarKey.isEmpty() && !supertypeJarKey.equals(jarKey)) {
+            jarKeys.add(supertypeJarKey);
+          }
+          queue.add(supertype);
+        }
+      }
+    } catch (RuntimeException e) {
+      // a supertype could not be resolved, the type matchers will decide what to do about it
+      return null;
+    }
+    return new ArrayList<>(jarKeys);
+  }
+
+  // returns the key of the jar that the class is loaded from, an empty string for JDK classes, or
+  // null if the class was not loaded from a jar
+  @Nullable
+  private static String classJarKey(String className, @Nullable ClassLoader classLoader) {
+    String resourceName = className.replace('.', '/') + ".class";
+    URL url =
+        classLoader == null
+            ? ClassLoader.getSystemResource(resourceName)
+            : classLoader.getResource(resourceName);
+    if (url == null) {
+      return null;
+    }
+    if ("jrt".equals(url.getProtocol())) {
+      // JDK classes only change along with the JVM version, which is part of the header
+      return "";
+    }
+    String location = url.toString();
+    if (!location.endsWith("!/" + resourceName)) {
+      return null;
+    }
+    return jarKey(location.substring(0, location.length() - resourceName.length()));
+  }
+
+  private static final class SupertypeJars {
+    WeakReference<TypeDescription> type = new WeakReference<>(null);
+    @Nullable List<String> jarKeys;
+  }
+
+  private static final class JarMatches {
+    final String key;
+    final ConcurrentMap<String, ClassMatches> classes = new ConcurrentHashMap<>();
+
+    JarMatches(String key) {
+      this.key = key;
+    }
+  }
+
+  /** The results of the type matchers that were applied to a single class. */
+  private static final class ClassMatches {
+    // keys of the jars that supplied the supertypes of the class when the results were recorded
+    private List<String> supertypeJars;
+    // indexes of the instrumentations that were applied to the class
+    private final BitSet known;
+    // indexes of the instrumentations that matched the class
+    private final BitSet matched;
+
+    ClassMatches(List<String> supertypeJars) {
+      this(supertypeJars, new BitSet(), new BitSet());
+    }
+
+    ClassMatches(List<String> supertypeJars, BitSet known, BitSet matched) {
+      this.supertypeJars = supertypeJars;
+      this.known = known;
+      this.matched = matched;
+    }
+
+    synchronized List<String> supertypeJars() {
+      return supertypeJars;
+    }
+
+    @Nullable
+    synchronized Boolean get(int index) {
+      return known.get(index) ? matched.get(index) : null;
+    }
+
+    synchronized void put(int index, boolean matches) {
+      known.set(index);
+      matched.set(index, matches);
+    }
+
+    synchronized void reset(List<String> supertypeJars) {
+      // the supertypes of the class changed, the previous results don't apply
+      this.supertypeJars = supertypeJars;
+      known.clear();
+      matched.clear();
+    }
+
+    synchronized String encode() {
+      Base64.Encoder encoder = Base64.getEncoder();
+      return String.join(File.pathSeparator, supertypeJars)
+          + '\t'
+          + encoder.encodeToString(known.toByteArray())
+          + '\t'
+          + encoder.encodeToString(matched.toByteArray());
+    }
+  }
+
+  private static final class CachingTypeMatcher implements AgentBuilder.RawMatcher {
+    private final PersistentMatchCache cache;
+    private final int instrumentationIndex;
+    private final ElementMatcher<TypeDescription> typeMatcher;
+    private final ElementMatcher<ClassLoader> classLoaderMatcher;
+
+    CachingTypeMatcher(
+        PersistentMatchCache cache,
+        int instrumentationIndex,
+        ElementMatcher<TypeDescription> typeMatcher,
+        ElementMatcher<ClassLoader> classLoaderMatcher) {
+      this.cache = cache;
+      this.instrumentationIndex = instrumentationIndex;
+      this.typeMatcher = typeMatcher;
+      this.classLoaderMatcher = classLoaderMatcher;
+    }
+
+    @Override
+    public boolean matches(
+        TypeDescription typeDescription,
+        ClassLoader classLoader,
+        JavaModule module,
+        Class<?> classBeingRedefined,
+        ProtectionDomain protectionDomain) {
+      if (!classLoaderMatcher.matches(classLoader)) {
+        return false;
+      }
+      JarMatches jarMatches = cache.jarMatches(protectionDomain);
+      if (jarMatches == null) {
+        return typeMatcher.matches(typeDescription);
+      }
+      ClassMatches classMatches = jarMatches.classes.get(typeDescription.getName());
+      if (classMatches == null) {
+        if (cache.classCount.get() >= cache.maxClasses) {
+          return typeMatcher.matches(typeDescription);
+        }
+        List<String> supertypeJars = supertypeJars(typeDescription, classLoader, jarMatches.key);
+        if (supertypeJars == null) {
+          return typeMatcher.matches(typeDescription);
+        }
+        classMatches =
+            jarMatches.classes.computeIfAbsent(
+                typeDescription.getName(),
+                k -> {
+                  cache.classCount.incrementAndGet();
+                  return new ClassMatches(supertypeJars);
+                });
+      } else if (!cache.isCurrent(classMatches.supertypeJars())) {
+        List<String> supertypeJars = supertypeJars(typeDescription, classLoader, jarMatches.key);
+        if (supertypeJars == null) {
+          return typeMatcher.matches(typeDescription);
+        }
+        classMatches.reset(supertypeJars);
+      }
+      Boolean cached = classMatches.get(instrumentationIndex);
+      if (cached != null) {
+        return cached;
+      }
+      boolean matches = typeMatcher.matches(typeDescription);
+      classMatches.put(instrumentationIndex, matches);
+      cache.modified = true;
+      return matches;
+    }
+
+    @Override
+    public String toString() {
+      return "persistentMatchCache(" + typeMatcher + ", " + classLoaderMatcher + ")";
+    }
+  }
+}
@@ -10,6 +10,7 @@ import io.opentelemetry.javaagent.tooling.AgentInstaller
 import io.opentelemetry.javaagent.tooling.HelperInjector
 import io.opentelemetry.javaagent.tooling.Utils
 import io.opentelemetry.javaagent.tooling.config.EarlyInitAgentConfig
+import net.bytebuddy.ByteBuddy
 import net.bytebuddy.agent.ByteBuddyAgent
 import net.bytebuddy.description.type.TypeDescription
 import net.bytebuddy.dynamic.ClassFileLocator
@@ -59,6 +60,30 @@ class HelperInjectionTest extends Specification {
     null == ref.get()
   }
 
+  def "helper of the module injected last wins for duplicate helper names"() {
+    setup:
+    String helperClassName = HelperInjectionTest.getPackage().getName() + '.DuplicateHelper'
+    HelperInjector first = HelperInjector.forDynamicTypes("first", [
+      new ByteBuddy().subclass(Object).name(helperClassName).defineField("first", int).make()
+    ], null)
+    HelperInjector second = HelperInjector.forDynamicTypes("second", [
+      new ByteBuddy().subclass(Object).name(helperClassName).defineField("second", int).make()
+    ], null)
+    URLClassLoader emptyLoader = new URLClassLoader(new URL[0], (ClassLoader) null)
+
+    when:
+    first.transform(null, null, emptyLoader, null, null)
+    second.transform(null, null, emptyLoader, null, null)
+    Class<?> helperClass = HelperInjector.loadHelperClass(emptyLoader, helperClassName)
+
+    then:
+    helperClass.getClassLoader() == emptyLoader
+    helperClass.getDeclaredFields()*.name == ["second"]
+
+    cleanup:
+    emptyLoader?.close()
+  }
+
   def "helpers injected on bootstrap classloader"() {
     setup:
     ByteBuddyAgent.install()
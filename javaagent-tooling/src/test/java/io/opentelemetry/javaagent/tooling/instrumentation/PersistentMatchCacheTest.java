@@ -0,0 +1,209 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.javaagent.tooling.instrumentation;
+
+import static net.bytebuddy.matcher.ElementMatchers.any;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.lang.reflect.Modifier;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.CodeSource;
+import java.security.ProtectionDomain;
+import java.security.cert.Certificate;
+import java.util.concurrent.atomic.AtomicInteger;
+import net.bytebuddy.agent.builder.AgentBuilder;
+import net.bytebuddy.description.type.TypeDefinition;
+import net.bytebuddy.description.type.TypeDescription;
+import net.bytebuddy.matcher.ElementMatcher;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class PersistentMatchCacheTest {
+
+  @TempDir Path tempDir;
+
+  @Test
+  void typeMatchesArePersisted() throws Exception {
+    Path cacheFile = tempDir.resolve("match.cache");
+    ProtectionDomain protectionDomain =
+        protectionDomain(Files.createFile(tempDir.resolve("a.jar")));
+    TypeDescription type = TypeDescription.ForLoadedType.of(String.class);
+    AtomicInteger invocations = new AtomicInteger();
+    ElementMatcher<TypeDescription> typeMatcher =
+        t -> {
+          invocations.incrementAndGet();
+          return true;
+        };
+
+    PersistentMatchCache cache = new PersistentMatchCache(cacheFile, false);
+    AgentBuilder.RawMatcher matcher = cache.typeMatcher("Module#Matching", typeMatcher, any());
+    AgentBuilder.RawMatcher otherMatcher =
+        cache.typeMatcher("Module#NotMatching", t -> false, any());
+    assertThat(matcher.matches(type, null, null, null, protectionDomain)).isTrue();
+    assertThat(matcher.matches(type, null, null, null, protectionDomain)).isTrue();
+    assertThat(otherMatcher.matches(type, null, null, null, protectionDomain)).isFalse();
+    assertThat(invocations).hasValue(1);
+    cache.save();
+
+    // instrumentations may be registered in a different order in the next run
+    PersistentMatchCache loaded = new PersistentMatchCache(cacheFile, false);
+    AgentBuilder.RawMatcher loadedOtherMatcher =
+        loaded.typeMatcher(
+            "Module#NotMatching",
+            t -> {
+              throw new AssertionError("should not be called");
+            },
+            any());
+    AgentBuilder.RawMatcher loadedMatcher =
+        loaded.typeMatcher("Module#Matching", typeMatcher, any());
+    loaded.load();
+    assertThat(loadedMatcher.matches(type, null, null, null, protectionDomain)).isTrue();
+    assertThat(loadedOtherMatcher.matches(type, null, null, null, protectionDomain)).isFalse();
+    assertThat(invocations).hasValue(1);
+  }
+
+  @Test
+  void changedJarIsMatchedAgain() throws Exception {
+    Path cacheFile = tempDir.resolve("match.cache");
+    Path jar = Files.createFile(tempDir.resolve("a.jar"));
+    TypeDescription type = TypeDescription.ForLoadedType.of(String.class);
+    AtomicInteger invocations = new AtomicInteger();
+    ElementMatcher<TypeDescription> typeMatcher =
+        t -> {
+          invocations.incrementAndGet();
+          return false;
+        };
+
+    PersistentMatchCache cache = new PersistentMatchCache(cacheFile, false);
+    cache
+        .typeMatcher("Module#Instrumentation", typeMatcher, any())
+        .matches(type, null, null, null, protectionDomain(jar));
+    cache.save();
+
+    Files.write(jar, new byte[] {1, 2, 3});
+    PersistentMatchCache loaded = new PersistentMatchCache(cacheFile, false);
+    loaded.load();
+    loaded
+        .typeMatcher("Module#Instrumentation", typeMatcher, any())
+        .matches(type, null, null, null, protectionDomain(jar));
+    assertThat(invocations).hasValue(2);
+  }
+
+  @Test
+  void changedSupertypeJarIsMatchedAgain() throws Exception {
+    Path cacheFile = tempDir.resolve("match.cache");
+    ProtectionDomain protectionDomain =
+        protectionDomain(Files.createFile(tempDir.resolve("a.jar")));
+    Path libraryJar = Files.createFile(tempDir.resolve("library.jar"));
+    URL baseUrl = new URL("jar:" + libraryJar.toUri() + "!/test/Base.class");
+    ClassLoader classLoader =
+        new ClassLoader(PersistentMatchCacheTest.class.getClassLoader()) {
+          @Override
+          public URL getResource(String name) {
+            return name.equals("test/Base.class") ? baseUrl : super.getResource(name);
+          }
+        };
+    TypeDescription base =
+        new TypeDescription.Latent(
+            "test.Base", Modifier.PUBLIC, TypeDefinition.Sort.describe(Object.class));
+    TypeDescription type =
+        new TypeDescription.Latent("test.Task", Modifier.PUBLIC, base.asGenericType());
+    AtomicInteger invocations = new AtomicInteger();
+    ElementMatcher<TypeDescription> typeMatcher =
+        t -> {
+          invocations.incrementAndGet();
+          return false;
+        };
+
+    PersistentMatchCache cache = new PersistentMatchCache(cacheFile, false);
+    cache
+        .typeMatcher("Module#Instrumentation", typeMatcher, any())
+        .matches(type, classLoader, null, null, protectionDomain);
+    cache.save();
+
+    PersistentMatchCache loaded = new PersistentMatchCache(cacheFile, false);
+    loaded.load();
+    loaded
+        .typeMatcher("Module#Instrumentation", typeMatcher, any())
+        .matches(type, classLoader, null, null, protectionDomain);
+    assertThat(invocations).hasValue(1);
+
+    // the class itself is unchanged, but it's now loaded next to another version of the library
+    Files.write(libraryJar, new byte[] {1, 2, 3});
+    loaded = new PersistentMatchCache(cacheFile, false);
+    loaded.load();
+    loaded
+        .typeMatcher("Module#Instrumentation", typeMatcher, any())
+        .matches(type, classLoader, null, null, protectionDomain);
+    assertThat(invocations).hasValue(2);
+  }
+
+  @Test
+  void numberOfClassesIsBounded() throws Exception {
+    ProtectionDomain protectionDomain =
+        protectionDomain(Files.createFile(tempDir.resolve("a.jar")));
+    TypeDescription type = TypeDescription.ForLoadedType.of(String.class);
+    TypeDescription otherType = TypeDescription.ForLoadedType.of(Integer.class);
+    AtomicInteger invocations = new AtomicInteger();
+    ElementMatcher<TypeDescription> typeMatcher =
+        t -> {
+          invocations.incrementAndGet();
+          return true;
+        };
+
+    PersistentMatchCache cache = new PersistentMatchCache(tempDir.resolve("match.cache"), false, 1);
+    AgentBuilder.RawMatcher matcher =
+        cache.typeMatcher("Module#Instrumentation", typeMatcher, any());
+    matcher.matches(type, null, null, null, protectionDomain);
+    matcher.matches(type, null, null, null, protectionDomain);
+    assertThat(invocations).hasValue(1);
+    matcher.matches(otherType, null, null, null, protectionDomain);
+    matcher.matches(otherType, null, null, null, protectionDomain);
+    assertThat(invocations).hasValue(3);
+  }
+
+  @Test
+  void directoriesAreNotCached() throws Exception {
+    TypeDescription type = TypeDescription.ForLoadedType.of(String.class);
+    AtomicInteger invocations = new AtomicInteger();
+    ElementMatcher<TypeDescription> typeMatcher =
+        t -> {
+          invocations.incrementAndGet();
+          return true;
+        };
+
+    PersistentMatchCache cache = new PersistentMatchCache(tempDir.resolve("match.cache"), false);
+    AgentBuilder.RawMatcher matcher =
+        cache.typeMatcher("Module#Instrumentation", typeMatcher, any());
+    matcher.matches(type, null, null, null, protectionDomain(tempDir));
+    matcher.matches(type, null, null, null, protectionDomain(tempDir));
+    matcher.matches(type, null, null, null, null);
+    assertThat(invocations).hasValue(3);
+  }
+
+  @Test
+  void muzzleResultsArePersisted() {
+    Path cacheFile = tempDir.resolve("match.cache");
+    PersistentMatchCache cache = new PersistentMatchCache(cacheFile, false);
+    cache.putMuzzleResult("Module", "loader", false);
+    cache.putMuzzleResult("Other", "loader", true);
+    cache.save();
+
+    PersistentMatchCache loaded = new PersistentMatchCache(cacheFile, false);
+    loaded.load();
+    assertThat(loaded.getMuzzleResult("Module", "loader")).isFalse();
+    assertThat(loaded.getMuzzleResult("Other", "loader")).isTrue();
+    assertThat(loaded.getMuzzleResult("Module", "other loader")).isNull();
+    assertThat(loaded.getMuzzleResult("Module", null)).isNull();
+  }
+
+  private static ProtectionDomain protectionDomain(Path path) throws MalformedURLException {
+    return new ProtectionDomain(new CodeSource(path.toUri().toURL(), (Certificate[]) null), null);
+  }
+}
@@ -1,6 +1,16 @@
 import com.github.jengelman.gradle.plugins.shadow.tasks.ShadowJar
 import com.github.jk1.license.filter.LicenseBundleNormalizer
 import com.github.jk1.license.render.InventoryMarkdownReportRenderer
+import java.io.DataOutputStream
+import java.io.FileOutputStream
+import java.io.FilterOutputStream
+import java.io.OutputStream
+import java.nio.file.Files
+import java.nio.file.StandardCopyOption
+import java.util.zip.CRC32
+import java.util.zip.ZipEntry
+import java.util.zip.ZipFile
+import java.util.zip.ZipOutputStream
 
 plugins {
   id("com.github.jk1.dependency-license-report")
@@ -216,6 +226,21 @@ tasks {
     dependsOn(shadowJar, baseJavaagentJar)
   }
 
+  // store the inst/ classes uncompressed with an index of their offsets, which lets the
+  // AgentClassLoader define them straight from the memory-mapped agent jar
+  val indexClasses = findProperty("indexAgentClasses") == "true"
+  listOf(shadowJar, baseJavaagentJar).forEach {
+    it.configure {
+      // the jar differs with and without the index, so it must not be reused across the two
+      inputs.property("indexAgentClasses", indexClasses)
+      if (indexClasses) {
+        doLast {
+          indexAgentClasses(archiveFile.get().asFile)
+        }
+      }
+    }
+  }
+
   if (findProperty("removeJarVersionNumbers") == "true") {
     withType<AbstractArchiveTask>().configureEach {
       archiveVersion.set("")
@@ -307,6 +332,61 @@ fun CopySpec.isolateClasses(jar: Provider<RegularFile>) {
   }
 }
 
+// rewrites the agent jar with the inst/ classes stored uncompressed and adds an index that maps
+// their names to the offsets of their local file headers, see AgentClassIndex
+fun indexAgentClasses(agentJar: File) {
+  val indexedJar = File(agentJar.parentFile, agentJar.name + ".indexed")
+  val localHeaderOffsets = LinkedHashMap<String, Int>()
+  ZipFile(agentJar).use { zipFile ->
+    val counter = CountingOutputStream(FileOutputStream(indexedJar).buffered())
+    ZipOutputStream(counter).use { out ->
+      for (entry in zipFile.entries().asSequence()) {
+        val bytes = zipFile.getInputStream(entry).use { it.readBytes() }
+        val indexedEntry = ZipEntry(entry.name)
+        indexedEntry.time = entry.time
+        if (entry.name.startsWith("inst/") && entry.name.endsWith(".classdata")) {
+          indexedEntry.method = ZipEntry.STORED
+          indexedEntry.size = bytes.size.toLong()
+          indexedEntry.compressedSize = bytes.size.toLong()
+          indexedEntry.crc = CRC32().apply { update(bytes) }.value
+          // the previous entry is completely written, the local header of this one starts here
+          localHeaderOffsets[entry.name.removePrefix("inst/")] = counter.count.toInt()
+        }
+        out.putNextEntry(indexedEntry)
+        out.write(bytes)
+        out.closeEntry()
+      }
+
+      // needs to match AgentClassIndex
+      out.putNextEntry(ZipEntry("inst/META-INF/class-index"))
+      val index = DataOutputStream(out)
+      index.writeInt(1)
+      index.writeInt(localHeaderOffsets.size)
+      for ((name, offset) in localHeaderOffsets) {
+        index.writeUTF(name)
+        index.writeInt(offset)
+      }
+      index.flush()
+      out.closeEntry()
+    }
+  }
+  Files.move(indexedJar.toPath(), agentJar.toPath(), StandardCopyOption.REPLACE_EXISTING)
+}
+
+class CountingOutputStream(delegate: OutputStream) : FilterOutputStream(delegate) {
+  var count = 0L
+
+  override fun write(b: Int) {
+    out.write(b)
+    count++
+  }
+
+  override fun write(b: ByteArray, off: Int, len: Int) {
+    out.write(b, off, len)
+    count += len
+  }
+}
+
 // exclude bootstrap projects from javaagent libs - they won't be added to inst/
 fun ShadowJar.excludeBootstrapClasses() {
   dependencies {
@@ -30,6 +30,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.function.Supplier;
 import javax.annotation.Nullable;
 import net.bytebuddy.agent.builder.AgentBuilder.Transformer;
@@ -77,15 +78,14 @@ public class HelperInjector implements Transformer {
         }
       };
 
-  private static final HelperClassInjector BOOT_CLASS_INJECTOR =
-      new HelperClassInjector(null) {
-        @Override
-        Class<?> inject(ClassLoader classLoader, String className) {
-          throw new UnsupportedOperationException("should not be called");
-        }
-      };
+  // names of the helper classes of all modules that were injected into any class loader, lets
+  // isInjectedClass() reject the classes that aren't helpers without a class loader lookup
+  private static final Set<String> allHelperClassNames = ConcurrentHashMap.newKeySet();
 
-  private static final Cache<ClassLoader, Map<String, HelperClassInjector>> helperInjectors =
+  // the helper class injectors of the modules that were injected into a class loader, in injection
+  // order; the maps are shared by all class loaders, so that injecting a module only costs a list
+  // entry per loader
+  private static final Cache<ClassLoader, List<Map<String, HelperClassInjector>>> helperInjectors =
       Cache.weak();
 
   private final String requestingName;
@@ -95,6 +95,8 @@ public class HelperInjector implements Transformer {
   @Nullable private final ClassLoader helpersSource;
   @Nullable private final Instrumentation instrumentation;
   private final Map<String, Supplier<byte[]>> dynamicTypeMap = new LinkedHashMap<>();
+  // created when the helpers are first injected into a class loader
+  @Nullable private volatile Map<String, HelperClassInjector> helperClassInjectors;
 
   private final Cache<ClassLoader, Boolean> injectedClassLoaders = Cache.weak();
   private final Cache<ClassLoader, Boolean> resourcesInjectedClassLoaders = Cache.weak();
@@ -265,23 +267,16 @@ public class HelperInjector implements Transformer {
                   new Object[] {cl, helperClassNames});
             }
 
-            Map<String, Supplier<byte[]>> classnameToBytes = getHelperMap();
-            Map<String, HelperClassInjector> map =
-                helperInjectors.computeIfAbsent(cl, (unused) -> new ConcurrentHashMap<>());
-            for (Map.Entry<String, Supplier<byte[]>> entry : classnameToBytes.entrySet()) {
-              // for boot loader we use a placeholder injector, we only need these classes to be
-              // in the injected classes map to later tell which of the classes are injected
-              HelperClassInjector injector =
-                  isBootClassLoader(cl)
-                      ? BOOT_CLASS_INJECTOR
-                      : new HelperClassInjector(entry.getValue());
-              map.put(entry.getKey(), injector);
-            }
+            // for boot loader the injectors are only used to later tell which of the classes are
+            // injected
+            helperInjectors
+                .computeIfAbsent(cl, (unused) -> new CopyOnWriteArrayList<>())
+                .add(getHelperClassInjectors());
 
             // For boot loader we define the classes immediately. For other loaders we load them
-            // from the loadClass method of the class loader.
+            // from the loadClass method of the class loader, the first time they are referenced.
             if (isBootClassLoader(cl)) {
-              injectBootstrapClassLoader(classnameToBytes);
+              injectBootstrapClassLoader(getHelperMap());
             }
           } catch (Exception e) {
             if (logger.isLoggable(SEVERE)) {
@@ -297,6 +292,24 @@ public class HelperInjector implements Transformer {
         });
   }
 
+  private Map<String, HelperClassInjector> getHelperClassInjectors() {
+    Map<String, HelperClassInjector> injectors = helperClassInjectors;
+    if (injectors == null) {
+      synchronized (this) {
+        injectors = helperClassInjectors;
+        if (injectors == null) {
+          injectors = new HashMap<>();
+          for (Map.Entry<String, Supplier<byte[]>> entry : getHelperMap().entrySet()) {
+            injectors.put(entry.getKey(), new HelperClassInjector(entry.getValue()));
+          }
+          allHelperClassNames.addAll(injectors.keySet());
+          helperClassInjectors = injectors;
+        }
+      }
+    }
+    return injectors;
+  }
+
   private static Map<String, byte[]> resolve(Map<String, Supplier<byte[]>> classes) {
     Map<String, byte[]> result = new LinkedHashMap<>();
     for (Map.Entry<String, Supplier<byte[]>> entry : classes.entrySet()) {
@@ -360,29 +373,42 @@ public class HelperInjector implements Transformer {
   }
 
   public static boolean isInjectedClass(ClassLoader classLoader, String className) {
-    Map<String, HelperClassInjector> injectorMap =
-        helperInjectors.get(maskNullClassLoader(classLoader));
-    if (injectorMap == null) {
-      return false;
-    }
-    return injectorMap.containsKey(className);
+    return findHelperClassInjector(maskNullClassLoader(classLoader), className) != null;
   }
 
   public static Class<?> loadHelperClass(ClassLoader classLoader, String className) {
     if (classLoader == null) {
       throw new IllegalStateException("boot loader not supported");
     }
-    Map<String, HelperClassInjector> injectorMap = helperInjectors.get(classLoader);
-    if (injectorMap == null) {
-      return null;
-    }
-    HelperClassInjector helperClassInjector = injectorMap.get(className);
+    HelperClassInjector helperClassInjector = findHelperClassInjector(classLoader, className);
     if (helperClassInjector == null) {
       return null;
     }
     return helperClassInjector.inject(classLoader, className);
   }
 
+  @Nullable
+  private static HelperClassInjector findHelperClassInjector(
+      ClassLoader classLoader, String className) {
+    if (!allHelperClassNames.contains(className)) {
+      return null;
+    }
+    List<Map<String, HelperClassInjector>> injectorMaps = helperInjectors.get(classLoader);
+    if (injectorMaps == null) {
+      return null;
+    }
+    // when several modules inject a helper with the same name, the module that was injected last
+    // wins, as it did when all modules shared a single map per class loader; the list only grows,
+    // so every index below its size stays valid
+    for (int i = injectorMaps.size() - 1; i >= 0; i--) {
+      HelperClassInjector helperClassInjector = injectorMaps.get(i).get(className);
+      if (helperClassInjector != null) {
+        return helperClassInjector;
+      }
+    }
+    return null;
+  }
+
   private static class HelperClassInjector {
     private final Supplier<byte[]> bytes;
 
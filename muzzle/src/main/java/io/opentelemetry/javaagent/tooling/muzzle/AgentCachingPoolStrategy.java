@@ -72,10 +72,11 @@ public class AgentCachingPoolStrategy implements AgentBuilder.PoolStrategy {
   final Cache<ClassLoader, WeakReference<ClassLoader>> loaderRefCache = Cache.weak();
 
   /**
-   * Single shared Type.Resolution cache -- uses a composite key -- conceptually of loader & name
+   * Single shared Type.Resolution cache -- uses a composite key -- conceptually of loader & name.
+   * It is read by every thread that loads classes, so it uses the cache whose reads don't contend.
    */
   final Cache<TypeCacheKey, TypePool.Resolution> sharedResolutionCache =
-      Cache.bounded(TYPE_CAPACITY);
+      Cache.boundedTinyLfu(TYPE_CAPACITY);
 
   // fast path for bootstrap
   final SharedResolutionCacheAdapter bootstrapCacheProvider =
@@ -5,34 +5,62 @@
 
 package io.opentelemetry.javaagent.tooling.muzzle;
 
+import static io.opentelemetry.instrumentation.api.internal.SupportabilityMetrics.CounterNames.MUZZLE_FINGERPRINT_CACHE_HIT;
+import static io.opentelemetry.instrumentation.api.internal.SupportabilityMetrics.CounterNames.MUZZLE_FINGERPRINT_CACHE_MISS;
+import static java.nio.charset.StandardCharsets.UTF_8;
 import static java.util.Collections.emptyList;
 import static java.util.Collections.singletonList;
 
+import io.opentelemetry.instrumentation.api.internal.SupportabilityMetrics;
+import io.opentelemetry.instrumentation.api.internal.cache.Cache;
 import io.opentelemetry.javaagent.extension.instrumentation.InstrumentationModule;
 import io.opentelemetry.javaagent.tooling.muzzle.references.ClassRef;
 import io.opentelemetry.javaagent.tooling.muzzle.references.FieldRef;
 import io.opentelemetry.javaagent.tooling.muzzle.references.Flag;
 import io.opentelemetry.javaagent.tooling.muzzle.references.MethodRef;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Base64;
 import java.util.Collections;
+import java.util.Deque;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
+import javax.annotation.Nullable;
 import net.bytebuddy.description.field.FieldDescription;
 import net.bytebuddy.description.method.MethodDescription;
 import net.bytebuddy.description.type.TypeDescription;
+import net.bytebuddy.dynamic.ClassFileLocator;
 import net.bytebuddy.pool.TypePool;
+import org.objectweb.asm.ClassReader;
 import org.objectweb.asm.Type;
 
 /** Matches a set of references against a class loader. */
 public final class ReferenceMatcher {
 
+  private static final SupportabilityMetrics supportability = SupportabilityMetrics.instance();
+
+  // only delegates to the bootstrap class loader
+  private static final ClassLoader BOOTSTRAP_RESOURCES = new ClassLoader(null) {};
+  private static final Cache<String, Boolean> bootstrapClasses = Cache.bounded(4096);
+
   private final Map<String, ClassRef> references;
   private final Set<String> helperClassNames;
   private final HelperClassPredicate helperClassPredicate;
+  // names of the referenced classes that are expected to be loaded from the checked class loader,
+  // in a stable order
+  private final List<String> fingerprintedClassNames;
+  // results of previous checks, keyed by the fingerprint of the referenced class files and their
+  // supertypes; class loaders that see byte-identical classes (e.g. web applications packaging the
+  // same library jars) always get the same result
+  private final Cache<String, Boolean> matchesByFingerprint = Cache.bounded(64);
 
   public static ReferenceMatcher of(InstrumentationModule instrumentationModule) {
     return new ReferenceMatcher(
@@ -48,6 +76,11 @@ public final class ReferenceMatcher {
     this.references = references;
     this.helperClassNames = new HashSet<>(helperClassNames);
     this.helperClassPredicate = new HelperClassPredicate(libraryInstrumentationPredicate);
+    this.fingerprintedClassNames =
+        references.keySet().stream()
+            .filter(className -> !helperClassPredicate.isHelperClass(className))
+            .sorted()
+            .collect(Collectors.toList());
   }
 
   /**
@@ -59,6 +92,22 @@ public final class ReferenceMatcher {
    * @return true if all references match the classpath of loader
    */
   public boolean matches(ClassLoader loader) {
+    String fingerprint = fingerprint(loader);
+    if (fingerprint == null) {
+      return doesMatch(loader);
+    }
+    Boolean cached = matchesByFingerprint.get(fingerprint);
+    if (cached != null) {
+      supportability.incrementCounter(MUZZLE_FINGERPRINT_CACHE_HIT);
+      return cached;
+    }
+    supportability.incrementCounter(MUZZLE_FINGERPRINT_CACHE_MISS);
+    boolean matches = doesMatch(loader);
+    matchesByFingerprint.put(fingerprint, matches);
+    return matches;
+  }
+
+  private boolean doesMatch(ClassLoader loader) {
     TypePool typePool = createTypePool(loader);
     for (ClassRef reference : references.values()) {
       if (!checkMatch(reference, typePool, loader).isEmpty()) {
@@ -87,6 +136,77 @@ public final class ReferenceMatcher {
     return mismatches;
   }
 
+  /**
+   * Returns a digest of the class files of all referenced non-helper classes and their supertypes,
+   * as seen by the passed class loader, or {@code null} if any of them could not be read. Classes
+   * from the bootstrap class loader are the same for every class loader and are left out.
+   */
+  // visible for testing
+  @Nullable
+  String fingerprint(ClassLoader loader) {
+    MessageDigest digest;
+    try {
+      digest = MessageDigest.getInstance("SHA-256");
+    } catch (NoSuchAlgorithmException e) {
+      return null;
+    }
+    ClassFileLocator classFileLocator = AgentTooling.locationStrategy().classFileLocator(loader);
+    ByteBuffer length = ByteBuffer.allocate(Integer.BYTES);
+    // the order in which the supertypes are visited only depends on the class files
+    Set<String> visited = new HashSet<>(fingerprintedClassNames);
+    Deque<String> queue = new ArrayDeque<>(fingerprintedClassNames);
+    while (!queue.isEmpty()) {
+      String className = queue.poll();
+      if (isBootstrapClass(className)) {
+        continue;
+      }
+      byte[] bytes;
+      try {
+        ClassFileLocator.Resolution resolution = classFileLocator.locate(className);
+        bytes = resolution.isResolved() ? resolution.resolve() : null;
+      } catch (IOException | RuntimeException e) {
+        return null;
+      }
+      digest.update(className.getBytes(UTF_8));
+      // distinguishes a missing class from an empty class file
+      length.clear();
+      length.putInt(bytes == null ? -1 : bytes.length);
+      digest.update(length.array());
+      if (bytes == null) {
+        continue;
+      }
+      digest.update(bytes);
+      // fields and methods are also looked up in the supertypes, which may come from other jars
+      ClassReader classReader;
+      try {
+        classReader = new ClassReader(bytes);
+      } catch (RuntimeException e) {
+        return null;
+      }
+      String superName = classReader.getSuperName();
+      if (superName != null) {
+        addSuperType(superName, visited, queue);
+      }
+      for (String interfaceName : classReader.getInterfaces()) {
+        addSuperType(interfaceName, visited, queue);
+      }
+    }
+    return Base64.getEncoder().encodeToString(digest.digest());
+  }
+
+  private void addSuperType(String internalName, Set<String> visited, Deque<String> queue) {
+    String className = internalName.replace('/', '.');
+    if (!helperClassPredicate.isHelperClass(className) && visited.add(className)) {
+      queue.add(className);
+    }
+  }
+
+  private static boolean isBootstrapClass(String className) {
+    return bootstrapClasses.computeIfAbsent(
+        className,
+        name -> BOOTSTRAP_RESOURCES.getResource(name.replace('.', '/') + ".class") != null);
+  }
+
   // loader cannot be null, must pass "bootstrap proxy" instead of bootstrap class loader
   private static TypePool createTypePool(ClassLoader loader) {
     // ok to use locationStrategy() without fallback bootstrap proxy here since loader is non-null
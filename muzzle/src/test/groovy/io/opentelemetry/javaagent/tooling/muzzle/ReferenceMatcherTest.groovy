@@ -100,6 +100,50 @@ class ReferenceMatcherTest extends Specification {
     cl.count == countAfterFirstMatch
   }
 
+  def "class loaders with identical referenced classes have the same fingerprint"() {
+    setup:
+    def collector = new ReferenceCollector({ false })
+    collector.collectReferencesFromAdvice(TestClasses.MethodBodyAdvice.name)
+    def refMatcher = createMatcher(collector.getReferences())
+    def otherSafeClasspath = new URLClassLoader([ClasspathUtils.createJarWithClasses(Nested.A,
+      Nested.B,
+      Nested.SomeInterface,
+      Nested.SomeImplementation)] as URL[],
+      (ClassLoader) null)
+
+    expect:
+    refMatcher.fingerprint(safeClasspath) == refMatcher.fingerprint(otherSafeClasspath)
+    refMatcher.fingerprint(safeClasspath) != refMatcher.fingerprint(unsafeClasspath)
+    refMatcher.matches(safeClasspath)
+    refMatcher.matches(otherSafeClasspath)
+    !refMatcher.matches(unsafeClasspath)
+  }
+
+  def "fingerprint includes the supertypes of referenced classes"() {
+    setup:
+    def ref = ClassRef.builder(Nested.B2.name).build()
+    def refMatcher = createMatcher([(ref.className): ref])
+    def withSuperClass = new URLClassLoader([ClasspathUtils.createJarWithClasses(Nested.B,
+      Nested.B2)] as URL[],
+      (ClassLoader) null)
+    def withoutSuperClass = new URLClassLoader([ClasspathUtils.createJarWithClasses(Nested.B2)] as URL[],
+      (ClassLoader) null)
+
+    expect:
+    refMatcher.fingerprint(withSuperClass) != null
+    refMatcher.fingerprint(withSuperClass) != refMatcher.fingerprint(withoutSuperClass)
+  }
+
+  def "fingerprint leaves out bootstrap classes"() {
+    setup:
+    def ref = ClassRef.builder(String.name).build()
+    def refMatcher = createMatcher([(ref.className): ref])
+
+    expect:
+    refMatcher.fingerprint(safeClasspath) == refMatcher.fingerprint(unsafeClasspath)
+    refMatcher.fingerprint(safeClasspath) == createMatcher([:]).fingerprint(safeClasspath)
+  }
+
   def "matching ref #referenceName #referenceFlag against #classToCheck produces #expectedMismatches"() {
     setup:
     def ref = ClassRef.builder(referenceName)